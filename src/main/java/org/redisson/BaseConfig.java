@@ -91,9 +91,37 @@ class BaseConfig<T extends BaseConfig<T>> {
      */
     private String clientName;
 
+    /**
+     * Commands amount which could be sent to Redis connection without awaiting response
+     */
+    private int pipelineLimit = 1;
+
+    /**
+     * Flushes amount consolidated into single socket write. 0 means disabled
+     */
+    private int flushConsolidationLimit = 0;
+
+    /**
+     * Max amount of connection requests waiting for free connection per Redis node
+     */
+    private int connectionWaitQueueSize = 1000;
+
+    /**
+     * Max time in milliseconds to wait for free connection
+     */
+    private int connectionAcquireTimeout = 3000;
+
     BaseConfig() {
     }
 
+    /**
+     * Returns this config typed as concrete config class, so setters could be chained
+     */
+    @SuppressWarnings("unchecked")
+    private T self() {
+        return (T) this;
+    }
+
     BaseConfig(T config) {
         setPassword(config.getPassword());
         setSubscriptionsPerConnection(config.getSubscriptionsPerConnection());
@@ -107,6 +135,10 @@ class BaseConfig<T extends BaseConfig<T>> {
         setIdleConnectionTimeout(config.getIdleConnectionTimeout());
         setFailedAttempts(config.getFailedAttempts());
         setReconnectionTimeout(config.getReconnectionTimeout());
+        setPipelineLimit(config.getPipelineLimit());
+        setFlushConsolidationLimit(config.getFlushConsolidationLimit());
+        setConnectionWaitQueueSize(config.getConnectionWaitQueueSize());
+        setConnectionAcquireTimeout(config.getConnectionAcquireTimeout());
     }
 
     /**
@@ -117,7 +149,7 @@ class BaseConfig<T extends BaseConfig<T>> {
      */
     public T setSubscriptionsPerConnection(int subscriptionsPerConnection) {
         this.subscriptionsPerConnection = subscriptionsPerConnection;
-        return (T) this;
+        return self();
     }
     public int getSubscriptionsPerConnection() {
         return subscriptionsPerConnection;
@@ -131,7 +163,7 @@ class BaseConfig<T extends BaseConfig<T>> {
      */
     public T setPassword(String password) {
         this.password = password;
-        return (T) this;
+        return self();
     }
     public String getPassword() {
         return password;
@@ -146,7 +178,7 @@ class BaseConfig<T extends BaseConfig<T>> {
      */
     public T setRetryAttempts(int retryAttempts) {
         this.retryAttempts = retryAttempts;
-        return (T) this;
+        return self();
     }
     public int getRetryAttempts() {
         return retryAttempts;
@@ -160,7 +192,7 @@ class BaseConfig<T extends BaseConfig<T>> {
      */
     public T setRetryInterval(int retryInterval) {
         this.retryInterval = retryInterval;
-        return (T) this;
+        return self();
     }
     public int getRetryInterval() {
         return retryInterval;
@@ -174,7 +206,7 @@ class BaseConfig<T extends BaseConfig<T>> {
      */
     public T setDatabase(int database) {
         this.database = database;
-        return (T) this;
+        return self();
     }
     public int getDatabase() {
         return database;
@@ -187,7 +219,7 @@ class BaseConfig<T extends BaseConfig<T>> {
      */
     public T setTimeout(int timeout) {
         this.timeout = timeout;
-        return (T) this;
+        return self();
     }
     public int getTimeout() {
         return timeout;
@@ -201,7 +233,7 @@ class BaseConfig<T extends BaseConfig<T>> {
      */
     public T setClientName(String clientName) {
         this.clientName = clientName;
-        return (T) this;
+        return self();
     }
     public String getClientName() {
         return clientName;
@@ -215,7 +247,7 @@ class BaseConfig<T extends BaseConfig<T>> {
      */
     public T setPingTimeout(int pingTimeout) {
         this.pingTimeout = pingTimeout;
-        return (T) this;
+        return self();
     }
     public int getPingTimeout() {
         return pingTimeout;
@@ -229,7 +261,7 @@ class BaseConfig<T extends BaseConfig<T>> {
      */
     public T setConnectTimeout(int connectTimeout) {
         this.connectTimeout = connectTimeout;
-        return (T) this;
+        return self();
     }
     public int getConnectTimeout() {
         return connectTimeout;
@@ -245,7 +277,7 @@ class BaseConfig<T extends BaseConfig<T>> {
      */
     public T setIdleConnectionTimeout(int idleConnectionTimeout) {
         this.idleConnectionTimeout = idleConnectionTimeout;
-        return (T) this;
+        return self();
     }
     public int getIdleConnectionTimeout() {
         return idleConnectionTimeout;
@@ -266,7 +298,7 @@ class BaseConfig<T extends BaseConfig<T>> {
 
     public T setReconnectionTimeout(int slaveRetryTimeout) {
         this.reconnectionTimeout = slaveRetryTimeout;
-        return (T)this;
+        return self();
     }
     public int getReconnectionTimeout() {
         return reconnectionTimeout;
@@ -282,10 +314,83 @@ class BaseConfig<T extends BaseConfig<T>> {
      */
     public T setFailedAttempts(int slaveFailedAttempts) {
         this.failedAttempts = slaveFailedAttempts;
-        return (T)this;
+        return self();
     }
     public int getFailedAttempts() {
         return failedAttempts;
     }
 
+    /**
+     * Commands amount which could be sent to the same Redis connection
+     * without awaiting response. Responses are matched to commands in FIFO order.
+     * Pooled connection is returned to the pool right after command has been written,
+     * so it could be shared by concurrent commands.
+     * Blocking commands like <code>BLPOP</code> still hold the connection until response.
+     *
+     * Default is 1 (pipelining disabled)
+     *
+     * @param pipelineLimit
+     */
+    public T setPipelineLimit(int pipelineLimit) {
+        this.pipelineLimit = pipelineLimit;
+        return self();
+    }
+    public int getPipelineLimit() {
+        return pipelineLimit;
+    }
+
+    /**
+     * Consolidates flushes of commands written to the same Redis connection.
+     * Socket write is made after <code>flushConsolidationLimit</code> flushes
+     * or when connection's event loop has no more pending write tasks.
+     * Makes sense with <code>pipelineLimit</code> greater than 1.
+     *
+     * Default is 0 (consolidation disabled)
+     *
+     * @see #setPipelineLimit(int)
+     * @param flushConsolidationLimit
+     */
+    public T setFlushConsolidationLimit(int flushConsolidationLimit) {
+        this.flushConsolidationLimit = flushConsolidationLimit;
+        return self();
+    }
+    public int getFlushConsolidationLimit() {
+        return flushConsolidationLimit;
+    }
+
+    /**
+     * Max amount of connection requests per Redis node
+     * waiting in FIFO order for connection returned to the pool.
+     * Request fails immediately if pool is exhausted and wait queue is full.
+     * 0 disables waiting.
+     *
+     * Default is 1000
+     *
+     * @param connectionWaitQueueSize
+     */
+    public T setConnectionWaitQueueSize(int connectionWaitQueueSize) {
+        this.connectionWaitQueueSize = connectionWaitQueueSize;
+        return self();
+    }
+    public int getConnectionWaitQueueSize() {
+        return connectionWaitQueueSize;
+    }
+
+    /**
+     * Max time in milliseconds connection request waits
+     * in wait queue for connection returned to the pool.
+     *
+     * Default is 3000
+     *
+     * @see #setConnectionWaitQueueSize(int)
+     * @param connectionAcquireTimeout
+     */
+    public T setConnectionAcquireTimeout(int connectionAcquireTimeout) {
+        this.connectionAcquireTimeout = connectionAcquireTimeout;
+        return self();
+    }
+    public int getConnectionAcquireTimeout() {
+        return connectionAcquireTimeout;
+    }
+
 }
@@ -15,8 +15,11 @@
  */
 package org.redisson;
 
+import java.util.concurrent.Executor;
+
 import org.redisson.client.codec.Codec;
 import org.redisson.codec.JsonJacksonCodec;
+import org.redisson.command.CommandMetrics;
 import org.redisson.connection.ConnectionListener;
 
 /**
@@ -51,6 +54,14 @@ public class Config {
 
     private ConnectionListener connectionListener;
 
+    private boolean useScriptCache;
+
+    private CommandMetrics commandMetrics;
+
+    private int notificationChannels;
+
+    private Executor listenerExecutor;
+
     public Config() {
     }
 
@@ -63,6 +74,10 @@ public class Config {
         }
 
         setConnectionListener(oldConf.getConnectionListener());
+        setUseScriptCache(oldConf.isUseScriptCache());
+        setCommandMetrics(oldConf.getCommandMetrics());
+        setNotificationChannels(oldConf.getNotificationChannels());
+        setListenerExecutor(oldConf.getListenerExecutor());
         setThreads(oldConf.getThreads());
         setCodec(oldConf.getCodec());
         if (oldConf.getSingleServerConfig() != null) {
@@ -337,6 +352,84 @@ public class Config {
         return useLinuxNativeEpoll;
     }
 
+    /**
+     * Invoke Lua scripts by <code>EVALSHA</code> command instead of sending whole script body.
+     * Script absent in Redis script cache is sent by <code>EVAL</code> command,
+     * which also loads it to Redis script cache.
+     * Doesn't affect scripts executed in batch.
+     *
+     * Default is <code>false</code>
+     *
+     * @param useScriptCache
+     * @return
+     */
+    public Config setUseScriptCache(boolean useScriptCache) {
+        this.useScriptCache = useScriptCache;
+        return this;
+    }
+    public boolean isUseScriptCache() {
+        return useScriptCache;
+    }
+
+    /**
+     * Command execution metrics listener.
+     * Invoked on connection acquiring, command writing, response receiving, retry, redirect and timeout.
+     * {@link org.redisson.command.HistogramCommandMetrics} could be used as default implementation.
+     *
+     * Default is <code>null</code> and metrics aren't collected
+     *
+     * @param commandMetrics
+     * @return
+     */
+    public Config setCommandMetrics(CommandMetrics commandMetrics) {
+        this.commandMetrics = commandMetrics;
+        return this;
+    }
+    public CommandMetrics getCommandMetrics() {
+        return commandMetrics;
+    }
+
+    /**
+     * Amount of pub/sub channels shared by all locks, semaphores and count down latches
+     * to deliver unlock notifications. Object is mapped to channel by hash of its name,
+     * so subscription connections aren't exhausted by large amount of contended objects.
+     * Should be the same for all Redisson instances working with the same objects.
+     *
+     * Default is <code>0</code> and each object uses own channel
+     *
+     * @param notificationChannels
+     * @return
+     */
+    public Config setNotificationChannels(int notificationChannels) {
+        this.notificationChannels = notificationChannels;
+        return this;
+    }
+    public int getNotificationChannels() {
+        return notificationChannels;
+    }
+
+    /**
+     * Executor used to invoke {@link org.redisson.core.RTopic} and {@link org.redisson.core.RPatternTopic}
+     * message listeners, so slow listener doesn't stall other traffic of pub/sub connection.
+     * Use {@link java.util.concurrent.ThreadPoolExecutor} with bounded queue to limit pending messages,
+     * its rejection policy defines overload behaviour:
+     * {@link java.util.concurrent.ThreadPoolExecutor.DiscardPolicy} drops messages,
+     * {@link java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy} slows down reading of connection.
+     * Messages are delivered in order only by single threaded executor.
+     *
+     * Default is <code>null</code> and listeners are invoked by netty thread
+     *
+     * @param listenerExecutor
+     * @return
+     */
+    public Config setListenerExecutor(Executor listenerExecutor) {
+        this.listenerExecutor = listenerExecutor;
+        return this;
+    }
+    public Executor getListenerExecutor() {
+        return listenerExecutor;
+    }
+
     public ConnectionListener getConnectionListener() {
         return connectionListener;
     }
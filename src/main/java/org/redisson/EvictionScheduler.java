@@ -15,15 +15,20 @@
  */
 package org.redisson;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Deque;
-import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.redisson.client.codec.LongCodec;
 import org.redisson.client.protocol.RedisCommands;
 import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.core.EvictionStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,91 +37,147 @@ import io.netty.util.concurrent.FutureListener;
 import io.netty.util.internal.PlatformDependent;
 
 /**
- * Eviction scheduler for RMapCache object.
- * Deletes expired entries in time interval between 5 seconds to 2 hours.
- * It analyzes deleted amount of expired keys
- * and 'tune' next execution delay depending on it.
+ * Eviction scheduler for RMapCache and RSetCache objects.
+ *
+ * All cache objects of Redisson instance share single timer
+ * which runs due clean tasks once per second. Each clean task
+ * holds a lease in Redis so only one Redisson instance cleans
+ * a given cache at a time. Batch size and execution delay
+ * (between 1 second and 2 hours) are tuned after each run
+ * depending on observed amount of expired entries.
  *
  * @author Nikita Koksharov
  *
  */
 public class EvictionScheduler {
 
-    private static final Logger log = LoggerFactory.getLogger(RedissonSetCache.class);
+    private static final Logger log = LoggerFactory.getLogger(EvictionScheduler.class);
+
+    private static final int TICK_INTERVAL = 1000;
+    private static final int MAX_RUNNING_TASKS = 64;
+
+    private static final long MIN_DELAY = 1000;
+    private static final long MAX_DELAY = 2*60*60*1000;
+    private static final long INITIAL_DELAY = 10*1000;
+    private static final long MAX_LEASE_TIME = 10*60*1000;
+
+    private static final int MIN_KEYS_LIMIT = 100;
+    private static final int MAX_KEYS_LIMIT = 5000;
 
-    public class RedissonCacheTask implements Runnable {
+    class RedissonCacheTask implements Comparable<RedissonCacheTask> {
 
         final String name;
         final String timeoutSetName;
-        final Deque<Integer> sizeHistory = new LinkedList<Integer>();
-        int delay = 10;
 
-        int minDelay = 5;
-        int maxDelay = 2*60*60;
-        int keysLimit = 500;
+        // guarded by queue
+        long nextRunTime;
+        boolean queued;
 
-        public RedissonCacheTask(String name, String timeoutSetName) {
+        long delay = INITIAL_DELAY;
+        int keysLimit = MIN_KEYS_LIMIT;
+
+        volatile boolean owner;
+        volatile long totalExpired;
+        volatile double expiredPerSecond;
+        volatile long lag;
+        volatile long backlog;
+        volatile long lastRunTime;
+
+        RedissonCacheTask(String name, String timeoutSetName) {
             this.name = name;
             this.timeoutSetName = timeoutSetName;
         }
 
-        public void schedule() {
-            executor.getConnectionManager().getGroup().schedule(this, delay, TimeUnit.SECONDS);
+        String getLeaseName() {
+            return "redisson__eviction__lease__{" + name + "}";
         }
 
-        @Override
-        public void run() {
-            Future<Integer> future = cleanupExpiredEntires(name, timeoutSetName, keysLimit);
-
-            future.addListener(new FutureListener<Integer>() {
+        void run() {
+            final long startTime = System.currentTimeMillis();
+            long leaseTime = Math.min(MAX_LEASE_TIME, Math.max(delay*3, 30*1000));
+            Future<List<Object>> future = cleanupExpiredEntries(this, startTime, leaseTime);
+            future.addListener(new FutureListener<List<Object>>() {
                 @Override
-                public void operationComplete(Future<Integer> future) throws Exception {
+                public void operationComplete(Future<List<Object>> future) throws Exception {
+                    runningTasks.decrementAndGet();
                     if (!future.isSuccess()) {
-                        schedule();
+                        log.warn("Can't execute clean task for expired values. Cache name: " + name, future.cause());
+                        schedule(RedissonCacheTask.this, delay);
                         return;
                     }
 
-                    Integer size = future.getNow();
-
-                    if (sizeHistory.size() == 2) {
-                        if (sizeHistory.peekFirst() > sizeHistory.peekLast()
-                                && sizeHistory.peekLast() > size) {
-                            delay = Math.min(maxDelay, (int)(delay*1.5));
-                        }
-
-//                        if (sizeHistory.peekFirst() < sizeHistory.peekLast()
-//                                && sizeHistory.peekLast() < size) {
-//                            prevDelay = Math.max(minDelay, prevDelay/2);
-//                        }
-
-                        if (sizeHistory.peekFirst() == sizeHistory.peekLast()
-                                && sizeHistory.peekLast() == size) {
-                            if (size == keysLimit) {
-                                delay = Math.max(minDelay, delay/4);
-                            }
-                            if (size == 0) {
-                                delay = Math.min(maxDelay, (int)(delay*1.5));
-                            }
-                        }
-
-                        sizeHistory.pollFirst();
+                    List<Object> res = future.getNow();
+                    long removed = (Long) res.get(0);
+                    if (removed == -1) {
+                        owner = false;
+                        // check again once lease of other instance is expired
+                        long leaseTimeLeft = (Long) res.get(1);
+                        schedule(RedissonCacheTask.this, Math.max(MIN_DELAY, leaseTimeLeft));
+                        return;
                     }
 
-                    sizeHistory.add(size);
-                    schedule();
+                    owner = true;
+                    update(startTime, removed, (Long) res.get(1), (Long) res.get(2));
+                    schedule(RedissonCacheTask.this, delay);
                 }
             });
         }
 
+        private void update(long startTime, long removed, long backlog, long lag) {
+            if (lastRunTime > 0) {
+                double rate = removed * 1000.0 / Math.max(1, startTime - lastRunTime);
+                expiredPerSecond = (expiredPerSecond + rate) / 2;
+            }
+            lastRunTime = startTime;
+            totalExpired += removed;
+            this.backlog = backlog;
+            this.lag = lag;
+
+            if (backlog > 0) {
+                // can't keep up with expiration, increase batch and run as soon as possible
+                keysLimit = Math.min(MAX_KEYS_LIMIT, keysLimit*2);
+                delay = MIN_DELAY;
+                return;
+            }
+
+            if (removed < keysLimit/4) {
+                keysLimit = Math.max(MIN_KEYS_LIMIT, keysLimit/2);
+            }
+
+            if (removed == 0) {
+                delay = Math.min(MAX_DELAY, (long)(delay*1.5));
+                return;
+            }
+
+            // choose delay to remove about half of batch per run
+            long expectedDelay = (long) (keysLimit * 500 / Math.max(expiredPerSecond, 0.001));
+            delay = Math.max(MIN_DELAY, Math.min(MAX_DELAY, expectedDelay));
+        }
+
+        EvictionStats getStats() {
+            return new EvictionStats(name, owner, totalExpired, expiredPerSecond, lag, backlog, keysLimit, delay, lastRunTime);
+        }
+
+        @Override
+        public int compareTo(RedissonCacheTask o) {
+            if (nextRunTime < o.nextRunTime) {
+                return -1;
+            }
+            if (nextRunTime > o.nextRunTime) {
+                return 1;
+            }
+            return 0;
+        }
+
     }
 
     private final ConcurrentMap<String, RedissonCacheTask> tasks = PlatformDependent.newConcurrentHashMap();
+    private final PriorityQueue<RedissonCacheTask> queue = new PriorityQueue<RedissonCacheTask>();
+    private final AtomicInteger runningTasks = new AtomicInteger();
+    private final AtomicBoolean timerStarted = new AtomicBoolean();
+    private final String id = UUID.randomUUID().toString();
     private final CommandAsyncExecutor executor;
 
-    private final ConcurrentMap<String, Long> lastExpiredTime = PlatformDependent.newConcurrentHashMap();
-    private final int expireTaskExecutionDelay = 1000;
-    private final int valuesAmountToClean = 100;
-
     public EvictionScheduler(CommandAsyncExecutor executor) {
         this.executor = executor;
     }
@@ -125,56 +186,114 @@ public class EvictionScheduler {
         RedissonCacheTask task = new RedissonCacheTask(name, timeoutSetName);
         RedissonCacheTask prevTask = tasks.putIfAbsent(name, task);
         if (prevTask == null) {
-            task.schedule();
+            startTimer();
+            schedule(task, task.delay);
         }
     }
 
+    /**
+     * Returns eviction statistics of cache object
+     *
+     * @param name of cache object
+     * @return statistics or <code>null</code> if cache isn't scheduled
+     */
+    public EvictionStats getStats(String name) {
+        RedissonCacheTask task = tasks.get(name);
+        if (task == null) {
+            return null;
+        }
+        return task.getStats();
+    }
 
-    public void runCleanTask(final String name, String timeoutSetName, long currentDate) {
+    /**
+     * Requests clean of expired entries on next timer tick.
+     * Invoked once expired entry has been found during read operation.
+     */
+    public void runCleanTask(String name, String timeoutSetName, long currentDate) {
+        RedissonCacheTask task = tasks.get(name);
+        if (task == null) {
+            schedule(name, timeoutSetName);
+            task = tasks.get(name);
+        }
 
-        final Long lastExpired = lastExpiredTime.get(name);
         long now = System.currentTimeMillis();
-        if (lastExpired == null) {
-            if (lastExpiredTime.putIfAbsent(name, now) != null) {
-                return;
+        synchronized (queue) {
+            if (task.queued
+                    && task.nextRunTime > now + TICK_INTERVAL
+                        && task.lastRunTime + MIN_DELAY <= now) {
+                queue.remove(task);
+                task.nextRunTime = now;
+                queue.add(task);
             }
-        } else if (lastExpired + expireTaskExecutionDelay >= now) {
-            if (!lastExpiredTime.replace(name, lastExpired, now)) {
-                return;
-            }
-        } else {
-            return;
         }
+    }
 
-        Future<Integer> future = cleanupExpiredEntires(name, timeoutSetName, valuesAmountToClean);
+    private void startTimer() {
+        if (!timerStarted.compareAndSet(false, true)) {
+            return;
+        }
 
-        future.addListener(new FutureListener<Integer>() {
+        executor.getConnectionManager().getGroup().scheduleWithFixedDelay(new Runnable() {
             @Override
-            public void operationComplete(Future<Integer> future) throws Exception {
-                executor.getConnectionManager().getGroup().schedule(new Runnable() {
-                    @Override
-                    public void run() {
-                        lastExpiredTime.remove(name, lastExpired);
-                    }
-                }, expireTaskExecutionDelay*3, TimeUnit.SECONDS);
+            public void run() {
+                runDueTasks();
+            }
+        }, TICK_INTERVAL, TICK_INTERVAL, TimeUnit.MILLISECONDS);
+    }
 
-                if (!future.isSuccess()) {
-                    log.warn("Can't execute clean task for expired values. RSetCache name: " + name, future.cause());
-                    return;
+    private void schedule(RedissonCacheTask task, long delay) {
+        synchronized (queue) {
+            task.nextRunTime = System.currentTimeMillis() + delay;
+            task.queued = true;
+            queue.add(task);
+        }
+    }
+
+    private void runDueTasks() {
+        long now = System.currentTimeMillis();
+        List<RedissonCacheTask> dueTasks = new ArrayList<RedissonCacheTask>();
+        synchronized (queue) {
+            while (runningTasks.get() + dueTasks.size() < MAX_RUNNING_TASKS) {
+                RedissonCacheTask task = queue.peek();
+                if (task == null || task.nextRunTime > now) {
+                    break;
                 }
+                queue.poll();
+                task.queued = false;
+                dueTasks.add(task);
             }
-        });
+        }
+
+        for (RedissonCacheTask task : dueTasks) {
+            runningTasks.incrementAndGet();
+            task.run();
+        }
     }
 
-    private Future<Integer> cleanupExpiredEntires(String name, String timeoutSetName, int keysLimit) {
-        return executor.evalWriteAsync(name, LongCodec.INSTANCE, RedisCommands.EVAL_INTEGER,
-                "local expiredKeys = redis.call('zrangebyscore', KEYS[2], 0, ARGV[1], 'limit', 0, ARGV[2]); "
+    private Future<List<Object>> cleanupExpiredEntries(RedissonCacheTask task, long currentDate, long leaseTime) {
+        return executor.evalWriteAsync(task.name, LongCodec.INSTANCE, RedisCommands.EVAL_LIST,
+                "local owner = redis.call('get', KEYS[3]); "
+              + "if owner ~= false and owner ~= ARGV[3] then "
+                  + "return {-1, redis.call('pttl', KEYS[3]), 0}; "
+              + "end; "
+              + "redis.call('set', KEYS[3], ARGV[3], 'px', ARGV[4]); "
+              + "local lag = 0; "
+              + "local expireHead = redis.call('zrange', KEYS[2], 0, 0, 'withscores'); "
+              + "if #expireHead == 2 and tonumber(expireHead[2]) <= tonumber(ARGV[1]) then "
+                  + "lag = tonumber(ARGV[1]) - tonumber(expireHead[2]); "
+              + "end; "
+              + "local expiredKeys = redis.call('zrangebyscore', KEYS[2], 0, ARGV[1], 'limit', 0, ARGV[2]); "
               + "if #expiredKeys > 0 then "
                   + "redis.call('zrem', KEYS[2], unpack(expiredKeys)); "
                   + "redis.call('hdel', KEYS[1], unpack(expiredKeys)); "
               + "end; "
-              + "return #expiredKeys;",
-              Arrays.<Object>asList(name, timeoutSetName), System.currentTimeMillis(), keysLimit);
+              + "local backlog = 0; "
+              + "if #expiredKeys == tonumber(ARGV[2]) then "
+                  + "backlog = redis.call('zcount', KEYS[2], 0, ARGV[1]); "
+              + "end; "
+              + "return {#expiredKeys, backlog, lag};",
+              Arrays.<Object>asList(task.name, task.timeoutSetName, task.getLeaseName()),
+              currentDate, task.keysLimit, id, leaseTime);
     }
 
 }
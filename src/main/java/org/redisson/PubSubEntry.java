@@ -19,8 +19,18 @@ import io.netty.util.concurrent.Promise;
 
 public interface PubSubEntry<E> {
 
-    void aquire();
+    /**
+     * Increments usage counter of entry.
+     *
+     * @return <code>false</code> if entry has been already released by all users
+     */
+    boolean aquire();
 
+    /**
+     * Decrements usage counter of entry.
+     *
+     * @return usage counter
+     */
     int release();
 
     Promise<E> getPromise();
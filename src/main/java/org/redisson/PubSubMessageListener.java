@@ -15,6 +15,8 @@
  */
 package org.redisson;
 
+import java.util.concurrent.Executor;
+
 import org.redisson.client.RedisPubSubListener;
 import org.redisson.client.protocol.pubsub.PubSubType;
 import org.redisson.core.MessageListener;
@@ -30,15 +32,26 @@ public class PubSubMessageListener<V> implements RedisPubSubListener<V> {
 
     private final MessageListener<V> listener;
     private final String name;
+    private final Executor executor;
 
     public String getName() {
         return name;
     }
 
     public PubSubMessageListener(MessageListener<V> listener, String name) {
+        this(listener, name, null);
+    }
+
+    /**
+     * @param listener
+     * @param name
+     * @param executor - used to invoke listener, if <code>null</code> listener is invoked by netty thread
+     */
+    public PubSubMessageListener(MessageListener<V> listener, String name, Executor executor) {
         super();
         this.listener = listener;
         this.name = name;
+        this.executor = executor;
     }
 
     @Override
@@ -70,7 +83,7 @@ public class PubSubMessageListener<V> implements RedisPubSubListener<V> {
     public void onMessage(String channel, V message) {
         // could be subscribed to multiple channels
         if (name.equals(channel)) {
-            listener.onMessage(channel, message);
+            notify(channel, message);
         }
     }
 
@@ -78,8 +91,22 @@ public class PubSubMessageListener<V> implements RedisPubSubListener<V> {
     public void onPatternMessage(String pattern, String channel, V message) {
         // could be subscribed to multiple channels
         if (name.equals(pattern)) {
+            notify(channel, message);
+        }
+    }
+
+    private void notify(final String channel, final V message) {
+        if (executor == null) {
             listener.onMessage(channel, message);
+            return;
         }
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                listener.onMessage(channel, message);
+            }
+        });
     }
 
     @Override
@@ -15,6 +15,8 @@
  */
 package org.redisson;
 
+import java.util.concurrent.Executor;
+
 import org.redisson.client.RedisPubSubListener;
 import org.redisson.client.protocol.pubsub.PubSubType;
 import org.redisson.core.MessageListener;
@@ -31,15 +33,26 @@ public class PubSubPatternMessageListener<V> implements RedisPubSubListener<V> {
 
     private final PatternMessageListener<V> listener;
     private final String name;
+    private final Executor executor;
 
     public String getName() {
         return name;
     }
 
     public PubSubPatternMessageListener(PatternMessageListener<V> listener, String name) {
+        this(listener, name, null);
+    }
+
+    /**
+     * @param listener
+     * @param name
+     * @param executor - used to invoke listener, if <code>null</code> listener is invoked by netty thread
+     */
+    public PubSubPatternMessageListener(PatternMessageListener<V> listener, String name, Executor executor) {
         super();
         this.listener = listener;
         this.name = name;
+        this.executor = executor;
     }
 
     @Override
@@ -75,8 +88,22 @@ public class PubSubPatternMessageListener<V> implements RedisPubSubListener<V> {
     public void onPatternMessage(String pattern, String channel, V message) {
         // could be subscribed to multiple channels
         if (name.equals(pattern)) {
+            notify(pattern, channel, message);
+        }
+    }
+
+    private void notify(final String pattern, final String channel, final V message) {
+        if (executor == null) {
             listener.onMessage(pattern, channel, message);
+            return;
         }
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                listener.onMessage(pattern, channel, message);
+            }
+        });
     }
 
     @Override
@@ -21,6 +21,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
 
 import org.redisson.api.RedissonReactiveClient;
 import org.redisson.client.codec.Codec;
@@ -34,11 +35,14 @@ import org.redisson.connection.MasterSlaveConnectionManager;
 import org.redisson.connection.SentinelConnectionManager;
 import org.redisson.connection.SingleConnectionManager;
 import org.redisson.core.ClusterNode;
+import org.redisson.core.LocalCachedMapOptions;
+import org.redisson.core.LongAdderOptions;
 import org.redisson.core.Node;
 import org.redisson.core.NodesGroup;
 import org.redisson.core.RAtomicLong;
 import org.redisson.core.RBatch;
 import org.redisson.core.RBitSet;
+import org.redisson.core.RBloomFilter;
 import org.redisson.core.RBlockingDeque;
 import org.redisson.core.RBlockingQueue;
 import org.redisson.core.RBucket;
@@ -48,7 +52,9 @@ import org.redisson.core.RHyperLogLog;
 import org.redisson.core.RKeys;
 import org.redisson.core.RLexSortedSet;
 import org.redisson.core.RList;
+import org.redisson.core.RLocalCachedMap;
 import org.redisson.core.RLock;
+import org.redisson.core.RLongAdder;
 import org.redisson.core.RMap;
 import org.redisson.core.RMapCache;
 import org.redisson.core.RPatternTopic;
@@ -63,6 +69,7 @@ import org.redisson.core.RSortedSet;
 import org.redisson.core.RTopic;
 
 import io.netty.util.concurrent.Future;
+import io.netty.util.internal.PlatformDependent;
 
 /**
  * Main infrastructure class allows to get access
@@ -80,6 +87,9 @@ public class Redisson implements RedissonClient {
 
     private final UUID id = UUID.randomUUID();
 
+    private final ConcurrentMap<String, RedissonLongAdder> longAdders = PlatformDependent.newConcurrentHashMap();
+    private final ConcurrentMap<String, RedissonLocalCachedMap<?, ?>> localCachedMaps = PlatformDependent.newConcurrentHashMap();
+
     Redisson(Config config) {
         this.config = config;
         Config configCopy = new Config(config);
@@ -250,6 +260,39 @@ public class Redisson implements RedissonClient {
         return new RedissonMap<K, V>(codec, commandExecutor, name);
     }
 
+    @Override
+    public <K, V> RLocalCachedMap<K, V> getLocalCachedMap(String name, LocalCachedMapOptions options) {
+        return getLocalCachedMap(name, connectionManager.getCodec(), options);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> RLocalCachedMap<K, V> getLocalCachedMap(String name, Codec codec, LocalCachedMapOptions options) {
+        while (true) {
+            RedissonLocalCachedMap<?, ?> map = localCachedMaps.get(name);
+            if (map != null) {
+                if (map.acquire()) {
+                    try {
+                        map.checkSettings(codec, options);
+                    } catch (IllegalArgumentException e) {
+                        map.destroy();
+                        throw e;
+                    }
+                    return (RLocalCachedMap<K, V>) map;
+                }
+                // destroyed concurrently
+                localCachedMaps.remove(name, map);
+                continue;
+            }
+
+            map = new RedissonLocalCachedMap<K, V>(codec, commandExecutor, name, options, localCachedMaps);
+            if (localCachedMaps.putIfAbsent(name, map) == null) {
+                return (RLocalCachedMap<K, V>) map;
+            }
+            map.destroy();
+        }
+    }
+
     @Override
     public RLock getLock(String name) {
         return new RedissonLock(commandExecutor, name, id);
@@ -365,6 +408,38 @@ public class Redisson implements RedissonClient {
         return new RedissonAtomicLong(commandExecutor, name);
     }
 
+    @Override
+    public RLongAdder getLongAdder(String name) {
+        return getLongAdder(name, LongAdderOptions.defaults());
+    }
+
+    @Override
+    public RLongAdder getLongAdder(String name, LongAdderOptions options) {
+        while (true) {
+            RedissonLongAdder adder = longAdders.get(name);
+            if (adder != null) {
+                if (adder.acquire()) {
+                    try {
+                        adder.checkSettings(options);
+                    } catch (IllegalArgumentException e) {
+                        adder.destroy();
+                        throw e;
+                    }
+                    return adder;
+                }
+                // destroyed concurrently
+                longAdders.remove(name, adder);
+                continue;
+            }
+
+            adder = new RedissonLongAdder(commandExecutor, name, options, longAdders);
+            if (longAdders.putIfAbsent(name, adder) == null) {
+                return adder;
+            }
+            adder.destroy();
+        }
+    }
+
     @Override
     public RCountDownLatch getCountDownLatch(String name) {
         return new RedissonCountDownLatch(commandExecutor, name, id);
@@ -375,6 +450,16 @@ public class Redisson implements RedissonClient {
         return new RedissonBitSet(commandExecutor, name);
     }
 
+    @Override
+    public <V> RBloomFilter<V> getBloomFilter(String name) {
+        return new RedissonBloomFilter<V>(commandExecutor, name);
+    }
+
+    @Override
+    public <V> RBloomFilter<V> getBloomFilter(String name, Codec codec) {
+        return new RedissonBloomFilter<V>(codec, commandExecutor, name);
+    }
+
     @Override
     public RKeys getKeys() {
         return new RedissonKeys(commandExecutor);
@@ -387,6 +472,9 @@ public class Redisson implements RedissonClient {
 
     @Override
     public void shutdown() {
+        for (RedissonLongAdder adder : longAdders.values()) {
+            adder.flush();
+        }
         connectionManager.shutdown();
     }
 
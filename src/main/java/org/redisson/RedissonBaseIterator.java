@@ -0,0 +1,119 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+import java.net.InetSocketAddress;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.redisson.client.protocol.decoder.ScanResult;
+import org.redisson.command.CommandAsyncExecutor;
+
+import io.netty.util.concurrent.Future;
+
+/**
+ * Iterator over pages of SCAN family command.
+ * Next page is requested in background right after
+ * current page has been received, so network round trip
+ * overlaps with current page consumption.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <E> page element type
+ * @param <M> iterator element type
+ */
+abstract class RedissonBaseIterator<E, M> implements Iterator<M> {
+
+    private final CommandAsyncExecutor commandExecutor;
+    private final int count;
+
+    private Iterator<E> iter;
+    private Future<? extends ScanResult<E>> nextPage;
+    private InetSocketAddress client;
+    private boolean finished;
+
+    private boolean removeExecuted;
+    private E value;
+
+    RedissonBaseIterator(CommandAsyncExecutor commandExecutor, int count) {
+        this.commandExecutor = commandExecutor;
+        this.count = count;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (iter == null || !iter.hasNext()) {
+            if (finished) {
+                return false;
+            }
+
+            Future<? extends ScanResult<E>> future = nextPage;
+            if (future == null) {
+                future = scanIterator(client, 0, count);
+            }
+            ScanResult<E> res = commandExecutor.get(future);
+            client = res.getRedisClient();
+            iter = res.getValues().iterator();
+            if (res.getPos() == 0) {
+                finished = true;
+                nextPage = null;
+            } else {
+                nextPage = scanIterator(client, res.getPos(), count);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public M next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No such element");
+        }
+
+        value = iter.next();
+        removeExecuted = false;
+        return getValue(value);
+    }
+
+    abstract M getValue(E entry);
+
+    @Override
+    public void remove() {
+        if (removeExecuted) {
+            throw new IllegalStateException("Element been already deleted");
+        }
+        if (iter == null) {
+            throw new IllegalStateException();
+        }
+
+        iter.remove();
+        remove(value);
+        removeExecuted = true;
+    }
+
+    /**
+     * Requests page of elements asynchronously.
+     *
+     * @param client - node used for previous page or <code>null</code> for first page
+     * @param startPos - cursor
+     * @param count - page size hint
+     * @return
+     */
+    protected abstract Future<? extends ScanResult<E>> scanIterator(InetSocketAddress client, long startPos, int count);
+
+    protected abstract void remove(E value);
+
+}
@@ -22,12 +22,15 @@ import java.util.Collections;
 import java.util.List;
 
 import org.redisson.client.codec.ByteArrayCodec;
+import org.redisson.client.codec.LongCodec;
 import org.redisson.client.protocol.RedisCommands;
 import org.redisson.command.CommandAsyncExecutor;
 import org.redisson.command.CommandBatchService;
 import org.redisson.core.RBitSet;
 
 import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.Promise;
 
 public class RedissonBitSet extends RedissonExpirable implements RBitSet {
 
@@ -51,6 +54,67 @@ public class RedissonBitSet extends RedissonExpirable implements RBitSet {
         return commandExecutor.readAsync(getName(), codec, RedisCommands.GETBIT, getName(), bitIndex);
     }
 
+    public boolean[] get(int[] bitIndexes) {
+        return get(getAsync(bitIndexes));
+    }
+
+    @Override
+    public Future<boolean[]> getAsync(int[] bitIndexes) {
+        Future<List<Object>> f = commandExecutor.evalReadAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_LIST,
+                "local result = {};"
+              + "for i = 1, #ARGV, 1 do "
+                  + "result[i] = redis.call('getbit', KEYS[1], ARGV[i]);"
+              + "end;"
+              + "return result;",
+                Collections.<Object>singletonList(getName()), toParams(bitIndexes));
+        return toBooleans(f);
+    }
+
+    public boolean[] set(int[] bitIndexes) {
+        return get(setAsync(bitIndexes));
+    }
+
+    @Override
+    public Future<boolean[]> setAsync(int[] bitIndexes) {
+        Future<List<Object>> f = commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_LIST,
+                "local result = {};"
+              + "for i = 1, #ARGV, 1 do "
+                  + "result[i] = redis.call('setbit', KEYS[1], ARGV[i], 1);"
+              + "end;"
+              + "return result;",
+                Collections.<Object>singletonList(getName()), toParams(bitIndexes));
+        return toBooleans(f);
+    }
+
+    private Object[] toParams(int[] bitIndexes) {
+        Object[] params = new Object[bitIndexes.length];
+        for (int i = 0; i < bitIndexes.length; i++) {
+            params[i] = bitIndexes[i];
+        }
+        return params;
+    }
+
+    private Future<boolean[]> toBooleans(Future<List<Object>> future) {
+        final Promise<boolean[]> result = newPromise();
+        future.addListener(new FutureListener<List<Object>>() {
+            @Override
+            public void operationComplete(Future<List<Object>> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+
+                List<Object> values = future.getNow();
+                boolean[] bits = new boolean[values.size()];
+                for (int i = 0; i < bits.length; i++) {
+                    bits[i] = ((Long) values.get(i)) == 1;
+                }
+                result.setSuccess(bits);
+            }
+        });
+        return result;
+    }
+
     public void set(int bitIndex) {
         get(setAsync(bitIndex, true));
     }
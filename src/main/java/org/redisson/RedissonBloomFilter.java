@@ -0,0 +1,864 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.client.protocol.RedisStrictCommand;
+import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.command.CommandBatchService;
+import org.redisson.core.RBloomFilter;
+
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.Promise;
+import net.openhft.hashing.LongHashFunction;
+
+/**
+ * Bloom filter based on Redis bitmaps.
+ *
+ * <p>Object bit indexes are calculated locally with double hashing of its encoded state,
+ * then all bits of each object are set or checked by single Lua script invocation.
+ * Objects are grouped by segment key, so bulk operation sends one script
+ * per segment and all of them are pipelined in one batch.</p>
+ *
+ * <p>Filter params are stored in <code>{name}__config</code> hash
+ * and cached locally after first read. Each segment <code>name:i</code> has
+ * a copy of config version in <code>{name:i}__config</code> hash from the same slot,
+ * so scripts reject bit indexes calculated with outdated config.</p>
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <T> type of object
+ */
+public class RedissonBloomFilter<T> extends RedissonObject implements RBloomFilter<T> {
+
+    private static final long MAX_SEGMENT_SIZE = 1L << 32;
+
+    private static final Long CONFIG_CHANGED = -1L;
+
+    private static final String ADD_SCRIPT =
+              "if redis.call('hget', KEYS[2], 'version') ~= ARGV[1] then "
+                + "return -1;"
+            + "end;"
+            + "local k = tonumber(ARGV[2]);"
+            + "local added = 0;"
+            + "for i = 3, #ARGV, k do "
+                + "local changed = 0;"
+                + "for j = i, i + k - 1, 1 do "
+                    + "if redis.call('setbit', KEYS[1], ARGV[j], 1) == 0 then "
+                        + "changed = 1;"
+                    + "end;"
+                + "end;"
+                + "added = added + changed;"
+            + "end;"
+            + "return added;";
+
+    private static final String CONTAINS_SCRIPT =
+              "if redis.call('hget', KEYS[2], 'version') ~= ARGV[1] then "
+                + "return -1;"
+            + "end;"
+            + "local k = tonumber(ARGV[2]);"
+            + "local found = 0;"
+            + "for i = 3, #ARGV, k do "
+                + "local present = 1;"
+                + "for j = i, i + k - 1, 1 do "
+                    + "if redis.call('getbit', KEYS[1], ARGV[j]) == 0 then "
+                        + "present = 0;"
+                        + "break;"
+                    + "end;"
+                + "end;"
+                + "found = found + present;"
+            + "end;"
+            + "return found;";
+
+    private static class BloomFilterConfig {
+
+        final long expectedInsertions;
+        final double falseProbability;
+        final long size;
+        final int hashIterations;
+        final int segments;
+
+        BloomFilterConfig(long expectedInsertions, double falseProbability, long size, int hashIterations, int segments) {
+            this.expectedInsertions = expectedInsertions;
+            this.falseProbability = falseProbability;
+            this.size = size;
+            this.hashIterations = hashIterations;
+            this.segments = segments;
+        }
+
+        long getSegmentSize() {
+            return size / segments;
+        }
+
+        /**
+         * Filters with the same version calculate the same bit indexes
+         */
+        String getVersion() {
+            return size + ":" + hashIterations + ":" + segments;
+        }
+
+    }
+
+    private volatile BloomFilterConfig config;
+
+    protected RedissonBloomFilter(CommandAsyncExecutor commandExecutor, String name) {
+        super(commandExecutor, name);
+    }
+
+    protected RedissonBloomFilter(Codec codec, CommandAsyncExecutor commandExecutor, String name) {
+        super(codec, commandExecutor, name);
+    }
+
+    String getConfigName() {
+        return getConfigName(getName(), 0);
+    }
+
+    String getSegmentName(int segment) {
+        return getSegmentName(getName(), segment);
+    }
+
+    String getConfigName(int segment) {
+        return getConfigName(getName(), segment);
+    }
+
+    private static String getSegmentName(String name, int segment) {
+        if (segment == 0) {
+            return name;
+        }
+        return name + ":" + segment;
+    }
+
+    /**
+     * Config of segment <code>0</code> is the main config,
+     * others store only version.
+     */
+    private static String getConfigName(String name, int segment) {
+        return "{" + getSegmentName(name, segment) + "}__config";
+    }
+
+    private static long optimalNumOfBits(long n, double p) {
+        return (long) (-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+    }
+
+    private static int optimalNumOfHashFunctions(long n, long m) {
+        return Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+    }
+
+    @Override
+    public boolean tryInit(long expectedInsertions, double falseProbability) {
+        return get(tryInitAsync(expectedInsertions, falseProbability));
+    }
+
+    @Override
+    public Future<Boolean> tryInitAsync(long expectedInsertions, double falseProbability) {
+        return tryInitAsync(expectedInsertions, falseProbability, 1);
+    }
+
+    @Override
+    public boolean tryInit(long expectedInsertions, double falseProbability, int segments) {
+        return get(tryInitAsync(expectedInsertions, falseProbability, segments));
+    }
+
+    @Override
+    public Future<Boolean> tryInitAsync(long expectedInsertions, double falseProbability, int segments) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Bloom filter expectedInsertions should be positive");
+        }
+        if (falseProbability <= 0 || falseProbability >= 1) {
+            throw new IllegalArgumentException("Bloom filter falseProbability should be in range (0, 1)");
+        }
+        if (segments < 1) {
+            throw new IllegalArgumentException("Bloom filter segments amount should be positive");
+        }
+
+        long bits = optimalNumOfBits(expectedInsertions, falseProbability);
+        long segmentSize = Math.max(1, (bits + segments - 1) / segments);
+        if (segmentSize > MAX_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("Bloom filter segment size " + segmentSize
+                    + " exceeds " + MAX_SEGMENT_SIZE + " bits limit of Redis string. Use more segments");
+        }
+        long size = segmentSize * segments;
+        int hashIterations = optimalNumOfHashFunctions(expectedInsertions, size);
+        final BloomFilterConfig newConfig = new BloomFilterConfig(expectedInsertions, falseProbability, size, hashIterations, segments);
+
+        final Promise<Boolean> result = newPromise();
+        Future<Boolean> f = commandExecutor.evalWriteAsync(getConfigName(), StringCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
+                "if redis.call('exists', KEYS[1]) == 1 then "
+                    + "return 0;"
+                + "end;"
+                + "redis.call('hmset', KEYS[1], 'expectedInsertions', ARGV[1], 'falseProbability', ARGV[2], "
+                                      + "'size', ARGV[3], 'hashIterations', ARGV[4], 'segments', ARGV[5], 'version', ARGV[6]);"
+                + "return 1;",
+                Collections.<Object>singletonList(getConfigName()),
+                expectedInsertions, falseProbability, size, hashIterations, segments, newConfig.getVersion());
+        f.addListener(new FutureListener<Boolean>() {
+            @Override
+            public void operationComplete(Future<Boolean> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+                if (!future.getNow()) {
+                    result.setSuccess(false);
+                    return;
+                }
+                if (newConfig.segments == 1) {
+                    config = newConfig;
+                    result.setSuccess(true);
+                    return;
+                }
+
+                CommandBatchService batch = new CommandBatchService(commandExecutor.getConnectionManager());
+                for (int i = 1; i < newConfig.segments; i++) {
+                    batch.writeAsync(getConfigName(i), StringCodec.INSTANCE, RedisCommands.HSET,
+                                        getConfigName(i), "version", newConfig.getVersion());
+                }
+                batch.executeAsync().addListener(new FutureListener<List<?>>() {
+                    @Override
+                    public void operationComplete(Future<List<?>> future) throws Exception {
+                        if (!future.isSuccess()) {
+                            result.setFailure(future.cause());
+                            return;
+                        }
+                        config = newConfig;
+                        result.setSuccess(true);
+                    }
+                });
+            }
+        });
+        return result;
+    }
+
+    private Future<BloomFilterConfig> readConfigAsync() {
+        BloomFilterConfig c = config;
+        if (c != null) {
+            return newSucceededFuture(c);
+        }
+
+        final Promise<BloomFilterConfig> result = newPromise();
+        Future<Map<Object, Object>> f = commandExecutor.readAsync(getConfigName(), StringCodec.INSTANCE, RedisCommands.HGETALL, getConfigName());
+        f.addListener(new FutureListener<Map<Object, Object>>() {
+            @Override
+            public void operationComplete(Future<Map<Object, Object>> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+
+                Map<Object, Object> values = future.getNow();
+                if (values.isEmpty()) {
+                    result.setFailure(new IllegalStateException("Bloom filter '" + getName() + "' is not initialized"));
+                    return;
+                }
+
+                BloomFilterConfig c = new BloomFilterConfig(
+                        Long.valueOf(values.get("expectedInsertions").toString()),
+                        Double.valueOf(values.get("falseProbability").toString()),
+                        Long.valueOf(values.get("size").toString()),
+                        Integer.valueOf(values.get("hashIterations").toString()),
+                        Integer.valueOf(values.get("segments").toString()));
+                config = c;
+                result.setSuccess(c);
+            }
+        });
+        return result;
+    }
+
+    private long[] hash(Object o) {
+        if (o == null) {
+            throw new NullPointerException("Value can't be null");
+        }
+        try {
+            byte[] objectState = codec.getValueEncoder().encode(o);
+            long h1 = LongHashFunction.farmUo().hashBytes(objectState);
+            long h2 = LongHashFunction.xx_r39().hashBytes(objectState);
+            return new long[] {h1, h2};
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Groups bit indexes of objects by segment.
+     * First params of each segment are config version and hash iterations amount
+     * followed by bit indexes of each object.
+     */
+    private Map<Integer, List<Object>> toParams(BloomFilterConfig c, Collection<?> objects) {
+        Map<Integer, List<Object>> params = new HashMap<Integer, List<Object>>();
+        long segmentSize = c.getSegmentSize();
+        for (Object o : objects) {
+            long[] hashes = hash(o);
+            int segment = (int) (((hashes[0] ^ hashes[1]) & Long.MAX_VALUE) % c.segments);
+            List<Object> segmentParams = params.get(segment);
+            if (segmentParams == null) {
+                segmentParams = new ArrayList<Object>();
+                segmentParams.add(c.getVersion());
+                segmentParams.add(c.hashIterations);
+                params.put(segment, segmentParams);
+            }
+            for (int i = 0; i < c.hashIterations; i++) {
+                long combined = hashes[0] + i * hashes[1];
+                segmentParams.add((combined & Long.MAX_VALUE) % segmentSize);
+            }
+        }
+        return params;
+    }
+
+    private Future<Long> evalAsync(CommandAsyncExecutor executor, boolean write, int segment, List<Object> params) {
+        List<Object> keys = Arrays.<Object>asList(getSegmentName(segment), getConfigName(segment));
+        if (write) {
+            return executor.evalWriteAsync(getSegmentName(segment), StringCodec.INSTANCE, RedisCommands.EVAL_LONG, ADD_SCRIPT,
+                    keys, params.toArray());
+        }
+        return executor.evalReadAsync(getSegmentName(segment), StringCodec.INSTANCE, RedisCommands.EVAL_LONG, CONTAINS_SCRIPT,
+                keys, params.toArray());
+    }
+
+    /**
+     * Adds or checks objects.
+     * Config is read again once scripts reported that it has been changed.
+     *
+     * @return amount of added objects if <code>write</code> is <code>true</code>
+     *         otherwise amount of present objects
+     */
+    private Future<Long> executeAsync(final Collection<?> objects, final boolean write) {
+        final Promise<Long> result = newPromise();
+        executeAsync(objects, write, true, result);
+        return result;
+    }
+
+    private void executeAsync(final Collection<?> objects, final boolean write, final boolean retry, final Promise<Long> result) {
+        readConfigAsync().addListener(new FutureListener<BloomFilterConfig>() {
+            @Override
+            public void operationComplete(Future<BloomFilterConfig> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+
+                final BloomFilterConfig usedConfig = future.getNow();
+                Map<Integer, List<Object>> params;
+                try {
+                    params = toParams(usedConfig, objects);
+                } catch (RuntimeException e) {
+                    result.setFailure(e);
+                    return;
+                }
+
+                final List<Future<Long>> futures = new ArrayList<Future<Long>>(params.size());
+                Future<?> executed;
+                if (params.size() == 1) {
+                    Entry<Integer, List<Object>> entry = params.entrySet().iterator().next();
+                    Future<Long> f = evalAsync(commandExecutor, write, entry.getKey(), entry.getValue());
+                    futures.add(f);
+                    executed = f;
+                } else {
+                    CommandBatchService batch = new CommandBatchService(commandExecutor.getConnectionManager());
+                    for (Entry<Integer, List<Object>> entry : params.entrySet()) {
+                        futures.add(evalAsync(batch, write, entry.getKey(), entry.getValue()));
+                    }
+                    executed = batch.executeAsync();
+                }
+
+                executed.addListener(new FutureListener<Object>() {
+                    @Override
+                    public void operationComplete(Future<Object> future) throws Exception {
+                        if (!future.isSuccess()) {
+                            result.setFailure(future.cause());
+                            return;
+                        }
+
+                        long count = 0;
+                        boolean changed = false;
+                        for (Future<Long> f : futures) {
+                            Long res = f.getNow();
+                            if (CONFIG_CHANGED.equals(res)) {
+                                changed = true;
+                            } else {
+                                count += res;
+                            }
+                        }
+
+                        if (!changed) {
+                            result.setSuccess(count);
+                            return;
+                        }
+
+                        if (config == usedConfig) {
+                            config = null;
+                        }
+                        if (retry) {
+                            executeAsync(objects, write, false, result);
+                        } else {
+                            result.setFailure(new IllegalStateException("Bloom filter '" + getName()
+                                    + "' config has been changed or isn't fully initialized"));
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private Future<Boolean> equalsAsync(Future<Long> future, final long expected) {
+        final Promise<Boolean> result = newPromise();
+        future.addListener(new FutureListener<Long>() {
+            @Override
+            public void operationComplete(Future<Long> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+                result.setSuccess(future.getNow() == expected);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public boolean add(T object) {
+        return get(addAsync(object));
+    }
+
+    @Override
+    public Future<Boolean> addAsync(T object) {
+        return equalsAsync(executeAsync(Collections.singletonList(object), true), 1);
+    }
+
+    @Override
+    public int addAll(Collection<? extends T> objects) {
+        return get(addAllAsync(objects));
+    }
+
+    @Override
+    public Future<Integer> addAllAsync(Collection<? extends T> objects) {
+        if (objects.isEmpty()) {
+            return newSucceededFuture(0);
+        }
+
+        final Promise<Integer> result = newPromise();
+        executeAsync(objects, true).addListener(new FutureListener<Long>() {
+            @Override
+            public void operationComplete(Future<Long> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+                result.setSuccess(future.getNow().intValue());
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public boolean contains(T object) {
+        return get(containsAsync(object));
+    }
+
+    @Override
+    public Future<Boolean> containsAsync(T object) {
+        return equalsAsync(executeAsync(Collections.singletonList(object), false), 1);
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> objects) {
+        return get(containsAllAsync(objects));
+    }
+
+    @Override
+    public Future<Boolean> containsAllAsync(Collection<?> objects) {
+        if (objects.isEmpty()) {
+            return newSucceededFuture(true);
+        }
+        return equalsAsync(executeAsync(objects, false), objects.size());
+    }
+
+    @Override
+    public long getExpectedInsertions() {
+        return get(readConfigAsync()).expectedInsertions;
+    }
+
+    @Override
+    public double getFalseProbability() {
+        return get(readConfigAsync()).falseProbability;
+    }
+
+    @Override
+    public long getSize() {
+        return get(readConfigAsync()).size;
+    }
+
+    @Override
+    public int getHashIterations() {
+        return get(readConfigAsync()).hashIterations;
+    }
+
+    @Override
+    public int getSegments() {
+        return get(readConfigAsync()).segments;
+    }
+
+    /**
+     * Reads actual config ignoring locally cached one.
+     * Completes with <code>null</code> if filter isn't initialized.
+     */
+    private Future<BloomFilterConfig> readActualConfigAsync() {
+        config = null;
+        final Promise<BloomFilterConfig> result = newPromise();
+        readConfigAsync().addListener(new FutureListener<BloomFilterConfig>() {
+            @Override
+            public void operationComplete(Future<BloomFilterConfig> future) throws Exception {
+                if (!future.isSuccess()) {
+                    if (future.cause() instanceof IllegalStateException) {
+                        result.setSuccess(null);
+                    } else {
+                        result.setFailure(future.cause());
+                    }
+                    return;
+                }
+                result.setSuccess(future.getNow());
+            }
+        });
+        return result;
+    }
+
+    private static List<String> getKeys(String name, int segments) {
+        List<String> keys = new ArrayList<String>(segments * 2);
+        for (int i = 0; i < segments; i++) {
+            keys.add(getConfigName(name, i));
+            keys.add(getSegmentName(name, i));
+        }
+        return keys;
+    }
+
+    /**
+     * Applies command to all keys of filter, each key is passed
+     * to <code>params</code> of command instead of <code>null</code>
+     *
+     * @return results in order of {@link #getKeys(String, int)}
+     */
+    private <R> Future<List<R>> executeForKeysAsync(List<String> keys, final RedisStrictCommand<R> command, Object... params) {
+        CommandBatchService batch = new CommandBatchService(commandExecutor.getConnectionManager());
+        final List<Future<R>> futures = new ArrayList<Future<R>>(keys.size());
+        for (String key : keys) {
+            Object[] args = params.clone();
+            for (int i = 0; i < args.length; i++) {
+                if (args[i] == null) {
+                    args[i] = key;
+                }
+            }
+            futures.add(batch.<R, R>writeAsync(key, StringCodec.INSTANCE, command, args));
+        }
+
+        final Promise<List<R>> result = newPromise();
+        batch.executeAsync().addListener(new FutureListener<List<?>>() {
+            @Override
+            public void operationComplete(Future<List<?>> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+
+                List<R> values = new ArrayList<R>(futures.size());
+                for (Future<R> f : futures) {
+                    values.add(f.getNow());
+                }
+                result.setSuccess(values);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public Future<Boolean> deleteAsync() {
+        final Promise<Boolean> result = newPromise();
+        readActualConfigAsync().addListener(new FutureListener<BloomFilterConfig>() {
+            @Override
+            public void operationComplete(Future<BloomFilterConfig> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+                if (future.getNow() == null) {
+                    result.setSuccess(false);
+                    return;
+                }
+
+                config = null;
+                List<String> keys = getKeys(getName(), future.getNow().segments);
+                executeForKeysAsync(keys, RedisCommands.DEL, (Object) null).addListener(new FutureListener<List<Long>>() {
+                    @Override
+                    public void operationComplete(Future<List<Long>> future) throws Exception {
+                        if (!future.isSuccess()) {
+                            result.setFailure(future.cause());
+                            return;
+                        }
+
+                        long count = 0;
+                        for (Long res : future.getNow()) {
+                            count += res;
+                        }
+                        result.setSuccess(count > 0);
+                    }
+                });
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public Future<Boolean> isExistsAsync() {
+        return commandExecutor.readAsync(getConfigName(), StringCodec.INSTANCE, RedisCommands.EXISTS, getConfigName());
+    }
+
+    /**
+     * Segments without bits set don't exist,
+     * so only existing keys are renamed or migrated.
+     */
+    private Future<List<String>> existingKeysAsync(final List<String> keys) {
+        final Promise<List<String>> result = newPromise();
+        executeForKeysAsync(keys, RedisCommands.EXISTS, (Object) null).addListener(new FutureListener<List<Boolean>>() {
+            @Override
+            public void operationComplete(Future<List<Boolean>> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+
+                List<String> existing = new ArrayList<String>();
+                for (int i = 0; i < keys.size(); i++) {
+                    if (future.getNow().get(i)) {
+                        existing.add(keys.get(i));
+                    }
+                }
+                result.setSuccess(existing);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public Future<Void> renameAsync(final String newName) {
+        final Promise<Void> result = newPromise();
+        renameAsync(newName, false).addListener(new FutureListener<Boolean>() {
+            @Override
+            public void operationComplete(Future<Boolean> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+                result.setSuccess(null);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public Future<Boolean> renamenxAsync(String newName) {
+        return renameAsync(newName, true);
+    }
+
+    /**
+     * Renames main config first. Other keys are renamed only if it succeeded,
+     * so with <code>nx</code> flag filter is renamed only if <code>{newName}__config</code> doesn't exist.
+     */
+    private Future<Boolean> renameAsync(final String newName, final boolean nx) {
+        final Promise<Boolean> result = newPromise();
+        readActualConfigAsync().addListener(new FutureListener<BloomFilterConfig>() {
+            @Override
+            public void operationComplete(Future<BloomFilterConfig> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+                if (future.getNow() == null) {
+                    result.setFailure(new IllegalStateException("Bloom filter '" + getName() + "' is not initialized"));
+                    return;
+                }
+
+                final int segments = future.getNow().segments;
+                Future<?> renamed;
+                if (nx) {
+                    renamed = commandExecutor.writeAsync(getConfigName(), StringCodec.INSTANCE, RedisCommands.RENAMENX,
+                                                            getConfigName(), getConfigName(newName, 0));
+                } else {
+                    renamed = commandExecutor.writeAsync(getConfigName(), StringCodec.INSTANCE, RedisCommands.RENAME,
+                                                            getConfigName(), getConfigName(newName, 0));
+                }
+                renamed.addListener(new FutureListener<Object>() {
+                    @Override
+                    public void operationComplete(Future<Object> future) throws Exception {
+                        if (!future.isSuccess()) {
+                            result.setFailure(future.cause());
+                            return;
+                        }
+                        if (nx && !(Boolean) future.getNow()) {
+                            result.setSuccess(false);
+                            return;
+                        }
+
+                        List<String> keys = getKeys(getName(), segments);
+                        keys.remove(getConfigName());
+                        renameKeysAsync(keys, newName, result);
+                    }
+                });
+            }
+        });
+        return result;
+    }
+
+    private void renameKeysAsync(List<String> keys, final String newName, final Promise<Boolean> result) {
+        existingKeysAsync(keys).addListener(new FutureListener<List<String>>() {
+            @Override
+            public void operationComplete(Future<List<String>> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+
+                List<String> existing = future.getNow();
+                if (existing.isEmpty()) {
+                    result.setSuccess(true);
+                    return;
+                }
+
+                CommandBatchService batch = new CommandBatchService(commandExecutor.getConnectionManager());
+                for (String key : existing) {
+                    batch.writeAsync(key, StringCodec.INSTANCE, RedisCommands.RENAME, key, toNewKey(key, newName));
+                }
+                batch.executeAsync().addListener(new FutureListener<List<?>>() {
+                    @Override
+                    public void operationComplete(Future<List<?>> future) throws Exception {
+                        if (!future.isSuccess()) {
+                            result.setFailure(future.cause());
+                            return;
+                        }
+                        result.setSuccess(true);
+                    }
+                });
+            }
+        });
+    }
+
+    private String toNewKey(String key, String newName) {
+        if (key.startsWith("{")) {
+            return "{" + newName + key.substring(getName().length() + 1);
+        }
+        return newName + key.substring(getName().length());
+    }
+
+    @Override
+    public Future<Boolean> moveAsync(final int database) {
+        final Promise<Boolean> result = newPromise();
+        readActualConfigAsync().addListener(new FutureListener<BloomFilterConfig>() {
+            @Override
+            public void operationComplete(Future<BloomFilterConfig> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+                if (future.getNow() == null) {
+                    result.setSuccess(false);
+                    return;
+                }
+
+                final List<String> keys = getKeys(getName(), future.getNow().segments);
+                keys.remove(getConfigName());
+                Future<Boolean> moved = commandExecutor.writeAsync(getConfigName(), StringCodec.INSTANCE, RedisCommands.MOVE,
+                                                                    getConfigName(), database);
+                moved.addListener(new FutureListener<Boolean>() {
+                    @Override
+                    public void operationComplete(Future<Boolean> future) throws Exception {
+                        if (!future.isSuccess()) {
+                            result.setFailure(future.cause());
+                            return;
+                        }
+                        if (!future.getNow() || keys.isEmpty()) {
+                            result.setSuccess(future.getNow());
+                            return;
+                        }
+
+                        executeForKeysAsync(keys, RedisCommands.MOVE, null, database).addListener(new FutureListener<List<Boolean>>() {
+                            @Override
+                            public void operationComplete(Future<List<Boolean>> future) throws Exception {
+                                if (!future.isSuccess()) {
+                                    result.setFailure(future.cause());
+                                    return;
+                                }
+                                result.setSuccess(true);
+                            }
+                        });
+                    }
+                });
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public Future<Void> migrateAsync(final String host, final int port, final int database) {
+        final Promise<Void> result = newPromise();
+        readActualConfigAsync().addListener(new FutureListener<BloomFilterConfig>() {
+            @Override
+            public void operationComplete(Future<BloomFilterConfig> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+                if (future.getNow() == null) {
+                    result.setSuccess(null);
+                    return;
+                }
+
+                existingKeysAsync(getKeys(getName(), future.getNow().segments)).addListener(new FutureListener<List<String>>() {
+                    @Override
+                    public void operationComplete(Future<List<String>> future) throws Exception {
+                        if (!future.isSuccess()) {
+                            result.setFailure(future.cause());
+                            return;
+                        }
+
+                        executeForKeysAsync(future.getNow(), RedisCommands.MIGRATE, host, port, null, database)
+                            .addListener(new FutureListener<List<Void>>() {
+                                @Override
+                                public void operationComplete(Future<List<Void>> future) throws Exception {
+                                    if (!future.isSuccess()) {
+                                        result.setFailure(future.cause());
+                                        return;
+                                    }
+                                    result.setSuccess(null);
+                                }
+                            });
+                    }
+                });
+            }
+        });
+        return result;
+    }
+
+}
@@ -21,11 +21,14 @@ import java.util.Map;
 
 import org.redisson.client.codec.Codec;
 import org.redisson.core.ClusterNode;
+import org.redisson.core.LocalCachedMapOptions;
+import org.redisson.core.LongAdderOptions;
 import org.redisson.core.Node;
 import org.redisson.core.NodesGroup;
 import org.redisson.core.RAtomicLong;
 import org.redisson.core.RBatch;
 import org.redisson.core.RBitSet;
+import org.redisson.core.RBloomFilter;
 import org.redisson.core.RBlockingDeque;
 import org.redisson.core.RBlockingQueue;
 import org.redisson.core.RBucket;
@@ -36,7 +39,9 @@ import org.redisson.core.RHyperLogLog;
 import org.redisson.core.RKeys;
 import org.redisson.core.RLexSortedSet;
 import org.redisson.core.RList;
+import org.redisson.core.RLocalCachedMap;
 import org.redisson.core.RLock;
+import org.redisson.core.RLongAdder;
 import org.redisson.core.RMap;
 import org.redisson.core.RPatternTopic;
 import org.redisson.core.RQueue;
@@ -224,6 +229,36 @@ public interface RedissonClient {
      */
     <K, V> RMap<K, V> getMap(String name, Codec codec);
 
+    /**
+     * Returns map instance by name with in-process cache of entries.
+     * Cache is configured by provided <code>options</code>.
+     * Instance and its cache are shared by all callers with the same name
+     * until each of them invoked {@link RLocalCachedMap#destroy()}.
+     *
+     * @param name of map
+     * @param options of local cache
+     * @return
+     * @throws IllegalArgumentException if map with the same name
+     *         is already used with different codec or options
+     */
+    <K, V> RLocalCachedMap<K, V> getLocalCachedMap(String name, LocalCachedMapOptions options);
+
+    /**
+     * Returns map instance by name with in-process cache of entries
+     * using provided codec for both map keys and values.
+     * Cache is configured by provided <code>options</code>.
+     * Instance and its cache are shared by all callers with the same name
+     * until each of them invoked {@link RLocalCachedMap#destroy()}.
+     *
+     * @param name of map
+     * @param map key and value codec
+     * @param options of local cache
+     * @return
+     * @throws IllegalArgumentException if map with the same name
+     *         is already used with different codec or options
+     */
+    <K, V> RLocalCachedMap<K, V> getLocalCachedMap(String name, Codec codec, LocalCachedMapOptions options);
+
     RSemaphore getSemaphore(String name);
 
     /**
@@ -436,6 +471,31 @@ public interface RedissonClient {
      */
     RAtomicLong getAtomicLong(String name);
 
+    /**
+     * Returns counter instance by name with locally buffered increments.
+     * Uses {@link LongAdderOptions#defaults()} options.
+     *
+     * @param name of counter
+     * @return
+     * @throws IllegalArgumentException if counter with the same name
+     *         is already used with different options
+     */
+    RLongAdder getLongAdder(String name);
+
+    /**
+     * Returns counter instance by name with locally buffered increments.
+     * Buffering and sharding are configured by provided <code>options</code>.
+     * Instance is shared by all callers with the same name
+     * until each of them invoked {@link RLongAdder#destroy()}.
+     *
+     * @param name of counter
+     * @param options of counter
+     * @return
+     * @throws IllegalArgumentException if counter with the same name
+     *         is already used with different options
+     */
+    RLongAdder getLongAdder(String name, LongAdderOptions options);
+
     /**
      * Returns countDownLatch instance by name.
      *
@@ -452,6 +512,24 @@ public interface RedissonClient {
      */
     RBitSet getBitSet(String name);
 
+    /**
+     * Returns bloom filter instance by name.
+     *
+     * @param name of bloom filter
+     * @return
+     */
+    <V> RBloomFilter<V> getBloomFilter(String name);
+
+    /**
+     * Returns bloom filter instance by name
+     * using provided codec for objects hashing.
+     *
+     * @param name of bloom filter
+     * @param codec of object
+     * @return
+     */
+    <V> RBloomFilter<V> getBloomFilter(String name, Codec codec);
+
     /**
      * Returns script operations object
      *
@@ -15,7 +15,7 @@
  */
 package org.redisson;
 
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -114,9 +114,9 @@ public class RedissonCountDownLatch extends RedissonObject implements RCountDown
         Future<Boolean> f = commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
                 "local v = redis.call('decr', KEYS[1]);" +
                         "if v <= 0 then redis.call('del', KEYS[1]) end;" +
-                        "if v == 0 then redis.call('publish', KEYS[2], ARGV[1]) end;" +
+                        "if v == 0 then redis.call('publish', ARGV[2], ARGV[1]) end;" +
                         "return 1",
-                 Arrays.<Object>asList(getName(), getChannelName()), zeroCountMessage);
+                 Collections.<Object>singletonList(getName()), getMessage(zeroCountMessage), getNotificationChannel());
         get(f);
     }
 
@@ -128,6 +128,14 @@ public class RedissonCountDownLatch extends RedissonObject implements RCountDown
         return "redisson_countdownlatch__channel__{" + getName() + "}";
     }
 
+    private String getNotificationChannel() {
+        return commandExecutor.getConnectionManager().getNotificationChannels().getChannelName(getChannelName());
+    }
+
+    private Object getMessage(Long message) {
+        return commandExecutor.getConnectionManager().getNotificationChannels().getMessage(getChannelName(), message);
+    }
+
     @Override
     public long getCount() {
         return getCountInner();
@@ -147,12 +155,12 @@ public class RedissonCountDownLatch extends RedissonObject implements RCountDown
         Future<Boolean> f = commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
                 "if redis.call('exists', KEYS[1]) == 0 then "
                     + "redis.call('set', KEYS[1], ARGV[2]); "
-                    + "redis.call('publish', KEYS[2], ARGV[1]); "
+                    + "redis.call('publish', ARGV[3], ARGV[1]); "
                     + "return 1 "
                 + "else "
                     + "return 0 "
                 + "end",
-                Arrays.<Object>asList(getName(), getChannelName()), newCountMessage, count);
+                Collections.<Object>singletonList(getName()), getMessage(newCountMessage), count, getNotificationChannel());
         return get(f);
     }
 
@@ -160,12 +168,12 @@ public class RedissonCountDownLatch extends RedissonObject implements RCountDown
     public Future<Boolean> deleteAsync() {
         return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
                 "if redis.call('del', KEYS[1]) == 1 then "
-                    + "redis.call('publish', KEYS[2], ARGV[1]); "
+                    + "redis.call('publish', ARGV[2], ARGV[1]); "
                     + "return 1 "
                 + "else "
                     + "return 0 "
                 + "end",
-                Arrays.<Object>asList(getName(), getChannelName()), newCountMessage);
+                Collections.<Object>singletonList(getName()), getMessage(newCountMessage), getNotificationChannel());
     }
 
 }
@@ -15,13 +15,16 @@
  */
 package org.redisson;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.redisson.misc.ReclosableLatch;
 
 import io.netty.util.concurrent.Promise;
 
 public class RedissonCountDownLatchEntry implements PubSubEntry<RedissonCountDownLatchEntry> {
 
-    private int counter;
+    // entry is created acquired by subscriber
+    private final AtomicInteger counter = new AtomicInteger(1);
 
     private final ReclosableLatch latch;
     private final Promise<RedissonCountDownLatchEntry> promise;
@@ -32,12 +35,20 @@ public class RedissonCountDownLatchEntry implements PubSubEntry<RedissonCountDow
         this.promise = promise;
     }
 
-    public void aquire() {
-        counter++;
+    public boolean aquire() {
+        while (true) {
+            int value = counter.get();
+            if (value == 0) {
+                return false;
+            }
+            if (counter.compareAndSet(value, value + 1)) {
+                return true;
+            }
+        }
     }
 
     public int release() {
-        return --counter;
+        return counter.decrementAndGet();
     }
 
     public Promise<RedissonCountDownLatchEntry> getPromise() {
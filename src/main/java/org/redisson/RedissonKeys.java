@@ -15,12 +15,19 @@
  */
 package org.redisson;
 
+import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.redisson.client.codec.StringCodec;
@@ -28,13 +35,23 @@ import org.redisson.client.protocol.RedisCommands;
 import org.redisson.client.protocol.decoder.ListScanResult;
 import org.redisson.cluster.ClusterSlotRange;
 import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.command.CommandBatchService;
+import org.redisson.connection.MasterSlaveEntry;
 import org.redisson.core.RKeys;
 import org.redisson.misc.CompositeIterable;
 
+import io.netty.util.concurrent.DefaultProgressivePromise;
 import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.ProgressiveFuture;
+import io.netty.util.concurrent.ProgressivePromise;
+import io.netty.util.concurrent.Promise;
 
 public class RedissonKeys implements RKeys {
 
+    // SCAN page size used if not specified
+    private static final int SCAN_COUNT = 1000;
+
     private final CommandAsyncExecutor commandExecutor;
 
     public RedissonKeys(CommandAsyncExecutor commandExecutor) {
@@ -53,13 +70,18 @@ public class RedissonKeys implements RKeys {
     }
 
     @Override
-    public Iterable<String> getKeysByPattern(final String pattern) {
+    public Iterable<String> getKeysByPattern(String pattern) {
+        return getKeysByPattern(pattern, 10);
+    }
+
+    @Override
+    public Iterable<String> getKeysByPattern(final String pattern, final int count) {
         List<Iterable<String>> iterables = new ArrayList<Iterable<String>>();
-        for (final ClusterSlotRange slot : commandExecutor.getConnectionManager().getEntries().keySet()) {
+        for (final Integer slot : getNodes().values()) {
             Iterable<String> iterable = new Iterable<String>() {
                 @Override
                 public Iterator<String> iterator() {
-                    return createKeysIterator(slot.getStartSlot(), pattern);
+                    return createKeysIterator(slot, pattern, count);
                 }
             };
             iterables.add(iterable);
@@ -69,76 +91,37 @@ public class RedissonKeys implements RKeys {
 
     @Override
     public Iterable<String> getKeys() {
-        List<Iterable<String>> iterables = new ArrayList<Iterable<String>>();
-        for (final ClusterSlotRange slot : commandExecutor.getConnectionManager().getEntries().keySet()) {
-            Iterable<String> iterable = new Iterable<String>() {
-                @Override
-                public Iterator<String> iterator() {
-                    return createKeysIterator(slot.getStartSlot(), null);
-                }
-            };
-            iterables.add(iterable);
-        }
-        return new CompositeIterable<String>(iterables);
+        return getKeysByPattern(null);
     }
 
-    private ListScanResult<String> scanIterator(int slot, long startPos, String pattern) {
+    @Override
+    public Iterable<String> getKeys(int count) {
+        return getKeysByPattern(null, count);
+    }
+
+    private Future<ListScanResult<String>> scanIteratorAsync(int slot, long startPos, String pattern, int count) {
         if (pattern == null) {
-            Future<ListScanResult<String>> f = commandExecutor.writeAsync(slot, StringCodec.INSTANCE, RedisCommands.SCAN, startPos);
-            return commandExecutor.get(f);
+            return commandExecutor.writeAsync(slot, StringCodec.INSTANCE, RedisCommands.SCAN, startPos, "COUNT", count);
         }
-        Future<ListScanResult<String>> f = commandExecutor.writeAsync(slot, StringCodec.INSTANCE, RedisCommands.SCAN, startPos, "MATCH", pattern);
-        return commandExecutor.get(f);
+        return commandExecutor.writeAsync(slot, StringCodec.INSTANCE, RedisCommands.SCAN, startPos, "MATCH", pattern, "COUNT", count);
     }
 
-    private Iterator<String> createKeysIterator(final int slot, final String pattern) {
-        return new Iterator<String>() {
-
-            private List<String> firstValues;
-            private Iterator<String> iter;
-            private long iterPos;
-
-            private boolean removeExecuted;
-            private String value;
+    private Iterator<String> createKeysIterator(final int slot, final String pattern, int count) {
+        return new RedissonBaseIterator<String, String>(commandExecutor, count) {
 
             @Override
-            public boolean hasNext() {
-                if (iter == null || !iter.hasNext()) {
-                    ListScanResult<String> res = scanIterator(slot, iterPos, pattern);
-                    if (iterPos == 0 && firstValues == null) {
-                        firstValues = res.getValues();
-                    } else if (res.getValues().equals(firstValues)) {
-                        return false;
-                    }
-                    iter = res.getValues().iterator();
-                    iterPos = res.getPos();
-                }
-                return iter.hasNext();
+            protected Future<ListScanResult<String>> scanIterator(InetSocketAddress client, long startPos, int count) {
+                return scanIteratorAsync(slot, startPos, pattern, count);
             }
 
             @Override
-            public String next() {
-                if (!hasNext()) {
-                    throw new NoSuchElementException("No such element");
-                }
-
-                value = iter.next();
-                removeExecuted = false;
+            String getValue(String value) {
                 return value;
             }
 
             @Override
-            public void remove() {
-                if (removeExecuted) {
-                    throw new IllegalStateException("Element been already deleted");
-                }
-                if (iter == null) {
-                    throw new IllegalStateException();
-                }
-
-                iter.remove();
+            protected void remove(String value) {
                 delete(value);
-                removeExecuted = true;
             }
 
         };
@@ -170,6 +153,11 @@ public class RedissonKeys implements RKeys {
         return commandExecutor.get(findKeysByPatternAsync(pattern));
     }
 
+    @Override
+    public Collection<String> findKeysByPattern(String pattern, int count) {
+        return commandExecutor.get(findKeysByPatternAsync(pattern, count));
+    }
+
     /**
      * Find keys by key search pattern in async mode
      *
@@ -183,7 +171,43 @@ public class RedissonKeys implements RKeys {
      */
     @Override
     public Future<Collection<String>> findKeysByPatternAsync(String pattern) {
-        return commandExecutor.readAllAsync(RedisCommands.KEYS, pattern);
+        return findKeysByPatternAsync(pattern, SCAN_COUNT);
+    }
+
+    @Override
+    public ProgressiveFuture<Collection<String>> findKeysByPatternAsync(final String pattern, final int count) {
+        final ProgressivePromise<Collection<String>> result = newProgressivePromise();
+        if (isBatched()) {
+            Future<Collection<String>> f = commandExecutor.readAllAsync(RedisCommands.KEYS, pattern);
+            transfer(f, result);
+            return result;
+        }
+
+        final Queue<String> keys = new ConcurrentLinkedQueue<String>();
+        final AtomicLong found = new AtomicLong();
+        final Map<MasterSlaveEntry, Integer> nodes = getNodes();
+        final AtomicInteger nodesLeft = new AtomicInteger(nodes.size());
+        for (final Integer slot : nodes.values()) {
+            scanAsync(slot, 0, pattern, count, new ScanCallback() {
+                @Override
+                public Future<?> onPage(List<String> values) {
+                    keys.addAll(values);
+                    result.tryProgress(found.addAndGet(values.size()), -1);
+                    return null;
+                }
+
+                @Override
+                public void onFinish() {
+                    if (nodesLeft.decrementAndGet() == 0) {
+                        result.trySuccess(new ArrayList<String>(keys));
+                    }
+                }
+            }, result);
+        }
+        if (nodes.isEmpty()) {
+            result.trySuccess(Collections.<String>emptyList());
+        }
+        return result;
     }
 
     /**
@@ -202,6 +226,11 @@ public class RedissonKeys implements RKeys {
         return commandExecutor.get(deleteByPatternAsync(pattern));
     }
 
+    @Override
+    public long deleteByPattern(String pattern, int count) {
+        return commandExecutor.get(deleteByPatternAsync(pattern, count));
+    }
+
     /**
      * Delete multiple objects by a key pattern in async mode
      *
@@ -215,6 +244,64 @@ public class RedissonKeys implements RKeys {
      */
     @Override
     public Future<Long> deleteByPatternAsync(String pattern) {
+        return deleteByPatternAsync(pattern, SCAN_COUNT);
+    }
+
+    @Override
+    public ProgressiveFuture<Long> deleteByPatternAsync(final String pattern, final int count) {
+        final ProgressivePromise<Long> result = newProgressivePromise();
+        if (isBatched()) {
+            transfer(deleteByKeysCommandAsync(pattern), result);
+            return result;
+        }
+
+        final AtomicLong deleted = new AtomicLong();
+        final Map<MasterSlaveEntry, Integer> nodes = getNodes();
+        final AtomicInteger nodesLeft = new AtomicInteger(nodes.size());
+        for (final Integer slot : nodes.values()) {
+            scanAsync(slot, 0, pattern, count, new ScanCallback() {
+                @Override
+                public Future<?> onPage(List<String> values) {
+                    if (values.isEmpty()) {
+                        return null;
+                    }
+
+                    Future<Long> deleteFuture = deleteKeysAsync(values);
+                    deleteFuture.addListener(new FutureListener<Long>() {
+                        @Override
+                        public void operationComplete(Future<Long> future) throws Exception {
+                            if (future.isSuccess()) {
+                                result.tryProgress(deleted.addAndGet(future.getNow()), -1);
+                            }
+                        }
+                    });
+                    return deleteFuture;
+                }
+
+                @Override
+                public void onFinish() {
+                    if (nodesLeft.decrementAndGet() == 0) {
+                        result.trySuccess(deleted.get());
+                    }
+                }
+            }, result);
+        }
+        if (nodes.isEmpty()) {
+            result.trySuccess(0L);
+        }
+        return result;
+    }
+
+    /**
+     * Next SCAN page and DEL of found keys are requested only after
+     * previous response, so they can't be added to batch once it has been executed.
+     * Batch uses KEYS command instead.
+     */
+    private boolean isBatched() {
+        return commandExecutor instanceof CommandBatchService;
+    }
+
+    private Future<Long> deleteByKeysCommandAsync(String pattern) {
         return commandExecutor.evalWriteAllAsync(RedisCommands.EVAL_LONG, new SlotCallback<Long, Long>() {
             AtomicLong results = new AtomicLong();
             @Override
@@ -234,6 +321,145 @@ public class RedissonKeys implements RKeys {
             + "return n;",Collections.emptyList(), pattern);
     }
 
+    private <V> void transfer(Future<V> future, final Promise<V> result) {
+        future.addListener(new FutureListener<V>() {
+            @Override
+            public void operationComplete(Future<V> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.tryFailure(future.cause());
+                    return;
+                }
+                result.trySuccess(future.getNow());
+            }
+        });
+    }
+
+    private interface ScanCallback {
+
+        /**
+         * Invoked for each page of keys.
+         *
+         * @param values
+         * @return future which should be completed before
+         *         next page requested or <code>null</code>
+         */
+        Future<?> onPage(List<String> values);
+
+        void onFinish();
+
+    }
+
+    /**
+     * Iterates keys of the node which serves <code>slot</code>
+     * page by page. Next page is requested only after previous one
+     * has been handled, so only one page per node is kept in memory.
+     */
+    private void scanAsync(final int slot, long startPos, final String pattern, final int count,
+                                final ScanCallback callback, final Promise<?> result) {
+        Future<ListScanResult<String>> f = scanIteratorAsync(slot, startPos, pattern, count);
+        f.addListener(new FutureListener<ListScanResult<String>>() {
+            @Override
+            public void operationComplete(Future<ListScanResult<String>> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.tryFailure(future.cause());
+                    return;
+                }
+
+                final ListScanResult<String> res = future.getNow();
+                Future<?> pageFuture = callback.onPage(res.getValues());
+                if (pageFuture == null) {
+                    nextPage(res.getPos());
+                    return;
+                }
+
+                pageFuture.addListener(new FutureListener<Object>() {
+                    @Override
+                    public void operationComplete(Future<Object> future) throws Exception {
+                        if (!future.isSuccess()) {
+                            result.tryFailure(future.cause());
+                            return;
+                        }
+                        nextPage(res.getPos());
+                    }
+                });
+            }
+
+            private void nextPage(long pos) {
+                if (result.isDone()) {
+                    return;
+                }
+                if (pos == 0) {
+                    callback.onFinish();
+                    return;
+                }
+                scanAsync(slot, pos, pattern, count, callback, result);
+            }
+        });
+    }
+
+    /**
+     * Deletes keys grouped by slot, so cluster mode doesn't get CROSSSLOT error.
+     * All groups are sent at once since they belong to the same node.
+     */
+    private Future<Long> deleteKeysAsync(List<String> keys) {
+        Map<Integer, List<String>> keysBySlot = new HashMap<Integer, List<String>>();
+        for (String key : keys) {
+            int slot = commandExecutor.getConnectionManager().calcSlot(key);
+            List<String> slotKeys = keysBySlot.get(slot);
+            if (slotKeys == null) {
+                slotKeys = new ArrayList<String>();
+                keysBySlot.put(slot, slotKeys);
+            }
+            slotKeys.add(key);
+        }
+
+        if (keysBySlot.size() == 1) {
+            Entry<Integer, List<String>> entry = keysBySlot.entrySet().iterator().next();
+            return commandExecutor.writeAsync(entry.getKey(), StringCodec.INSTANCE, RedisCommands.DEL, entry.getValue().toArray());
+        }
+
+        final Promise<Long> result = commandExecutor.getConnectionManager().newPromise();
+        final AtomicLong deleted = new AtomicLong();
+        final AtomicInteger slotsLeft = new AtomicInteger(keysBySlot.size());
+        FutureListener<Long> listener = new FutureListener<Long>() {
+            @Override
+            public void operationComplete(Future<Long> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.tryFailure(future.cause());
+                    return;
+                }
+
+                deleted.addAndGet(future.getNow());
+                if (slotsLeft.decrementAndGet() == 0) {
+                    result.trySuccess(deleted.get());
+                }
+            }
+        };
+        for (Entry<Integer, List<String>> entry : keysBySlot.entrySet()) {
+            Future<Long> f = commandExecutor.writeAsync(entry.getKey(), StringCodec.INSTANCE, RedisCommands.DEL, entry.getValue().toArray());
+            f.addListener(listener);
+        }
+        return result;
+    }
+
+    /**
+     * Returns one slot per master to address each node only once,
+     * as it could serve several slot ranges.
+     */
+    private Map<MasterSlaveEntry, Integer> getNodes() {
+        Map<MasterSlaveEntry, Integer> nodes = new IdentityHashMap<MasterSlaveEntry, Integer>();
+        for (Entry<ClusterSlotRange, MasterSlaveEntry> entry : commandExecutor.getConnectionManager().getEntries().entrySet()) {
+            if (!nodes.containsKey(entry.getValue())) {
+                nodes.put(entry.getValue(), entry.getKey().getStartSlot());
+            }
+        }
+        return nodes;
+    }
+
+    private <V> ProgressivePromise<V> newProgressivePromise() {
+        return new DefaultProgressivePromise<V>(commandExecutor.getConnectionManager().getGroup().next());
+    }
+
     /**
      * Delete multiple objects by name
      *
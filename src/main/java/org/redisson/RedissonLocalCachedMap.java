@@ -0,0 +1,616 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.redisson.client.codec.ByteArrayCodec;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.protocol.RedisCommand;
+import org.redisson.client.protocol.RedisCommand.ValueType;
+import org.redisson.client.protocol.convertor.BooleanReplayConvertor;
+import org.redisson.client.protocol.convertor.LongReplayConvertor;
+import org.redisson.client.protocol.convertor.VoidReplayConvertor;
+import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.core.LocalCachedMapOptions;
+import org.redisson.core.LocalCachedMapOptions.EvictionPolicy;
+import org.redisson.core.MessageListener;
+import org.redisson.core.RLocalCachedMap;
+import org.redisson.misc.AbstractCacheMap;
+import org.redisson.misc.LFUCacheMap;
+import org.redisson.misc.LRUCacheMap;
+import org.redisson.misc.NoneCacheMap;
+
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.Promise;
+
+/**
+ * Map implementation with in-process cache of entries.
+ * Every write operation publishes invalidation message
+ * via topic so stale entries are removed from caches of other instances.
+ *
+ * Invalidation message consists of 16 bytes of publisher instance id
+ * followed by encoded map key. Message without key means clear whole cache.
+ *
+ * <p>Instance is shared by all holders of the same name within Redisson client
+ * and released once each of them invoked {@link #destroy()}.</p>
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <K> key
+ * @param <V> value
+ */
+public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements RLocalCachedMap<K, V> {
+
+    static final class CacheKey {
+
+        private final byte[] keyHash;
+
+        CacheKey(byte[] keyHash) {
+            this.keyHash = keyHash;
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(keyHash);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (obj == null || getClass() != obj.getClass())
+                return false;
+            CacheKey other = (CacheKey) obj;
+            return Arrays.equals(keyHash, other.keyHash);
+        }
+
+    }
+
+    private static final int INSTANCE_ID_LENGTH = 16;
+    // amount of key version counters, should be power of two
+    private static final int VERSION_STRIPES = 256;
+
+    private static final RedisCommand<Object> EVAL_PUT = new RedisCommand<Object>("EVAL", 6, ValueType.MAP, ValueType.MAP_VALUE);
+    private static final RedisCommand<Boolean> EVAL_FAST_PUT = new RedisCommand<Boolean>("EVAL", new BooleanReplayConvertor(), 6, ValueType.MAP);
+    private static final RedisCommand<Object> EVAL_REMOVE = new RedisCommand<Object>("EVAL", 6, ValueType.MAP_KEY, ValueType.MAP_VALUE);
+    private static final RedisCommand<Long> EVAL_FAST_REMOVE = new RedisCommand<Long>("EVAL", new LongReplayConvertor(), 6, ValueType.MAP_KEY);
+    private static final RedisCommand<Void> EVAL_PUT_ALL = new RedisCommand<Void>("EVAL", new VoidReplayConvertor(), 6, ValueType.MAP);
+    private static final RedisCommand<Boolean> EVAL_DELETE = new RedisCommand<Boolean>("EVAL", new BooleanReplayConvertor(), 6);
+
+    private final byte[] instanceId = generateId();
+    private final RedissonTopic<byte[]> invalidationTopic;
+    private final int invalidationListenerId;
+    private final AbstractCacheMap<CacheKey, V> cache;
+
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private final AtomicLong cacheInvalidations = new AtomicLong();
+    // versions of keys grouped by key hash, incremented on each
+    // local cache change of these keys not made by read operation
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    private final LocalCachedMapOptions options;
+    private final ConcurrentMap<String, RedissonLocalCachedMap<?, ?>> registry;
+    private final AtomicInteger usages = new AtomicInteger(1);
+
+    protected RedissonLocalCachedMap(CommandAsyncExecutor commandExecutor, String name, LocalCachedMapOptions options,
+            ConcurrentMap<String, RedissonLocalCachedMap<?, ?>> registry) {
+        super(commandExecutor, name);
+        // copy, so later changes of options object don't affect settings check
+        this.options = copy(options);
+        this.registry = registry;
+        cache = createCache(options);
+        invalidationTopic = new RedissonTopic<byte[]>(ByteArrayCodec.INSTANCE, commandExecutor, getTopicName());
+        invalidationListenerId = addInvalidationListener();
+    }
+
+    public RedissonLocalCachedMap(Codec codec, CommandAsyncExecutor commandExecutor, String name, LocalCachedMapOptions options,
+            ConcurrentMap<String, RedissonLocalCachedMap<?, ?>> registry) {
+        super(codec, commandExecutor, name);
+        // copy, so later changes of options object don't affect settings check
+        this.options = copy(options);
+        this.registry = registry;
+        cache = createCache(options);
+        invalidationTopic = new RedissonTopic<byte[]>(ByteArrayCodec.INSTANCE, commandExecutor, getTopicName());
+        invalidationListenerId = addInvalidationListener();
+    }
+
+    private static LocalCachedMapOptions copy(LocalCachedMapOptions options) {
+        return LocalCachedMapOptions.defaults()
+                    .cacheSize(options.getCacheSize())
+                    .evictionPolicy(options.getEvictionPolicy())
+                    .timeToLive(options.getTimeToLiveInMillis())
+                    .maxIdle(options.getMaxIdleInMillis());
+    }
+
+    /**
+     * Registers one more holder of this instance.
+     *
+     * @return <code>false</code> if instance has been already destroyed
+     */
+    boolean acquire() {
+        while (true) {
+            int value = usages.get();
+            if (value == 0) {
+                return false;
+            }
+            if (usages.compareAndSet(value, value + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the last holder has been released
+     */
+    private boolean release() {
+        while (true) {
+            int value = usages.get();
+            if (value == 0) {
+                return false;
+            }
+            if (usages.compareAndSet(value, value - 1)) {
+                return value == 1;
+            }
+        }
+    }
+
+    /**
+     * Checks that shared instance was created with the same settings
+     */
+    void checkSettings(Codec codec, LocalCachedMapOptions options) {
+        if (this.codec.getClass() != codec.getClass()) {
+            throw new IllegalArgumentException("Local cached map '" + getName() + "' is already used with "
+                                    + this.codec.getClass().getName() + " codec");
+        }
+        if (!this.options.equals(options)) {
+            throw new IllegalArgumentException("Local cached map '" + getName() + "' is already used with "
+                                    + this.options + " options");
+        }
+    }
+
+    private static byte[] generateId() {
+        UUID uuid = UUID.randomUUID();
+        return ByteBuffer.allocate(INSTANCE_ID_LENGTH)
+                    .putLong(uuid.getMostSignificantBits())
+                    .putLong(uuid.getLeastSignificantBits())
+                    .array();
+    }
+
+    private AbstractCacheMap<CacheKey, V> createCache(LocalCachedMapOptions options) {
+        if (options.getEvictionPolicy() == EvictionPolicy.LRU) {
+            return new LRUCacheMap<CacheKey, V>(options.getCacheSize(), options.getTimeToLiveInMillis(), options.getMaxIdleInMillis());
+        }
+        if (options.getEvictionPolicy() == EvictionPolicy.LFU) {
+            return new LFUCacheMap<CacheKey, V>(options.getCacheSize(), options.getTimeToLiveInMillis(), options.getMaxIdleInMillis());
+        }
+        return new NoneCacheMap<CacheKey, V>(options.getTimeToLiveInMillis(), options.getMaxIdleInMillis());
+    }
+
+    private String getTopicName() {
+        return "redisson_map_cache_invalidate__{" + getName() + "}";
+    }
+
+    private int addInvalidationListener() {
+        return invalidationTopic.addListener(new MessageListener<byte[]>() {
+            @Override
+            public void onMessage(String channel, byte[] msg) {
+                if (msg.length < INSTANCE_ID_LENGTH) {
+                    return;
+                }
+                for (int i = 0; i < INSTANCE_ID_LENGTH; i++) {
+                    if (msg[i] != instanceId[i]) {
+                        invalidate(msg);
+                        return;
+                    }
+                }
+            }
+        });
+    }
+
+    private void invalidate(byte[] msg) {
+        if (msg.length == INSTANCE_ID_LENGTH) {
+            incrementVersions();
+            cacheInvalidations.addAndGet(cache.clear());
+            return;
+        }
+
+        CacheKey key = new CacheKey(Arrays.copyOfRange(msg, INSTANCE_ID_LENGTH, msg.length));
+        incrementVersion(key);
+        if (cache.remove(key) != null) {
+            cacheInvalidations.incrementAndGet();
+        }
+    }
+
+    private CacheKey toCacheKey(Object key) {
+        try {
+            return new CacheKey(codec.getMapKeyEncoder().encode(key));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private byte[] createInvalidateMessage(CacheKey key) {
+        byte[] msg = new byte[INSTANCE_ID_LENGTH + key.keyHash.length];
+        System.arraycopy(instanceId, 0, msg, 0, INSTANCE_ID_LENGTH);
+        System.arraycopy(key.keyHash, 0, msg, INSTANCE_ID_LENGTH, key.keyHash.length);
+        return msg;
+    }
+
+    private int versionIndex(CacheKey key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (VERSION_STRIPES - 1);
+    }
+
+    private long getVersion(CacheKey key) {
+        return versions.get(versionIndex(key));
+    }
+
+    private long incrementVersion(CacheKey key) {
+        return versions.incrementAndGet(versionIndex(key));
+    }
+
+    private void incrementVersions() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+    }
+
+    private void cacheValue(CacheKey key, V value, long expectedVersion) {
+        if (value == null) {
+            return;
+        }
+        // version is checked under cache lock, so invalidation
+        // made after version increment can't be overwritten by this value
+        synchronized (cache) {
+            // skip value which may be already invalidated during its loading
+            if (getVersion(key) == expectedVersion) {
+                cache.put(key, value);
+            }
+        }
+    }
+
+    /**
+     * @return key version used to check that key
+     *         wasn't invalidated again before caching new value
+     */
+    private long invalidateLocal(CacheKey key) {
+        long version = incrementVersion(key);
+        cache.remove(key);
+        return version;
+    }
+
+    /**
+     * Caches written value only once write is applied in Redis,
+     * so failed write doesn't leave value absent in Redis in local cache.
+     */
+    private <R> Future<R> cacheOnSuccess(final CacheKey key, final V value, final long expectedVersion, Future<R> future) {
+        final Promise<R> promise = newPromise();
+        future.addListener(new FutureListener<R>() {
+            @Override
+            public void operationComplete(Future<R> future) throws Exception {
+                if (!future.isSuccess()) {
+                    promise.setFailure(future.cause());
+                    return;
+                }
+
+                cacheValue(key, value, expectedVersion);
+                promise.setSuccess(future.getNow());
+            }
+        });
+        return promise;
+    }
+
+    @Override
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    @Override
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    @Override
+    public long getCacheEvictions() {
+        return cache.getEvictions();
+    }
+
+    @Override
+    public long getCacheInvalidations() {
+        return cacheInvalidations.get();
+    }
+
+    @Override
+    public int getCachedSize() {
+        return cache.size();
+    }
+
+    @Override
+    public void clearLocalCache() {
+        incrementVersions();
+        cache.clear();
+    }
+
+    @Override
+    public void destroy() {
+        if (!release()) {
+            return;
+        }
+
+        registry.remove(getName(), this);
+        invalidationTopic.removeListener(invalidationListenerId);
+        clearLocalCache();
+    }
+
+    @Override
+    public Future<Boolean> containsKeyAsync(Object key) {
+        CacheKey cacheKey = toCacheKey(key);
+        if (cache.get(cacheKey) != null) {
+            cacheHits.incrementAndGet();
+            return newSucceededFuture(true);
+        }
+        return super.containsKeyAsync(key);
+    }
+
+    @Override
+    public Future<V> getAsync(K key) {
+        final CacheKey cacheKey = toCacheKey(key);
+        V value = cache.get(cacheKey);
+        if (value != null) {
+            cacheHits.incrementAndGet();
+            return newSucceededFuture(value);
+        }
+
+        cacheMisses.incrementAndGet();
+        final long version = getVersion(cacheKey);
+        final Promise<V> promise = newPromise();
+        Future<V> future = super.getAsync(key);
+        future.addListener(new FutureListener<V>() {
+            @Override
+            public void operationComplete(Future<V> future) throws Exception {
+                if (!future.isSuccess()) {
+                    promise.setFailure(future.cause());
+                    return;
+                }
+
+                cacheValue(cacheKey, future.getNow(), version);
+                promise.setSuccess(future.getNow());
+            }
+        });
+        return promise;
+    }
+
+    @Override
+    public Future<Map<K, V>> getAllAsync(Set<K> keys) {
+        final Map<K, V> result = new HashMap<K, V>();
+        final Set<K> missedKeys = new HashSet<K>();
+        final Map<K, Long> missedVersions = new HashMap<K, Long>();
+        for (K key : keys) {
+            CacheKey cacheKey = toCacheKey(key);
+            V value = cache.get(cacheKey);
+            if (value != null) {
+                result.put(key, value);
+            } else {
+                missedKeys.add(key);
+                missedVersions.put(key, getVersion(cacheKey));
+            }
+        }
+        cacheHits.addAndGet(result.size());
+        if (missedKeys.isEmpty()) {
+            return newSucceededFuture(result);
+        }
+
+        cacheMisses.addAndGet(missedKeys.size());
+        final Promise<Map<K, V>> promise = newPromise();
+        Future<Map<K, V>> future = super.getAllAsync(missedKeys);
+        future.addListener(new FutureListener<Map<K, V>>() {
+            @Override
+            public void operationComplete(Future<Map<K, V>> future) throws Exception {
+                if (!future.isSuccess()) {
+                    promise.setFailure(future.cause());
+                    return;
+                }
+
+                for (Map.Entry<K, V> entry : future.getNow().entrySet()) {
+                    cacheValue(toCacheKey(entry.getKey()), entry.getValue(), missedVersions.get(entry.getKey()));
+                    result.put(entry.getKey(), entry.getValue());
+                }
+                promise.setSuccess(result);
+            }
+        });
+        return promise;
+    }
+
+    @Override
+    public Future<V> putAsync(K key, V value) {
+        CacheKey cacheKey = toCacheKey(key);
+        long version = invalidateLocal(cacheKey);
+        Future<V> future = commandExecutor.evalWriteAsync(getName(), codec, EVAL_PUT,
+                "local v = redis.call('hget', KEYS[1], ARGV[3]); "
+                + "redis.call('hset', KEYS[1], ARGV[3], ARGV[4]); "
+                + "redis.call('publish', ARGV[1], ARGV[2] .. ARGV[3]); "
+                + "return v",
+                Collections.<Object>singletonList(getName()), invalidationTopic.getChannelNames().get(0), instanceId, key, value);
+        return cacheOnSuccess(cacheKey, value, version, future);
+    }
+
+    @Override
+    public Future<Boolean> fastPutAsync(K key, V value) {
+        CacheKey cacheKey = toCacheKey(key);
+        long version = invalidateLocal(cacheKey);
+        Future<Boolean> future = commandExecutor.evalWriteAsync(getName(), codec, EVAL_FAST_PUT,
+                "local r = redis.call('hset', KEYS[1], ARGV[3], ARGV[4]); "
+                + "redis.call('publish', ARGV[1], ARGV[2] .. ARGV[3]); "
+                + "return r",
+                Collections.<Object>singletonList(getName()), invalidationTopic.getChannelNames().get(0), instanceId, key, value);
+        return cacheOnSuccess(cacheKey, value, version, future);
+    }
+
+    @Override
+    public Future<Void> putAllAsync(Map<? extends K, ? extends V> map) {
+        if (map.isEmpty()) {
+            return newSucceededFuture(null);
+        }
+
+        List<Object> params = new ArrayList<Object>(map.size()*2 + 2);
+        params.add(invalidationTopic.getChannelNames().get(0));
+        params.add(instanceId);
+        final Map<CacheKey, V> cacheMap = new HashMap<CacheKey, V>(map.size());
+        final Map<CacheKey, Long> cacheVersions = new HashMap<CacheKey, Long>(map.size());
+        for (Map.Entry<? extends K, ? extends V> t : map.entrySet()) {
+            CacheKey cacheKey = toCacheKey(t.getKey());
+            cacheVersions.put(cacheKey, invalidateLocal(cacheKey));
+            cacheMap.put(cacheKey, t.getValue());
+            params.add(t.getKey());
+            params.add(t.getValue());
+        }
+
+        Future<Void> future = commandExecutor.evalWriteAsync(getName(), codec, EVAL_PUT_ALL,
+                "for i = 3, #ARGV, 2 do "
+                    + "redis.call('hset', KEYS[1], ARGV[i], ARGV[i+1]); "
+                    + "redis.call('publish', ARGV[1], ARGV[2] .. ARGV[i]); "
+                + "end; "
+                + "return nil",
+                Collections.<Object>singletonList(getName()), params.toArray());
+        final Promise<Void> promise = newPromise();
+        future.addListener(new FutureListener<Void>() {
+            @Override
+            public void operationComplete(Future<Void> future) throws Exception {
+                if (!future.isSuccess()) {
+                    promise.setFailure(future.cause());
+                    return;
+                }
+
+                for (Map.Entry<CacheKey, V> entry : cacheMap.entrySet()) {
+                    cacheValue(entry.getKey(), entry.getValue(), cacheVersions.get(entry.getKey()));
+                }
+                promise.setSuccess(null);
+            }
+        });
+        return promise;
+    }
+
+    @Override
+    public Future<V> removeAsync(K key) {
+        invalidateLocal(toCacheKey(key));
+        return commandExecutor.evalWriteAsync(getName(), codec, EVAL_REMOVE,
+                "local v = redis.call('hget', KEYS[1], ARGV[3]); "
+                + "if v ~= false then "
+                    + "redis.call('hdel', KEYS[1], ARGV[3]); "
+                    + "redis.call('publish', ARGV[1], ARGV[2] .. ARGV[3]); "
+                + "end; "
+                + "return v",
+                Collections.<Object>singletonList(getName()), invalidationTopic.getChannelNames().get(0), instanceId, key);
+    }
+
+    @Override
+    public Future<Long> fastRemoveAsync(K ... keys) {
+        if (keys == null || keys.length == 0) {
+            return newSucceededFuture(0L);
+        }
+
+        List<Object> params = new ArrayList<Object>(keys.length + 2);
+        params.add(invalidationTopic.getChannelNames().get(0));
+        params.add(instanceId);
+        for (K key : keys) {
+            invalidateLocal(toCacheKey(key));
+            params.add(key);
+        }
+
+        return commandExecutor.evalWriteAsync(getName(), codec, EVAL_FAST_REMOVE,
+                "local n = 0; "
+                + "for i = 3, #ARGV, 1 do "
+                    + "if redis.call('hdel', KEYS[1], ARGV[i]) == 1 then "
+                        + "n = n + 1; "
+                        + "redis.call('publish', ARGV[1], ARGV[2] .. ARGV[i]); "
+                    + "end; "
+                + "end; "
+                + "return n",
+                Collections.<Object>singletonList(getName()), params.toArray());
+    }
+
+    @Override
+    public Future<Boolean> deleteAsync() {
+        clearLocalCache();
+        return commandExecutor.evalWriteAsync(getName(), codec, EVAL_DELETE,
+                "local r = redis.call('del', KEYS[1]); "
+                + "redis.call('publish', ARGV[1], ARGV[2]); "
+                + "return r",
+                Collections.<Object>singletonList(getName()), invalidationTopic.getChannelNames().get(0), instanceId);
+    }
+
+    @Override
+    public Future<V> putIfAbsentAsync(K key, V value) {
+        return invalidateOnComplete(key, super.putIfAbsentAsync(key, value));
+    }
+
+    @Override
+    public Future<Long> removeAsync(Object key, Object value) {
+        return invalidateOnComplete(key, super.removeAsync(key, value));
+    }
+
+    @Override
+    public Future<Boolean> replaceAsync(K key, V oldValue, V newValue) {
+        return invalidateOnComplete(key, super.replaceAsync(key, oldValue, newValue));
+    }
+
+    @Override
+    public Future<V> replaceAsync(K key, V value) {
+        return invalidateOnComplete(key, super.replaceAsync(key, value));
+    }
+
+    @Override
+    public Future<V> addAndGetAsync(K key, Number value) {
+        return invalidateOnComplete(key, super.addAndGetAsync(key, value));
+    }
+
+    /**
+     * Conditional writes are rare so they are executed
+     * by parent implementation with separate invalidation message.
+     */
+    private <R> Future<R> invalidateOnComplete(Object key, Future<R> future) {
+        final CacheKey cacheKey = toCacheKey(key);
+        invalidateLocal(cacheKey);
+        future.addListener(new FutureListener<R>() {
+            @Override
+            public void operationComplete(Future<R> future) throws Exception {
+                invalidateLocal(cacheKey);
+                if (future.isSuccess()) {
+                    invalidationTopic.publishAsync(createInvalidateMessage(cacheKey));
+                }
+            }
+        });
+        return future;
+    }
+
+}
@@ -15,11 +15,11 @@
  */
 package org.redisson;
 
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Condition;
 
 import org.redisson.client.codec.LongCodec;
@@ -31,6 +31,8 @@ import org.redisson.pubsub.LockPubSub;
 import io.netty.util.Timeout;
 import io.netty.util.TimerTask;
 import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.Promise;
 import io.netty.util.internal.PlatformDependent;
 
 /**
@@ -69,8 +71,27 @@ public class RedissonLock extends RedissonExpirable implements RLock {
         return "redisson_lock__channel__{" + getName() + "}";
     }
 
+    String getNotificationChannel() {
+        return commandExecutor.getConnectionManager().getNotificationChannels().getChannelName(getChannelName());
+    }
+
+    Object getUnlockMessage() {
+        return commandExecutor.getConnectionManager().getNotificationChannels().getMessage(getChannelName(), unlockMessage);
+    }
+
     String getLockName() {
-        return id + ":" + Thread.currentThread().getId();
+        return getLockName(Thread.currentThread().getId());
+    }
+
+    String getLockName(long threadId) {
+        return id + ":" + threadId;
+    }
+
+    /**
+     * Owner tokens have own prefix, so they never match lock name of any thread
+     */
+    String getOwnerLockName(long ownerId) {
+        return id + ":owner:" + ownerId;
     }
 
     @Override
@@ -180,9 +201,13 @@ public class RedissonLock extends RedissonExpirable implements RLock {
 
 
     Long tryLockInner(long leaseTime, TimeUnit unit) {
+        return get(tryLockInnerAsync(leaseTime, unit, getLockName()));
+    }
+
+    Future<Long> tryLockInnerAsync(long leaseTime, TimeUnit unit, String lockName) {
         internalLockLeaseTime = unit.toMillis(leaseTime);
 
-        return commandExecutor.evalWrite(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_LONG,
+        return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_LONG,
                   "if (redis.call('exists', KEYS[1]) == 0) then " +
                       "redis.call('hset', KEYS[1], ARGV[2], 1); " +
                       "redis.call('pexpire', KEYS[1], ARGV[1]); " +
@@ -194,7 +219,7 @@ public class RedissonLock extends RedissonExpirable implements RLock {
                       "return nil; " +
                   "end; " +
                   "return redis.call('pttl', KEYS[1]);",
-                    Collections.<Object>singletonList(getName()), internalLockLeaseTime, getLockName());
+                    Collections.<Object>singletonList(getName()), internalLockLeaseTime, lockName);
     }
 
     public boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
@@ -250,6 +275,197 @@ public class RedissonLock extends RedissonExpirable implements RLock {
         }
     }
 
+    @Override
+    public Future<Void> lockAsync() {
+        return lockAsync(-1, null);
+    }
+
+    @Override
+    public Future<Void> lockAsync(long leaseTime, TimeUnit unit) {
+        return lockAsync(leaseTime, unit, getLockName());
+    }
+
+    @Override
+    public Future<Void> lockAsync(long leaseTime, TimeUnit unit, long ownerId) {
+        return lockAsync(leaseTime, unit, getOwnerLockName(ownerId));
+    }
+
+    private Future<Void> lockAsync(long leaseTime, TimeUnit unit, String lockName) {
+        final Promise<Void> result = newPromise();
+        Future<Boolean> future = tryLockAsync(-1, leaseTime, unit, lockName);
+        future.addListener(new FutureListener<Boolean>() {
+            @Override
+            public void operationComplete(Future<Boolean> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+
+                result.setSuccess(null);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public Future<Boolean> tryLockAsync() {
+        return tryLockAsync(0, -1, TimeUnit.MILLISECONDS, getLockName());
+    }
+
+    @Override
+    public Future<Boolean> tryLockAsync(long ownerId) {
+        return tryLockAsync(0, -1, TimeUnit.MILLISECONDS, getOwnerLockName(ownerId));
+    }
+
+    @Override
+    public Future<Boolean> tryLockAsync(long waitTime, long leaseTime, TimeUnit unit) {
+        return tryLockAsync(waitTime, leaseTime, unit, getLockName());
+    }
+
+    @Override
+    public Future<Boolean> tryLockAsync(long waitTime, long leaseTime, TimeUnit unit, long ownerId) {
+        return tryLockAsync(waitTime, leaseTime, unit, getOwnerLockName(ownerId));
+    }
+
+    /**
+     * Acquires lock without blocking. If lock is held by another owner
+     * then attempt is repeated on unlock message or once lock expires.
+     * <code>waitTime</code> of <code>-1</code> means wait until lock acquired.
+     */
+    private Future<Boolean> tryLockAsync(long waitTime, final long leaseTime, final TimeUnit unit, final String lockName) {
+        final Promise<Boolean> result = newPromise();
+        final long deadline;
+        if (waitTime == -1) {
+            deadline = -1;
+        } else if (waitTime == 0) {
+            deadline = System.currentTimeMillis();
+        } else {
+            deadline = System.currentTimeMillis() + unit.toMillis(waitTime);
+        }
+
+        Future<Long> ttlFuture = tryAcquireAsync(leaseTime, unit, lockName);
+        ttlFuture.addListener(new FutureListener<Long>() {
+            @Override
+            public void operationComplete(Future<Long> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+
+                // lock acquired
+                if (future.getNow() == null) {
+                    result.setSuccess(true);
+                    return;
+                }
+
+                if (deadline != -1 && System.currentTimeMillis() >= deadline) {
+                    result.setSuccess(false);
+                    return;
+                }
+
+                final Future<RedissonLockEntry> subscribeFuture = subscribe();
+                subscribeFuture.addListener(new FutureListener<RedissonLockEntry>() {
+                    @Override
+                    public void operationComplete(Future<RedissonLockEntry> future) throws Exception {
+                        if (!future.isSuccess()) {
+                            result.setFailure(future.cause());
+                            return;
+                        }
+
+                        tryLockAsync(subscribeFuture, deadline, leaseTime, unit, lockName, result);
+                    }
+                });
+            }
+        });
+        return result;
+    }
+
+    private void tryLockAsync(final Future<RedissonLockEntry> subscribeFuture, final long deadline,
+            final long leaseTime, final TimeUnit unit, final String lockName, final Promise<Boolean> result) {
+        Future<Long> ttlFuture = tryAcquireAsync(leaseTime, unit, lockName);
+        ttlFuture.addListener(new FutureListener<Long>() {
+            @Override
+            public void operationComplete(Future<Long> future) throws Exception {
+                if (!future.isSuccess()) {
+                    unsubscribe(subscribeFuture);
+                    result.setFailure(future.cause());
+                    return;
+                }
+
+                Long ttl = future.getNow();
+                // lock acquired
+                if (ttl == null) {
+                    unsubscribe(subscribeFuture);
+                    result.setSuccess(true);
+                    return;
+                }
+
+                long time = ttl;
+                if (deadline != -1) {
+                    long remains = deadline - System.currentTimeMillis();
+                    if (remains <= 0) {
+                        unsubscribe(subscribeFuture);
+                        result.setSuccess(false);
+                        return;
+                    }
+                    if (ttl < 0 || ttl > remains) {
+                        time = remains;
+                    }
+                }
+
+                // waiting for unlock message or lock expiration
+                final RedissonLockEntry entry = subscribeFuture.getNow();
+                final AtomicReference<Timeout> timeoutRef = new AtomicReference<Timeout>();
+                final Runnable listener = new Runnable() {
+                    @Override
+                    public void run() {
+                        Timeout timeout = timeoutRef.get();
+                        if (timeout != null) {
+                            timeout.cancel();
+                        }
+                        tryLockAsync(subscribeFuture, deadline, leaseTime, unit, lockName, result);
+                    }
+                };
+                entry.addListener(listener);
+
+                if (time >= 0) {
+                    Timeout timeout = commandExecutor.getConnectionManager().newTimeout(new TimerTask() {
+                        @Override
+                        public void run(Timeout timeout) throws Exception {
+                            if (entry.removeListener(listener)) {
+                                tryLockAsync(subscribeFuture, deadline, leaseTime, unit, lockName, result);
+                            }
+                        }
+                    }, time, TimeUnit.MILLISECONDS);
+                    timeoutRef.set(timeout);
+                }
+
+                // unlock message could be received before listener registration
+                if (entry.getLatch().tryAcquire() && entry.removeListener(listener)) {
+                    listener.run();
+                }
+            }
+        });
+    }
+
+    private Future<Long> tryAcquireAsync(long leaseTime, TimeUnit unit, String lockName) {
+        if (leaseTime != -1) {
+            return tryLockInnerAsync(leaseTime, unit, lockName);
+        }
+
+        Future<Long> ttlFuture = tryLockInnerAsync(LOCK_EXPIRATION_INTERVAL_SECONDS, TimeUnit.SECONDS, lockName);
+        ttlFuture.addListener(new FutureListener<Long>() {
+            @Override
+            public void operationComplete(Future<Long> future) throws Exception {
+                // lock acquired
+                if (future.isSuccess() && future.getNow() == null) {
+                    scheduleExpirationRenewal();
+                }
+            }
+        });
+        return ttlFuture;
+    }
+
     private RedissonLockEntry getEntry() {
         return PUBSUB.getEntry(getEntryName());
     }
@@ -269,9 +485,55 @@ public class RedissonLock extends RedissonExpirable implements RLock {
 
     @Override
     public void unlock() {
-        Boolean opStatus = commandExecutor.evalWrite(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
+        Boolean opStatus = get(unlockInnerAsync(getLockName()));
+        if (opStatus == null) {
+            throw new IllegalMonitorStateException("attempt to unlock lock, not locked by current thread by node id: "
+                    + id + " thread-id: " + Thread.currentThread().getId());
+        }
+        if (opStatus) {
+            cancelExpirationRenewal();
+        }
+    }
+
+    @Override
+    public Future<Void> unlockAsync() {
+        return unlockAsync(getLockName());
+    }
+
+    @Override
+    public Future<Void> unlockAsync(long ownerId) {
+        return unlockAsync(getOwnerLockName(ownerId));
+    }
+
+    private Future<Void> unlockAsync(final String lockName) {
+        final Promise<Void> result = newPromise();
+        Future<Boolean> future = unlockInnerAsync(lockName);
+        future.addListener(new FutureListener<Boolean>() {
+            @Override
+            public void operationComplete(Future<Boolean> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+
+                Boolean opStatus = future.getNow();
+                if (opStatus == null) {
+                    result.setFailure(new IllegalMonitorStateException("attempt to unlock lock, not locked by owner: " + lockName));
+                    return;
+                }
+                if (opStatus) {
+                    cancelExpirationRenewal();
+                }
+                result.setSuccess(null);
+            }
+        });
+        return result;
+    }
+
+    Future<Boolean> unlockInnerAsync(String lockName) {
+        return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
                         "if (redis.call('exists', KEYS[1]) == 0) then " +
-                            "redis.call('publish', KEYS[2], ARGV[1]); " +
+                            "redis.call('publish', ARGV[4], ARGV[1]); " +
                             "return 1; " +
                         "end;" +
                         "if (redis.call('hexists', KEYS[1], ARGV[3]) == 0) then " +
@@ -283,18 +545,11 @@ public class RedissonLock extends RedissonExpirable implements RLock {
                             "return 0; " +
                         "else " +
                             "redis.call('del', KEYS[1]); " +
-                            "redis.call('publish', KEYS[2], ARGV[1]); " +
+                            "redis.call('publish', ARGV[4], ARGV[1]); " +
                             "return 1; "+
                         "end; " +
                         "return nil;",
-                        Arrays.<Object>asList(getName(), getChannelName()), unlockMessage, internalLockLeaseTime, getLockName());
-        if (opStatus == null) {
-            throw new IllegalMonitorStateException("attempt to unlock read lock, not locked by current thread by node id: "
-                    + id + " thread-id: " + Thread.currentThread().getId());
-        }
-        if (opStatus) {
-            cancelExpirationRenewal();
-        }
+                        Collections.<Object>singletonList(getName()), getUnlockMessage(), internalLockLeaseTime, lockName, getNotificationChannel());
     }
 
     @Override
@@ -308,16 +563,17 @@ public class RedissonLock extends RedissonExpirable implements RLock {
         get(forceUnlockAsync());
     }
 
-    Future<Boolean> forceUnlockAsync() {
+    @Override
+    public Future<Boolean> forceUnlockAsync() {
         cancelExpirationRenewal();
         return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
                 "if (redis.call('del', KEYS[1]) == 1) then "
-                + "redis.call('publish', KEYS[2], ARGV[1]); "
+                + "redis.call('publish', ARGV[2], ARGV[1]); "
                 + "return 1 "
                 + "else "
                 + "return 0 "
                 + "end",
-                Arrays.<Object>asList(getName(), getChannelName()), unlockMessage);
+                Collections.<Object>singletonList(getName()), getUnlockMessage(), getNotificationChannel());
     }
 
     @Override
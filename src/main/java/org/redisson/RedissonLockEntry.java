@@ -17,13 +17,18 @@ package org.redisson;
 
 import io.netty.util.concurrent.Promise;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class RedissonLockEntry implements PubSubEntry<RedissonLockEntry> {
 
-    private int counter;
+    // entry is created acquired by subscriber
+    private final AtomicInteger counter = new AtomicInteger(1);
 
     private final Semaphore latch;
+    private final Queue<Runnable> listeners = new ConcurrentLinkedQueue<Runnable>();
     private final Promise<RedissonLockEntry> promise;
 
     public RedissonLockEntry(Promise<RedissonLockEntry> promise) {
@@ -32,12 +37,20 @@ public class RedissonLockEntry implements PubSubEntry<RedissonLockEntry> {
         this.promise = promise;
     }
 
-    public void aquire() {
-        counter++;
+    public boolean aquire() {
+        while (true) {
+            int value = counter.get();
+            if (value == 0) {
+                return false;
+            }
+            if (counter.compareAndSet(value, value + 1)) {
+                return true;
+            }
+        }
     }
 
     public int release() {
-        return --counter;
+        return counter.decrementAndGet();
     }
 
     public Promise<RedissonLockEntry> getPromise() {
@@ -48,4 +61,16 @@ public class RedissonLockEntry implements PubSubEntry<RedissonLockEntry> {
         return latch;
     }
 
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public boolean removeListener(Runnable listener) {
+        return listeners.remove(listener);
+    }
+
+    public Queue<Runnable> getListeners() {
+        return listeners;
+    }
+
 }
@@ -0,0 +1,653 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.redisson.client.codec.LongCodec;
+import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.core.LongAdderOptions;
+import org.redisson.core.MessageListener;
+import org.redisson.core.RLongAdder;
+
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Distributed counter with locally buffered increments.
+ * Flushed deltas are added to one of {@link RedissonAtomicLong} shards.
+ *
+ * <p>Global flush is requested by publishing positive request id to counter topic.
+ * Each instance flushes own increments and replies with negative request id.</p>
+ *
+ * <p>Instance is shared by all holders of the same name within Redisson client
+ * and released once each of them invoked {@link #destroy()}.</p>
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class RedissonLongAdder extends RedissonObject implements RLongAdder {
+
+    static class FlushRequest {
+
+        final AtomicInteger replies = new AtomicInteger();
+        volatile long expectedReplies = Long.MAX_VALUE;
+        final Promise<Void> promise;
+
+        FlushRequest(Promise<Void> promise) {
+            this.promise = promise;
+        }
+
+        void check() {
+            if (replies.get() >= expectedReplies) {
+                promise.trySuccess(null);
+            }
+        }
+
+    }
+
+    private static final int CELLS = cellsAmount();
+
+    private final Random random = new Random();
+    private final AtomicLongArray cells = new AtomicLongArray(CELLS);
+    private final RedissonAtomicLong[] shards;
+    private final AtomicInteger shardIndex = new AtomicInteger();
+    private final LongAdderOptions options;
+    private final long flushThreshold;
+    private final long flushInterval;
+
+    private final RedissonTopic<Long> topic;
+    private final int listenerId;
+    private final ConcurrentMap<Long, FlushRequest> requests = PlatformDependent.newConcurrentHashMap();
+
+    private final Set<Future<Void>> flushes = Collections.newSetFromMap(PlatformDependent.<Future<Void>, Boolean>newConcurrentHashMap());
+
+    private final ConcurrentMap<String, RedissonLongAdder> registry;
+    private final AtomicInteger usages = new AtomicInteger(1);
+
+    private volatile Timeout flushTimeout;
+    private volatile boolean destroyed;
+
+    protected RedissonLongAdder(CommandAsyncExecutor commandExecutor, String name, LongAdderOptions options,
+            ConcurrentMap<String, RedissonLongAdder> registry) {
+        super(commandExecutor, name);
+        this.registry = registry;
+        this.options = options;
+        flushThreshold = options.getFlushThreshold();
+        flushInterval = options.getFlushIntervalInMillis();
+
+        shards = new RedissonAtomicLong[options.getShards()];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new RedissonAtomicLong(commandExecutor, getShardName(name, i));
+        }
+
+        topic = new RedissonTopic<Long>(LongCodec.INSTANCE, commandExecutor, getTopicName());
+        listenerId = addFlushListener();
+        scheduleFlush();
+    }
+
+    /**
+     * Shard names have no hash tag, so shards are spread over cluster slots.
+     */
+    private static String getShardName(String name, int index) {
+        if (index == 0) {
+            return name;
+        }
+        return name + ":" + index;
+    }
+
+    private static int cellsAmount() {
+        int amount = 1;
+        while (amount < Runtime.getRuntime().availableProcessors() * 2) {
+            amount <<= 1;
+        }
+        return amount;
+    }
+
+    /**
+     * Registers one more holder of this instance.
+     *
+     * @return <code>false</code> if instance has been already destroyed
+     */
+    boolean acquire() {
+        while (true) {
+            int value = usages.get();
+            if (value == 0) {
+                return false;
+            }
+            if (usages.compareAndSet(value, value + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the last holder has been released
+     */
+    private boolean release() {
+        while (true) {
+            int value = usages.get();
+            if (value == 0) {
+                return false;
+            }
+            if (usages.compareAndSet(value, value - 1)) {
+                return value == 1;
+            }
+        }
+    }
+
+    void checkSettings(LongAdderOptions options) {
+        if (!this.options.equals(options)) {
+            throw new IllegalArgumentException("Long adder '" + getName() + "' is already used with "
+                                    + this.options + " options");
+        }
+    }
+
+    private String getTopicName() {
+        return "redisson_long_adder__{" + getName() + "}";
+    }
+
+    private int addFlushListener() {
+        return topic.addListener(new MessageListener<Long>() {
+            @Override
+            public void onMessage(String channel, final Long requestId) {
+                if (requestId > 0) {
+                    flushAsync().addListener(new FutureListener<Void>() {
+                        @Override
+                        public void operationComplete(Future<Void> future) throws Exception {
+                            // reply even if flush failed, so requester doesn't wait for timeout
+                            topic.publishAsync(-requestId);
+                        }
+                    });
+                    return;
+                }
+
+                FlushRequest request = requests.get(-requestId);
+                if (request != null) {
+                    request.replies.incrementAndGet();
+                    request.check();
+                }
+            }
+        });
+    }
+
+    private void scheduleFlush() {
+        if (flushInterval == 0 || destroyed) {
+            return;
+        }
+
+        flushTimeout = commandExecutor.getConnectionManager().newTimeout(new TimerTask() {
+            @Override
+            public void run(Timeout timeout) throws Exception {
+                flushCells();
+                scheduleFlush();
+            }
+        }, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void add(long delta) {
+        int index = (int) Thread.currentThread().getId() & (CELLS - 1);
+        long value = cells.addAndGet(index, delta);
+        if (flushThreshold > 0 && Math.abs(value) >= flushThreshold) {
+            flushCells();
+        }
+    }
+
+    @Override
+    public void increment() {
+        add(1);
+    }
+
+    @Override
+    public void decrement() {
+        add(-1);
+    }
+
+    @Override
+    public void flush() {
+        get(flushAsync());
+    }
+
+    @Override
+    public Future<Void> flushAsync() {
+        flushCells();
+
+        List<Future<Void>> pending = new ArrayList<Future<Void>>(flushes);
+        if (pending.isEmpty()) {
+            return newSucceededFuture(null);
+        }
+        return allAsync(pending);
+    }
+
+    private void flushCells() {
+        long delta = 0;
+        for (int i = 0; i < CELLS; i++) {
+            delta += cells.getAndSet(i, 0);
+        }
+        if (delta == 0) {
+            return;
+        }
+
+        final long value = delta;
+        final Promise<Void> result = newPromise();
+        flushes.add(result);
+        int index = (shardIndex.getAndIncrement() & Integer.MAX_VALUE) % shards.length;
+        Future<Long> future = shards[index].addAndGetAsync(value);
+        future.addListener(new FutureListener<Long>() {
+            @Override
+            public void operationComplete(Future<Long> future) throws Exception {
+                flushes.remove(result);
+                if (!future.isSuccess()) {
+                    // return delta back, it will be flushed next time
+                    cells.addAndGet(0, value);
+                    result.setFailure(future.cause());
+                    return;
+                }
+
+                result.setSuccess(null);
+            }
+        });
+    }
+
+    private Future<Void> allAsync(Collection<Future<Void>> futures) {
+        final Promise<Void> result = newPromise();
+        final AtomicInteger counter = new AtomicInteger(futures.size());
+        for (Future<Void> f : futures) {
+            f.addListener(new FutureListener<Void>() {
+                @Override
+                public void operationComplete(Future<Void> future) throws Exception {
+                    if (!future.isSuccess()) {
+                        result.tryFailure(future.cause());
+                        return;
+                    }
+
+                    if (counter.decrementAndGet() == 0) {
+                        result.trySuccess(null);
+                    }
+                }
+            });
+        }
+        return result;
+    }
+
+    @Override
+    public long sum() {
+        return get(sumAsync());
+    }
+
+    @Override
+    public Future<Long> sumAsync() {
+        final Promise<Long> result = newPromise();
+        flushAsync().addListener(new FutureListener<Void>() {
+            @Override
+            public void operationComplete(Future<Void> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+
+                readSum(result);
+            }
+        });
+        return result;
+    }
+
+    private void readSum(final Promise<Long> result) {
+        final AtomicLong sum = new AtomicLong();
+        final AtomicInteger counter = new AtomicInteger(shards.length);
+        for (RedissonAtomicLong shard : shards) {
+            shard.getAsync().addListener(new FutureListener<Long>() {
+                @Override
+                public void operationComplete(Future<Long> future) throws Exception {
+                    if (!future.isSuccess()) {
+                        result.tryFailure(future.cause());
+                        return;
+                    }
+
+                    sum.addAndGet(future.getNow());
+                    if (counter.decrementAndGet() == 0) {
+                        result.trySuccess(sum.get());
+                    }
+                }
+            });
+        }
+    }
+
+    @Override
+    public long sum(long timeout, TimeUnit unit) {
+        return get(sumAsync(timeout, unit));
+    }
+
+    @Override
+    public Future<Long> sumAsync(long timeout, TimeUnit unit) {
+        final long requestId = (random.nextLong() & Long.MAX_VALUE) | 1;
+        final FlushRequest request = new FlushRequest(commandExecutor.getConnectionManager().<Void>newPromise());
+        requests.put(requestId, request);
+
+        final Timeout requestTimeout = commandExecutor.getConnectionManager().newTimeout(new TimerTask() {
+            @Override
+            public void run(Timeout timeout) throws Exception {
+                // read value flushed so far
+                request.promise.trySuccess(null);
+            }
+        }, timeout, unit);
+
+        Future<Long> publishFuture = topic.publishAsync(requestId);
+        publishFuture.addListener(new FutureListener<Long>() {
+            @Override
+            public void operationComplete(Future<Long> future) throws Exception {
+                if (!future.isSuccess()) {
+                    request.promise.tryFailure(future.cause());
+                    return;
+                }
+
+                // amount of subscribed instances including this one
+                request.expectedReplies = future.getNow();
+                request.check();
+            }
+        });
+
+        final Promise<Long> result = newPromise();
+        request.promise.addListener(new FutureListener<Void>() {
+            @Override
+            public void operationComplete(Future<Void> future) throws Exception {
+                requests.remove(requestId);
+                requestTimeout.cancel();
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+
+                readSum(result);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public void destroy() {
+        if (!release()) {
+            return;
+        }
+
+        registry.remove(getName(), this);
+        destroyed = true;
+        Timeout timeout = flushTimeout;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        topic.removeListener(listenerId);
+        flush();
+    }
+
+    @Override
+    public Future<Boolean> deleteAsync() {
+        for (int i = 0; i < CELLS; i++) {
+            cells.set(i, 0);
+        }
+
+        List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>(shards.length);
+        for (RedissonAtomicLong shard : shards) {
+            futures.add(shard.deleteAsync());
+        }
+        return matchAsync(futures, true);
+    }
+
+    @Override
+    public Future<Boolean> isExistsAsync() {
+        List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>(shards.length);
+        for (RedissonAtomicLong shard : shards) {
+            futures.add(shard.isExistsAsync());
+        }
+        return matchAsync(futures, true);
+    }
+
+    /**
+     * @return <code>true</code> if any of futures completed with <code>true</code>
+     *         or if all of them completed with <code>true</code> when <code>any</code> is <code>false</code>
+     */
+    private Future<Boolean> matchAsync(List<Future<Boolean>> futures, final boolean any) {
+        final Promise<Boolean> result = newPromise();
+        final AtomicBoolean matched = new AtomicBoolean(!any);
+        final AtomicInteger counter = new AtomicInteger(futures.size());
+        for (Future<Boolean> f : futures) {
+            f.addListener(new FutureListener<Boolean>() {
+                @Override
+                public void operationComplete(Future<Boolean> future) throws Exception {
+                    if (!future.isSuccess()) {
+                        result.tryFailure(future.cause());
+                        return;
+                    }
+
+                    if (future.getNow() == any) {
+                        matched.set(any);
+                    }
+                    if (counter.decrementAndGet() == 0) {
+                        result.trySuccess(matched.get());
+                    }
+                }
+            });
+        }
+        return result;
+    }
+
+    private <V> void transfer(Future<V> future, final Promise<V> promise) {
+        future.addListener(new FutureListener<V>() {
+            @Override
+            public void operationComplete(Future<V> future) throws Exception {
+                if (!future.isSuccess()) {
+                    promise.setFailure(future.cause());
+                    return;
+                }
+                promise.setSuccess(future.getNow());
+            }
+        });
+    }
+
+    /**
+     * Flushes local increments and finds shards stored in Redis.
+     * Shard key is created by the first flush to it, so some of them could be absent.
+     *
+     * @return indexes of existing shards
+     */
+    private Future<List<Integer>> existingShardsAsync() {
+        final Promise<List<Integer>> result = newPromise();
+        flushAsync().addListener(new FutureListener<Void>() {
+            @Override
+            public void operationComplete(Future<Void> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+
+                final List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>(shards.length);
+                for (RedissonAtomicLong shard : shards) {
+                    futures.add(shard.isExistsAsync());
+                }
+                matchAsync(futures, true).addListener(new FutureListener<Boolean>() {
+                    @Override
+                    public void operationComplete(Future<Boolean> future) throws Exception {
+                        if (!future.isSuccess()) {
+                            result.setFailure(future.cause());
+                            return;
+                        }
+
+                        List<Integer> indexes = new ArrayList<Integer>();
+                        for (int i = 0; i < futures.size(); i++) {
+                            if (futures.get(i).getNow()) {
+                                indexes.add(i);
+                            }
+                        }
+                        result.setSuccess(indexes);
+                    }
+                });
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Renames each existing shard to shard with the same index of <code>newName</code> counter.
+     * Increments flushed by other instances during renaming are added to the old name.
+     */
+    @Override
+    public Future<Void> renameAsync(final String newName) {
+        final Promise<Void> result = newPromise();
+        existingShardsAsync().addListener(new FutureListener<List<Integer>>() {
+            @Override
+            public void operationComplete(Future<List<Integer>> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+
+                if (future.getNow().isEmpty()) {
+                    // fails the same way as rename of any other absent object
+                    transfer(shards[0].renameAsync(newName), result);
+                    return;
+                }
+
+                List<Future<Void>> futures = new ArrayList<Future<Void>>();
+                for (Integer index : future.getNow()) {
+                    futures.add(shards[index].renameAsync(getShardName(newName, index)));
+                }
+                transfer(allAsync(futures), result);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Counter is renamed only if none of <code>newName</code> counter shards exist.
+     * Check and renaming aren't atomic.
+     */
+    @Override
+    public Future<Boolean> renamenxAsync(final String newName) {
+        final Promise<Boolean> result = newPromise();
+        existingShardsAsync().addListener(new FutureListener<List<Integer>>() {
+            @Override
+            public void operationComplete(Future<List<Integer>> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+
+                final List<Integer> indexes = future.getNow();
+                if (indexes.isEmpty()) {
+                    transfer(shards[0].renamenxAsync(newName), result);
+                    return;
+                }
+
+                List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>(shards.length);
+                for (int i = 0; i < shards.length; i++) {
+                    futures.add(new RedissonAtomicLong(commandExecutor, getShardName(newName, i)).isExistsAsync());
+                }
+                matchAsync(futures, true).addListener(new FutureListener<Boolean>() {
+                    @Override
+                    public void operationComplete(Future<Boolean> future) throws Exception {
+                        if (!future.isSuccess()) {
+                            result.setFailure(future.cause());
+                            return;
+                        }
+                        if (future.getNow()) {
+                            result.setSuccess(false);
+                            return;
+                        }
+
+                        List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>(indexes.size());
+                        for (Integer index : indexes) {
+                            futures.add(shards[index].renamenxAsync(getShardName(newName, index)));
+                        }
+                        transfer(matchAsync(futures, false), result);
+                    }
+                });
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @return <code>true</code> if all existing shards have been moved
+     */
+    @Override
+    public Future<Boolean> moveAsync(final int database) {
+        final Promise<Boolean> result = newPromise();
+        existingShardsAsync().addListener(new FutureListener<List<Integer>>() {
+            @Override
+            public void operationComplete(Future<List<Integer>> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+
+                if (future.getNow().isEmpty()) {
+                    result.setSuccess(false);
+                    return;
+                }
+
+                List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>(future.getNow().size());
+                for (Integer index : future.getNow()) {
+                    futures.add(shards[index].moveAsync(database));
+                }
+                transfer(matchAsync(futures, false), result);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public Future<Void> migrateAsync(final String host, final int port, final int database) {
+        final Promise<Void> result = newPromise();
+        existingShardsAsync().addListener(new FutureListener<List<Integer>>() {
+            @Override
+            public void operationComplete(Future<List<Integer>> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+
+                if (future.getNow().isEmpty()) {
+                    result.setSuccess(null);
+                    return;
+                }
+
+                List<Future<Void>> futures = new ArrayList<Future<Void>>(future.getNow().size());
+                for (Integer index : future.getNow()) {
+                    futures.add(shards[index].migrateAsync(host, port, database));
+                }
+                transfer(allAsync(futures), result);
+            }
+        });
+        return result;
+    }
+
+}
@@ -305,19 +305,28 @@ public class RedissonMap<K, V> extends RedissonExpirable implements RMap<K, V> {
         return get(fastRemoveAsync(keys));
     }
 
-    MapScanResult<Object, V> scanIterator(InetSocketAddress client, long startPos) {
-        Future<MapScanResult<Object, V>> f = commandExecutor.readAsync(client, getName(), codec, RedisCommands.HSCAN, getName(), startPos);
-        return get(f);
+    Future<MapScanResult<K, V>> scanIteratorAsync(InetSocketAddress client, long startPos, int count) {
+        return commandExecutor.readAsync(client, getName(), codec, RedisCommands.HSCAN, getName(), startPos, "COUNT", count);
     }
 
     @Override
     public Iterator<Map.Entry<K, V>> entryIterator() {
-        return new RedissonMapIterator<K, V, Map.Entry<K, V>>(this);
+        return entryIterator(10);
+    }
+
+    @Override
+    public Iterator<Map.Entry<K, V>> entryIterator(int count) {
+        return new RedissonMapIterator<K, V, Map.Entry<K, V>>(this, count);
     }
 
     @Override
     public Iterator<V> valueIterator() {
-        return new RedissonMapIterator<K, V, V>(this) {
+        return valueIterator(10);
+    }
+
+    @Override
+    public Iterator<V> valueIterator(int count) {
+        return new RedissonMapIterator<K, V, V>(this, count) {
             @Override
             V getValue(java.util.Map.Entry<K, V> entry) {
                 return entry.getValue();
@@ -327,7 +336,12 @@ public class RedissonMap<K, V> extends RedissonExpirable implements RMap<K, V> {
 
     @Override
     public Iterator<K> keyIterator() {
-        return new RedissonMapIterator<K, V, K>(this) {
+        return keyIterator(10);
+    }
+
+    @Override
+    public Iterator<K> keyIterator(int count) {
+        return new RedissonMapIterator<K, V, K>(this, count) {
             @Override
             K getValue(java.util.Map.Entry<K, V> entry) {
                 return entry.getKey();
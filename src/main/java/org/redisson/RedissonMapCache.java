@@ -18,11 +18,15 @@ package org.redisson;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.redisson.client.codec.Codec;
 import org.redisson.client.codec.LongCodec;
@@ -32,6 +36,7 @@ import org.redisson.client.protocol.RedisCommands;
 import org.redisson.client.protocol.convertor.BooleanReplayConvertor;
 import org.redisson.client.protocol.convertor.Convertor;
 import org.redisson.client.protocol.convertor.LongReplayConvertor;
+import org.redisson.client.protocol.convertor.VoidReplayConvertor;
 import org.redisson.client.protocol.decoder.MapScanResult;
 import org.redisson.client.protocol.decoder.MapScanResultReplayDecoder;
 import org.redisson.client.protocol.decoder.NestedMultiDecoder;
@@ -40,6 +45,7 @@ import org.redisson.client.protocol.decoder.ObjectMapReplayDecoder;
 import org.redisson.client.protocol.decoder.TTLMapValueReplayDecoder;
 import org.redisson.command.CommandAsyncExecutor;
 import org.redisson.connection.decoder.CacheGetAllDecoder;
+import org.redisson.core.EvictionStats;
 import org.redisson.core.RMapCache;
 
 import io.netty.util.concurrent.Future;
@@ -54,9 +60,9 @@ import io.netty.util.concurrent.Promise;
  * <p>Current redis implementation doesnt have map entry eviction functionality.
  * Thus entries are checked for TTL expiration during any key/value/entry read operation.
  * If key/value/entry expired then it doesn't returns and clean task runs asynchronous.
- * Clean task deletes removes 100 expired entries at once.
+ * Clean task removes expired entries in batches of adaptive size.
  * In addition there is {@link org.redisson.EvictionScheduler}. This scheduler
- * deletes expired entries in time interval between 5 seconds to 2 hours.</p>
+ * deletes expired entries in time interval between 1 second to 2 hours.</p>
  *
  * <p>If eviction is not required then it's better to use {@link org.redisson.reactive.RedissonMapReactive}.</p>
  *
@@ -74,8 +80,12 @@ public class RedissonMapCache<K, V> extends RedissonMap<K, V> implements RMapCac
     private static final RedisCommand<List<Object>> EVAL_GET_TTL = new RedisCommand<List<Object>>("EVAL", new TTLMapValueReplayDecoder<Object>(), 5, ValueType.MAP_KEY, ValueType.MAP_VALUE);
     private static final RedisCommand<List<Object>> EVAL_CONTAINS_KEY = new RedisCommand<List<Object>>("EVAL", new ObjectListReplayDecoder<Object>(), 5, ValueType.MAP_KEY);
     private static final RedisCommand<List<Object>> EVAL_CONTAINS_VALUE = new RedisCommand<List<Object>>("EVAL", new ObjectListReplayDecoder<Object>(), 5, ValueType.MAP_VALUE);
+    private static final RedisCommand<Void> EVAL_PUT_ALL_TTL = new RedisCommand<Void>("EVAL", new VoidReplayConvertor(), 6, ValueType.MAP);
     private static final RedisCommand<Long> EVAL_FAST_REMOVE = new RedisCommand<Long>("EVAL", 5, ValueType.MAP_KEY);
 
+    // max amount of entries per single script invocation of bulk operation
+    private static final int BULK_CHUNK_SIZE = 1000;
+
     private final EvictionScheduler evictionScheduler;
 
     protected RedissonMapCache(EvictionScheduler evictionScheduler, CommandAsyncExecutor commandExecutor, String name) {
@@ -143,12 +153,64 @@ public class RedissonMapCache<K, V> extends RedissonMap<K, V> implements RMapCac
             return newSucceededFuture(Collections.<K, V>emptyMap());
         }
 
-        List<Object> args = new ArrayList<Object>(keys.size() + 2);
+        final Promise<Map<K, V>> result = newPromise();
+        final Map<K, V> values = new HashMap<K, V>(keys.size());
+        List<List<Object>> chunks = splitToChunks(keys);
+        final AtomicInteger counter = new AtomicInteger(chunks.size());
+        final AtomicBoolean expiredFound = new AtomicBoolean();
+        // each chunk is sent as separate command with own timeout,
+        // chunks are added to batch if map is used through it
+        for (List<Object> chunk : chunks) {
+            Future<List<Object>> future = getAllChunkAsync(chunk);
+            future.addListener(new FutureListener<List<Object>>() {
+                @Override
+                public void operationComplete(Future<List<Object>> future) throws Exception {
+                    if (!future.isSuccess()) {
+                        result.tryFailure(future.cause());
+                        return;
+                    }
+
+                    List<Object> res = future.getNow();
+                    Long expireDate = (Long) res.get(0);
+                    if (expireDate <= System.currentTimeMillis()) {
+                        expiredFound.set(true);
+                    }
+
+                    synchronized (values) {
+                        values.putAll((Map<K, V>) res.get(1));
+                    }
+
+                    if (counter.decrementAndGet() == 0) {
+                        if (expiredFound.get()) {
+                            evictionScheduler.runCleanTask(getName(), getTimeoutSetName(), System.currentTimeMillis());
+                        }
+                        result.trySuccess(values);
+                    }
+                }
+            });
+        }
+        return result;
+    }
+
+    private List<List<Object>> splitToChunks(Collection<K> values) {
+        List<List<Object>> chunks = new ArrayList<List<Object>>(values.size() / BULK_CHUNK_SIZE + 1);
+        List<Object> chunk = null;
+        for (K value : values) {
+            if (chunk == null || chunk.size() == BULK_CHUNK_SIZE) {
+                chunk = new ArrayList<Object>(Math.min(values.size(), BULK_CHUNK_SIZE));
+                chunks.add(chunk);
+            }
+            chunk.add(value);
+        }
+        return chunks;
+    }
+
+    private Future<List<Object>> getAllChunkAsync(List<Object> keys) {
+        List<Object> args = new ArrayList<Object>(keys.size() + 1);
         args.add(System.currentTimeMillis());
         args.addAll(keys);
 
-        final Promise<Map<K, V>> result = newPromise();
-        Future<List<Object>> future = commandExecutor.evalReadAsync(getName(), codec, new RedisCommand<List<Object>>("EVAL", new CacheGetAllDecoder(args), 6, ValueType.MAP_KEY, ValueType.MAP_VALUE),
+        return commandExecutor.evalReadAsync(getName(), codec, new RedisCommand<List<Object>>("EVAL", new CacheGetAllDecoder(args), 6, ValueType.MAP_KEY, ValueType.MAP_VALUE),
                         "local expireHead = redis.call('zrange', KEYS[2], 0, 0, 'withscores');" +
                         "local maxDate = table.remove(ARGV, 1); " // index is the first parameter
                       + "local minExpireDate = 92233720368547758;" +
@@ -163,28 +225,6 @@ public class RedissonMapCache<K, V> extends RedissonMap<K, V> implements RMapCac
                       + "end; " +
                        "return {minExpireDate, unpack(redis.call('hmget', KEYS[1], unpack(ARGV)))};",
                 Arrays.<Object>asList(getName(), getTimeoutSetName()), args.toArray());
-
-        future.addListener(new FutureListener<List<Object>>() {
-            @Override
-            public void operationComplete(Future<List<Object>> future) throws Exception {
-                if (!future.isSuccess()) {
-                    result.setFailure(future.cause());
-                    return;
-                }
-
-                List<Object> res = future.getNow();
-                Long expireDate = (Long) res.get(0);
-                long currentDate = System.currentTimeMillis();
-                if (expireDate <= currentDate) {
-                    evictionScheduler.runCleanTask(getName(), getTimeoutSetName(), currentDate);
-                }
-
-                result.setSuccess((Map<K, V>) res.get(1));
-            }
-        });
-
-        return result;
-
     }
 
     @Override
@@ -287,6 +327,68 @@ public class RedissonMapCache<K, V> extends RedissonMap<K, V> implements RMapCac
                 Arrays.<Object>asList(getName(), getTimeoutSetName()), timeoutDate, key, value);
     }
 
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map, long ttl, TimeUnit unit) {
+        get(putAllAsync(map, ttl, unit));
+    }
+
+    @Override
+    public Future<Void> putAllAsync(Map<? extends K, ? extends V> map, long ttl, TimeUnit unit) {
+        if (unit == null) {
+            throw new NullPointerException("TimeUnit param can't be null");
+        }
+        if (map.isEmpty()) {
+            return newSucceededFuture(null);
+        }
+
+        long timeoutDate = System.currentTimeMillis() + unit.toMillis(ttl);
+        List<List<Object>> chunks = new ArrayList<List<Object>>(map.size() / BULK_CHUNK_SIZE + 1);
+        List<Object> params = null;
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            if (params == null || params.size() == BULK_CHUNK_SIZE*2 + 1) {
+                params = new ArrayList<Object>(Math.min(map.size(), BULK_CHUNK_SIZE)*2 + 1);
+                params.add(timeoutDate);
+                chunks.add(params);
+            }
+            params.add(entry.getKey());
+            params.add(entry.getValue());
+        }
+
+        // each chunk is sent as separate command with own timeout,
+        // chunks are added to batch if map is used through it
+        final Promise<Void> result = newPromise();
+        final AtomicInteger counter = new AtomicInteger(chunks.size());
+        FutureListener<Void> listener = new FutureListener<Void>() {
+            @Override
+            public void operationComplete(Future<Void> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.tryFailure(future.cause());
+                    return;
+                }
+
+                if (counter.decrementAndGet() == 0) {
+                    result.trySuccess(null);
+                }
+            }
+        };
+        for (List<Object> chunk : chunks) {
+            Future<Void> future = commandExecutor.evalWriteAsync(getName(), codec, EVAL_PUT_ALL_TTL,
+                    "for i = 2, #ARGV, 2 do "
+                        + "redis.call('zadd', KEYS[2], ARGV[1], ARGV[i]); "
+                        + "redis.call('hset', KEYS[1], ARGV[i], ARGV[i+1]); "
+                    + "end; "
+                    + "return nil",
+                    Arrays.<Object>asList(getName(), getTimeoutSetName()), chunk.toArray());
+            future.addListener(listener);
+        }
+        return result;
+    }
+
+    @Override
+    public EvictionStats getEvictionStats() {
+        return evictionScheduler.getStats(getName());
+    }
+
     String getTimeoutSetName() {
         return "redisson__timeout__set__{" + getName() + "}";
     }
@@ -315,10 +417,10 @@ public class RedissonMapCache<K, V> extends RedissonMap<K, V> implements RMapCac
     }
 
     @Override
-    MapScanResult<Object, V> scanIterator(InetSocketAddress client, long startPos) {
-        Future<MapScanResult<Object, V>> f = commandExecutor.evalReadAsync(client, getName(), codec, EVAL_HSCAN,
+    Future<MapScanResult<K, V>> scanIteratorAsync(InetSocketAddress client, long startPos, int count) {
+        return commandExecutor.evalReadAsync(client, getName(), codec, EVAL_HSCAN,
                 "local result = {}; "
-                + "local res = redis.call('hscan', KEYS[1], ARGV[1]); "
+                + "local res = redis.call('hscan', KEYS[1], ARGV[1], 'count', ARGV[3]); "
                 + "for i, value in ipairs(res[2]) do "
                     + "if i % 2 == 0 then "
                         + "local key = res[2][i-1]; "
@@ -329,9 +431,7 @@ public class RedissonMapCache<K, V> extends RedissonMap<K, V> implements RMapCac
                         + "end; "
                     + "end; "
                 + "end;"
-                + "return {res[1], result};", Arrays.<Object>asList(getName(), getTimeoutSetName()), startPos, System.currentTimeMillis());
-
-        return get(f);
+                + "return {res[1], result};", Arrays.<Object>asList(getName(), getTimeoutSetName()), startPos, System.currentTimeMillis(), count);
     }
 
     @Override
@@ -16,71 +16,34 @@
 package org.redisson;
 
 import java.net.InetSocketAddress;
-import java.util.Iterator;
-import java.util.Map;
 import java.util.Map.Entry;
-import java.util.NoSuchElementException;
 
 import org.redisson.client.protocol.decoder.MapScanResult;
 
-public class RedissonMapIterator<K, V, M> implements Iterator<M> {
+import io.netty.util.concurrent.Future;
 
-    private Map<K, V> firstValues;
-    private Iterator<Map.Entry<K, V>> iter;
-    private long iterPos = 0;
-    private InetSocketAddress client;
-
-    private boolean removeExecuted;
-    private Map.Entry<K, V> entry;
+public class RedissonMapIterator<K, V, M> extends RedissonBaseIterator<Entry<K, V>, M> {
 
     private final RedissonMap<K, V> map;
 
-    public RedissonMapIterator(RedissonMap<K, V> map) {
+    public RedissonMapIterator(RedissonMap<K, V> map, int count) {
+        super(map.commandExecutor, count);
         this.map = map;
     }
 
     @Override
-    public boolean hasNext() {
-        if (iter == null || !iter.hasNext()) {
-            MapScanResult<Object, V> res = map.scanIterator(client, iterPos);
-            client = res.getRedisClient();
-            if (iterPos == 0 && firstValues == null) {
-                firstValues = (Map<K, V>) res.getMap();
-            } else if (res.getMap().equals(firstValues)) {
-                return false;
-            }
-            iter = ((Map<K, V>)res.getMap()).entrySet().iterator();
-            iterPos = res.getPos();
-        }
-        return iter.hasNext();
+    protected Future<MapScanResult<K, V>> scanIterator(InetSocketAddress client, long startPos, int count) {
+        return map.scanIteratorAsync(client, startPos, count);
     }
 
     @Override
-    public M next() {
-        if (!hasNext()) {
-            throw new NoSuchElementException("No such element at index");
-        }
-
-        entry = iter.next();
-        removeExecuted = false;
-        return getValue(entry);
-    }
-
     M getValue(Entry<K, V> entry) {
         return (M) entry;
     }
 
     @Override
-    public void remove() {
-        if (removeExecuted) {
-            throw new IllegalStateException("Element been already deleted");
-        }
-
-        // lazy init iterator
-        hasNext();
-        iter.remove();
-        map.fastRemove(entry.getKey());
-        removeExecuted = true;
+    protected void remove(Entry<K, V> value) {
+        map.fastRemove(value.getKey());
     }
 
 }
@@ -58,7 +58,8 @@ public class RedissonPatternTopic<M> implements RPatternTopic<M> {
 
     @Override
     public int addListener(PatternMessageListener<M> listener) {
-        PubSubPatternMessageListener<M> pubSubListener = new PubSubPatternMessageListener<M>(listener, name);
+        PubSubPatternMessageListener<M> pubSubListener = new PubSubPatternMessageListener<M>(listener, name,
+                commandExecutor.getConnectionManager().getListenerExecutor());
         return addListener(pubSubListener);
     }
 
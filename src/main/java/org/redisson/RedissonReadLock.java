@@ -16,6 +16,7 @@
 package org.redisson;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
@@ -48,10 +49,11 @@ public class RedissonReadLock extends RedissonLock implements RLock {
         return "redisson_rwlock__{" + getName() + "}";
     }
 
-    Long tryLockInner(final long leaseTime, final TimeUnit unit) {
+    @Override
+    Future<Long> tryLockInnerAsync(long leaseTime, TimeUnit unit, String lockName) {
         internalLockLeaseTime = unit.toMillis(leaseTime);
 
-        return commandExecutor.evalWrite(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_LONG,
+        return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_LONG,
                                 "local mode = redis.call('hget', KEYS[1], 'mode'); " +
                                 "if (mode == false) then " +
                                   "redis.call('hset', KEYS[1], 'mode', 'read'); " +
@@ -65,15 +67,15 @@ public class RedissonReadLock extends RedissonLock implements RLock {
                                   "return nil; " +
                                 "end;" +
                                 "return redis.call('pttl', KEYS[1]);",
-                        Arrays.<Object>asList(getName()), internalLockLeaseTime, getLockName());
+                        Arrays.<Object>asList(getName()), internalLockLeaseTime, lockName);
     }
 
     @Override
-    public void unlock() {
-        Boolean opStatus = commandExecutor.evalWrite(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
+    Future<Boolean> unlockInnerAsync(String lockName) {
+        return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
                                 "local mode = redis.call('hget', KEYS[1], 'mode'); " +
                                 "if (mode == false) then " +
-                                    "redis.call('publish', KEYS[2], ARGV[1]); " +
+                                    "redis.call('publish', ARGV[4], ARGV[1]); " +
                                     "return 1; " +
                                 "end; "
                               + "if (mode == 'read') then " +
@@ -89,21 +91,14 @@ public class RedissonReadLock extends RedissonLock implements RLock {
                                             "redis.call('hdel', KEYS[1], ARGV[3]); " +
                                             "if (redis.call('hlen', KEYS[1]) == 1) then " +
                                                 "redis.call('del', KEYS[1]); " +
-                                                "redis.call('publish', KEYS[2], ARGV[1]); " +
+                                                "redis.call('publish', ARGV[4], ARGV[1]); " +
                                             "end; " +
                                             "return 1; "+
                                         "end; " +
                                     "end; " +
                                 "end; " +
                                 "return nil; ",
-                        Arrays.<Object>asList(getName(), getChannelName()), unlockMessage, internalLockLeaseTime, getLockName());
-        if (opStatus == null) {
-            throw new IllegalMonitorStateException("attempt to unlock read lock, not locked by current thread by node id: "
-                    + id + " thread-id: " + Thread.currentThread().getId());
-        }
-        if (opStatus) {
-            cancelExpirationRenewal();
-        }
+                        Collections.<Object>singletonList(getName()), getUnlockMessage(), internalLockLeaseTime, lockName, getNotificationChannel());
     }
 
     @Override
@@ -111,16 +106,17 @@ public class RedissonReadLock extends RedissonLock implements RLock {
         throw new UnsupportedOperationException();
     }
 
-    Future<Boolean> forceUnlockAsync() {
+    @Override
+    public Future<Boolean> forceUnlockAsync() {
         Future<Boolean> result = commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
                 "if (redis.call('hget', KEYS[1], 'mode') == 'read') then " +
                     "redis.call('del', KEYS[1]); " +
-                    "redis.call('publish', KEYS[2], ARGV[1]); " +
+                    "redis.call('publish', ARGV[2], ARGV[1]); " +
                     "return 1; " +
                 "else " +
                     "return 0; " +
                 "end;",
-                Arrays.<Object>asList(getName(), getChannelName()), unlockMessage);
+                Collections.<Object>singletonList(getName()), getUnlockMessage(), getNotificationChannel());
 
           result.addListener(new FutureListener<Boolean>() {
               @Override
@@ -154,7 +154,7 @@ public class RedissonScript implements RScript {
     }
 
     public <R> Future<R> evalShaAsync(String key, Mode mode, Codec codec, String shaDigest, ReturnType returnType, List<Object> keys, Object... values) {
-        RedisCommand command = new RedisCommand(returnType.getCommand(), "EVALSHA");
+        RedisCommand command = returnType.getCommand().getEvalShaCommand();
         if (mode == Mode.READ_ONLY) {
             return commandExecutor.evalReadAsync(key, codec, command, shaDigest, keys, values);
         }
@@ -15,7 +15,6 @@
  */
 package org.redisson;
 
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -61,6 +60,14 @@ public class RedissonSemaphore extends RedissonExpirable implements RSemaphore {
         return "redisson_semaphore__channel__{" + getName() + "}";
     }
 
+    private String getNotificationChannel() {
+        return commandExecutor.getConnectionManager().getNotificationChannels().getChannelName(getChannelName());
+    }
+
+    private Object getUnlockMessage() {
+        return commandExecutor.getConnectionManager().getNotificationChannels().getMessage(getChannelName(), unlockMessage);
+    }
+
     @Override
     public void acquire() throws InterruptedException {
         acquire(1);
@@ -164,8 +171,8 @@ public class RedissonSemaphore extends RedissonExpirable implements RSemaphore {
     public void release(int permits) {
         commandExecutor.evalWrite(getName(), StringCodec.INSTANCE, RedisCommands.EVAL_OBJECT,
             "redis.call('incrby', KEYS[1], ARGV[1]); " +
-            "redis.call('publish', KEYS[2], ARGV[2]); ",
-            Arrays.<Object>asList(getName(), getChannelName()), permits, unlockMessage);
+            "redis.call('publish', ARGV[3], ARGV[2]); ",
+            Collections.<Object>singletonList(getName()), permits, getUnlockMessage(), getNotificationChannel());
     }
 
     @Override
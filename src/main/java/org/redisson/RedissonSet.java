@@ -21,7 +21,6 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.NoSuchElementException;
 
 import org.redisson.client.codec.Codec;
 import org.redisson.client.protocol.RedisCommands;
@@ -73,71 +72,32 @@ public class RedissonSet<V> extends RedissonExpirable implements RSet<V> {
         return commandExecutor.readAsync(getName(), codec, RedisCommands.SISMEMBER, getName(), o);
     }
 
-    private ListScanResult<V> scanIterator(InetSocketAddress client, long startPos) {
-        Future<ListScanResult<V>> f = commandExecutor.readAsync(client, getName(), codec, RedisCommands.SSCAN, getName(), startPos);
-        return get(f);
+    private Future<ListScanResult<V>> scanIteratorAsync(InetSocketAddress client, long startPos, int count) {
+        return commandExecutor.readAsync(client, getName(), codec, RedisCommands.SSCAN, getName(), startPos, "COUNT", count);
     }
 
     @Override
     public Iterator<V> iterator() {
-        return new Iterator<V>() {
-
-            private List<V> firstValues;
-            private Iterator<V> iter;
-            private InetSocketAddress client;
-            private long nextIterPos;
+        return iterator(10);
+    }
 
-            private boolean currentElementRemoved;
-            private boolean removeExecuted;
-            private V value;
+    @Override
+    public Iterator<V> iterator(int count) {
+        return new RedissonBaseIterator<V, V>(commandExecutor, count) {
 
             @Override
-            public boolean hasNext() {
-                if (iter == null || !iter.hasNext()) {
-                    if (nextIterPos == -1) {
-                        return false;
-                    }
-                    long prevIterPos = nextIterPos;
-                    ListScanResult<V> res = scanIterator(client, nextIterPos);
-                    client = res.getRedisClient();
-                    if (nextIterPos == 0 && firstValues == null) {
-                        firstValues = res.getValues();
-                    } else if (res.getValues().equals(firstValues)) {
-                        return false;
-                    }
-                    iter = res.getValues().iterator();
-                    nextIterPos = res.getPos();
-                    if (prevIterPos == nextIterPos && !removeExecuted) {
-                        nextIterPos = -1;
-                    }
-                }
-                return iter.hasNext();
+            protected Future<ListScanResult<V>> scanIterator(InetSocketAddress client, long startPos, int count) {
+                return scanIteratorAsync(client, startPos, count);
             }
 
             @Override
-            public V next() {
-                if (!hasNext()) {
-                    throw new NoSuchElementException("No such element at index");
-                }
-
-                value = iter.next();
-                currentElementRemoved = false;
+            V getValue(V value) {
                 return value;
             }
 
             @Override
-            public void remove() {
-                if (currentElementRemoved) {
-                    throw new IllegalStateException("Element been already deleted");
-                }
-                if (iter == null) {
-                    throw new IllegalStateException();
-                }
-
-                iter.remove();
+            protected void remove(V value) {
                 RedissonSet.this.remove(value);
-                currentElementRemoved = true;
-                removeExecuted = true;
             }
 
         };
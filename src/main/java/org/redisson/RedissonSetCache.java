@@ -24,7 +24,6 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.NoSuchElementException;
 import java.util.concurrent.TimeUnit;
 
 import org.redisson.client.codec.Codec;
@@ -38,6 +37,7 @@ import org.redisson.client.protocol.convertor.VoidReplayConvertor;
 import org.redisson.client.protocol.decoder.ListScanResult;
 import org.redisson.client.protocol.decoder.ObjectListReplayDecoder;
 import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.core.EvictionStats;
 import org.redisson.core.RSetCache;
 
 import io.netty.util.concurrent.Future;
@@ -55,9 +55,9 @@ import net.openhft.hashing.LongHashFunction;
  * <p>Current Redis implementation doesn't have set entry eviction functionality.
  * Thus values are checked for TTL expiration during any value read operation.
  * If entry expired then it doesn't returns and clean task runs asynchronous.
- * Clean task deletes removes 100 expired entries at once.
+ * Clean task removes expired entries in batches of adaptive size.
  * In addition there is {@link org.redisson.EvictionScheduler}. This scheduler
- * deletes expired entries in time interval between 5 seconds to 2 hours.</p>
+ * deletes expired entries in time interval between 1 second to 2 hours.</p>
  *
  * <p>If eviction is not required then it's better to use {@link org.redisson.reactive.RedissonSet}.</p>
  *
@@ -129,6 +129,11 @@ public class RedissonSetCache<V> extends RedissonExpirable implements RSetCache<
                 .array();
     }
 
+    @Override
+    public EvictionStats getEvictionStats() {
+        return evictionScheduler.getStats(getName());
+    }
+
     String getTimeoutSetName() {
         return "redisson__timeout__set__{" + getName() + "}";
     }
@@ -183,10 +188,10 @@ public class RedissonSetCache<V> extends RedissonExpirable implements RSetCache<
         });
     }
 
-    ListScanResult<V> scanIterator(InetSocketAddress client, long startPos) {
-        Future<ListScanResult<V>> f = commandExecutor.evalReadAsync(client, getName(), codec, RedisCommands.EVAL_SSCAN,
+    Future<ListScanResult<V>> scanIteratorAsync(InetSocketAddress client, long startPos, int count) {
+        return commandExecutor.evalReadAsync(client, getName(), codec, RedisCommands.EVAL_SSCAN,
                   "local result = {}; "
-                + "local res = redis.call('hscan', KEYS[1], ARGV[1]); "
+                + "local res = redis.call('hscan', KEYS[1], ARGV[1], 'count', ARGV[3]); "
                 + "for i, value in ipairs(res[2]) do "
                     + "if i % 2 == 0 then "
                         + "local key = res[2][i-1]; "
@@ -196,70 +201,31 @@ public class RedissonSetCache<V> extends RedissonExpirable implements RSetCache<
                         + "end; "
                     + "end; "
                 + "end;"
-                + "return {res[1], result};", Arrays.<Object>asList(getName(), getTimeoutSetName()), startPos, System.currentTimeMillis());
-        return get(f);
+                + "return {res[1], result};", Arrays.<Object>asList(getName(), getTimeoutSetName()), startPos, System.currentTimeMillis(), count);
     }
 
     @Override
     public Iterator<V> iterator() {
-        return new Iterator<V>() {
-
-            private List<V> firstValues;
-            private Iterator<V> iter;
-            private InetSocketAddress client;
-            private long nextIterPos;
+        return iterator(10);
+    }
 
-            private boolean currentElementRemoved;
-            private boolean removeExecuted;
-            private V value;
+    @Override
+    public Iterator<V> iterator(int count) {
+        return new RedissonBaseIterator<V, V>(commandExecutor, count) {
 
             @Override
-            public boolean hasNext() {
-                if (iter == null || !iter.hasNext()) {
-                    if (nextIterPos == -1) {
-                        return false;
-                    }
-                    long prevIterPos = nextIterPos;
-                    ListScanResult<V> res = scanIterator(client, nextIterPos);
-                    client = res.getRedisClient();
-                    if (nextIterPos == 0 && firstValues == null) {
-                        firstValues = res.getValues();
-                    } else if (res.getValues().equals(firstValues)) {
-                        return false;
-                    }
-                    iter = res.getValues().iterator();
-                    nextIterPos = res.getPos();
-                    if (prevIterPos == nextIterPos && !removeExecuted) {
-                        nextIterPos = -1;
-                    }
-                }
-                return iter.hasNext();
+            protected Future<ListScanResult<V>> scanIterator(InetSocketAddress client, long startPos, int count) {
+                return scanIteratorAsync(client, startPos, count);
             }
 
             @Override
-            public V next() {
-                if (!hasNext()) {
-                    throw new NoSuchElementException("No such element at index");
-                }
-
-                value = iter.next();
-                currentElementRemoved = false;
+            V getValue(V value) {
                 return value;
             }
 
             @Override
-            public void remove() {
-                if (currentElementRemoved) {
-                    throw new IllegalStateException("Element been already deleted");
-                }
-                if (iter == null) {
-                    throw new IllegalStateException();
-                }
-
-                iter.remove();
+            protected void remove(V value) {
                 RedissonSetCache.this.remove(value);
-                currentElementRemoved = true;
-                removeExecuted = true;
             }
 
         };
@@ -28,18 +28,24 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.SortedSet;
+import java.util.concurrent.Callable;
 
 import org.redisson.client.RedisConnection;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.codec.LongCodec;
 import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.RedisCommand;
+import org.redisson.client.protocol.RedisCommand.ValueType;
 import org.redisson.client.protocol.RedisCommands;
 import org.redisson.command.CommandExecutor;
+import org.redisson.core.LexicographicComparator;
+import org.redisson.core.NumericComparator;
 import org.redisson.core.RSortedSet;
 
 import io.netty.channel.EventLoopGroup;
 import io.netty.util.concurrent.DefaultPromise;
 import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
 import io.netty.util.concurrent.GlobalEventExecutor;
 import io.netty.util.concurrent.Promise;
 
@@ -92,6 +98,77 @@ public class RedissonSortedSet<V> extends RedissonObject implements RSortedSet<V
 
     }
 
+    private static final RedisCommand<Long> EVAL_SEARCH = new RedisCommand<Long>("EVAL", 6, ValueType.OBJECT);
+
+    private static final String NUMERIC_COMPARE =
+            "local function cmp(a, b) "
+              + "return tonumber(a) - tonumber(b); "
+            + "end; ";
+
+    private static final String LEXICOGRAPHIC_COMPARE =
+            "local function cmp(a, b) "
+              + "if a == b then "
+                  + "return 0; "
+              + "end; "
+              + "for i = 1, math.min(#a, #b) do "
+                  + "local x = string.byte(a, i); "
+                  + "local y = string.byte(b, i); "
+                  + "if x ~= y then "
+                      + "return x - y; "
+                  + "end; "
+              + "end; "
+              + "return #a - #b; "
+            + "end; ";
+
+    // returns -1 if comparator has been changed, otherwise finds element index or insertion point
+    private static final String BINARY_SEARCH =
+            "local sign = redis.call('get', KEYS[2]); "
+            + "if sign == false or string.sub(sign, 1, #ARGV[2] + 1) ~= ARGV[2] .. ':' then "
+                + "return -1; "
+            + "end; "
+            + "local size = redis.call('llen', KEYS[1]); "
+            + "local low = 0; "
+            + "local high = size - 1; "
+            + "local found = -1; "
+            + "while low <= high do "
+                + "local mid = math.floor((low + high) / 2); "
+                + "local res = cmp(ARGV[1], redis.call('lindex', KEYS[1], mid)); "
+                + "if res == 0 then "
+                    + "found = mid; "
+                    + "break; "
+                + "elseif res < 0 then "
+                    + "high = mid - 1; "
+                + "else "
+                    + "low = mid + 1; "
+                + "end; "
+            + "end; ";
+
+    private static final String ADD =
+            "if found >= 0 then "
+                + "return 0; "
+            + "end; "
+            + "if low >= size then "
+                + "redis.call('rpush', KEYS[1], ARGV[1]); "
+            + "else "
+                + "redis.call('linsert', KEYS[1], 'before', redis.call('lindex', KEYS[1], low), ARGV[1]); "
+            + "end; "
+            + "redis.call('incr', KEYS[3]); "
+            + "return 1; ";
+
+    private static final String REMOVE =
+            "if found < 0 then "
+                + "return 0; "
+            + "end; "
+            + "redis.call('lrem', KEYS[1], 1, redis.call('lindex', KEYS[1], found)); "
+            + "redis.call('incr', KEYS[3]); "
+            + "return 1; ";
+
+    private static final String CONTAINS =
+            "if found >= 0 then "
+                + "return 1; "
+            + "end; "
+            + "return 0; ";
+
     private Comparator<? super V> comparator = NaturalComparator.NATURAL_ORDER;
 
     CommandExecutor commandExecutor;
@@ -125,26 +202,46 @@ public class RedissonSortedSet<V> extends RedissonObject implements RSortedSet<V
     }
 
     private void loadComparator(RedisConnection connection) {
+        String comparatorSign = connection.sync(StringCodec.INSTANCE, RedisCommands.GET, getComparatorKeyName());
+        loadComparator(comparatorSign);
+    }
+
+    /**
+     * Natural order is used if comparator hasn't been set
+     */
+    private void loadComparator(String comparatorSign) {
+        if (comparatorSign == null) {
+            comparator = new NaturalComparator<V>();
+            return;
+        }
+
         try {
-            String comparatorSign = connection.sync(StringCodec.INSTANCE, RedisCommands.GET, getComparatorKeyName());
-            if (comparatorSign != null) {
-                String[] parts = comparatorSign.split(":");
-                String className = parts[0];
-                String sign = parts[1];
-
-                String result = calcClassSign(className);
-                if (!result.equals(sign)) {
-                    throw new IllegalStateException("Local class signature of " + className + " differs from used by this SortedSet!");
-                }
+            String[] parts = comparatorSign.split(":");
+            String className = parts[0];
+            String sign = parts[1];
 
-                Class<?> clazz = Class.forName(className);
-                comparator = (Comparator<V>) clazz.newInstance();
+            String result = calcClassSign(className);
+            if (!result.equals(sign)) {
+                throw new IllegalStateException("Local class signature of " + className + " differs from used by this SortedSet!");
             }
+
+            Class<?> clazz = Class.forName(className);
+            comparator = bindCodec((Comparator<V>) clazz.newInstance());
         } catch (Exception e) {
             throw new IllegalStateException(e);
         }
     }
 
+    /**
+     * Redis compares encoded values, so client side comparison should use the same codec
+     */
+    private Comparator<? super V> bindCodec(Comparator<? super V> comparator) {
+        if (comparator instanceof LexicographicComparator) {
+            return new LexicographicComparator(codec);
+        }
+        return comparator;
+    }
+
     // TODO cache result
     private static String calcClassSign(String name) {
         try {
@@ -180,7 +277,38 @@ public class RedissonSortedSet<V> extends RedissonObject implements RSortedSet<V
     }
 
     @Override
-    public boolean contains(final Object o) {
+    public boolean contains(Object o) {
+        if (isServerSideOrder()) {
+            return get(containsAsync(o));
+        }
+        return containsClientSide(o);
+    }
+
+    private Future<Boolean> containsAsync(final Object o) {
+        if (isServerSideOrder()) {
+            return serverSideAsync(false, CONTAINS, o, new Callable<Future<Boolean>>() {
+                @Override
+                public Future<Boolean> call() throws Exception {
+                    return containsAsync(o);
+                }
+            });
+        }
+
+        final Promise<Boolean> promise = newPromise();
+        GlobalEventExecutor.INSTANCE.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    promise.setSuccess(containsClientSide(o));
+                } catch (Exception e) {
+                    promise.setFailure(e);
+                }
+            }
+        });
+        return promise;
+    }
+
+    private boolean containsClientSide(final Object o) {
         return commandExecutor.read(getName(), codec, new SyncOperation<Boolean>() {
             @Override
             public Boolean execute(Codec codec, RedisConnection conn) {
@@ -304,7 +432,14 @@ public class RedissonSortedSet<V> extends RedissonObject implements RSortedSet<V
     }
 
     @Override
-    public boolean add(final V value) {
+    public boolean add(V value) {
+        if (isServerSideOrder()) {
+            return get(addAsync(value));
+        }
+        return addClientSide(value);
+    }
+
+    private boolean addClientSide(final V value) {
         return commandExecutor.write(getName(), codec, new SyncOperation<Boolean>() {
             @Override
             public Boolean execute(Codec codec, RedisConnection conn) {
@@ -314,12 +449,21 @@ public class RedissonSortedSet<V> extends RedissonObject implements RSortedSet<V
     }
 
     public Future<Boolean> addAsync(final V value) {
+        if (isServerSideOrder()) {
+            return serverSideAsync(true, ADD, value, new Callable<Future<Boolean>>() {
+                @Override
+                public Future<Boolean> call() throws Exception {
+                    return addAsync(value);
+                }
+            });
+        }
+
         final Promise<Boolean> promise = new DefaultPromise<Boolean>(){};
         GlobalEventExecutor.INSTANCE.execute(new Runnable() {
             @Override
             public void run() {
                 try {
-                    boolean res = add(value);
+                    boolean res = addClientSide(value);
                     promise.setSuccess(res);
                 } catch (Exception e) {
                     promise.setFailure(e);
@@ -420,6 +564,88 @@ public class RedissonSortedSet<V> extends RedissonObject implements RSortedSet<V
         }
     }
 
+    /**
+     * Comparators which could be evaluated by Lua script.
+     * Search and modification are performed atomically by single call
+     * instead of client side binary search with optimistic locking.
+     */
+    private boolean isServerSideOrder() {
+        return comparator instanceof NumericComparator
+                || comparator instanceof LexicographicComparator;
+    }
+
+    private Future<Boolean> serverSideAsync(boolean write, String action, Object value, final Callable<Future<Boolean>> retry) {
+        Comparator<? super V> currentComparator = comparator;
+        String script = BINARY_SEARCH + action;
+        if (currentComparator instanceof NumericComparator) {
+            script = NUMERIC_COMPARE + script;
+        } else {
+            script = LEXICOGRAPHIC_COMPARE + script;
+        }
+
+        List<Object> keys = Arrays.<Object>asList(getName(), getComparatorKeyName(), getCurrentVersionKey());
+        String className = currentComparator.getClass().getName();
+        Future<Long> future;
+        if (write) {
+            future = commandExecutor.evalWriteAsync(getName(), codec, EVAL_SEARCH, script, keys, value, className);
+        } else {
+            future = commandExecutor.evalReadAsync(getName(), codec, EVAL_SEARCH, script, keys, value, className);
+        }
+
+        final Promise<Boolean> result = newPromise();
+        future.addListener(new FutureListener<Long>() {
+            @Override
+            public void operationComplete(Future<Long> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+
+                if (future.getNow() >= 0) {
+                    result.setSuccess(future.getNow() == 1);
+                    return;
+                }
+
+                // comparator has been changed, so it should be reloaded
+                reloadComparatorAsync(retry, result);
+            }
+        });
+        return result;
+    }
+
+    private void reloadComparatorAsync(final Callable<Future<Boolean>> retry, final Promise<Boolean> result) {
+        Future<String> future = commandExecutor.readAsync(getName(), StringCodec.INSTANCE, RedisCommands.GET, getComparatorKeyName());
+        future.addListener(new FutureListener<String>() {
+            @Override
+            public void operationComplete(Future<String> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+
+                Future<Boolean> retryFuture;
+                try {
+                    loadComparator(future.getNow());
+                    retryFuture = retry.call();
+                } catch (Exception e) {
+                    result.setFailure(e);
+                    return;
+                }
+
+                retryFuture.addListener(new FutureListener<Boolean>() {
+                    @Override
+                    public void operationComplete(Future<Boolean> future) throws Exception {
+                        if (!future.isSuccess()) {
+                            result.setFailure(future.cause());
+                            return;
+                        }
+                        result.setSuccess(future.getNow());
+                    }
+                });
+            }
+        });
+    }
+
     private void checkComparator(RedisConnection connection) {
         String comparatorSign = connection.sync(StringCodec.INSTANCE, RedisCommands.GET, getComparatorKeyName());
         if (comparatorSign != null) {
@@ -446,7 +672,20 @@ public class RedissonSortedSet<V> extends RedissonObject implements RSortedSet<V
     }
 
     @Override
-    public Future<Boolean> removeAsync(final V value) {
+    public Future<Boolean> removeAsync(V value) {
+        return removeObjectAsync(value);
+    }
+
+    private Future<Boolean> removeObjectAsync(final Object value) {
+        if (isServerSideOrder()) {
+            return serverSideAsync(true, REMOVE, value, new Callable<Future<Boolean>>() {
+                @Override
+                public Future<Boolean> call() throws Exception {
+                    return removeObjectAsync(value);
+                }
+            });
+        }
+
         EventLoopGroup group = commandExecutor.getConnectionManager().getGroup();
         final Promise<Boolean> promise = group.next().newPromise();
 
@@ -454,7 +693,7 @@ public class RedissonSortedSet<V> extends RedissonObject implements RSortedSet<V
             @Override
             public void run() {
                 try {
-                    boolean result = remove(value);
+                    boolean result = removeClientSide(value);
                     promise.setSuccess(result);
                 } catch (Exception e) {
                     promise.setFailure(e);
@@ -466,7 +705,14 @@ public class RedissonSortedSet<V> extends RedissonObject implements RSortedSet<V
     }
 
     @Override
-    public boolean remove(final Object value) {
+    public boolean remove(Object value) {
+        if (isServerSideOrder()) {
+            return get(removeObjectAsync(value));
+        }
+        return removeClientSide(value);
+    }
+
+    private boolean removeClientSide(final Object value) {
         return commandExecutor.write(getName(), codec, new SyncOperation<Boolean>() {
             @Override
             public Boolean execute(Codec codec, RedisConnection conn) {
@@ -620,7 +866,7 @@ public class RedissonSortedSet<V> extends RedissonObject implements RSortedSet<V
                 + "end",
                 Arrays.<Object>asList(getName(), getComparatorKeyName()), comparatorSign);
         if (res) {
-            this.comparator = comparator;
+            this.comparator = bindCodec(comparator);
         }
         return res;
     }
@@ -73,7 +73,8 @@ public class RedissonTopic<M> implements RTopic<M> {
 
     @Override
     public int addListener(MessageListener<M> listener) {
-        PubSubMessageListener<M> pubSubListener = new PubSubMessageListener<M>(listener, name);
+        PubSubMessageListener<M> pubSubListener = new PubSubMessageListener<M>(listener, name,
+                commandExecutor.getConnectionManager().getListenerExecutor());
         return addListener(pubSubListener);
     }
 
@@ -58,9 +58,9 @@ public interface RKeysReactive {
     Publisher<Integer> getSlot(String key);
 
     /**
-     * Find keys by key search pattern by one Redis call.
+     * Find keys by key search pattern. Masters are traversed concurrently.
      *
-     * Uses <code>KEYS</code> Redis command.
+     * Uses <code>SCAN</code> Redis command.
      *
      *  Supported glob-style patterns:
      *    h?llo subscribes to hello, hallo and hxllo
@@ -82,9 +82,9 @@ public interface RKeysReactive {
     Publisher<String> randomKey();
 
     /**
-     * Delete multiple objects by a key pattern.
+     * Delete multiple objects by a key pattern. Masters are traversed concurrently.
      *
-     * Uses Lua script.
+     * Uses <code>SCAN</code> and <code>DEL</code> Redis commands.
      *
      *  Supported glob-style patterns:
      *    h?llo subscribes to hello, hallo and hxllo
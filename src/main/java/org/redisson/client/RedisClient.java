@@ -22,6 +22,7 @@ import org.redisson.client.handler.CommandEncoder;
 import org.redisson.client.handler.CommandsListEncoder;
 import org.redisson.client.handler.CommandsQueue;
 import org.redisson.client.handler.ConnectionWatchdog;
+import org.redisson.client.handler.FlushConsolidationHandler;
 
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
@@ -47,12 +48,26 @@ public class RedisClient {
     private final ChannelGroup channels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
 
     private final long timeout;
+    private final RedisClientStats stats = new RedisClientStats();
 
     public RedisClient(String host, int port) {
         this(new NioEventLoopGroup(), NioSocketChannel.class, host, port, 60 * 1000);
     }
 
     public RedisClient(EventLoopGroup group, Class<? extends SocketChannel> socketChannelClass, String host, int port, int timeout) {
+        this(group, socketChannelClass, host, port, timeout, 1);
+    }
+
+    public RedisClient(EventLoopGroup group, Class<? extends SocketChannel> socketChannelClass, String host, int port, int timeout, int pipelineLimit) {
+        this(group, socketChannelClass, host, port, timeout, pipelineLimit, 0);
+    }
+
+    /**
+     * @param pipelineLimit - commands amount sent to connection without awaiting response
+     * @param flushConsolidationLimit - flushes amount consolidated into single one, <code>0</code> disables consolidation
+     */
+    public RedisClient(EventLoopGroup group, Class<? extends SocketChannel> socketChannelClass, String host, int port, int timeout,
+                        final int pipelineLimit, final int flushConsolidationLimit) {
         addr = new InetSocketAddress(host, port);
         bootstrap = new Bootstrap().channel(socketChannelClass).group(group).remoteAddress(addr);
         bootstrap.handler(new ChannelInitializer<Channel>() {
@@ -61,8 +76,13 @@ public class RedisClient {
                 ch.pipeline().addFirst(new ConnectionWatchdog(bootstrap, channels),
                     new CommandEncoder(),
                     new CommandsListEncoder(),
-                    new CommandsQueue(),
+                    new CommandsQueue(pipelineLimit),
                     new CommandDecoder());
+                if (flushConsolidationLimit > 0) {
+                    // should be placed before encoders to consolidate their flushes
+                    ch.pipeline().addAfter(ch.pipeline().context(ConnectionWatchdog.class).name(),
+                            FlushConsolidationHandler.class.getSimpleName(), new FlushConsolidationHandler(flushConsolidationLimit));
+                }
             }
         });
 
@@ -78,6 +98,10 @@ public class RedisClient {
         return timeout;
     }
 
+    public RedisClientStats getStats() {
+        return stats;
+    }
+
     public Bootstrap getBootstrap() {
         return bootstrap;
     }
@@ -0,0 +1,89 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Response time and load statistics of Redis node
+ * collected on command execution path.
+ *
+ * Response time is tracked as exponentially weighted moving average.
+ * It decays toward zero while node is idle, so a node
+ * which was slow in the past gets requests again after a while.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class RedisClientStats {
+
+    // decay period of response time average in nanoseconds
+    private static final double DECAY_TIME = 10L * 1000 * 1000 * 1000;
+
+    private final AtomicInteger inFlightAmount = new AtomicInteger();
+    private volatile double responseTime;
+    private volatile long lastUpdateTime = System.nanoTime();
+
+    /**
+     * Should be invoked before command is sent
+     *
+     * @return command start time in nanoseconds
+     */
+    public long commandStarted() {
+        inFlightAmount.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * Should be invoked after command completion
+     *
+     * @param startTime value returned by {@link #commandStarted()}
+     */
+    public void commandCompleted(long startTime) {
+        inFlightAmount.decrementAndGet();
+
+        long currentTime = System.nanoTime();
+        long duration = currentTime - startTime;
+        double weight = Math.exp(-(currentTime - lastUpdateTime) / DECAY_TIME);
+        // races between concurrent updates only loses a sample
+        responseTime = responseTime * weight + duration * (1 - weight);
+        // spikes are taken into account immediately
+        if (duration > responseTime) {
+            responseTime = duration;
+        }
+        lastUpdateTime = currentTime;
+    }
+
+    /**
+     * Returns amount of commands sent but not yet completed
+     *
+     * @return commands amount
+     */
+    public int getInFlightAmount() {
+        return inFlightAmount.get();
+    }
+
+    /**
+     * Returns average response time in nanoseconds
+     *
+     * @return response time
+     */
+    public double getResponseTime() {
+        double weight = Math.exp(-(System.nanoTime() - lastUpdateTime) / DECAY_TIME);
+        return responseTime * weight;
+    }
+
+}
@@ -15,10 +15,13 @@
  */
 package org.redisson.client;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 
 import org.redisson.client.codec.Codec;
 import org.redisson.client.protocol.CommandData;
@@ -40,6 +43,8 @@ import io.netty.util.internal.PlatformDependent;
 public class RedisPubSubConnection extends RedisConnection {
 
     final Queue<RedisPubSubListener<Object>> listeners = new ConcurrentLinkedQueue<RedisPubSubListener<Object>>();
+    // listeners of each channel or pattern, list is replaced on each change
+    final ConcurrentMap<String, List<RedisPubSubListener<Object>>> channelListeners = PlatformDependent.newConcurrentHashMap();
     final Map<String, Codec> channels = PlatformDependent.newConcurrentHashMap();
     final Map<String, Codec> patternChannels = PlatformDependent.newConcurrentHashMap();
 
@@ -47,31 +52,109 @@ public class RedisPubSubConnection extends RedisConnection {
         super(redisClient, channel);
     }
 
-    public void addListener(RedisPubSubListener listener) {
-        listeners.add(listener);
+    public void addListener(RedisPubSubListener<?> listener) {
+        listeners.add(toObjectListener(listener));
     }
 
-    public void addOneShotListener(RedisPubSubListener listener) {
-        listeners.add(new OneShotPubSubListener<Object>(this, listener));
+    public void addOneShotListener(RedisPubSubListener<?> listener) {
+        listeners.add(new OneShotPubSubListener<Object>(this, toObjectListener(listener)));
+    }
+
+    /**
+     * Message type is defined by codec of channel, so listener receives messages as is
+     */
+    @SuppressWarnings("unchecked")
+    private RedisPubSubListener<Object> toObjectListener(RedisPubSubListener<?> listener) {
+        return (RedisPubSubListener<Object>) listener;
     }
 
     public void removeListener(RedisPubSubListener<?> listener) {
         listeners.remove(listener);
     }
 
+    /**
+     * Adds listener invoked only for messages and statuses of defined channel or pattern
+     *
+     * @param channelName - channel or pattern name
+     * @param listener
+     */
+    public void addListener(String channelName, RedisPubSubListener<?> listener) {
+        while (true) {
+            List<RedisPubSubListener<Object>> list = channelListeners.get(channelName);
+            if (list == null) {
+                if (channelListeners.putIfAbsent(channelName, Collections.singletonList(toObjectListener(listener))) == null) {
+                    return;
+                }
+                continue;
+            }
+
+            List<RedisPubSubListener<Object>> newList = new ArrayList<RedisPubSubListener<Object>>(list.size() + 1);
+            newList.addAll(list);
+            newList.add(toObjectListener(listener));
+            if (channelListeners.replace(channelName, list, newList)) {
+                return;
+            }
+        }
+    }
+
+    public void removeListener(String channelName, RedisPubSubListener<?> listener) {
+        while (true) {
+            List<RedisPubSubListener<Object>> list = channelListeners.get(channelName);
+            if (list == null) {
+                return;
+            }
+
+            int index = list.indexOf(listener);
+            if (index == -1) {
+                return;
+            }
+
+            if (list.size() == 1) {
+                if (channelListeners.remove(channelName, list)) {
+                    return;
+                }
+                continue;
+            }
+
+            List<RedisPubSubListener<Object>> newList = new ArrayList<RedisPubSubListener<Object>>(list);
+            newList.remove(index);
+            if (channelListeners.replace(channelName, list, newList)) {
+                return;
+            }
+        }
+    }
+
     public void onMessage(PubSubStatusMessage message) {
+        List<RedisPubSubListener<Object>> list = channelListeners.get(message.getChannel());
+        if (list != null) {
+            for (RedisPubSubListener<Object> redisPubSubListener : list) {
+                redisPubSubListener.onStatus(message.getType(), message.getChannel());
+            }
+        }
         for (RedisPubSubListener<Object> redisPubSubListener : listeners) {
             redisPubSubListener.onStatus(message.getType(), message.getChannel());
         }
     }
 
     public void onMessage(PubSubMessage message) {
+        List<RedisPubSubListener<Object>> list = channelListeners.get(message.getChannel());
+        if (list != null) {
+            for (RedisPubSubListener<Object> redisPubSubListener : list) {
+                redisPubSubListener.onMessage(message.getChannel(), message.getValue());
+            }
+        }
         for (RedisPubSubListener<Object> redisPubSubListener : listeners) {
             redisPubSubListener.onMessage(message.getChannel(), message.getValue());
         }
     }
 
     public void onMessage(PubSubPatternMessage message) {
+        List<RedisPubSubListener<Object>> list = channelListeners.get(message.getPattern());
+        if (list != null) {
+            for (RedisPubSubListener<Object> redisPubSubListener : list) {
+                redisPubSubListener.onPatternMessage(message.getPattern(), message.getChannel(), message.getValue());
+            }
+        }
         for (RedisPubSubListener<Object> redisPubSubListener : listeners) {
             redisPubSubListener.onPatternMessage(message.getPattern(), message.getChannel(), message.getValue());
         }
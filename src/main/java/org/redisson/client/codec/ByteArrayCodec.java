@@ -18,6 +18,7 @@ package org.redisson.client.codec;
 import java.io.IOException;
 
 import org.redisson.client.handler.State;
+import org.redisson.client.protocol.BaseByteBufEncoder;
 import org.redisson.client.protocol.Decoder;
 import org.redisson.client.protocol.Encoder;
 
@@ -27,11 +28,16 @@ public class ByteArrayCodec implements Codec {
 
     public static final ByteArrayCodec INSTANCE = new ByteArrayCodec();
 
-    private final Encoder encoder = new Encoder() {
+    private final Encoder encoder = new BaseByteBufEncoder() {
         @Override
         public byte[] encode(Object in) throws IOException {
             return (byte[]) in;
         }
+
+        @Override
+        public void encode(Object in, ByteBuf out) {
+            out.writeBytes((byte[]) in);
+        }
     };
 
     private final Decoder<Object> decoder = new Decoder<Object>() {
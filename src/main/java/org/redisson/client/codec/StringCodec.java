@@ -18,21 +18,28 @@ package org.redisson.client.codec;
 import java.io.IOException;
 
 import org.redisson.client.handler.State;
+import org.redisson.client.protocol.BaseByteBufEncoder;
 import org.redisson.client.protocol.Decoder;
 import org.redisson.client.protocol.Encoder;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.util.CharsetUtil;
 
 public class StringCodec implements Codec {
 
     public static final StringCodec INSTANCE = new StringCodec();
 
-    private final Encoder encoder = new Encoder() {
+    private final Encoder encoder = new BaseByteBufEncoder() {
         @Override
         public byte[] encode(Object in) throws IOException {
             return in.toString().getBytes("UTF-8");
         }
+
+        @Override
+        public void encode(Object in, ByteBuf out) {
+            ByteBufUtil.writeUtf8(out, in.toString());
+        }
     };
 
     private final Decoder<Object> decoder = new Decoder<Object>() {
@@ -16,16 +16,18 @@
 package org.redisson.client.handler;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.redisson.client.RedisAskException;
 import org.redisson.client.RedisException;
 import org.redisson.client.RedisLoadingException;
 import org.redisson.client.RedisMovedException;
+import org.redisson.client.RedisNoScriptException;
 import org.redisson.client.RedisPubSubConnection;
 import org.redisson.client.RedisTimeoutException;
 import org.redisson.client.protocol.CommandData;
@@ -38,13 +40,14 @@ import org.redisson.client.protocol.pubsub.Message;
 import org.redisson.client.protocol.pubsub.PubSubMessage;
 import org.redisson.client.protocol.pubsub.PubSubPatternMessage;
 import org.redisson.client.protocol.pubsub.PubSubStatusMessage;
+import org.redisson.client.protocol.pubsub.PubSubType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.ReplayingDecoder;
+import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.util.CharsetUtil;
 import io.netty.util.concurrent.Promise;
 import io.netty.util.internal.PlatformDependent;
@@ -52,12 +55,16 @@ import io.netty.util.internal.PlatformDependent;
 /**
  * Redis protocol command decoder
  *
+ * Reply is decoded incrementally. Each reply element is decoded only once
+ * it has been fully received, nested multi-bulk replies are tracked in {@link State}
+ * so decoding resumes from the last decoded element when the next part of reply arrives.
+ *
  * Code parts from Sam Pullara
  *
  * @author Nikita Koksharov
  *
  */
-public class CommandDecoder extends ReplayingDecoder<State> {
+public class CommandDecoder extends ByteToMessageDecoder {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
 
@@ -65,176 +72,208 @@ public class CommandDecoder extends ReplayingDecoder<State> {
     public static final char LF = '\n';
     private static final char ZERO = '0';
 
+    private static final Set<String> STATUS_TYPES = new HashSet<String>(Arrays.asList("subscribe", "psubscribe", "punsubscribe", "unsubscribe"));
+
     // It is not needed to use concurrent map because responses are coming consecutive
     private final Map<String, MultiDecoder<Object>> messageDecoders = new HashMap<String, MultiDecoder<Object>>();
     private final Map<String, CommandData<Object, Object>> channels = PlatformDependent.newConcurrentHashMap();
 
+    private final Decoder<Object> stringDecoder = new Decoder<Object>() {
+        @Override
+        public Object decode(ByteBuf buf, State state) {
+            return buf.toString(CharsetUtil.UTF_8);
+        }
+    };
+
+    // state of reply which is being decoded
+    private final State state = new State();
+
     public void addChannel(String channel, CommandData<Object, Object> data) {
         channels.put(channel, data);
     }
 
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
-        QueueCommand data = ctx.channel().attr(CommandsQueue.REPLAY).get();
-
-        Decoder<Object> currentDecoder = null;
-        if (data == null) {
-            currentDecoder = new Decoder<Object>() {
-                @Override
-                public Object decode(ByteBuf buf, State state) {
-                    return buf.toString(CharsetUtil.UTF_8);
-                }
-            };
-        }
-
         if (log.isTraceEnabled()) {
             log.trace("channel: {} message: {}", ctx.channel(), in.toString(0, in.writerIndex(), CharsetUtil.UTF_8));
         }
 
-        if (state() == null) {
-            state(new State());
-        }
-        state().setDecoderState(null);
+        while (in.isReadable()) {
+            QueueCommand data = ctx.channel().attr(CommandsQueue.REPLAY).get();
 
-        if (data == null) {
-            decode(in, null, null, ctx.channel(), currentDecoder);
-        } else if (data instanceof CommandData) {
-            CommandData<Object, Object> cmd = (CommandData<Object, Object>)data;
-            try {
-//                if (state().getSize() > 0) {
-//                    List<Object> respParts = new ArrayList<Object>();
-//                    respParts.addAll(state().getRespParts());
-//                    decodeMulti(in, cmd, null, ctx.channel(), currentDecoder, state().getSize(), respParts);
-//                } else {
-                    decode(in, cmd, null, ctx.channel(), currentDecoder);
-//                }
-            } catch (IOException e) {
-                cmd.getPromise().tryFailure(e);
+            if (data == null) {
+                if (!decode(in, null, ctx.channel())) {
+                    return;
+                }
+            } else if (data instanceof CommandData) {
+                CommandData<Object, Object> cmd = (CommandData<Object, Object>)data;
+                try {
+                    if (!decode(in, cmd, ctx.channel())) {
+                        return;
+                    }
+                } catch (IOException e) {
+                    cmd.getPromise().tryFailure(e);
+                }
+            } else if (data instanceof CommandsData) {
+                CommandsData commands = (CommandsData)data;
+                if (!handleCommandsDataResponse(ctx, in, commands)) {
+                    return;
+                }
             }
-        } else if (data instanceof CommandsData) {
-            CommandsData commands = (CommandsData)data;
 
-            handleCommandsDataResponse(ctx, in, data, currentDecoder, commands);
-            return;
-        }
-
-        ctx.pipeline().get(CommandsQueue.class).sendNextCommand(ctx);
+            state.reset();
+            state.setIndex(0);
 
-        state(null);
+            ctx.pipeline().get(CommandsQueue.class).sendNextCommand(ctx);
+        }
     }
 
-    private void handleCommandsDataResponse(ChannelHandlerContext ctx, ByteBuf in, QueueCommand data,
-            Decoder<Object> currentDecoder, CommandsData commands) {
-        int i = state().getIndex();
-
-        while (in.writerIndex() > in.readerIndex()) {
-            CommandData<Object, Object> cmd = null;
+    private boolean handleCommandsDataResponse(ChannelHandlerContext ctx, ByteBuf in, CommandsData commands) {
+        while (state.getIndex() < commands.getCommands().size()) {
+            CommandData<Object, Object> cmd = (CommandData<Object, Object>) commands.getCommands().get(state.getIndex());
             try {
-                checkpoint();
-                state().setIndex(i);
-                cmd = (CommandData<Object, Object>) commands.getCommands().get(i);
-                decode(in, cmd, null, ctx.channel(), currentDecoder);
-                i++;
+                if (!decode(in, cmd, ctx.channel())) {
+                    return false;
+                }
             } catch (IOException e) {
                 cmd.getPromise().tryFailure(e);
             }
+            state.reset();
+            state.setIndex(state.getIndex() + 1);
         }
 
-        if (i == commands.getCommands().size()) {
-            Promise<Void> promise = commands.getPromise();
-            if (!promise.trySuccess(null) && promise.cause() instanceof RedisTimeoutException) {
-                log.warn("response has been skipped due to timeout! channel: {}, command: {}", ctx.channel(), data);
-            }
-
-            ctx.pipeline().get(CommandsQueue.class).sendNextCommand(ctx);
-
-            state(null);
-        } else {
-            checkpoint();
-            state().setIndex(i);
+        Promise<Void> promise = commands.getPromise();
+        if (!promise.trySuccess(null) && promise.cause() instanceof RedisTimeoutException) {
+            log.warn("response has been skipped due to timeout! channel: {}, command: {}", ctx.channel(), commands);
         }
+        return true;
     }
 
-    private void decode(ByteBuf in, CommandData<Object, Object> data, List<Object> parts, Channel channel, Decoder<Object> currentDecoder) throws IOException {
-        int code = in.readByte();
-        if (code == '+') {
-            String result = in.readBytes(in.bytesBefore((byte) '\r')).toString(CharsetUtil.UTF_8);
-            in.skipBytes(2);
-
-            handleResult(data, parts, result, false, channel);
-        } else if (code == '-') {
-            String error = in.readBytes(in.bytesBefore((byte) '\r')).toString(CharsetUtil.UTF_8);
-            in.skipBytes(2);
-
-            if (error.startsWith("MOVED")) {
-                String[] errorParts = error.split(" ");
-                int slot = Integer.valueOf(errorParts[1]);
-                String addr = errorParts[2];
-                data.getPromise().tryFailure(new RedisMovedException(slot, addr));
-            } else if (error.startsWith("ASK")) {
-                String[] errorParts = error.split(" ");
-                int slot = Integer.valueOf(errorParts[1]);
-                String addr = errorParts[2];
-                data.getPromise().tryFailure(new RedisAskException(slot, addr));
-            } else if (error.startsWith("LOADING")) {
-                data.getPromise().tryFailure(new RedisLoadingException(error
-                        + ". channel: " + channel + " data: " + data));
+    /**
+     * Decodes reply elements available in buffer.
+     *
+     * @return <code>true</code> if reply has been fully decoded
+     *         and <code>false</code> if more data is needed
+     */
+    private boolean decode(ByteBuf in, CommandData<Object, Object> data, Channel channel) throws IOException {
+        while (in.isReadable()) {
+            int lineEnd = in.indexOf(in.readerIndex(), in.writerIndex(), (byte) LF);
+            if (lineEnd == -1) {
+                return false;
+            }
+
+            StateLevel level = state.getLevels().peekLast();
+            List<Object> parts = null;
+            if (level != null) {
+                parts = level.getParts();
+            }
+
+            int code = in.getByte(in.readerIndex());
+            if (code == '+') {
+                String result = readLine(in, lineEnd);
+
+                handleResult(data, parts, result, false, channel);
+            } else if (code == '-') {
+                String error = readLine(in, lineEnd);
+
+                if (error.startsWith("MOVED")) {
+                    String[] errorParts = error.split(" ");
+                    int slot = Integer.valueOf(errorParts[1]);
+                    String addr = errorParts[2];
+                    data.getPromise().tryFailure(new RedisMovedException(slot, addr));
+                } else if (error.startsWith("ASK")) {
+                    String[] errorParts = error.split(" ");
+                    int slot = Integer.valueOf(errorParts[1]);
+                    String addr = errorParts[2];
+                    data.getPromise().tryFailure(new RedisAskException(slot, addr));
+                } else if (error.startsWith("NOSCRIPT")) {
+                    data.getPromise().tryFailure(new RedisNoScriptException(error
+                            + ". channel: " + channel + " data: " + data));
+                } else if (error.startsWith("LOADING")) {
+                    data.getPromise().tryFailure(new RedisLoadingException(error
+                            + ". channel: " + channel + " data: " + data));
+                } else {
+                    data.getPromise().tryFailure(new RedisException(error + ". channel: " + channel + " command: " + data));
+                }
+            } else if (code == ':') {
+                long status = readLong(in, lineEnd);
+                in.readerIndex(lineEnd + 1);
+                Object result = Long.valueOf(status);
+                handleResult(data, parts, result, false, channel);
+            } else if (code == '$') {
+                long size = readLong(in, lineEnd);
+                if (size > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException(
+                            "Java only supports arrays up to " + Integer.MAX_VALUE + " in size");
+                }
+                Object result = null;
+                if (size == -1) {
+                    in.readerIndex(lineEnd + 1);
+                } else {
+                    // wait for the whole bulk string with CRLF
+                    if (in.writerIndex() - lineEnd - 1 < size + 2) {
+                        return false;
+                    }
+                    in.readerIndex(lineEnd + 1);
+                    ByteBuf buf = in.readSlice((int) size);
+                    int cr = in.readByte();
+                    int lf = in.readByte();
+                    if (cr != CR || lf != LF) {
+                        throw new IOException("Improper line ending: " + cr + ", " + lf);
+                    }
+                    result = decoder(data, parts).decode(buf, state);
+                }
+                handleResult(data, parts, result, false, channel);
+            } else if (code == '*') {
+                long size = readLong(in, lineEnd);
+                in.readerIndex(lineEnd + 1);
+                state.getLevels().add(new StateLevel(size));
             } else {
-                data.getPromise().tryFailure(new RedisException(error + ". channel: " + channel + " command: " + data));
+                throw new IllegalStateException("Can't decode replay " + (char)code);
             }
-        } else if (code == ':') {
-            String status = in.readBytes(in.bytesBefore((byte) '\r')).toString(CharsetUtil.UTF_8);
-            in.skipBytes(2);
-            Object result = Long.valueOf(status);
-            handleResult(data, parts, result, false, channel);
-        } else if (code == '$') {
-            ByteBuf buf = readBytes(in);
-            Object result = null;
-            if (buf != null) {
-                result = decoder(data, parts, currentDecoder).decode(buf, state());
+
+            if (code != '*' && level != null) {
+                level.incDecodedAmount();
             }
-            handleResult(data, parts, result, false, channel);
-        } else if (code == '*') {
-            long size = readLong(in);
-//            state().setSizeOnce(size);
 
-            List<Object> respParts = new ArrayList<Object>();
+            // complete decoded multi-bulk replies
+            while (true) {
+                StateLevel lastLevel = state.getLevels().peekLast();
+                if (lastLevel == null) {
+                    return true;
+                }
+                if (!lastLevel.isDecoded()) {
+                    break;
+                }
 
-            decodeMulti(in, data, parts, channel, currentDecoder, size, respParts);
-        } else {
-            throw new IllegalStateException("Can't decode replay " + (char)code);
+                state.getLevels().pollLast();
+                StateLevel parentLevel = state.getLevels().peekLast();
+                List<Object> parentParts = null;
+                if (parentLevel != null) {
+                    parentParts = parentLevel.getParts();
+                }
+                decodeMulti(data, parentParts, channel, lastLevel.getParts());
+                if (parentLevel != null) {
+                    parentLevel.incDecodedAmount();
+                }
+            }
         }
+        return false;
     }
 
-    private void decodeMulti(ByteBuf in, CommandData<Object, Object> data, List<Object> parts,
-            Channel channel, Decoder<Object> currentDecoder, long size, List<Object> respParts)
-                    throws IOException {
-        for (int i = respParts.size(); i < size; i++) {
-            decode(in, data, respParts, channel, currentDecoder);
-        }
-
+    private void decodeMulti(CommandData<Object, Object> data, List<Object> parts,
+            Channel channel, List<Object> respParts) {
         MultiDecoder<Object> decoder = messageDecoder(data, respParts, channel);
         if (decoder == null) {
             return;
         }
 
-        Object result = decoder.decode(respParts, state());
-
+        Object result = decoder.decode(respParts, state);
 
         if (result instanceof Message) {
-            // store current message index
-            checkpoint();
-
             handleMultiResult(data, null, channel, result);
-            // has next messages?
-            if (in.writerIndex() > in.readerIndex()) {
-                decode(in, data, null, channel, currentDecoder);
-            }
         } else {
             handleMultiResult(data, parts, channel, result);
-//            if (parts != null && !decoder.isApplicable(parts.size(), state())) {
-//                state().setRespParts(parts);
-//            }
         }
     }
 
@@ -245,13 +284,11 @@ public class CommandDecoder extends ReplayingDecoder<State> {
         } else {
             if (result instanceof PubSubStatusMessage) {
                 String channelName = ((PubSubStatusMessage) result).getChannel();
-                CommandData<Object, Object> d = channels.get(channelName);
-                if (Arrays.asList("PSUBSCRIBE", "SUBSCRIBE").contains(d.getCommand().getName())) {
-                    channels.remove(channelName);
+                PubSubType type = ((PubSubStatusMessage) result).getType();
+                CommandData<Object, Object> d = channels.remove(channelName);
+                if (type == PubSubType.SUBSCRIBE || type == PubSubType.PSUBSCRIBE) {
                     messageDecoders.put(channelName, d.getMessageDecoder());
-                }
-                if (Arrays.asList("PUNSUBSCRIBE", "UNSUBSCRIBE").contains(d.getCommand().getName())) {
-                    channels.remove(channelName);
+                } else {
                     messageDecoders.remove(channelName);
                 }
             }
@@ -286,26 +323,26 @@ public class CommandDecoder extends ReplayingDecoder<State> {
 
     private MultiDecoder<Object> messageDecoder(CommandData<Object, Object> data, List<Object> parts, Channel channel) {
         if (data == null) {
-            if (Arrays.asList("subscribe", "psubscribe", "punsubscribe", "unsubscribe").contains(parts.get(0))) {
+            // messages are checked first as most frequent
+            Object type = parts.get(0);
+            if ("message".equals(type) || "pmessage".equals(type)) {
+                String channelName = (String) parts.get(1);
+                return messageDecoders.get(channelName);
+            }
+            if (STATUS_TYPES.contains(type)) {
                 String channelName = (String) parts.get(1);
                 CommandData<Object, Object> commandData = channels.get(channelName);
                 if (commandData == null) {
                     return null;
                 }
                 return commandData.getCommand().getReplayMultiDecoder();
-            } else if (parts.get(0).equals("message")) {
-                String channelName = (String) parts.get(1);
-                return messageDecoders.get(channelName);
-            } else if (parts.get(0).equals("pmessage")) {
-                String patternName = (String) parts.get(1);
-                return messageDecoders.get(patternName);
             }
         }
 
         return data.getCommand().getReplayMultiDecoder();
     }
 
-    private Decoder<Object> decoder(CommandData<Object, Object> data, List<Object> parts, Decoder<Object> currentDecoder) {
+    private Decoder<Object> decoder(CommandData<Object, Object> data, List<Object> parts) {
         if (data == null) {
             if (parts.size() == 2 && parts.get(0).equals("message")) {
                 String channelName = (String) parts.get(1);
@@ -315,13 +352,13 @@ public class CommandDecoder extends ReplayingDecoder<State> {
                 String patternName = (String) parts.get(1);
                 return messageDecoders.get(patternName);
             }
-            return currentDecoder;
+            return stringDecoder;
         }
 
         Decoder<Object> decoder = data.getCommand().getReplayDecoder();
         if (parts != null) {
             MultiDecoder<Object> multiDecoder = data.getCommand().getReplayMultiDecoder();
-            if (multiDecoder.isApplicable(parts.size(), state())) {
+            if (multiDecoder.isApplicable(parts.size(), state)) {
                 decoder = multiDecoder;
             }
         }
@@ -343,48 +380,45 @@ public class CommandDecoder extends ReplayingDecoder<State> {
         return decoder;
     }
 
-    public ByteBuf readBytes(ByteBuf is) throws IOException {
-        long l = readLong(is);
-        if (l > Integer.MAX_VALUE) {
-            throw new IllegalArgumentException(
-                    "Java only supports arrays up to " + Integer.MAX_VALUE + " in size");
-        }
-        int size = (int) l;
-        if (size == -1) {
-            return null;
-        }
-        ByteBuf buffer = is.readSlice(size);
-        int cr = is.readByte();
-        int lf = is.readByte();
-        if (cr != CR || lf != LF) {
-            throw new IOException("Improper line ending: " + cr + ", " + lf);
+    private String readLine(ByteBuf in, int lineEnd) throws IOException {
+        checkLineEnding(in, lineEnd);
+        String result = in.toString(in.readerIndex() + 1, lineEnd - in.readerIndex() - 2, CharsetUtil.UTF_8);
+        in.readerIndex(lineEnd + 1);
+        return result;
+    }
+
+    private void checkLineEnding(ByteBuf in, int lineEnd) throws IOException {
+        int cr = in.getByte(lineEnd - 1);
+        if (cr != CR) {
+            throw new IOException("Improper line ending: " + cr + ", " + LF);
         }
-        return buffer;
     }
 
-    public static long readLong(ByteBuf is) throws IOException {
+    /**
+     * Reads number of line started with type code. Reader index is not changed.
+     */
+    private long readLong(ByteBuf in, int lineEnd) throws IOException {
+        checkLineEnding(in, lineEnd);
+        int index = in.readerIndex() + 1;
+        int end = lineEnd - 1;
         long size = 0;
         int sign = 1;
-        int read = is.readByte();
-        if (read == '-') {
-            read = is.readByte();
+        if (in.getByte(index) == '-') {
+            index++;
             sign = -1;
         }
-        do {
-            if (read == CR) {
-                if (is.readByte() == LF) {
-                    break;
-                }
-            }
-            int value = read - ZERO;
+        if (index == end) {
+            throw new IOException("Invalid character in integer");
+        }
+        for (; index < end; index++) {
+            int value = in.getByte(index) - ZERO;
             if (value >= 0 && value < 10) {
                 size *= 10;
                 size += value;
             } else {
                 throw new IOException("Invalid character in integer");
             }
-            read = is.readByte();
-        } while (true);
+        }
         return size * sign;
     }
 
@@ -15,9 +15,11 @@
  */
 package org.redisson.client.handler;
 
+import java.io.IOException;
 import java.util.List;
 
 import org.redisson.client.codec.ByteArrayCodec;
+import org.redisson.client.protocol.ByteBufEncoder;
 import org.redisson.client.protocol.CommandData;
 import org.redisson.client.protocol.Encoder;
 import org.redisson.client.protocol.DefaultParamsEncoder;
@@ -26,6 +28,7 @@ import org.slf4j.LoggerFactory;
 import org.redisson.client.protocol.RedisCommand.ValueType;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 import io.netty.util.CharsetUtil;
@@ -48,6 +51,13 @@ public class CommandEncoder extends MessageToByteEncoder<CommandData<Object, Obj
     private static final char BYTES_PREFIX = '$';
     private static final byte[] CRLF = "\r\n".getBytes();
 
+    /**
+     * Digits amount of last argument length by argument position.
+     * Positions after the first ones are usually key-value pairs,
+     * so they share two slots by parity.
+     */
+    private final int[] lengthDigits = {1, 1, 1, 1, 1, 1, 1, 1};
+
     @Override
     protected void encode(ChannelHandlerContext ctx, CommandData<Object, Object> msg, ByteBuf out) throws Exception {
         out.writeByte(ARGS_PREFIX);
@@ -55,13 +65,10 @@ public class CommandEncoder extends MessageToByteEncoder<CommandData<Object, Obj
         if (msg.getCommand().getSubName() != null) {
             len++;
         }
-        out.writeBytes(toChars(len));
+        writeNumber(out, len);
         out.writeBytes(CRLF);
 
-        writeArgument(out, msg.getCommand().getName().getBytes("UTF-8"));
-        if (msg.getCommand().getSubName() != null) {
-            writeArgument(out, msg.getCommand().getSubName().getBytes("UTF-8"));
-        }
+        out.writeBytes(msg.getCommand().getEncodedName());
         int i = 1;
         for (Object param : msg.getParams()) {
             Encoder encoder = paramsEncoder;
@@ -78,7 +85,7 @@ public class CommandEncoder extends MessageToByteEncoder<CommandData<Object, Obj
                 }
             }
 
-            writeArgument(out, encoder.encode(param));
+            writeArgument(out, encoder, param, i);
 
             i++;
         }
@@ -116,14 +123,101 @@ public class CommandEncoder extends MessageToByteEncoder<CommandData<Object, Obj
         throw new IllegalStateException();
     }
 
+    private void writeArgument(ByteBuf out, Encoder encoder, Object param, int position) throws IOException {
+        if (encoder == paramsEncoder) {
+            if (param instanceof byte[]) {
+                writeArgument(out, (byte[]) param);
+                return;
+            }
+            if (param instanceof Long || param instanceof Integer
+                    || param instanceof Short || param instanceof Byte) {
+                long value = ((Number) param).longValue();
+                if (value != Long.MIN_VALUE) {
+                    writeArgument(out, value);
+                    return;
+                }
+            }
+        }
+
+        if (encoder instanceof ByteBufEncoder) {
+            writeArgument(out, (ByteBufEncoder) encoder, param, position);
+            return;
+        }
+
+        writeArgument(out, encoder.encode(param));
+    }
+
+    /**
+     * Writes codec output straight to <code>out</code> after space reserved for length prefix.
+     * Prefix size is guessed by digits amount of previous argument length at the same position.
+     * Encoded bytes are moved only if guess was wrong.
+     */
+    private void writeArgument(ByteBuf out, ByteBufEncoder encoder, Object param, int position) throws IOException {
+        int slot = position < lengthDigits.length ? position : lengthDigits.length - 2 + (position & 1);
+        int guess = lengthDigits[slot];
+        int start = out.writerIndex();
+        int dataIndex = start + 1 + guess + CRLF.length;
+        out.ensureWritable(dataIndex - start);
+        out.writerIndex(dataIndex);
+        encoder.encode(param, out);
+
+        int length = out.writerIndex() - dataIndex;
+        int digits = stringSize(length);
+        if (digits != guess) {
+            lengthDigits[slot] = digits;
+            ByteBuf data = out.copy(dataIndex, length);
+            try {
+                out.writerIndex(start);
+                writeArgument(out, data);
+            } finally {
+                data.release();
+            }
+            return;
+        }
+
+        out.setByte(start, BYTES_PREFIX);
+        getChars(length, start + 1 + digits, out);
+        out.setBytes(start + 1 + digits, CRLF);
+        out.writeBytes(CRLF);
+    }
+
     private void writeArgument(ByteBuf out, byte[] arg) {
         out.writeByte(BYTES_PREFIX);
-        out.writeBytes(toChars(arg.length));
+        writeNumber(out, arg.length);
+        out.writeBytes(CRLF);
+        out.writeBytes(arg);
+        out.writeBytes(CRLF);
+    }
+
+    private void writeArgument(ByteBuf out, ByteBuf arg) {
+        out.writeByte(BYTES_PREFIX);
+        writeNumber(out, arg.readableBytes());
         out.writeBytes(CRLF);
         out.writeBytes(arg);
         out.writeBytes(CRLF);
     }
 
+    private void writeArgument(ByteBuf out, long arg) {
+        out.writeByte(BYTES_PREFIX);
+        writeNumber(out, (arg < 0) ? stringSize(-arg) + 1 : stringSize(arg));
+        out.writeBytes(CRLF);
+        writeNumber(out, arg);
+        out.writeBytes(CRLF);
+    }
+
+    /**
+     * Writes decimal representation of number digit by digit
+     * without intermediate array allocation.
+     * <code>Long.MIN_VALUE</code> is not supported.
+     */
+    static void writeNumber(ByteBuf out, long i) {
+        int size = (i < 0) ? stringSize(-i) + 1 : stringSize(i);
+        out.ensureWritable(size);
+        int index = out.writerIndex();
+        getChars(i, index + size, out);
+        out.writerIndex(index + size);
+    }
+
     final static char[] DigitTens = {'0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1', '1', '1', '1',
             '1', '1', '1', '1', '1', '1', '2', '2', '2', '2', '2', '2', '2', '2', '2', '2', '3', '3', '3',
             '3', '3', '3', '3', '3', '3', '3', '4', '4', '4', '4', '4', '4', '4', '4', '4', '4', '5', '5',
@@ -142,8 +236,9 @@ public class CommandEncoder extends MessageToByteEncoder<CommandData<Object, Obj
             'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm', 'n', 'o', 'p', 'q', 'r', 's', 't', 'u', 'v', 'w', 'x',
             'y', 'z'};
 
-    final static int[] sizeTable = {9, 99, 999, 9999, 99999, 999999, 9999999, 99999999, 999999999,
-            Integer.MAX_VALUE};
+    final static long[] sizeTable = {9L, 99L, 999L, 9999L, 99999L, 999999L, 9999999L, 99999999L, 999999999L,
+            9999999999L, 99999999999L, 999999999999L, 9999999999999L, 99999999999999L, 999999999999999L,
+            9999999999999999L, 99999999999999999L, 999999999999999999L, Long.MAX_VALUE};
 
     // Requires positive x
     static int stringSize(long x) {
@@ -152,7 +247,7 @@ public class CommandEncoder extends MessageToByteEncoder<CommandData<Object, Obj
                 return i + 1;
     }
 
-    static void getChars(long i, int index, byte[] buf) {
+    static void getChars(long i, int index, ByteBuf buf) {
         long q, r;
         int charPos = index;
         byte sign = 0;
@@ -168,8 +263,8 @@ public class CommandEncoder extends MessageToByteEncoder<CommandData<Object, Obj
             // really: r = i - (q * 100);
             r = i - ((q << 6) + (q << 5) + (q << 2));
             i = q;
-            buf[--charPos] = (byte) DigitOnes[(int)r];
-            buf[--charPos] = (byte) DigitTens[(int)r];
+            buf.setByte(--charPos, DigitOnes[(int)r]);
+            buf.setByte(--charPos, DigitTens[(int)r]);
         }
 
         // Fall thru to fast mode for smaller numbers
@@ -177,20 +272,20 @@ public class CommandEncoder extends MessageToByteEncoder<CommandData<Object, Obj
         for (;;) {
             q = (i * 52429) >>> (16 + 3);
             r = i - ((q << 3) + (q << 1)); // r = i-(q*10) ...
-            buf[--charPos] = (byte) digits[(int)r];
+            buf.setByte(--charPos, digits[(int)r]);
             i = q;
             if (i == 0)
                 break;
         }
         if (sign != 0) {
-            buf[--charPos] = sign;
+            buf.setByte(--charPos, sign);
         }
     }
 
     public static byte[] toChars(long i) {
         int size = (i < 0) ? stringSize(-i) + 1 : stringSize(i);
         byte[] buf = new byte[size];
-        getChars(i, size, buf);
+        getChars(i, size, Unpooled.wrappedBuffer(buf));
         return buf;
     }
 
@@ -15,10 +15,18 @@
  */
 package org.redisson.client.handler;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
 
+import org.redisson.client.RedisConnectionException;
+import org.redisson.client.RedisTimeoutException;
 import org.redisson.client.protocol.CommandData;
+import org.redisson.client.protocol.CommandsData;
 import org.redisson.client.protocol.QueueCommand;
 import org.redisson.client.protocol.QueueCommandHolder;
 
@@ -31,7 +39,12 @@ import io.netty.util.AttributeKey;
 import io.netty.util.internal.PlatformDependent;
 
 /**
+ * Commands queue of channel.
  *
+ * Up to <code>pipelineLimit</code> commands are written to channel
+ * without awaiting response. Responses are matched to sent commands
+ * in FIFO order. <code>pipelineLimit = 1</code> means that next command
+ * is sent only after response on previous one has been received.
  *
  * @author Nikita Koksharov
  *
@@ -42,51 +55,218 @@ public class CommandsQueue extends ChannelDuplexHandler {
 
     private final Queue<QueueCommandHolder> queue = PlatformDependent.newMpscQueue();
 
+    // commands sent and awaiting response. Accessed only from channel's event loop
+    private final Deque<QueueCommandHolder> sentQueue = new ArrayDeque<QueueCommandHolder>();
+
+    private final int pipelineLimit;
+
+    public CommandsQueue() {
+        this(1);
+    }
+
+    public CommandsQueue(int pipelineLimit) {
+        if (pipelineLimit < 1) {
+            throw new IllegalArgumentException("pipelineLimit should be greater than 0");
+        }
+        this.pipelineLimit = pipelineLimit;
+    }
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) throws Exception {
+        ResponseTimeoutChecker.register(ctx.executor(), this);
+        super.channelActive(ctx);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        ResponseTimeoutChecker.unregister(ctx.executor(), this);
+        failPendingCommands(ctx);
+        super.channelInactive(ctx);
+    }
+
+    /**
+     * Commands which haven't been written yet fail on write,
+     * so they are retried like any other write failure.
+     * Responses on written commands won't be received anymore,
+     * so such commands fail with {@link RedisConnectionException}.
+     */
+    private void failPendingCommands(ChannelHandlerContext ctx) {
+        while (true) {
+            QueueCommandHolder holder = queue.poll();
+            if (holder == null) {
+                break;
+            }
+            holder.getChannelPromise().tryFailure(
+                    new RedisConnectionException("Channel " + ctx.channel() + " has been closed before command write"));
+        }
+
+        while (true) {
+            QueueCommandHolder holder = sentQueue.poll();
+            if (holder == null) {
+                break;
+            }
+            // unfinished write is failed by channel itself
+            if (holder.getChannelPromise().isSuccess()) {
+                QueueCommand command = holder.getCommand();
+                command.tryFailure(new RedisConnectionException("Channel " + ctx.channel()
+                        + " has been closed before response received for " + toString(command)));
+            }
+        }
+        updateReplay(ctx);
+    }
+
+    /**
+     * Fails sent commands which haven't received response before deadline.
+     * Responses are received in the same order as commands have been written,
+     * and written commands usually have the same timeout, so deadlines
+     * are checked from the head of queue until first non expired one.
+     * Expired command stays in queue till its response is received.
+     *
+     * Commands which are still waiting in queue after write deadline are cancelled,
+     * so they could be retried using another connection.
+     *
+     * @param currentTime - in nanoseconds
+     */
+    void checkTimeouts(long currentTime) {
+        if (!queue.isEmpty()) {
+            cancelExpiredWrites(currentTime);
+        }
+
+        for (QueueCommandHolder holder : sentQueue) {
+            long deadline = holder.getDeadline();
+            if (deadline == 0) {
+                if (!holder.getChannelPromise().isDone()) {
+                    // commands after this one haven't been written too
+                    return;
+                }
+                continue;
+            }
+            if (deadline - currentTime > 0) {
+                return;
+            }
+
+            holder.setDeadline(0);
+            QueueCommand command = holder.getCommand();
+            command.tryFailure(new RedisTimeoutException("Redis server response timeout (" + command.getResponseTimeout()
+                    + " ms) occured for " + toString(command) + " channel: " + holder.getChannelPromise().channel()));
+        }
+    }
+
+    private void cancelExpiredWrites(long currentTime) {
+        List<QueueCommandHolder> expired = null;
+        for (QueueCommandHolder holder : queue) {
+            long writeDeadline = holder.getWriteDeadline();
+            if (writeDeadline == 0 || holder.getChannelPromise().isDone()) {
+                continue;
+            }
+            // commands are queued in write order and usually have the same write timeout
+            if (writeDeadline - currentTime > 0) {
+                break;
+            }
+
+            if (expired == null) {
+                expired = new ArrayList<QueueCommandHolder>();
+            }
+            expired.add(holder);
+        }
+
+        if (expired != null) {
+            // cancellation listeners could write to this channel, so writes are cancelled after iteration
+            for (QueueCommandHolder holder : expired) {
+                holder.getChannelPromise().cancel(false);
+            }
+        }
+    }
+
+    private String toString(QueueCommand command) {
+        if (command instanceof CommandData) {
+            CommandData<?, ?> data = (CommandData<?, ?>) command;
+            return "command: " + data.getCommand() + " with params: " + Arrays.toString(data.getParams());
+        }
+        return "commands: " + ((CommandsData) command).getCommands();
+    }
+
     public void sendNextCommand(ChannelHandlerContext ctx) {
-        ctx.channel().attr(CommandsQueue.REPLAY).remove();
-        queue.poll();
-        sendData(ctx);
+        sentQueue.poll();
+        updateReplay(ctx);
+        // commands should be written starting from this handler
+        sendData(ctx.pipeline().context(this));
     }
 
     @Override
     public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
         if (msg instanceof QueueCommand) {
-            QueueCommand data = (QueueCommand) msg;
-            QueueCommandHolder holder = queue.peek();
-            if (holder != null && holder.getCommand() == data) {
-                super.write(ctx, msg, promise);
-            } else {
-                queue.add(new QueueCommandHolder(data, promise));
-                sendData(ctx);
+            QueueCommand command = (QueueCommand) msg;
+            QueueCommandHolder holder = new QueueCommandHolder(command, promise);
+            if (command.getWriteTimeout() > 0) {
+                holder.setWriteDeadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(command.getWriteTimeout()));
             }
+            queue.add(holder);
+            sendData(ctx);
         } else {
             super.write(ctx, msg, promise);
         }
     }
 
+    private void updateReplay(ChannelHandlerContext ctx) {
+        QueueCommandHolder head = sentQueue.peek();
+        if (head != null && head.getCommand().getPubSubOperations().isEmpty()) {
+            ctx.channel().attr(REPLAY).set(head.getCommand());
+        } else {
+            ctx.channel().attr(REPLAY).remove();
+        }
+    }
+
     private void sendData(final ChannelHandlerContext ctx) {
-        QueueCommandHolder command = queue.peek();
-        if (command != null && command.getSended().compareAndSet(false, true)) {
+        while (sentQueue.size() < pipelineLimit) {
+            QueueCommandHolder command = queue.peek();
+            if (command == null) {
+                return;
+            }
+
             QueueCommand data = command.getCommand();
             List<CommandData<Object, Object>> pubSubOps = data.getPubSubOperations();
+            // pubsub responses can't be distinguished from messages, so they are never pipelined
+            if (!sentQueue.isEmpty()
+                    && (!pubSubOps.isEmpty() || !sentQueue.peekLast().getCommand().getPubSubOperations().isEmpty())) {
+                return;
+            }
+
+            queue.poll();
+            if (command.getChannelPromise().isCancelled()
+                    || !command.getSended().compareAndSet(false, true)) {
+                continue;
+            }
+
             if (!pubSubOps.isEmpty()) {
                 for (CommandData<Object, Object> cd : pubSubOps) {
                     for (Object channel : cd.getParams()) {
                         ctx.pipeline().get(CommandDecoder.class).addChannel(channel.toString(), cd);
                     }
                 }
-            } else {
-                ctx.channel().attr(REPLAY).set(data);
             }
+            sentQueue.add(command);
+            if (sentQueue.size() == 1) {
+                updateReplay(ctx);
+            }
+
+            final QueueCommandHolder sentCommand = command;
             command.getChannelPromise().addListener(new ChannelFutureListener() {
                 @Override
                 public void operationComplete(ChannelFuture future) throws Exception {
-                    if (!future.isSuccess()) {
-                        sendNextCommand(ctx);
+                    if (future.isSuccess()) {
+                        int timeout = sentCommand.getCommand().getResponseTimeout();
+                        if (timeout > 0) {
+                            sentCommand.setDeadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout));
+                        }
+                    } else {
+                        sentQueue.remove(sentCommand);
+                        updateReplay(ctx);
+                        sendData(ctx);
                     }
                 }
             });
-            ctx.channel().writeAndFlush(data, command.getChannelPromise());
+            ctx.writeAndFlush(data, command.getChannelPromise());
         }
     }
 
@@ -0,0 +1,100 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.client.handler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Checks response deadlines of all {@link CommandsQueue} bound to the same event loop.
+ * Only one periodic task is scheduled per event loop and it exists
+ * while there is at least one active channel in this event loop.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class ResponseTimeoutChecker implements Runnable {
+
+    public static final long CHECK_INTERVAL = 10;
+
+    private static final ConcurrentMap<EventExecutor, ResponseTimeoutChecker> checkers = PlatformDependent.newConcurrentHashMap();
+
+    // accessed only from event loop
+    private final List<CommandsQueue> queues = new ArrayList<CommandsQueue>();
+    private final EventExecutor executor;
+    private ScheduledFuture<?> future;
+
+    private ResponseTimeoutChecker(EventExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Should be invoked from event loop of <code>executor</code>
+     *
+     * @param executor
+     * @param queue
+     */
+    static void register(EventExecutor executor, CommandsQueue queue) {
+        ResponseTimeoutChecker checker = checkers.get(executor);
+        if (checker == null) {
+            checker = new ResponseTimeoutChecker(executor);
+            checkers.put(executor, checker);
+        }
+        checker.queues.add(queue);
+        if (checker.future == null) {
+            checker.future = executor.scheduleWithFixedDelay(checker, CHECK_INTERVAL, CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Should be invoked from event loop of <code>executor</code>
+     *
+     * @param executor
+     * @param queue
+     */
+    static void unregister(EventExecutor executor, CommandsQueue queue) {
+        ResponseTimeoutChecker checker = checkers.get(executor);
+        if (checker == null) {
+            return;
+        }
+        checker.queues.remove(queue);
+        if (checker.queues.isEmpty()) {
+            checker.future.cancel(false);
+            checkers.remove(executor);
+        }
+    }
+
+    @Override
+    public void run() {
+        long currentTime = System.nanoTime();
+        // queue could be unregistered during check, so iterate by index
+        for (int i = 0; i < queues.size(); i++) {
+            queues.get(i).checkTimeouts(currentTime);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseTimeoutChecker [executor=" + executor + ", queues=" + queues.size() + "]";
+    }
+
+}
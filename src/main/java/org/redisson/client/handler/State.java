@@ -15,35 +15,33 @@
  */
 package org.redisson.client.handler;
 
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
+/**
+ * Reply decoding state.
+ * Preserved between decoding invocations while reply isn't fully received.
+ *
+ */
 public class State {
 
     private int index;
     private Object decoderState;
 
-    private long size;
-    private List<Object> respParts;
+    private final Deque<StateLevel> levels = new ArrayDeque<StateLevel>();
 
     public State() {
         super();
     }
 
-    public void setSizeOnce(long size) {
-        if (this.size != 0) {
-            return;
-        }
-        this.size = size;
-    }
-    public long getSize() {
-        return size;
-    }
-
-    public void setRespParts(List<Object> respParts) {
-        this.respParts = respParts;
-    }
-    public List<Object> getRespParts() {
-        return respParts;
+    /**
+     * Multi-bulk replies which are being decoded.
+     * Last level is the most nested one.
+     *
+     * @return levels
+     */
+    public Deque<StateLevel> getLevels() {
+        return levels;
     }
 
     public void setIndex(int index) {
@@ -60,4 +58,12 @@ public class State {
         this.decoderState = decoderState;
     }
 
+    /**
+     * Resets state before decoding of next reply
+     */
+    public void reset() {
+        levels.clear();
+        decoderState = null;
+    }
+
 }
@@ -0,0 +1,58 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.client.handler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decoding state of multi-bulk reply
+ *
+ */
+public class StateLevel {
+
+    private final long size;
+    private long decodedAmount;
+    private final List<Object> parts;
+
+    public StateLevel(long size) {
+        super();
+        this.size = size;
+        this.parts = new ArrayList<Object>((int) Math.min(Math.max(size, 0), 1024));
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public List<Object> getParts() {
+        return parts;
+    }
+
+    public void incDecodedAmount() {
+        decodedAmount++;
+    }
+
+    public boolean isDecoded() {
+        return decodedAmount >= size;
+    }
+
+    @Override
+    public String toString() {
+        return "StateLevel [size=" + size + ", decodedAmount=" + decodedAmount + "]";
+    }
+
+}
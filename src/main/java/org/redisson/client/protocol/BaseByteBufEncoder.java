@@ -0,0 +1,45 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.client.protocol;
+
+import java.io.IOException;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Base {@link ByteBufEncoder} implementation.
+ * Byte array based {@link Encoder#encode(Object)} method is adapted on top of buffer based one.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public abstract class BaseByteBufEncoder implements ByteBufEncoder {
+
+    @Override
+    public byte[] encode(Object in) throws IOException {
+        ByteBuf out = Unpooled.buffer();
+        try {
+            encode(in, out);
+            byte[] result = new byte[out.readableBytes()];
+            out.readBytes(result);
+            return result;
+        } finally {
+            out.release();
+        }
+    }
+
+}
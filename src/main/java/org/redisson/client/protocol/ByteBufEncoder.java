@@ -0,0 +1,40 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.client.protocol;
+
+import java.io.IOException;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Encoder which writes object directly to the buffer
+ * instead of creating intermediate byte array.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public interface ByteBufEncoder extends Encoder {
+
+    /**
+     * Writes encoded object to <code>out</code> buffer
+     *
+     * @param in - object to encode
+     * @param out - destination buffer
+     * @throws IOException
+     */
+    void encode(Object in, ByteBuf out) throws IOException;
+
+}
@@ -17,7 +17,9 @@ package org.redisson.client.protocol;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.redisson.client.codec.Codec;
 import org.redisson.client.protocol.decoder.MultiDecoder;
@@ -26,11 +28,16 @@ import io.netty.util.concurrent.Promise;
 
 public class CommandData<T, R> implements QueueCommand {
 
-    final Promise<R> promise;
-    final RedisCommand<T> command;
-    final Object[] params;
-    final Codec codec;
-    final MultiDecoder<Object> messageDecoder;
+    private static final Set<String> PUBSUB_COMMANDS = new HashSet<String>(
+            Arrays.asList("PSUBSCRIBE", "SUBSCRIBE", "PUNSUBSCRIBE", "UNSUBSCRIBE"));
+
+    protected final Promise<R> promise;
+    protected final RedisCommand<T> command;
+    protected final Object[] params;
+    protected final Codec codec;
+    protected final MultiDecoder<Object> messageDecoder;
+    int responseTimeout;
+    int writeTimeout;
 
     public CommandData(Promise<R> promise, Codec codec, RedisCommand<T> command, Object[] params) {
         this(promise, null, codec, command, params);
@@ -64,6 +71,29 @@ public class CommandData<T, R> implements QueueCommand {
         return codec;
     }
 
+    public void setResponseTimeout(int responseTimeout) {
+        this.responseTimeout = responseTimeout;
+    }
+
+    @Override
+    public int getResponseTimeout() {
+        return responseTimeout;
+    }
+
+    public void setWriteTimeout(int writeTimeout) {
+        this.writeTimeout = writeTimeout;
+    }
+
+    @Override
+    public int getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    @Override
+    public boolean tryFailure(Throwable cause) {
+        return promise.tryFailure(cause);
+    }
+
     @Override
     public String toString() {
         return "CommandData [promise=" + promise + ", command=" + command + ", params="
@@ -72,8 +102,7 @@ public class CommandData<T, R> implements QueueCommand {
 
     @Override
     public List<CommandData<Object, Object>> getPubSubOperations() {
-        if (Arrays.asList("PSUBSCRIBE", "SUBSCRIBE", "PUNSUBSCRIBE", "UNSUBSCRIBE")
-                .contains(getCommand().getName())) {
+        if (PUBSUB_COMMANDS.contains(getCommand().getName())) {
             return Collections.singletonList((CommandData<Object, Object>)this);
         }
         return Collections.emptyList();
@@ -25,6 +25,8 @@ public class CommandsData implements QueueCommand {
 
     private final List<CommandData<?, ?>> commands;
     private final Promise<Void> promise;
+    private int responseTimeout;
+    private int writeTimeout;
 
     public CommandsData(Promise<Void> promise, List<CommandData<?, ?>> commands) {
         super();
@@ -40,6 +42,34 @@ public class CommandsData implements QueueCommand {
         return commands;
     }
 
+    public void setResponseTimeout(int responseTimeout) {
+        this.responseTimeout = responseTimeout;
+    }
+
+    @Override
+    public int getResponseTimeout() {
+        return responseTimeout;
+    }
+
+    public void setWriteTimeout(int writeTimeout) {
+        this.writeTimeout = writeTimeout;
+    }
+
+    @Override
+    public int getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    @Override
+    public boolean tryFailure(Throwable cause) {
+        boolean result = false;
+        for (CommandData<?, ?> commandData : commands) {
+            result |= commandData.tryFailure(cause);
+        }
+        result |= promise.tryFailure(cause);
+        return result;
+    }
+
     @Override
     public List<CommandData<Object, Object>> getPubSubOperations() {
         List<CommandData<Object, Object>> result = new ArrayList<CommandData<Object, Object>>();
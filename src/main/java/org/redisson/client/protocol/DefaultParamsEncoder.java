@@ -17,7 +17,10 @@ package org.redisson.client.protocol;
 
 import java.io.UnsupportedEncodingException;
 
-public class DefaultParamsEncoder implements Encoder {
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
+public class DefaultParamsEncoder extends BaseByteBufEncoder {
 
     @Override
     public byte[] encode(Object in) {
@@ -31,4 +34,13 @@ public class DefaultParamsEncoder implements Encoder {
         }
     }
 
+    @Override
+    public void encode(Object in, ByteBuf out) {
+        if (in instanceof byte[]) {
+            out.writeBytes((byte[]) in);
+            return;
+        }
+        ByteBufUtil.writeUtf8(out, in.toString());
+    }
+
 }
@@ -21,4 +21,23 @@ public interface QueueCommand {
 
     List<CommandData<Object, Object>> getPubSubOperations();
 
+    /**
+     * Time in milliseconds to wait for response after command has been written.
+     * <code>0</code> means response is awaited infinitely.
+     *
+     * @return timeout
+     */
+    int getResponseTimeout();
+
+    /**
+     * Time in milliseconds to wait for command write to channel.
+     * Write is cancelled if command hasn't been written during this time.
+     * <code>0</code> means write is awaited infinitely.
+     *
+     * @return timeout
+     */
+    int getWriteTimeout();
+
+    boolean tryFailure(Throwable cause);
+
 }
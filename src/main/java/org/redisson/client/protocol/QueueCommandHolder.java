@@ -24,6 +24,10 @@ public class QueueCommandHolder {
     final AtomicBoolean sended = new AtomicBoolean();
     final ChannelPromise channelPromise;
     final QueueCommand command;
+    // response deadline in nanoseconds, 0 if command hasn't been written or doesn't time out
+    long deadline;
+    // write deadline in nanoseconds, 0 if command write doesn't time out
+    long writeDeadline;
 
     public QueueCommandHolder(QueueCommand command, ChannelPromise channelPromise) {
         super();
@@ -43,4 +47,20 @@ public class QueueCommandHolder {
         return sended;
     }
 
+    public long getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    public long getWriteDeadline() {
+        return writeDeadline;
+    }
+
+    public void setWriteDeadline(long writeDeadline) {
+        this.writeDeadline = writeDeadline;
+    }
+
 }
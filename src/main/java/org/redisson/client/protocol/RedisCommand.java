@@ -22,6 +22,8 @@ import org.redisson.client.protocol.convertor.Convertor;
 import org.redisson.client.protocol.convertor.EmptyConvertor;
 import org.redisson.client.protocol.decoder.MultiDecoder;
 
+import io.netty.util.CharsetUtil;
+
 public class RedisCommand<R> {
 
     public enum ValueType {OBJECT, OBJECTS, MAP_VALUE, MAP_KEY, MAP, BINARY}
@@ -32,11 +34,14 @@ public class RedisCommand<R> {
 
     private final String name;
     private final String subName;
+    private final byte[] encodedName;
 
     private MultiDecoder<R> replayMultiDecoder;
     private Decoder<R> replayDecoder;
     Convertor<R> convertor = new EmptyConvertor<R>();
 
+    private volatile RedisCommand<R> evalShaCommand;
+
     /**
      * Copy command and change name
      *
@@ -49,6 +54,7 @@ public class RedisCommand<R> {
         this.inParamIndex = command.inParamIndex;
         this.name = name;
         this.subName = command.subName;
+        this.encodedName = encodeName(name, subName);
         this.replayMultiDecoder = command.replayMultiDecoder;
         this.replayDecoder = command.replayDecoder;
         this.convertor = command.convertor;
@@ -194,11 +200,51 @@ public class RedisCommand<R> {
         super();
         this.name = name;
         this.subName = subName;
+        this.encodedName = encodeName(name, subName);
         this.replayMultiDecoder = replayMultiDecoder;
         this.replayDecoder = reponseDecoder;
         this.inParamIndex = inParamIndex;
     }
 
+    private static byte[] encodeName(String name, String subName) {
+        StringBuilder result = new StringBuilder();
+        appendArgument(result, name);
+        if (subName != null) {
+            appendArgument(result, subName);
+        }
+        return result.toString().getBytes(CharsetUtil.UTF_8);
+    }
+
+    private static void appendArgument(StringBuilder result, String arg) {
+        result.append('$').append(arg.getBytes(CharsetUtil.UTF_8).length).append("\r\n")
+                .append(arg).append("\r\n");
+    }
+
+    /**
+     * Returns command name and sub name encoded as Redis protocol bulk strings
+     *
+     * @return
+     */
+    public byte[] getEncodedName() {
+        return encodedName;
+    }
+
+    /**
+     * Returns <code>EVALSHA</code> variant of this <code>EVAL</code> command
+     * with the same decoders and params types. It's created only once per command.
+     *
+     * @return
+     */
+    public RedisCommand<R> getEvalShaCommand() {
+        RedisCommand<R> command = evalShaCommand;
+        if (command == null) {
+            // concurrent calls could create equal copies, any of them is fine
+            command = new RedisCommand<R>(this, "EVALSHA");
+            evalShaCommand = command;
+        }
+        return command;
+    }
+
     public String getSubName() {
         return subName;
     }
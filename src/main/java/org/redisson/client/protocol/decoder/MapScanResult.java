@@ -16,11 +16,10 @@
 package org.redisson.client.protocol.decoder;
 
 import java.net.InetSocketAddress;
+import java.util.Collection;
 import java.util.Map;
 
-import org.redisson.RedisClientResult;
-
-public class MapScanResult<K, V> implements RedisClientResult {
+public class MapScanResult<K, V> implements ScanResult<Map.Entry<K, V>> {
 
     private final Long pos;
     private final Map<K, V> values;
@@ -32,6 +31,7 @@ public class MapScanResult<K, V> implements RedisClientResult {
         this.values = values;
     }
 
+    @Override
     public Long getPos() {
         return pos;
     }
@@ -40,11 +40,17 @@ public class MapScanResult<K, V> implements RedisClientResult {
         return values;
     }
 
+    @Override
+    public Collection<Map.Entry<K, V>> getValues() {
+        return values.entrySet();
+    }
+
     @Override
     public void setRedisClient(InetSocketAddress client) {
         this.client = client;
     }
 
+    @Override
     public InetSocketAddress getRedisClient() {
         return client;
     }
@@ -15,16 +15,20 @@
  */
 package org.redisson.cluster;
 
+import java.net.InetSocketAddress;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.redisson.ClusterServersConfig;
 import org.redisson.Config;
@@ -41,22 +45,34 @@ import org.redisson.connection.ClientConnectionsEntry.FreezeReason;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.FutureListener;
-import io.netty.util.concurrent.GlobalEventExecutor;
-import io.netty.util.concurrent.ScheduledFuture;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.internal.PlatformDependent;
 
 public class ClusterConnectionManager extends MasterSlaveConnectionManager {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
 
-    private final Map<URI, RedisConnection> nodeConnections = new HashMap<URI, RedisConnection>();
+    // delay used to collect MOVED redirects of resharding into single topology check
+    private static final int MOVED_CHECK_DELAY = 100;
 
-    private final Map<ClusterSlotRange, ClusterPartition> lastPartitions = new HashMap<ClusterSlotRange, ClusterPartition>();
+    private final ConcurrentMap<URI, RedisConnection> nodeConnections = PlatformDependent.newConcurrentHashMap();
 
-    private ScheduledFuture<?> monitorFuture;
+    private final Map<ClusterSlotRange, ClusterPartition> lastPartitions = PlatformDependent.newConcurrentHashMap();
+
+    private final AtomicBoolean clusterCheckRunning = new AtomicBoolean();
+    private final AtomicBoolean clusterCheckRequested = new AtomicBoolean();
+    private final AtomicBoolean movedCheckScheduled = new AtomicBoolean();
+
+    private final ClusterServersConfig cfg;
+
+    private volatile Timeout monitorFuture;
 
     public ClusterConnectionManager(ClusterServersConfig cfg, Config config) {
+        this.cfg = cfg;
         connectListener = new ClusterConnectionListener(cfg.isReadFromSlaves());
         init(config);
 
@@ -64,7 +80,9 @@ public class ClusterConnectionManager extends MasterSlaveConnectionManager {
         init(this.config);
 
         for (URI addr : cfg.getNodeAddresses()) {
-            RedisConnection connection = connect(cfg, addr);
+            Future<RedisConnection> connectionFuture = connect(cfg, addr);
+            connectionFuture.awaitUninterruptibly();
+            RedisConnection connection = connectionFuture.getNow();
             if (connection == null) {
                 continue;
             }
@@ -73,10 +91,7 @@ public class ClusterConnectionManager extends MasterSlaveConnectionManager {
 
             Collection<ClusterPartition> partitions = parsePartitions(nodesValue);
             for (ClusterPartition partition : partitions) {
-                Collection<Future<Void>> s = addMasterEntry(partition, cfg);
-                for (Future<Void> future : s) {
-                    future.syncUninterruptibly();
-                }
+                addMasterEntry(partition, cfg).syncUninterruptibly();
             }
 
             break;
@@ -85,54 +100,94 @@ public class ClusterConnectionManager extends MasterSlaveConnectionManager {
         monitorClusterChange(cfg);
     }
 
-    private RedisConnection connect(ClusterServersConfig cfg, URI addr) {
+    private Future<RedisConnection> connect(ClusterServersConfig cfg, final URI addr) {
         RedisConnection connection = nodeConnections.get(addr);
         if (connection != null) {
-            return connection;
-        }
-        RedisClient client = createClient(addr.getHost(), addr.getPort(), cfg.getConnectTimeout());
-        try {
-            connection = client.connect();
-            nodeConnections.put(addr, connection);
-        } catch (RedisConnectionException e) {
-            log.warn(e.getMessage(), e);
-        } catch (Exception e) {
-            log.error(e.getMessage(), e);
-        }
-        if (connection != null && !connection.isActive()) {
-            log.warn("connection for {} is not active!", connection.getRedisClient().getAddr());
+            if (connection.isActive()) {
+                return getGroup().next().newSucceededFuture(connection);
+            }
+            nodeConnections.remove(addr, connection);
             connection.closeAsync();
-            connection = null;
         }
-        if (connection == null) {
-            nodeConnections.remove(addr);
-        }
-        return connection;
+
+        final Promise<RedisConnection> result = newPromise();
+        RedisClient client = createClient(addr.getHost(), addr.getPort(), cfg.getConnectTimeout());
+        Future<RedisConnection> future = client.connectAsync();
+        future.addListener(new FutureListener<RedisConnection>() {
+            @Override
+            public void operationComplete(Future<RedisConnection> future) throws Exception {
+                if (!future.isSuccess()) {
+                    log.warn(future.cause().getMessage(), future.cause());
+                    result.setFailure(future.cause());
+                    return;
+                }
+
+                RedisConnection connection = future.getNow();
+                if (!connection.isActive()) {
+                    log.warn("connection for {} is not active!", connection.getRedisClient().getAddr());
+                    connection.closeAsync();
+                    result.setFailure(new RedisConnectionException("Connection to " + addr + " is not active"));
+                    return;
+                }
+
+                RedisConnection oldConnection = nodeConnections.putIfAbsent(addr, connection);
+                if (oldConnection != null) {
+                    connection.getRedisClient().shutdownAsync();
+                    connection = oldConnection;
+                }
+                result.setSuccess(connection);
+            }
+        });
+        return result;
     }
 
     @Override
     protected void initEntry(MasterSlaveServersConfig config) {
     }
 
-    private Collection<Future<Void>> addMasterEntry(final ClusterPartition partition, ClusterServersConfig cfg) {
+    private Future<Void> addMasterEntry(final ClusterPartition partition, final ClusterServersConfig cfg) {
         if (partition.isMasterFail()) {
             log.warn("add master: {} for slot ranges: {} failed. Reason - server has FAIL flag", partition.getMasterAddress(), partition.getSlotRanges());
-            Future<Void> f = newSucceededFuture();
-            return Collections.singletonList(f);
+            return newSucceededFuture();
         }
 
-        RedisConnection connection = connect(cfg, partition.getMasterAddress());
-        if (connection == null) {
-            Future<Void> f = newSucceededFuture();
-            return Collections.singletonList(f);
-        }
-        Map<String, String> params = connection.sync(RedisCommands.CLUSTER_INFO);
-        if ("fail".equals(params.get("cluster_state"))) {
-            log.warn("add master: {} for slot ranges: {} failed. Reason - cluster_state:fail", partition.getMasterAddress(), partition.getSlotRanges());
-            Future<Void> f = newSucceededFuture();
-            return Collections.singletonList(f);
-        }
+        final Promise<Void> result = newPromise();
+        Future<RedisConnection> connectionFuture = connect(cfg, partition.getMasterAddress());
+        connectionFuture.addListener(new FutureListener<RedisConnection>() {
+            @Override
+            public void operationComplete(Future<RedisConnection> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setSuccess(null);
+                    return;
+                }
 
+                RedisConnection connection = future.getNow();
+                Future<Map<String, String>> clusterFuture = connection.async(RedisCommands.CLUSTER_INFO);
+                clusterFuture.addListener(new FutureListener<Map<String, String>>() {
+                    @Override
+                    public void operationComplete(Future<Map<String, String>> future) throws Exception {
+                        if (!future.isSuccess()) {
+                            log.error("Can't execute CLUSTER_INFO on " + partition.getMasterAddress(), future.cause());
+                            result.setSuccess(null);
+                            return;
+                        }
+
+                        Map<String, String> params = future.getNow();
+                        if ("fail".equals(params.get("cluster_state"))) {
+                            log.warn("add master: {} for slot ranges: {} failed. Reason - cluster_state:fail", partition.getMasterAddress(), partition.getSlotRanges());
+                            result.setSuccess(null);
+                            return;
+                        }
+
+                        setupMasterEntry(partition, cfg, result);
+                    }
+                });
+            }
+        });
+        return result;
+    }
+
+    private void setupMasterEntry(final ClusterPartition partition, ClusterServersConfig cfg, final Promise<Void> result) {
         MasterSlaveServersConfig config = create(cfg);
         log.info("master: {} added for slot ranges: {}", partition.getMasterAddress(), partition.getSlotRanges());
         config.setMasterAddress(partition.getMasterAddress());
@@ -141,52 +196,148 @@ public class ClusterConnectionManager extends MasterSlaveConnectionManager {
         log.info("slaves: {} added for slot ranges: {}", partition.getSlaveAddresses(), partition.getSlotRanges());
 
         final MasterSlaveEntry entry = new MasterSlaveEntry(partition.getSlotRanges(), this, config);
-        List<Future<Void>> fs = entry.initSlaveBalancer(config);
+        final List<Future<Void>> fs = entry.initSlaveBalancer(config);
         Future<Void> f = entry.setupMasterEntry(config.getMasterAddress().getHost(), config.getMasterAddress().getPort());
         f.addListener(new FutureListener<Void>() {
             @Override
             public void operationComplete(Future<Void> future) throws Exception {
+                addEntry(partition.getSlotRanges(), entry);
                 for (ClusterSlotRange slotRange : partition.getSlotRanges()) {
-                    addEntry(slotRange, entry);
                     lastPartitions.put(slotRange, partition);
                 }
             }
         });
         fs.add(f);
-        return fs;
+
+        final AtomicInteger counter = new AtomicInteger(fs.size());
+        FutureListener<Void> listener = new FutureListener<Void>() {
+            @Override
+            public void operationComplete(Future<Void> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.tryFailure(future.cause());
+                    return;
+                }
+                if (counter.decrementAndGet() == 0) {
+                    result.trySuccess(null);
+                }
+            }
+        };
+        for (Future<Void> future : fs) {
+            future.addListener(listener);
+        }
     }
 
     private void monitorClusterChange(final ClusterServersConfig cfg) {
-        monitorFuture = GlobalEventExecutor.INSTANCE.scheduleWithFixedDelay(new Runnable() {
+        monitorFuture = newTimeout(new TimerTask() {
+            @Override
+            public void run(Timeout timeout) throws Exception {
+                checkClusterState();
+                monitorClusterChange(cfg);
+            }
+        }, cfg.getScanInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Updates slot owner right away if node which sent MOVED redirect is already known
+     * and schedules topology check. Topology check is performed once for all
+     * MOVED redirects received during <code>MOVED_CHECK_DELAY</code>.
+     */
+    @Override
+    public void slotMoved(int slot, InetSocketAddress addr) {
+        MasterSlaveEntry entry = getEntry(addr);
+        if (entry != null && getEntry(slot) != entry) {
+            changeSlotOwner(slot, entry);
+            log.debug("slot {} moved to {}", slot, addr);
+        }
+
+        if (movedCheckScheduled.compareAndSet(false, true)) {
+            newTimeout(new TimerTask() {
+                @Override
+                public void run(Timeout timeout) throws Exception {
+                    movedCheckScheduled.set(false);
+                    checkClusterState();
+                }
+            }, MOVED_CHECK_DELAY, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Requests cluster state asynchronously. Only one check runs at a time,
+     * check requested during running one is performed right after it.
+     */
+    private void checkClusterState() {
+        if (isShuttingDown()) {
+            return;
+        }
+
+        if (!clusterCheckRunning.compareAndSet(false, true)) {
+            clusterCheckRequested.set(true);
+            return;
+        }
+
+        List<URI> nodes = new ArrayList<URI>();
+        for (ClusterPartition partition : new HashSet<ClusterPartition>(lastPartitions.values())) {
+            nodes.addAll(partition.getAllAddresses());
+        }
+        checkClusterState(nodes.iterator());
+    }
+
+    private void checkClusterState(final Iterator<URI> iterator) {
+        if (!iterator.hasNext()) {
+            log.warn("Can't update cluster state. No available nodes");
+            clusterCheckDone();
+            return;
+        }
+
+        final URI uri = iterator.next();
+        Future<RedisConnection> connectionFuture = connect(cfg, uri);
+        connectionFuture.addListener(new FutureListener<RedisConnection>() {
             @Override
-            public void run() {
-                try {
-                    for (ClusterPartition partition : lastPartitions.values()) {
-                        for (URI uri : partition.getAllAddresses()) {
-                            RedisConnection connection = connect(cfg, uri);
-                            if (connection == null) {
-                                continue;
-                            }
-
-                            updateClusterState(cfg, connection);
+            public void operationComplete(Future<RedisConnection> future) throws Exception {
+                if (!future.isSuccess()) {
+                    checkClusterState(iterator);
+                    return;
+                }
+
+                final RedisConnection connection = future.getNow();
+                Future<String> nodesFuture = connection.async(RedisCommands.CLUSTER_NODES);
+                nodesFuture.addListener(new FutureListener<String>() {
+                    @Override
+                    public void operationComplete(Future<String> future) throws Exception {
+                        if (!future.isSuccess()) {
+                            log.warn("Can't execute CLUSTER_NODES on " + uri, future.cause());
+                            checkClusterState(iterator);
                             return;
                         }
+
+                        try {
+                            updateClusterState(cfg, connection, future.getNow());
+                        } catch (Exception e) {
+                            log.error(e.getMessage(), e);
+                        } finally {
+                            clusterCheckDone();
+                        }
                     }
-                } catch (Exception e) {
-                    log.error(e.getMessage(), e);
-                }
+                });
             }
-        }, cfg.getScanInterval(), cfg.getScanInterval(), TimeUnit.MILLISECONDS);
+        });
+    }
+
+    private void clusterCheckDone() {
+        clusterCheckRunning.set(false);
+        if (clusterCheckRequested.compareAndSet(true, false)) {
+            checkClusterState();
+        }
     }
 
-    private void updateClusterState(ClusterServersConfig cfg, RedisConnection connection) {
-        String nodesValue = connection.sync(RedisCommands.CLUSTER_NODES);
+    private void updateClusterState(ClusterServersConfig cfg, RedisConnection connection, String nodesValue) {
         log.debug("cluster nodes state from {}:\n{}", connection.getRedisClient().getAddr(), nodesValue);
 
         Collection<ClusterPartition> newPartitions = parsePartitions(nodesValue);
         checkMasterNodesChange(newPartitions);
         checkSlaveNodesChange(newPartitions);
         checkSlotsChange(cfg, newPartitions);
+        confirmMovedSlots();
     }
 
     private void checkSlaveNodesChange(Collection<ClusterPartition> newPartitions) {
@@ -296,16 +447,11 @@ public class ClusterConnectionManager extends MasterSlaveConnectionManager {
         }
         for (ClusterSlotRange slot : addedSlots) {
             ClusterPartition partition = find(newPartitions, slot);
-            boolean masterFound = false;
-            for (MasterSlaveEntry entry : getEntries().values()) {
-                if (entry.getClient().getAddr().equals(partition.getMasterAddr())) {
-                    addEntry(slot, entry);
-                    lastPartitions.put(slot, partition);
-                    masterFound = true;
-                    break;
-                }
-            }
-            if (!masterFound) {
+            MasterSlaveEntry entry = getEntry(partition.getMasterAddr());
+            if (entry != null) {
+                addEntry(slot, entry);
+                lastPartitions.put(slot, partition);
+            } else {
                 addMasterEntry(partition, cfg);
             }
         }
@@ -415,6 +561,10 @@ public class ClusterConnectionManager extends MasterSlaveConnectionManager {
 
         c.setFailedAttempts(cfg.getFailedAttempts());
         c.setReconnectionTimeout(cfg.getReconnectionTimeout());
+        c.setPipelineLimit(cfg.getPipelineLimit());
+        c.setFlushConsolidationLimit(cfg.getFlushConsolidationLimit());
+        c.setConnectionWaitQueueSize(cfg.getConnectionWaitQueueSize());
+        c.setConnectionAcquireTimeout(cfg.getConnectionAcquireTimeout());
         c.setMasterConnectionMinimumIdleSize(cfg.getMasterConnectionMinimumIdleSize());
         c.setSlaveConnectionMinimumIdleSize(cfg.getSlaveConnectionMinimumIdleSize());
         c.setSlaveSubscriptionConnectionMinimumIdleSize(cfg.getSlaveSubscriptionConnectionMinimumIdleSize());
@@ -464,7 +614,7 @@ public class ClusterConnectionManager extends MasterSlaveConnectionManager {
 
     @Override
     public void shutdown() {
-        monitorFuture.cancel(true);
+        monitorFuture.cancel();
         super.shutdown();
 
         for (RedisConnection connection : nodeConnections.values()) {
@@ -15,7 +15,6 @@
  */
 package org.redisson.codec;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 import org.nustaq.serialization.FSTConfiguration;
@@ -23,11 +22,13 @@ import org.nustaq.serialization.FSTObjectInput;
 import org.nustaq.serialization.FSTObjectOutput;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.handler.State;
+import org.redisson.client.protocol.BaseByteBufEncoder;
 import org.redisson.client.protocol.Decoder;
 import org.redisson.client.protocol.Encoder;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 
 /**
  * Efficient and speedy serialization codec fully
@@ -65,16 +66,13 @@ public class FstCodec implements Codec {
         }
     };
 
-    private final Encoder encoder = new Encoder() {
+    private final Encoder encoder = new BaseByteBufEncoder() {
 
         @Override
-        public byte[] encode(Object in) throws IOException {
-            ByteArrayOutputStream os = new ByteArrayOutputStream();
-            FSTObjectOutput oos = config.getObjectOutput(os);
+        public void encode(Object in, ByteBuf out) throws IOException {
+            FSTObjectOutput oos = config.getObjectOutput(new ByteBufOutputStream(out));
             oos.writeObject(in);
             oos.close();
-
-            return os.toByteArray();
         }
     };
 
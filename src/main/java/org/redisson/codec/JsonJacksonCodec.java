@@ -19,6 +19,7 @@ import java.io.IOException;
 
 import org.redisson.client.codec.Codec;
 import org.redisson.client.handler.State;
+import org.redisson.client.protocol.BaseByteBufEncoder;
 import org.redisson.client.protocol.Decoder;
 import org.redisson.client.protocol.Encoder;
 
@@ -36,6 +37,7 @@ import com.fasterxml.jackson.databind.jsontype.TypeResolverBuilder;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 
 /**
  *
@@ -55,10 +57,10 @@ public class JsonJacksonCodec implements Codec {
         return new ObjectMapper();
     }
 
-    private final Encoder encoder = new Encoder() {
+    private final Encoder encoder = new BaseByteBufEncoder() {
         @Override
-        public byte[] encode(Object in) throws IOException {
-            return mapObjectMapper.writeValueAsBytes(in);
+        public void encode(Object in, ByteBuf out) throws IOException {
+            mapObjectMapper.writeValue(new ByteBufOutputStream(out), in);
         }
     };
 
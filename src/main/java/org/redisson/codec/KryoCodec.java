@@ -15,7 +15,6 @@
  */
 package org.redisson.codec;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
@@ -24,6 +23,7 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.redisson.client.codec.Codec;
 import org.redisson.client.handler.State;
+import org.redisson.client.protocol.BaseByteBufEncoder;
 import org.redisson.client.protocol.Decoder;
 import org.redisson.client.protocol.Encoder;
 
@@ -91,8 +91,17 @@ public class KryoCodec implements Codec {
         }
     }
 
+    private static final int OUTPUT_BUFFER_SIZE = 4096;
+    private static final int MAX_POOLED_OUTPUT_BUFFER_SIZE = 64 * 1024;
+
     private final KryoPool kryoPool;
 
+    /**
+     * Outputs are reused to avoid buffer allocation per encoded object.
+     * Outputs grown over {@link #MAX_POOLED_OUTPUT_BUFFER_SIZE} aren't returned to pool.
+     */
+    private final Queue<Output> outputs = new ConcurrentLinkedQueue<Output>();
+
     private final Decoder<Object> decoder = new Decoder<Object>() {
         @Override
         public Object decode(ByteBuf buf, State state) throws IOException {
@@ -113,18 +122,19 @@ public class KryoCodec implements Codec {
         }
     };
 
-    private final Encoder encoder = new Encoder() {
+    private final Encoder encoder = new BaseByteBufEncoder() {
 
         @Override
-        public byte[] encode(Object in) throws IOException {
+        public void encode(Object in, ByteBuf out) throws IOException {
             Kryo kryo = null;
+            Output output = outputs.poll();
+            if (output == null) {
+                output = new Output(OUTPUT_BUFFER_SIZE, -1);
+            }
             try {
-                ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                Output output = new Output(baos);
                 kryo = kryoPool.get();
                 kryo.writeClassAndObject(output, in);
-                output.close();
-                return baos.toByteArray();
+                out.writeBytes(output.getBuffer(), 0, output.position());
             } catch (Exception e) {
                 if (e instanceof RuntimeException) {
                     throw (RuntimeException) e;
@@ -134,6 +144,10 @@ public class KryoCodec implements Codec {
                 if (kryo != null) {
                     kryoPool.yield(kryo);
                 }
+                if (output.getBuffer().length <= MAX_POOLED_OUTPUT_BUFFER_SIZE) {
+                    output.clear();
+                    outputs.offer(output);
+                }
             }
         }
     };
@@ -0,0 +1,399 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.command;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.redisson.RedisClientResult;
+import org.redisson.client.RedisAskException;
+import org.redisson.client.RedisClientStats;
+import org.redisson.client.RedisConnection;
+import org.redisson.client.RedisException;
+import org.redisson.client.RedisLoadingException;
+import org.redisson.client.RedisMovedException;
+import org.redisson.client.RedisTimeoutException;
+import org.redisson.client.WriteRedisConnectionException;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.protocol.CommandData;
+import org.redisson.client.protocol.CommandsData;
+import org.redisson.client.protocol.RedisCommand;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.client.protocol.decoder.MultiDecoder;
+import org.redisson.connection.ConnectionManager;
+import org.redisson.connection.NodeSource;
+import org.redisson.connection.NodeSource.Redirect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.channel.ChannelFuture;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.Promise;
+
+/**
+ * State of single command execution attempt.
+ * It is the command sent to connection and serves as listener of connection,
+ * write and attempt futures and as retry task, so only one object is allocated
+ * per attempt instead of a command and a listener per stage.
+ *
+ * <p>Retry task is scheduled only if connection isn't available immediately
+ * or attempt failed before response. Write which waits in connection queue too long
+ * and response timeout are tracked by connection itself.</p>
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <V> command type
+ * @param <R> result type
+ */
+class AsyncDetails<V, R> extends CommandData<V, R> implements FutureListener<Object>, TimerTask {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncDetails.class);
+
+    private final CommandAsyncService executor;
+    private final ConnectionManager connectionManager;
+
+    private final boolean readOnlyMode;
+    private final NodeSource source;
+    private final Promise<R> mainPromise;
+    private final int attempt;
+
+    private final CommandMetrics metrics;
+    private final long acquireStartTime;
+
+    private Future<RedisConnection> connectionFuture;
+    private long connectionRequestTime;
+    private boolean pipelined;
+
+    // guarded by this
+    private RedisConnection connection;
+    private long startTime;
+
+    private volatile ChannelFuture writeFuture;
+    private volatile RedisException exception;
+    private volatile Timeout timeout;
+
+    AsyncDetails(CommandAsyncService executor, boolean readOnlyMode, NodeSource source, MultiDecoder<Object> messageDecoder,
+            Codec codec, RedisCommand<V> command, Object[] params, Promise<R> mainPromise, int attempt) {
+        super(executor.getConnectionManager().<R>newPromise(), messageDecoder, codec, command, params);
+        this.executor = executor;
+        this.connectionManager = executor.getConnectionManager();
+        this.readOnlyMode = readOnlyMode;
+        this.source = source;
+        this.mainPromise = mainPromise;
+        this.attempt = attempt;
+
+        this.metrics = connectionManager.getCommandMetrics();
+        if (metrics != null) {
+            acquireStartTime = System.nanoTime();
+        } else {
+            acquireStartTime = 0;
+        }
+    }
+
+    void execute() {
+        pipelined = executor.isPipelined(command);
+        connectionRequestTime = System.currentTimeMillis();
+        if (readOnlyMode) {
+            connectionFuture = connectionManager.connectionReadOp(source, command);
+        } else {
+            connectionFuture = connectionManager.connectionWriteOp(source, command);
+        }
+
+        if (!connectionFuture.isDone()) {
+            timeout = connectionManager.newTimeout(this, connectionManager.getConfig().getRetryInterval(), TimeUnit.MILLISECONDS);
+        }
+
+        connectionFuture.addListener(this);
+        promise.addListener(this);
+    }
+
+    /**
+     * Schedules retry task once attempt has failed before response,
+     * so next attempt starts not earlier than retry interval after this one.
+     * Nothing is scheduled if task has been scheduled already,
+     * since it handles failure in the same way.
+     */
+    private void scheduleRetry() throws Exception {
+        if (timeout != null || promise.isDone()) {
+            return;
+        }
+
+        long delay = connectionManager.getConfig().getRetryInterval() - (System.currentTimeMillis() - connectionRequestTime);
+        if (delay > 0) {
+            timeout = connectionManager.newTimeout(this, delay, TimeUnit.MILLISECONDS);
+        } else {
+            run(null);
+        }
+    }
+
+    @Override
+    public void operationComplete(Future<Object> future) throws Exception {
+        if ((Object) future == connectionFuture) {
+            onConnection();
+        } else if ((Object) future == promise) {
+            onAttemptComplete();
+        } else {
+            onWriteComplete((ChannelFuture) (Object) future);
+        }
+    }
+
+    @Override
+    public void run(Timeout t) throws Exception {
+        if (promise.isDone()) {
+            return;
+        }
+
+        if (!connectionFuture.isDone()
+                && System.currentTimeMillis() - connectionRequestTime < connectionManager.getConfig().getConnectionAcquireTimeout()) {
+            // request waits in pool queue and will be failed by pool once acquire timeout elapsed,
+            // so it keeps its place in queue instead of being queued again at the tail
+            timeout = connectionManager.newTimeout(this, connectionManager.getConfig().getRetryInterval(), TimeUnit.MILLISECONDS);
+            return;
+        }
+
+        if (connectionFuture.cancel(false)) {
+            connectionManager.getShutdownLatch().release();
+        } else {
+            if (connectionFuture.isSuccess()) {
+                ChannelFuture future = writeFuture;
+                if (future != null && !future.cancel(false) && future.isSuccess()) {
+                    return;
+                }
+            }
+        }
+
+        if (mainPromise.isCancelled()) {
+            promise.cancel(false);
+            return;
+        }
+
+        if (attempt == connectionManager.getConfig().getRetryAttempts()) {
+            RedisException cause = exception;
+            if (cause == null) {
+                cause = new RedisTimeoutException("Command execution timeout for command: " + command + " with params: " + Arrays.toString(params));
+            }
+            promise.tryFailure(cause);
+            return;
+        }
+        if (!promise.cancel(false)) {
+            return;
+        }
+
+        int count = attempt + 1;
+        if (metrics != null) {
+            metrics.onRetry(command, count);
+        }
+        executor.async(readOnlyMode, source, messageDecoder, codec, command, params, mainPromise, count);
+    }
+
+    private synchronized RedisConnection getConnection() {
+        return connection;
+    }
+
+    private void onConnection() throws Exception {
+        if (promise.isDone() || mainPromise.isCancelled() || connectionFuture.isCancelled()) {
+            return;
+        }
+
+        if (!connectionFuture.isSuccess()) {
+            exception = executor.convertException(connectionFuture);
+            scheduleRetry();
+            return;
+        }
+
+        RedisConnection conn = connectionFuture.getNow();
+        long time;
+        synchronized (this) {
+            // attempt could be completed by retry task concurrently
+            if (promise.isDone()) {
+                return;
+            }
+            connection = conn;
+            startTime = conn.getRedisClient().getStats().commandStarted();
+            time = startTime;
+        }
+
+        if (metrics != null) {
+            metrics.onConnectionAcquired(command, conn.getRedisClient().getAddr(), time - acquireStartTime);
+        }
+
+        int writeTimeout = connectionManager.getConfig().getRetryInterval();
+        ChannelFuture future;
+        if (source.getRedirect() == Redirect.ASK) {
+            List<CommandData<?, ?>> list = new ArrayList<CommandData<?, ?>>(2);
+            Promise<Void> askingPromise = connectionManager.newPromise();
+            list.add(new CommandData<Void, Void>(askingPromise, codec, RedisCommands.ASKING, new Object[] {}));
+            list.add(this);
+            Promise<Void> main = connectionManager.newPromise();
+            CommandsData commandsData = new CommandsData(main, list);
+            commandsData.setResponseTimeout(calcResponseTimeout());
+            commandsData.setWriteTimeout(writeTimeout);
+            future = conn.send(commandsData);
+        } else {
+            if (log.isDebugEnabled()) {
+                log.debug("aquired connection for command {} from slot {} using node {}", command, source, conn.getRedisClient().getAddr());
+            }
+            setResponseTimeout(calcResponseTimeout());
+            setWriteTimeout(writeTimeout);
+            future = conn.send(this);
+        }
+        writeFuture = future;
+        future.addListener(this);
+    }
+
+    private void onWriteComplete(ChannelFuture future) throws Exception {
+        RedisConnection conn = getConnection();
+        checkWriteFuture(future, conn);
+
+        if (pipelined) {
+            // connection could be used by other commands right after write
+            release(conn);
+        }
+    }
+
+    private void checkWriteFuture(ChannelFuture future, RedisConnection conn) throws Exception {
+        if (promise.isDone()) {
+            return;
+        }
+
+        if (future.isCancelled()) {
+            // cancelled by retry task or by connection once write timeout elapsed
+            scheduleRetry();
+            return;
+        }
+
+        if (!future.isSuccess()) {
+            exception = new WriteRedisConnectionException(
+                    "Can't write command: " + command + ", params: " + params + " to channel: " + future.channel(), future.cause());
+            scheduleRetry();
+            return;
+        }
+
+        if (metrics != null) {
+            metrics.onWriteCompleted(command, conn.getRedisClient().getAddr(), System.nanoTime() - startTime);
+        }
+
+        // response timeout is checked by connection
+        Timeout t = timeout;
+        if (t != null) {
+            t.cancel();
+        }
+    }
+
+    private int calcResponseTimeout() {
+        int timeoutTime = connectionManager.getConfig().getTimeout();
+        if (command.getName().equals(RedisCommands.BLPOP_VALUE.getName())
+                || command.getName().equals(RedisCommands.BRPOP_VALUE.getName())) {
+            Integer blPopTimeout = Integer.valueOf(params[params.length - 1].toString());
+            if (blPopTimeout == 0) {
+                return 0;
+            }
+            timeoutTime += blPopTimeout*1000;
+        }
+        return timeoutTime;
+    }
+
+    private void release(RedisConnection conn) {
+        if (readOnlyMode) {
+            connectionManager.releaseRead(source, conn);
+        } else {
+            connectionManager.releaseWrite(source, conn);
+        }
+    }
+
+    private void onAttemptComplete() {
+        RedisConnection conn;
+        long time;
+        synchronized (this) {
+            conn = connection;
+            time = startTime;
+        }
+
+        if (conn != null) {
+            conn.getRedisClient().getStats().commandCompleted(time);
+            if (!promise.isCancelled()) {
+                if (metrics != null) {
+                    metrics.onResponse(command, conn.getRedisClient().getAddr(),
+                                        System.nanoTime() - time, promise.isSuccess());
+                    if (promise.cause() instanceof RedisTimeoutException
+                            && writeFuture != null && writeFuture.isSuccess()) {
+                        metrics.onTimeout(command, conn.getRedisClient().getAddr());
+                    }
+                }
+
+                connectionManager.getShutdownLatch().release();
+                if (!pipelined) {
+                    release(conn);
+                }
+            }
+        }
+
+        Timeout t = timeout;
+        if (t != null) {
+            t.cancel();
+        }
+        if (promise.isCancelled()) {
+            return;
+        }
+
+        Throwable cause = promise.cause();
+        if (cause instanceof RedisMovedException) {
+            RedisMovedException ex = (RedisMovedException)cause;
+            connectionManager.slotMoved(ex.getSlot(), ex.getAddr());
+            if (metrics != null) {
+                metrics.onRedirect(command, ex.getAddr(), Redirect.MOVED);
+            }
+            executor.async(readOnlyMode, new NodeSource(ex.getSlot(), ex.getAddr(), Redirect.MOVED), messageDecoder, codec, command, params, mainPromise, attempt);
+            return;
+        }
+
+        if (cause instanceof RedisAskException) {
+            RedisAskException ex = (RedisAskException)cause;
+            if (metrics != null) {
+                metrics.onRedirect(command, ex.getAddr(), Redirect.ASK);
+            }
+            executor.async(readOnlyMode, new NodeSource(ex.getSlot(), ex.getAddr(), Redirect.ASK), messageDecoder, codec, command, params, mainPromise, attempt);
+            return;
+        }
+
+        if (cause instanceof RedisLoadingException) {
+            executor.async(readOnlyMode, source, messageDecoder, codec, command, params, mainPromise, attempt);
+            return;
+        }
+
+        if (promise.isSuccess()) {
+            R res = promise.getNow();
+            if (res instanceof RedisClientResult) {
+                InetSocketAddress addr = source.getAddr();
+                if (addr == null) {
+                    addr = connectionFuture.getNow().getRedisClient().getAddr();
+                }
+                ((RedisClientResult)res).setRedisClient(addr);
+            }
+            // main promise could be cancelled after attempt has been written
+            mainPromise.trySuccess(res);
+        } else {
+            mainPromise.tryFailure(cause);
+        }
+    }
+
+}
@@ -21,36 +21,22 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
 
-import org.redisson.RedisClientResult;
 import org.redisson.SlotCallback;
-import org.redisson.client.RedisAskException;
-import org.redisson.client.RedisConnection;
 import org.redisson.client.RedisException;
-import org.redisson.client.RedisLoadingException;
-import org.redisson.client.RedisMovedException;
-import org.redisson.client.RedisTimeoutException;
-import org.redisson.client.WriteRedisConnectionException;
+import org.redisson.client.RedisNoScriptException;
 import org.redisson.client.codec.Codec;
-import org.redisson.client.protocol.CommandData;
-import org.redisson.client.protocol.CommandsData;
 import org.redisson.client.protocol.RedisCommand;
 import org.redisson.client.protocol.RedisCommands;
 import org.redisson.client.protocol.decoder.MultiDecoder;
 import org.redisson.cluster.ClusterSlotRange;
 import org.redisson.connection.ConnectionManager;
 import org.redisson.connection.NodeSource;
-import org.redisson.connection.NodeSource.Redirect;
+import org.redisson.connection.ScriptCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import io.netty.channel.ChannelFuture;
-import io.netty.channel.ChannelFutureListener;
-import io.netty.util.Timeout;
-import io.netty.util.TimerTask;
 import io.netty.util.concurrent.DefaultPromise;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.FutureListener;
@@ -279,26 +265,68 @@ public class CommandAsyncService implements CommandAsyncExecutor {
             }
         };
 
-        List<Object> args = new ArrayList<Object>(2 + keys.size() + params.length);
-        args.add(script);
-        args.add(keys.size());
-        args.addAll(keys);
-        args.addAll(Arrays.asList(params));
         for (ClusterSlotRange slot : connectionManager.getEntries().keySet()) {
-            async(readOnlyMode, new NodeSource(slot.getStartSlot()), null, connectionManager.getCodec(), command, args.toArray(), promise, 0);
+            evalAsync(new NodeSource(slot.getStartSlot()), readOnlyMode, connectionManager.getCodec(), command, script, keys, params, promise);
         }
         return mainPromise;
     }
 
     private <T, R> Future<R> evalAsync(NodeSource nodeSource, boolean readOnlyMode, String key, Codec codec, RedisCommand<T> evalCommandType, String script, List<Object> keys, Object ... params) {
         Promise<R> mainPromise = connectionManager.newPromise();
-        List<Object> args = new ArrayList<Object>(2 + keys.size() + params.length);
+        evalAsync(nodeSource, readOnlyMode, codec, evalCommandType, script, keys, params, mainPromise);
+        return mainPromise;
+    }
+
+    private <T, R> void evalAsync(final NodeSource nodeSource, final boolean readOnlyMode, final Codec codec, final RedisCommand<T> evalCommandType,
+            String script, List<Object> keys, Object[] params, final Promise<R> mainPromise) {
+        final List<Object> args = new ArrayList<Object>(2 + keys.size() + params.length);
         args.add(script);
         args.add(keys.size());
         args.addAll(keys);
         args.addAll(Arrays.asList(params));
-        async(readOnlyMode, nodeSource, null, codec, evalCommandType, args.toArray(), mainPromise, 0);
-        return mainPromise;
+
+        ScriptCache scriptCache = getScriptCache();
+        // EVALSHA command invoked by user already has digest instead of script
+        if (scriptCache == null || !"EVAL".equals(evalCommandType.getName())) {
+            async(readOnlyMode, nodeSource, null, codec, evalCommandType, args.toArray(), mainPromise, 0);
+            return;
+        }
+
+        Object[] evalShaArgs = args.toArray();
+        evalShaArgs[0] = scriptCache.getSha(script);
+        RedisCommand<T> evalShaCommand = evalCommandType.getEvalShaCommand();
+        Promise<R> evalShaPromise = connectionManager.newPromise();
+        evalShaPromise.addListener(new FutureListener<R>() {
+            @Override
+            public void operationComplete(Future<R> future) throws Exception {
+                if (mainPromise.isCancelled()) {
+                    return;
+                }
+
+                if (future.isSuccess()) {
+                    mainPromise.setSuccess(future.getNow());
+                    return;
+                }
+
+                if (future.cause() instanceof RedisNoScriptException) {
+                    // script is absent in server cache, so send it as is. EVAL command also caches script
+                    async(readOnlyMode, nodeSource, null, codec, evalCommandType, args.toArray(), mainPromise, 0);
+                    return;
+                }
+
+                mainPromise.setFailure(future.cause());
+            }
+        });
+        async(readOnlyMode, nodeSource, null, codec, evalShaCommand, evalShaArgs, evalShaPromise, 0);
+    }
+
+    /**
+     * Returns script cache used to invoke scripts by <code>EVALSHA</code> command
+     *
+     * @return <code>null</code> if script cache isn't used
+     */
+    protected ScriptCache getScriptCache() {
+        return connectionManager.getScriptCache();
     }
 
     @Override
@@ -314,8 +342,18 @@ public class CommandAsyncService implements CommandAsyncExecutor {
         return mainPromise;
     }
 
-    protected <V, R> void async(final boolean readOnlyMode, final NodeSource source, final MultiDecoder<Object> messageDecoder, final Codec codec, final RedisCommand<V> command,
-                            final Object[] params, final Promise<R> mainPromise, final int attempt) {
+    boolean isPipelined(RedisCommand<?> command) {
+        if (connectionManager.getConfig().getPipelineLimit() == 1) {
+            return false;
+        }
+        // blocking commands hold connection until response
+        return !command.getName().equals(RedisCommands.BLPOP_VALUE.getName())
+                && !command.getName().equals(RedisCommands.BRPOP_VALUE.getName())
+                && !command.getName().equals(RedisCommands.BRPOPLPUSH.getName());
+    }
+
+    protected <V, R> void async(boolean readOnlyMode, NodeSource source, MultiDecoder<Object> messageDecoder, Codec codec, RedisCommand<V> command,
+                            Object[] params, Promise<R> mainPromise, int attempt) {
         if (mainPromise.isCancelled()) {
             return;
         }
@@ -325,174 +363,8 @@ public class CommandAsyncService implements CommandAsyncExecutor {
             return;
         }
 
-        final Promise<R> attemptPromise = connectionManager.newPromise();
-
-        final AtomicReference<ChannelFuture> writeFutureRef = new AtomicReference<ChannelFuture>();
-        final AtomicReference<RedisException> exceptionRef = new AtomicReference<RedisException>();
-        final AtomicReference<Timeout> timeoutRef = new AtomicReference<Timeout>();
-
-
-        final Future<RedisConnection> connectionFuture;
-        if (readOnlyMode) {
-            connectionFuture = connectionManager.connectionReadOp(source, command);
-        } else {
-            connectionFuture = connectionManager.connectionWriteOp(source, command);
-        }
-
-        final TimerTask retryTimerTask = new TimerTask() {
-            @Override
-            public void run(Timeout t) throws Exception {
-                if (attemptPromise.isDone()) {
-                    return;
-                }
-
-                if (connectionFuture.cancel(false)) {
-                    connectionManager.getShutdownLatch().release();
-                } else {
-                    if (connectionFuture.isSuccess()) {
-                        ChannelFuture writeFuture = writeFutureRef.get();
-                        if (writeFuture != null && !writeFuture.cancel(false) && writeFuture.isSuccess()) {
-                            return;
-                        }
-                    }
-                }
-
-                if (mainPromise.isCancelled()) {
-                    attemptPromise.cancel(false);
-                    return;
-                }
-
-                if (attempt == connectionManager.getConfig().getRetryAttempts()) {
-                    attemptPromise.tryFailure(exceptionRef.get());
-                    return;
-                }
-                if (!attemptPromise.cancel(false)) {
-                    return;
-                }
-
-                int count = attempt + 1;
-                async(readOnlyMode, source, messageDecoder, codec, command, params, mainPromise, count);
-            }
-        };
-
-        exceptionRef.set(new RedisTimeoutException("Command execution timeout for command: " + command + " with params: " + Arrays.toString(params)));
-        Timeout timeout = connectionManager.newTimeout(retryTimerTask, connectionManager.getConfig().getRetryInterval(), TimeUnit.MILLISECONDS);
-        timeoutRef.set(timeout);
-
-        connectionFuture.addListener(new FutureListener<RedisConnection>() {
-            @Override
-            public void operationComplete(Future<RedisConnection> connFuture) throws Exception {
-                if (attemptPromise.isDone() || mainPromise.isCancelled() || connFuture.isCancelled()) {
-                    return;
-                }
-
-                if (!connFuture.isSuccess()) {
-                    exceptionRef.set(convertException(connFuture));
-                    return;
-                }
-
-                final RedisConnection connection = connFuture.getNow();
-
-                if (source.getRedirect() == Redirect.ASK) {
-                    List<CommandData<?, ?>> list = new ArrayList<CommandData<?, ?>>(2);
-                    Promise<Void> promise = connectionManager.newPromise();
-                    list.add(new CommandData<Void, Void>(promise, codec, RedisCommands.ASKING, new Object[] {}));
-                    list.add(new CommandData<V, R>(attemptPromise, messageDecoder, codec, command, params));
-                    Promise<Void> main = connectionManager.newPromise();
-                    ChannelFuture future = connection.send(new CommandsData(main, list));
-                    writeFutureRef.set(future);
-                } else {
-                    log.debug("aquired connection for command {} from slot {} using node {}", command, source, connection.getRedisClient().getAddr());
-                    ChannelFuture future = connection.send(new CommandData<V, R>(attemptPromise, messageDecoder, codec, command, params));
-                    writeFutureRef.set(future);
-                }
-
-                writeFutureRef.get().addListener(new ChannelFutureListener() {
-                    @Override
-                    public void operationComplete(ChannelFuture future) throws Exception {
-                        if (attemptPromise.isDone() || future.isCancelled()) {
-                            return;
-                        }
-
-                        if (!future.isSuccess()) {
-                            exceptionRef.set(new WriteRedisConnectionException(
-                                    "Can't write command: " + command + ", params: " + params + " to channel: " + future.channel(), future.cause()));
-                        } else {
-                            timeoutRef.get().cancel();
-                            int timeoutTime = connectionManager.getConfig().getTimeout();
-                            if (command.getName().equals(RedisCommands.BLPOP_VALUE.getName())
-                                    || command.getName().equals(RedisCommands.BRPOP_VALUE.getName())) {
-                                Integer blPopTimeout = Integer.valueOf(params[params.length - 1].toString());
-                                if (blPopTimeout == 0) {
-                                    return;
-                                }
-                                timeoutTime += blPopTimeout*1000;
-                            }
-
-                            final int timeoutAmount = timeoutTime;
-                            TimerTask timeoutTask = new TimerTask() {
-                                @Override
-                                public void run(Timeout timeout) throws Exception {
-                                    attemptPromise.tryFailure(
-                                            new RedisTimeoutException("Redis server response timeout (" + timeoutAmount + " ms) occured for command: " + command
-                                                    + " with params: " + Arrays.toString(params) + " channel: " + connection.getChannel()));
-                                }
-                            };
-
-                            Timeout timeout = connectionManager.newTimeout(timeoutTask, timeoutTime, TimeUnit.MILLISECONDS);
-                            timeoutRef.set(timeout);
-                        }
-                    }
-                });
-
-                if (readOnlyMode) {
-                    attemptPromise.addListener(connectionManager.createReleaseReadListener(source, connection, timeoutRef));
-                } else {
-                    attemptPromise.addListener(connectionManager.createReleaseWriteListener(source, connection, timeoutRef));
-                }
-            }
-        });
-
-        attemptPromise.addListener(new FutureListener<R>() {
-            @Override
-            public void operationComplete(Future<R> future) throws Exception {
-                timeoutRef.get().cancel();
-                if (future.isCancelled()) {
-                    return;
-                }
-
-                if (future.cause() instanceof RedisMovedException) {
-                    RedisMovedException ex = (RedisMovedException)future.cause();
-                    async(readOnlyMode, new NodeSource(ex.getSlot(), ex.getAddr(), Redirect.MOVED), messageDecoder, codec, command, params, mainPromise, attempt);
-                    return;
-                }
-
-                if (future.cause() instanceof RedisAskException) {
-                    RedisAskException ex = (RedisAskException)future.cause();
-                    async(readOnlyMode, new NodeSource(ex.getSlot(), ex.getAddr(), Redirect.ASK), messageDecoder, codec, command, params, mainPromise, attempt);
-                    return;
-                }
-
-                if (future.cause() instanceof RedisLoadingException) {
-                    async(readOnlyMode, source, messageDecoder, codec, command, params, mainPromise, attempt);
-                    return;
-                }
-
-                if (future.isSuccess()) {
-                    R res = future.getNow();
-                    if (res instanceof RedisClientResult) {
-                        InetSocketAddress addr = source.getAddr();
-                        if (addr == null) {
-                            addr = connectionFuture.getNow().getRedisClient().getAddr();
-                        }
-                        ((RedisClientResult)res).setRedisClient(addr);
-                    }
-                    mainPromise.setSuccess(res);
-                } else {
-                    mainPromise.setFailure(future.cause());
-                }
-            }
-        });
+        AsyncDetails<V, R> details = new AsyncDetails<V, R>(this, readOnlyMode, source, messageDecoder, codec, command, params, mainPromise, attempt);
+        details.execute();
     }
 
 }
@@ -15,9 +15,12 @@
  */
 package org.redisson.command;
 
+import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
@@ -29,6 +32,8 @@ import org.redisson.client.RedisConnection;
 import org.redisson.client.RedisException;
 import org.redisson.client.RedisLoadingException;
 import org.redisson.client.RedisMovedException;
+import org.redisson.client.RedisNodeNotFoundException;
+import org.redisson.client.RedisRedirectException;
 import org.redisson.client.RedisTimeoutException;
 import org.redisson.client.WriteRedisConnectionException;
 import org.redisson.client.codec.Codec;
@@ -39,7 +44,9 @@ import org.redisson.client.protocol.RedisCommand;
 import org.redisson.client.protocol.RedisCommands;
 import org.redisson.client.protocol.decoder.MultiDecoder;
 import org.redisson.connection.ConnectionManager;
+import org.redisson.connection.MasterSlaveEntry;
 import org.redisson.connection.NodeSource;
+import org.redisson.connection.ScriptCache;
 import org.redisson.connection.NodeSource.Redirect;
 
 import io.netty.channel.ChannelFuture;
@@ -75,6 +82,30 @@ public class CommandBatchService extends CommandReactiveService {
 
     }
 
+    /**
+     * Copy of batch command with own promise used during single attempt
+     */
+    static class AttemptCommand<T, R> {
+
+        final CommandData<T, R> command;
+        final CommandData<T, R> attempt;
+
+        AttemptCommand(CommandData<T, R> command, Promise<R> promise) {
+            this.command = command;
+            this.attempt = new CommandData<T, R>(promise, command.getMessageDecoder(), command.getCodec(),
+                    command.getCommand(), command.getParams());
+        }
+
+        Promise<R> getPromise() {
+            return attempt.getPromise();
+        }
+
+        void transferResult() {
+            command.getPromise().trySuccess(attempt.getPromise().getNow());
+        }
+
+    }
+
     public static class Entry {
 
         Queue<CommandEntry> commands = PlatformDependent.newMpscQueue();
@@ -97,9 +128,10 @@ public class CommandBatchService extends CommandReactiveService {
 
     private final AtomicInteger index = new AtomicInteger();
 
-    private ConcurrentMap<Integer, Entry> commands = PlatformDependent.newConcurrentHashMap();
+    private ConcurrentMap<MasterSlaveEntry, Entry> commands = PlatformDependent.newConcurrentHashMap();
 
     private boolean executed;
+    private volatile RedisException failure;
 
     public CommandBatchService(ConnectionManager connectionManager) {
         super(connectionManager);
@@ -111,10 +143,25 @@ public class CommandBatchService extends CommandReactiveService {
         if (executed) {
             throw new IllegalStateException("Batch already executed!");
         }
-        Entry entry = commands.get(nodeSource.getSlot());
+        // commands are grouped by node, so each node receives the whole group in one pipelined write
+        MasterSlaveEntry msEntry = nodeSource.getEntry();
+        if (msEntry == null) {
+            msEntry = connectionManager.getEntry(nodeSource.getSlot());
+        }
+        if (msEntry == null) {
+            RedisNodeNotFoundException ex = new RedisNodeNotFoundException("No node for slot: " + nodeSource.getSlot() + " and command " + command);
+            mainPromise.tryFailure(ex);
+            // batch is failed on execution
+            if (failure == null) {
+                failure = ex;
+            }
+            return;
+        }
+
+        Entry entry = commands.get(msEntry);
         if (entry == null) {
             entry = new Entry();
-            Entry oldEntry = commands.putIfAbsent(nodeSource.getSlot(), entry);
+            Entry oldEntry = commands.putIfAbsent(msEntry, entry);
             if (oldEntry != null) {
                 entry = oldEntry;
             }
@@ -126,6 +173,12 @@ public class CommandBatchService extends CommandReactiveService {
         entry.getCommands().add(new CommandEntry(new CommandData<V, R>(mainPromise, messageDecoder, codec, command, params), index.incrementAndGet()));
     }
 
+    @Override
+    protected ScriptCache getScriptCache() {
+        // batch is sent at once, so script absent in server cache can't be resent separately
+        return null;
+    }
+
     public List<?> execute() {
         return get(executeAsync());
     }
@@ -135,6 +188,9 @@ public class CommandBatchService extends CommandReactiveService {
             throw new IllegalStateException("Batch already executed!");
         }
 
+        if (failure != null) {
+            return failQueuedCommands();
+        }
         if (commands.isEmpty()) {
             return connectionManager.getGroup().next().newSucceededFuture(null);
         }
@@ -149,7 +205,7 @@ public class CommandBatchService extends CommandReactiveService {
         });
 
         AtomicInteger slots = new AtomicInteger(commands.size());
-        for (java.util.Map.Entry<Integer, Entry> e : commands.entrySet()) {
+        for (java.util.Map.Entry<MasterSlaveEntry, Entry> e : commands.entrySet()) {
             execute(e.getValue(), new NodeSource(e.getKey()), voidPromise, slots, 0);
         }
         return voidPromise;
@@ -160,6 +216,9 @@ public class CommandBatchService extends CommandReactiveService {
             throw new IllegalStateException("Batch already executed!");
         }
 
+        if (failure != null) {
+            return failQueuedCommands();
+        }
         if (commands.isEmpty()) {
             return connectionManager.getGroup().next().newSucceededFuture(null);
         }
@@ -191,12 +250,26 @@ public class CommandBatchService extends CommandReactiveService {
         });
 
         AtomicInteger slots = new AtomicInteger(commands.size());
-        for (java.util.Map.Entry<Integer, Entry> e : commands.entrySet()) {
+        for (java.util.Map.Entry<MasterSlaveEntry, Entry> e : commands.entrySet()) {
             execute(e.getValue(), new NodeSource(e.getKey()), voidPromise, slots, 0);
         }
         return promise;
     }
 
+    /**
+     * Fails batch if some command can't be routed to any node
+     */
+    private <R> Future<R> failQueuedCommands() {
+        executed = true;
+        for (Entry e : commands.values()) {
+            for (CommandEntry commandEntry : e.getCommands()) {
+                commandEntry.getCommand().tryFailure(failure);
+            }
+        }
+        commands = null;
+        return connectionManager.getGroup().next().newFailedFuture(failure);
+    }
+
     public void execute(final Entry entry, final NodeSource source, final Promise<Void> mainPromise, final AtomicInteger slots, final int attempt) {
         if (mainPromise.isCancelled()) {
             return;
@@ -209,6 +282,13 @@ public class CommandBatchService extends CommandReactiveService {
 
         final Promise<Void> attemptPromise = connectionManager.newPromise();
 
+        // each attempt uses own promises, so redirected commands could be sent again
+        final List<CommandEntry> commandEntries = new ArrayList<CommandEntry>(entry.getCommands());
+        final List<AttemptCommand<?, ?>> attemptCommands = new ArrayList<AttemptCommand<?, ?>>(commandEntries.size());
+        for (CommandEntry commandEntry : commandEntries) {
+            attemptCommands.add(newAttemptCommand(commandEntry.getCommand()));
+        }
+
         final AtomicReference<ChannelFuture> writeFutureRef = new AtomicReference<ChannelFuture>();
         final AtomicReference<RedisException> exceptionRef = new AtomicReference<RedisException>();
         final AtomicReference<Timeout> timeoutRef = new AtomicReference<Timeout>();
@@ -274,33 +354,17 @@ public class CommandBatchService extends CommandReactiveService {
 
                 final RedisConnection connection = connFuture.getNow();
 
-                if (source.getRedirect() == Redirect.ASK) {
-                    List<CommandData<?, ?>> list = new ArrayList<CommandData<?, ?>>(entry.getCommands().size() + 1);
-                    Promise<Void> promise = connectionManager.newPromise();
-                    list.add(new CommandData<Void, Void>(promise, StringCodec.INSTANCE, RedisCommands.ASKING, new Object[] {}));
-                    for (CommandEntry c : entry.getCommands()) {
-                        list.add(c.getCommand());
+                List<CommandData<?, ?>> list = new ArrayList<CommandData<?, ?>>(attemptCommands.size());
+                for (AttemptCommand<?, ?> c : attemptCommands) {
+                    if (source.getRedirect() == Redirect.ASK) {
+                        // ASKING flag is reset after each command
+                        Promise<Void> promise = connectionManager.newPromise();
+                        list.add(new CommandData<Void, Void>(promise, StringCodec.INSTANCE, RedisCommands.ASKING, new Object[] {}));
                     }
-                    ChannelFuture future = connection.send(new CommandsData(attemptPromise, list));
-                    writeFutureRef.set(future);
-                } else {
-                    List<CommandData<?, ?>> list = new ArrayList<CommandData<?, ?>>(entry.getCommands().size());
-                    FutureListener<Object> listener = new FutureListener<Object>() {
-                        @Override
-                        public void operationComplete(Future<Object> future) throws Exception {
-                            if (!future.isSuccess() && !mainPromise.isDone()) {
-                                mainPromise.setFailure(future.cause());
-                            }
-                        }
-                    };
-
-                    for (CommandEntry c : entry.getCommands()) {
-                        c.getCommand().getPromise().addListener(listener);
-                        list.add(c.getCommand());
-                    }
-                    ChannelFuture future = connection.send(new CommandsData(attemptPromise, list));
-                    writeFutureRef.set(future);
+                    list.add(c.attempt);
                 }
+                ChannelFuture future = connection.send(new CommandsData(attemptPromise, list));
+                writeFutureRef.set(future);
 
                 writeFutureRef.get().addListener(new ChannelFutureListener() {
                     @Override
@@ -358,9 +422,7 @@ public class CommandBatchService extends CommandReactiveService {
                 }
 
                 if (future.isSuccess()) {
-                    if (slots.decrementAndGet() == 0) {
-                        mainPromise.setSuccess(future.getNow());
-                    }
+                    handleResults(entry, source, commandEntries, attemptCommands, mainPromise, slots, attempt);
                 } else {
                     mainPromise.setFailure(future.cause());
                 }
@@ -368,4 +430,93 @@ public class CommandBatchService extends CommandReactiveService {
         });
     }
 
+    /**
+     * Transfers sub-command results to command promises.
+     * Sub-commands failed due to MOVED, ASK or LOADING error are re-executed as a separate batch
+     * on the node pointed by redirect, other commands of batch are not re-sent.
+     */
+    private void handleResults(Entry entry, NodeSource source, List<CommandEntry> commandEntries,
+            List<AttemptCommand<?, ?>> attemptCommands, Promise<Void> mainPromise, AtomicInteger slots, int attempt) {
+        Map<InetSocketAddress, Entry> movedEntries = new HashMap<InetSocketAddress, Entry>();
+        Map<InetSocketAddress, Entry> askEntries = new HashMap<InetSocketAddress, Entry>();
+        Map<InetSocketAddress, Integer> redirectSlots = new HashMap<InetSocketAddress, Integer>();
+        Entry loadingEntry = null;
+        Throwable cause = null;
+
+        for (int i = 0; i < commandEntries.size(); i++) {
+            CommandEntry commandEntry = commandEntries.get(i);
+            AttemptCommand<?, ?> attemptCommand = attemptCommands.get(i);
+            Promise<?> attemptPromise = attemptCommand.getPromise();
+
+            if (attemptPromise.isSuccess()) {
+                attemptCommand.transferResult();
+            } else if (attemptPromise.cause() instanceof RedisRedirectException) {
+                RedisRedirectException ex = (RedisRedirectException) attemptPromise.cause();
+                Map<InetSocketAddress, Entry> entries = movedEntries;
+                if (ex instanceof RedisAskException) {
+                    entries = askEntries;
+                } else {
+                    connectionManager.slotMoved(ex.getSlot(), ex.getAddr());
+                }
+                Entry redirectEntry = entries.get(ex.getAddr());
+                if (redirectEntry == null) {
+                    redirectEntry = new Entry();
+                    redirectEntry.setReadOnlyMode(entry.isReadOnlyMode());
+                    entries.put(ex.getAddr(), redirectEntry);
+                    redirectSlots.put(ex.getAddr(), ex.getSlot());
+                }
+                redirectEntry.getCommands().add(commandEntry);
+            } else if (attemptPromise.cause() instanceof RedisLoadingException) {
+                if (loadingEntry == null) {
+                    loadingEntry = new Entry();
+                    loadingEntry.setReadOnlyMode(entry.isReadOnlyMode());
+                }
+                loadingEntry.getCommands().add(commandEntry);
+            } else {
+                commandEntry.getCommand().tryFailure(attemptPromise.cause());
+                if (cause == null) {
+                    cause = attemptPromise.cause();
+                }
+            }
+        }
+
+        if (cause != null) {
+            mainPromise.tryFailure(cause);
+            return;
+        }
+
+        for (java.util.Map.Entry<InetSocketAddress, Entry> e : movedEntries.entrySet()) {
+            slots.incrementAndGet();
+            NodeSource redirectSource = redirectSource(redirectSlots.get(e.getKey()), e.getKey(), Redirect.MOVED);
+            execute(e.getValue(), redirectSource, mainPromise, slots, attempt);
+        }
+        for (java.util.Map.Entry<InetSocketAddress, Entry> e : askEntries.entrySet()) {
+            slots.incrementAndGet();
+            NodeSource redirectSource = redirectSource(redirectSlots.get(e.getKey()), e.getKey(), Redirect.ASK);
+            execute(e.getValue(), redirectSource, mainPromise, slots, attempt);
+        }
+        if (loadingEntry != null) {
+            slots.incrementAndGet();
+            execute(loadingEntry, source, mainPromise, slots, attempt);
+        }
+
+        if (slots.decrementAndGet() == 0) {
+            mainPromise.trySuccess(null);
+        }
+    }
+
+    private <T, R> AttemptCommand<T, R> newAttemptCommand(CommandData<T, R> command) {
+        Promise<R> promise = connectionManager.newPromise();
+        return new AttemptCommand<T, R>(command, promise);
+    }
+
+    private NodeSource redirectSource(int slot, InetSocketAddress addr, Redirect redirect) {
+        MasterSlaveEntry entry = connectionManager.getEntry(addr);
+        if (entry != null) {
+            // address is kept, so read command is sent to exact node returned by redirect
+            return new NodeSource(entry, addr, redirect);
+        }
+        return new NodeSource(slot, addr, redirect);
+    }
+
 }
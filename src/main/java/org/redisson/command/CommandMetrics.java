@@ -0,0 +1,95 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.command;
+
+import java.net.InetSocketAddress;
+
+import org.redisson.client.protocol.RedisCommand;
+import org.redisson.connection.ConnectionManager;
+import org.redisson.connection.NodeSource.Redirect;
+
+/**
+ * Command execution metrics listener.
+ * Methods are invoked from netty threads and should not block.
+ * Listener isn't invoked at all if it's not defined in config.
+ *
+ * @author Nikita Koksharov
+ *
+ * @see HistogramCommandMetrics
+ */
+public interface CommandMetrics {
+
+    /**
+     * Invoked once on Redisson startup
+     *
+     * @param connectionManager
+     */
+    void init(ConnectionManager connectionManager);
+
+    /**
+     * Connection for command has been acquired from pool
+     *
+     * @param command
+     * @param addr - node address
+     * @param waitTime - time spent for connection acquiring in nanoseconds
+     */
+    void onConnectionAcquired(RedisCommand<?> command, InetSocketAddress addr, long waitTime);
+
+    /**
+     * Command has been written to channel
+     *
+     * @param command
+     * @param addr - node address
+     * @param writeTime - time since connection acquiring in nanoseconds
+     */
+    void onWriteCompleted(RedisCommand<?> command, InetSocketAddress addr, long writeTime);
+
+    /**
+     * Command attempt has been completed
+     *
+     * @param command
+     * @param addr - node address
+     * @param responseTime - time since connection acquiring in nanoseconds
+     * @param success - <code>false</code> if attempt completed with error
+     */
+    void onResponse(RedisCommand<?> command, InetSocketAddress addr, long responseTime, boolean success);
+
+    /**
+     * Command is going to be retried
+     *
+     * @param command
+     * @param attempt - number of next attempt
+     */
+    void onRetry(RedisCommand<?> command, int attempt);
+
+    /**
+     * Command is going to be redirected to another node
+     *
+     * @param command
+     * @param addr - address of target node
+     * @param redirect - MOVED or ASK
+     */
+    void onRedirect(RedisCommand<?> command, InetSocketAddress addr, Redirect redirect);
+
+    /**
+     * Node didn't respond in time
+     *
+     * @param command
+     * @param addr - node address
+     */
+    void onTimeout(RedisCommand<?> command, InetSocketAddress addr);
+
+}
@@ -0,0 +1,245 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.command;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.redisson.client.protocol.RedisCommand;
+import org.redisson.connection.ClientConnectionsEntry;
+import org.redisson.connection.ConnectionManager;
+import org.redisson.connection.MasterSlaveEntry;
+import org.redisson.connection.NodeSource.Redirect;
+import org.redisson.misc.LatencyHistogram;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Default {@link CommandMetrics} implementation.
+ * Collects latency histograms per command name and per node address.
+ * All time values are in nanoseconds.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class HistogramCommandMetrics implements CommandMetrics {
+
+    public static class CommandStats {
+
+        private final LatencyHistogram responseTime = new LatencyHistogram();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong retries = new AtomicLong();
+        private final AtomicLong redirects = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+
+        public LatencyHistogram getResponseTime() {
+            return responseTime;
+        }
+
+        public long getErrors() {
+            return errors.get();
+        }
+
+        public long getRetries() {
+            return retries.get();
+        }
+
+        public long getRedirects() {
+            return redirects.get();
+        }
+
+        public long getTimeouts() {
+            return timeouts.get();
+        }
+
+        @Override
+        public String toString() {
+            return "[responseTime=" + responseTime + ", errors=" + errors + ", retries=" + retries
+                    + ", redirects=" + redirects + ", timeouts=" + timeouts + "]";
+        }
+
+    }
+
+    public static class NodeStats {
+
+        private final LatencyHistogram acquireTime = new LatencyHistogram();
+        private final LatencyHistogram writeTime = new LatencyHistogram();
+        private final LatencyHistogram responseTime = new LatencyHistogram();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong redirects = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+
+        public LatencyHistogram getAcquireTime() {
+            return acquireTime;
+        }
+
+        public LatencyHistogram getWriteTime() {
+            return writeTime;
+        }
+
+        public LatencyHistogram getResponseTime() {
+            return responseTime;
+        }
+
+        public long getErrors() {
+            return errors.get();
+        }
+
+        /**
+         * Amount of commands redirected to this node
+         *
+         * @return amount
+         */
+        public long getRedirects() {
+            return redirects.get();
+        }
+
+        public long getTimeouts() {
+            return timeouts.get();
+        }
+
+        @Override
+        public String toString() {
+            return "[acquireTime=" + acquireTime + ", writeTime=" + writeTime + ", responseTime=" + responseTime
+                    + ", errors=" + errors + ", redirects=" + redirects + ", timeouts=" + timeouts + "]";
+        }
+
+    }
+
+    private final ConcurrentMap<String, CommandStats> commandStats = PlatformDependent.newConcurrentHashMap();
+    private final ConcurrentMap<InetSocketAddress, NodeStats> nodeStats = PlatformDependent.newConcurrentHashMap();
+
+    private ConnectionManager connectionManager;
+
+    @Override
+    public void init(ConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    private CommandStats getCommandStats(RedisCommand<?> command) {
+        CommandStats stats = commandStats.get(command.getName());
+        if (stats == null) {
+            stats = new CommandStats();
+            CommandStats oldStats = commandStats.putIfAbsent(command.getName(), stats);
+            if (oldStats != null) {
+                stats = oldStats;
+            }
+        }
+        return stats;
+    }
+
+    private NodeStats getNodeStats(InetSocketAddress addr) {
+        NodeStats stats = nodeStats.get(addr);
+        if (stats == null) {
+            stats = new NodeStats();
+            NodeStats oldStats = nodeStats.putIfAbsent(addr, stats);
+            if (oldStats != null) {
+                stats = oldStats;
+            }
+        }
+        return stats;
+    }
+
+    @Override
+    public void onConnectionAcquired(RedisCommand<?> command, InetSocketAddress addr, long waitTime) {
+        getNodeStats(addr).acquireTime.record(waitTime);
+    }
+
+    @Override
+    public void onWriteCompleted(RedisCommand<?> command, InetSocketAddress addr, long writeTime) {
+        getNodeStats(addr).writeTime.record(writeTime);
+    }
+
+    @Override
+    public void onResponse(RedisCommand<?> command, InetSocketAddress addr, long responseTime, boolean success) {
+        CommandStats cs = getCommandStats(command);
+        NodeStats ns = getNodeStats(addr);
+        cs.responseTime.record(responseTime);
+        ns.responseTime.record(responseTime);
+        if (!success) {
+            cs.errors.incrementAndGet();
+            ns.errors.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onRetry(RedisCommand<?> command, int attempt) {
+        getCommandStats(command).retries.incrementAndGet();
+    }
+
+    @Override
+    public void onRedirect(RedisCommand<?> command, InetSocketAddress addr, Redirect redirect) {
+        getCommandStats(command).redirects.incrementAndGet();
+        getNodeStats(addr).redirects.incrementAndGet();
+    }
+
+    @Override
+    public void onTimeout(RedisCommand<?> command, InetSocketAddress addr) {
+        getCommandStats(command).timeouts.incrementAndGet();
+        getNodeStats(addr).timeouts.incrementAndGet();
+    }
+
+    /**
+     * Returns statistics mapped by command name
+     *
+     * @return statistics
+     */
+    public Map<String, CommandStats> getCommandStats() {
+        return Collections.<String, CommandStats>unmodifiableMap(commandStats);
+    }
+
+    /**
+     * Returns statistics mapped by node address
+     *
+     * @return statistics
+     */
+    public Map<InetSocketAddress, NodeStats> getNodeStats() {
+        return Collections.<InetSocketAddress, NodeStats>unmodifiableMap(nodeStats);
+    }
+
+    /**
+     * Returns connection pools of all nodes.
+     * Use them as gauges of free connections, pool size and connection waiters.
+     *
+     * @return connection pools
+     */
+    public Collection<ClientConnectionsEntry> getConnectionPools() {
+        if (connectionManager == null) {
+            return Collections.emptyList();
+        }
+
+        Set<ClientConnectionsEntry> pools = Collections.newSetFromMap(new IdentityHashMap<ClientConnectionsEntry, Boolean>());
+        Set<MasterSlaveEntry> entries = Collections.newSetFromMap(new IdentityHashMap<MasterSlaveEntry, Boolean>());
+        entries.addAll(connectionManager.getEntries().values());
+        for (MasterSlaveEntry entry : entries) {
+            pools.addAll(entry.getClientEntries());
+        }
+        return new ArrayList<ClientConnectionsEntry>(pools);
+    }
+
+    public void reset() {
+        commandStats.clear();
+        nodeStats.clear();
+    }
+
+}
@@ -18,6 +18,7 @@ package org.redisson.connection;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.redisson.MasterSlaveServersConfig;
 import org.redisson.client.ReconnectListener;
@@ -41,6 +42,14 @@ public class ClientConnectionsEntry {
 
     private final Queue<RedisConnection> freeConnections = new ConcurrentLinkedQueue<RedisConnection>();
     private final AtomicInteger freeConnectionsCounter = new AtomicInteger();
+    private final int poolMaxSize;
+
+    private final Queue<Runnable> connectionWaiters = new ConcurrentLinkedQueue<Runnable>();
+    private final AtomicInteger connectionWaitersAmount = new AtomicInteger();
+    private final AtomicInteger connectionWaitersDrains = new AtomicInteger();
+    private final AtomicLong queuedConnectionWaiters = new AtomicLong();
+    private final AtomicLong rejectedConnectionWaiters = new AtomicLong();
+    private final AtomicLong timedOutConnectionWaiters = new AtomicLong();
 
     public enum FreezeReason {MANAGER, RECONNECT, SYSTEM}
 
@@ -59,6 +68,7 @@ public class ClientConnectionsEntry {
             ConnectionManager connectionManager, NodeType serverMode, MasterSlaveServersConfig config) {
         this.client = client;
         this.freeConnectionsCounter.set(poolMaxSize);
+        this.poolMaxSize = poolMaxSize;
         this.connectionManager = connectionManager;
         this.nodeType = serverMode;
         this.freeSubscribeConnectionsCounter.set(subscribePoolMaxSize);
@@ -109,6 +119,10 @@ public class ClientConnectionsEntry {
         return freeConnectionsCounter.get();
     }
 
+    public int getPoolMaxSize() {
+        return poolMaxSize;
+    }
+
     private boolean tryAcquire(AtomicInteger counter) {
         while (true) {
             int value = counter.get();
@@ -125,8 +139,123 @@ public class ClientConnectionsEntry {
         return tryAcquire(freeConnectionsCounter);
     }
 
+    /**
+     * Runs <code>runnable</code> once connection permit has been acquired.
+     * If there are no free connections then <code>runnable</code> is queued
+     * and runs in FIFO order on connection release.
+     *
+     * @param runnable
+     * @param waitQueueSize - max amount of waiters in queue
+     * @return <code>false</code> if wait queue is full
+     */
+    public boolean acquireConnection(Runnable runnable, int waitQueueSize) {
+        if (connectionWaiters.isEmpty() && tryAcquireConnection()) {
+            runnable.run();
+            return true;
+        }
+
+        if (connectionWaitersAmount.incrementAndGet() > waitQueueSize) {
+            connectionWaitersAmount.decrementAndGet();
+            rejectedConnectionWaiters.incrementAndGet();
+            return false;
+        }
+        queuedConnectionWaiters.incrementAndGet();
+        connectionWaiters.add(runnable);
+        // connection could be released before waiter has been added
+        runConnectionWaiters();
+        return true;
+    }
+
+    /**
+     * Removes waiter which hasn't been run yet
+     *
+     * @param runnable
+     * @return <code>true</code> if waiter has been removed
+     */
+    public boolean removeConnectionWaiter(Runnable runnable) {
+        if (connectionWaiters.remove(runnable)) {
+            connectionWaitersAmount.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    public void connectionWaiterTimedOut() {
+        timedOutConnectionWaiters.incrementAndGet();
+    }
+
+    private void runConnectionWaiters() {
+        // waiter may release connection back and invoke this method again,
+        // so only one caller drains the queue and others just request another pass
+        if (connectionWaitersDrains.getAndIncrement() != 0) {
+            return;
+        }
+
+        int drains = 1;
+        while (true) {
+            drainConnectionWaiters();
+            drains = connectionWaitersDrains.addAndGet(-drains);
+            if (drains == 0) {
+                return;
+            }
+        }
+    }
+
+    private void drainConnectionWaiters() {
+        while (!connectionWaiters.isEmpty()) {
+            if (!tryAcquireConnection()) {
+                return;
+            }
+
+            Runnable waiter = connectionWaiters.poll();
+            if (waiter == null) {
+                freeConnectionsCounter.incrementAndGet();
+                continue;
+            }
+            connectionWaitersAmount.decrementAndGet();
+            waiter.run();
+        }
+    }
+
+    /**
+     * Returns amount of connection requests waiting for free connection
+     *
+     * @return waiters amount
+     */
+    public int getConnectionWaitersAmount() {
+        return connectionWaitersAmount.get();
+    }
+
+    /**
+     * Returns total amount of connection requests which have been queued
+     *
+     * @return waiters amount
+     */
+    public long getQueuedConnectionWaiters() {
+        return queuedConnectionWaiters.get();
+    }
+
+    /**
+     * Returns total amount of connection requests rejected due to full wait queue
+     *
+     * @return waiters amount
+     */
+    public long getRejectedConnectionWaiters() {
+        return rejectedConnectionWaiters.get();
+    }
+
+    /**
+     * Returns total amount of connection requests failed by acquisition timeout
+     *
+     * @return waiters amount
+     */
+    public long getTimedOutConnectionWaiters() {
+        return timedOutConnectionWaiters.get();
+    }
+
     public void releaseConnection() {
         freeConnectionsCounter.incrementAndGet();
+        runConnectionWaiters();
     }
 
     public RedisConnection pollConnection() {
@@ -242,7 +371,7 @@ public class ClientConnectionsEntry {
         return "[freeSubscribeConnectionsAmount=" + freeSubscribeConnections.size()
                 + ", freeSubscribeConnectionsCounter=" + freeSubscribeConnectionsCounter
                 + ", freeConnectionsAmount=" + freeConnections.size() + ", freeConnectionsCounter="
-                + freeConnectionsCounter + ", freezed=" + freezed + ", freezeReason=" + freezeReason
+                + freeConnectionsCounter + ", connectionWaitersAmount=" + connectionWaitersAmount + ", freezed=" + freezed + ", freezeReason=" + freezeReason
                 + ", client=" + client + ", nodeType=" + nodeType + ", failedAttempts=" + failedAttempts
                 + "]";
     }
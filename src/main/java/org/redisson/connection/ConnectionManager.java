@@ -18,6 +18,7 @@ package org.redisson.connection;
 import java.net.InetSocketAddress;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -28,8 +29,10 @@ import org.redisson.client.RedisPubSubListener;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.protocol.RedisCommand;
 import org.redisson.cluster.ClusterSlotRange;
+import org.redisson.command.CommandMetrics;
 import org.redisson.connection.ClientConnectionsEntry.FreezeReason;
 import org.redisson.misc.InfinitySemaphoreLatch;
+import org.redisson.pubsub.NotificationChannels;
 
 import io.netty.channel.EventLoopGroup;
 import io.netty.util.Timeout;
@@ -51,10 +54,18 @@ public interface ConnectionManager {
 
     boolean isShuttingDown();
 
-    Promise<PubSubConnectionEntry> subscribe(Codec codec, String channelName, RedisPubSubListener listener);
+    Promise<PubSubConnectionEntry> subscribe(Codec codec, String channelName, RedisPubSubListener<?> listener);
 
     ConnectionInitializer getConnectListener();
 
+    ScriptCache getScriptCache();
+
+    CommandMetrics getCommandMetrics();
+
+    NotificationChannels getNotificationChannels();
+
+    Executor getListenerExecutor();
+
     IdleConnectionWatcher getConnectionWatcher();
 
     <R> Future<R> newFailedFuture(Throwable cause);
@@ -95,6 +106,16 @@ public interface ConnectionManager {
 
     MasterSlaveEntry getEntry(InetSocketAddress addr);
 
+    MasterSlaveEntry getEntry(int slot);
+
+    /**
+     * Invoked on MOVED redirect of command
+     *
+     * @param slot - moved slot
+     * @param addr - address of node which serves the slot now
+     */
+    void slotMoved(int slot, InetSocketAddress addr);
+
     PubSubConnectionEntry getPubSubEntry(String channelName);
 
     Future<PubSubConnectionEntry> psubscribe(String pattern, Codec codec);
@@ -19,12 +19,15 @@ import java.net.InetSocketAddress;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -40,8 +43,10 @@ import org.redisson.client.codec.Codec;
 import org.redisson.client.protocol.RedisCommand;
 import org.redisson.client.protocol.pubsub.PubSubType;
 import org.redisson.cluster.ClusterSlotRange;
+import org.redisson.command.CommandMetrics;
 import org.redisson.connection.ClientConnectionsEntry.FreezeReason;
 import org.redisson.misc.InfinitySemaphoreLatch;
+import org.redisson.pubsub.NotificationChannels;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -108,14 +113,32 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
 
     protected ConnectionInitializer connectListener = new DefaultConnectionListener();
 
+    private ScriptCache scriptCache;
+
+    private CommandMetrics commandMetrics;
+
+    private NotificationChannels notificationChannels;
+
+    private Executor listenerExecutor;
+
     protected Class<? extends SocketChannel> socketChannelClass;
 
     protected final ConcurrentMap<String, PubSubConnectionEntry> name2PubSubConnection = PlatformDependent.newConcurrentHashMap();
 
+    // all opened pub/sub connections, searched for free subscription slot
+    private final Set<PubSubConnectionEntry> pubSubEntries = Collections.newSetFromMap(PlatformDependent.<PubSubConnectionEntry, Boolean>newConcurrentHashMap());
+
     protected MasterSlaveServersConfig config;
 
     protected final Map<ClusterSlotRange, MasterSlaveEntry> entries = PlatformDependent.newConcurrentHashMap();
 
+    // lookup tables rebuilt from entries on each change and replaced as a whole
+    private final Object entriesLock = new Object();
+    private volatile MasterSlaveEntry[] slot2entry = new MasterSlaveEntry[MAX_SLOT];
+    private volatile Map<InetSocketAddress, MasterSlaveEntry> addr2entry = Collections.emptyMap();
+    // slots reassigned by MOVED redirects and not confirmed by topology yet, guarded by entriesLock
+    private final Map<Integer, MasterSlaveEntry> movedSlots = new HashMap<Integer, MasterSlaveEntry>();
+
     private final InfinitySemaphoreLatch shutdownLatch = new InfinitySemaphoreLatch();
 
     private final Set<RedisClientEntry> clients = Collections.newSetFromMap(PlatformDependent.<RedisClientEntry, Boolean>newConcurrentHashMap());
@@ -175,6 +198,26 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
         return connectListener;
     }
 
+    @Override
+    public ScriptCache getScriptCache() {
+        return scriptCache;
+    }
+
+    @Override
+    public CommandMetrics getCommandMetrics() {
+        return commandMetrics;
+    }
+
+    @Override
+    public NotificationChannels getNotificationChannels() {
+        return notificationChannels;
+    }
+
+    @Override
+    public Executor getListenerExecutor() {
+        return listenerExecutor;
+    }
+
     protected void initEntry(MasterSlaveServersConfig config) {
         HashSet<ClusterSlotRange> slots = new HashSet<ClusterSlotRange>();
         slots.add(singleSlotRange);
@@ -198,12 +241,25 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
         }
         this.codec = cfg.getCodec();
 
+        if (cfg.isUseScriptCache()) {
+            scriptCache = new ScriptCache();
+            connectListener = new ScriptLoadConnectionListener(connectListener, scriptCache);
+        }
+
         connectionEventsHub = new ConnectionEventsHub(cfg.getConnectionListener());
+        notificationChannels = new NotificationChannels(this, cfg.getNotificationChannels());
+        listenerExecutor = cfg.getListenerExecutor();
+
+        commandMetrics = cfg.getCommandMetrics();
+        if (commandMetrics != null) {
+            commandMetrics.init(this);
+        }
     }
 
     @Override
     public RedisClient createClient(String host, int port) {
-        RedisClient client = createClient(host, port, config.getConnectTimeout());
+        RedisClient client = new RedisClient(group, socketChannelClass, host, port, config.getConnectTimeout(),
+                                            config.getPipelineLimit(), config.getFlushConsolidationLimit());
         clients.add(new RedisClientEntry(client, this));
         return client;
     }
@@ -277,9 +333,14 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
             return;
         }
 
-        Set<PubSubConnectionEntry> entries = new HashSet<PubSubConnectionEntry>(name2PubSubConnection.values());
-        for (PubSubConnectionEntry entry : entries) {
+        for (PubSubConnectionEntry entry : pubSubEntries) {
             if (entry.tryAcquire()) {
+                // acquired slot prevents entry from being closed
+                if (!entry.isActive()) {
+                    entry.release();
+                    continue;
+                }
+
                 PubSubConnectionEntry oldEntry = name2PubSubConnection.putIfAbsent(channelName, entry);
                 if (oldEntry != null) {
                     entry.release();
@@ -287,16 +348,9 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
                     return;
                 }
 
-                synchronized (entry) {
-                    if (!entry.isActive()) {
-                        entry.release();
-                        psubscribe(channelName, codec, promise);
-                        return;
-                    }
-                    entry.psubscribe(codec, channelName);
-                    promise.setSuccess(entry);
-                    return;
-                }
+                entry.psubscribe(codec, channelName);
+                promise.setSuccess(entry);
+                return;
             }
         }
 
@@ -321,72 +375,55 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
                     return;
                 }
 
-                synchronized (entry) {
-                    if (!entry.isActive()) {
-                        entry.release();
-                        psubscribe(channelName, codec, promise);
-                        return;
-                    }
-                    entry.psubscribe(codec, channelName);
-                    promise.setSuccess(entry);
-                }
+                pubSubEntries.add(entry);
+                entry.psubscribe(codec, channelName);
+                promise.setSuccess(entry);
             }
         });
     }
 
-    public Promise<PubSubConnectionEntry> subscribe(final Codec codec, final String channelName, final RedisPubSubListener listener) {
+    public Promise<PubSubConnectionEntry> subscribe(final Codec codec, final String channelName, final RedisPubSubListener<?> listener) {
         Promise<PubSubConnectionEntry> promise = newPromise();
         subscribe(codec, channelName, listener, promise);
         return promise;
     }
 
-    private void subscribe(final Codec codec, final String channelName, final RedisPubSubListener listener, final Promise<PubSubConnectionEntry> promise) {
+    private void subscribe(final Codec codec, final String channelName, final RedisPubSubListener<?> listener, final Promise<PubSubConnectionEntry> promise) {
         PubSubConnectionEntry сonnEntry = name2PubSubConnection.get(channelName);
         if (сonnEntry != null) {
-            synchronized (сonnEntry) {
-                if (сonnEntry.isActive()) {
-                    сonnEntry.addListener(channelName, listener);
-                    promise.setSuccess(сonnEntry);
-                    return;
-                }
+            if (addListener(сonnEntry, channelName, listener)) {
+                promise.setSuccess(сonnEntry);
+                return;
             }
             connect(codec, channelName, listener, promise);
             return;
         }
 
-        Set<PubSubConnectionEntry> entries = new HashSet<PubSubConnectionEntry>(name2PubSubConnection.values());
-        for (PubSubConnectionEntry entry : entries) {
+        for (PubSubConnectionEntry entry : pubSubEntries) {
             if (entry.tryAcquire()) {
+                // acquired slot prevents entry from being closed
+                if (!entry.isActive()) {
+                    entry.release();
+                    continue;
+                }
+
                 PubSubConnectionEntry oldEntry = name2PubSubConnection.putIfAbsent(channelName, entry);
                 if (oldEntry != null) {
                     entry.release();
-                    synchronized (oldEntry) {
-                        if (oldEntry.isActive()) {
-                            oldEntry.addListener(channelName, listener);
-                            promise.setSuccess(oldEntry);
-                            return;
-                        }
-                    }
                     subscribe(codec, channelName, listener, promise);
                     return;
                 }
-                synchronized (entry) {
-                    if (!entry.isActive()) {
-                        entry.release();
-                        subscribe(codec, channelName, listener, promise);
-                        return;
-                    }
-                    entry.subscribe(codec, listener, channelName);
-                    promise.setSuccess(entry);
-                    return;
-                }
+
+                entry.subscribe(codec, listener, channelName);
+                promise.setSuccess(entry);
+                return;
             }
         }
 
         connect(codec, channelName, listener, promise);
     }
 
-    private void connect(final Codec codec, final String channelName, final RedisPubSubListener listener,
+    private void connect(final Codec codec, final String channelName, final RedisPubSubListener<?> listener,
             final Promise<PubSubConnectionEntry> promise) {
         final int slot = 0;
         Future<RedisPubSubConnection> connFuture = nextPubSubConnection(slot);
@@ -406,30 +443,36 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
                 if (oldEntry != null) {
                     releaseSubscribeConnection(slot, entry);
 
-                    synchronized (oldEntry) {
-                        if (oldEntry.isActive()) {
-                            oldEntry.addListener(channelName, listener);
-                            promise.setSuccess(oldEntry);
-                            return;
-                        }
-                    }
-                    subscribe(codec, channelName, listener, promise);
-                    return;
-                }
-                synchronized (entry) {
-                    if (!entry.isActive()) {
-                        entry.release();
-                        subscribe(codec, channelName, listener, promise);
+                    if (addListener(oldEntry, channelName, listener)) {
+                        promise.setSuccess(oldEntry);
                         return;
                     }
-                    entry.subscribe(codec, listener, channelName);
-                    promise.setSuccess(entry);
+                    subscribe(codec, channelName, listener, promise);
                     return;
                 }
+
+                pubSubEntries.add(entry);
+                entry.subscribe(codec, listener, channelName);
+                promise.setSuccess(entry);
             }
         });
     }
 
+    private boolean addListener(PubSubConnectionEntry entry, String channelName, RedisPubSubListener<?> listener) {
+        if (!entry.isActive()) {
+            return false;
+        }
+
+        entry.addListener(channelName, listener);
+        if (entry.isActive()) {
+            return true;
+        }
+
+        // entry has been closed concurrently
+        entry.removeListener(channelName, listener);
+        return false;
+    }
+
     @Override
     public Codec unsubscribe(final String channelName) {
         final PubSubConnectionEntry entry = name2PubSubConnection.remove(channelName);
@@ -438,15 +481,14 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
         }
 
         Codec entryCodec = entry.getConnection().getChannels().get(channelName);
-        entry.unsubscribe(channelName, new BaseRedisPubSubListener() {
+        entry.unsubscribe(channelName, new BaseRedisPubSubListener<Object>() {
 
             @Override
             public boolean onStatus(PubSubType type, String channel) {
                 if (type == PubSubType.UNSUBSCRIBE && channel.equals(channelName)) {
-                    synchronized (entry) {
-                        if (entry.tryClose()) {
-                            releaseSubscribeConnection(0, entry);
-                        }
+                    if (entry.tryClose()) {
+                        pubSubEntries.remove(entry);
+                        releaseSubscribeConnection(0, entry);
                     }
                     return true;
                 }
@@ -465,15 +507,14 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
         }
 
         Codec entryCodec = entry.getConnection().getPatternChannels().get(channelName);
-        entry.punsubscribe(channelName, new BaseRedisPubSubListener() {
+        entry.punsubscribe(channelName, new BaseRedisPubSubListener<Object>() {
 
             @Override
             public boolean onStatus(PubSubType type, String channel) {
                 if (type == PubSubType.PUNSUBSCRIBE && channel.equals(channelName)) {
-                    synchronized (entry) {
-                        if (entry.tryClose()) {
-                            releaseSubscribeConnection(0, entry);
-                        }
+                    if (entry.tryClose()) {
+                        pubSubEntries.remove(entry);
+                        releaseSubscribeConnection(0, entry);
                     }
                     return true;
                 }
@@ -485,27 +526,20 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
     }
 
     public MasterSlaveEntry getEntry(InetSocketAddress addr) {
-        // TODO optimize
-        for (Entry<ClusterSlotRange, MasterSlaveEntry> entry : entries.entrySet()) {
-            if (entry.getValue().getClient().getAddr().equals(addr)) {
-                return entry.getValue();
-            }
-        }
-        return null;
+        return addr2entry.get(addr);
     }
 
     protected MasterSlaveEntry getEntry(ClusterSlotRange slotRange) {
         return entries.get(slotRange);
     }
 
-    protected MasterSlaveEntry getEntry(int slot) {
-        // TODO optimize
-        for (Entry<ClusterSlotRange, MasterSlaveEntry> entry : entries.entrySet()) {
-            if (entry.getKey().isOwn(slot)) {
-                return entry.getValue();
-            }
+    @Override
+    public MasterSlaveEntry getEntry(int slot) {
+        MasterSlaveEntry[] slots = slot2entry;
+        if (slot < 0 || slot >= slots.length) {
+            return null;
         }
-        return null;
+        return slots[slot];
     }
 
     public void slaveDown(MasterSlaveEntry entry, String host, int port, FreezeReason freezeReason) {
@@ -526,8 +560,9 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
 
                 synchronized (pubSubEntry) {
                     pubSubEntry.close();
+                    pubSubEntries.remove(pubSubEntry);
 
-                    final Collection<RedisPubSubListener> listeners = pubSubEntry.getListeners(channelName);
+                    final Collection<RedisPubSubListener<?>> listeners = pubSubEntry.getListeners(channelName);
                     if (pubSubEntry.getConnection().getPatternChannels().get(channelName) != null) {
                         Codec subscribeCodec = punsubscribe(channelName);
                         if (!listeners.isEmpty()) {
@@ -542,7 +577,7 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
                                     }
 
                                     PubSubConnectionEntry newEntry = future.getNow();
-                                    for (RedisPubSubListener redisPubSubListener : listeners) {
+                                    for (RedisPubSubListener<?> redisPubSubListener : listeners) {
                                         newEntry.addListener(channelName, redisPubSubListener);
                                     }
                                     log.debug("resubscribed listeners for '{}' channel-pattern", channelName);
@@ -563,7 +598,7 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
                                         return;
                                     }
                                     PubSubConnectionEntry newEntry = future.getNow();
-                                    for (RedisPubSubListener redisPubSubListener : listeners) {
+                                    for (RedisPubSubListener<?> redisPubSubListener : listeners) {
                                         newEntry.addListener(channelName, redisPubSubListener);
                                     }
                                     log.debug("resubscribed listeners for '{}' channel", channelName);
@@ -583,15 +618,103 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
     }
 
     protected void changeMaster(ClusterSlotRange slotRange, String host, int port) {
-        getEntry(slotRange).changeMaster(host, port);
+        synchronized (entriesLock) {
+            getEntry(slotRange).changeMaster(host, port);
+            updateLookupTables();
+        }
     }
 
     protected void addEntry(ClusterSlotRange slotRange, MasterSlaveEntry entry) {
-        entries.put(slotRange, entry);
+        addEntry(Collections.singleton(slotRange), entry);
+    }
+
+    protected void addEntry(Collection<ClusterSlotRange> slotRanges, MasterSlaveEntry entry) {
+        synchronized (entriesLock) {
+            for (ClusterSlotRange slotRange : slotRanges) {
+                entries.put(slotRange, entry);
+            }
+            updateLookupTables();
+        }
+    }
+
+    /**
+     * Assigns single slot to entry without waiting for topology update.
+     * Assignment is kept until {@link #confirmMovedSlots()} finds it in topology.
+     *
+     * @param slot
+     * @param entry
+     */
+    protected void changeSlotOwner(int slot, MasterSlaveEntry entry) {
+        synchronized (entriesLock) {
+            movedSlots.put(slot, entry);
+            MasterSlaveEntry[] slots = slot2entry;
+            slots[slot] = entry;
+            // volatile write publishes updated element
+            slot2entry = slots;
+        }
+    }
+
+    /**
+     * Drops slots assigned by MOVED redirects which are confirmed by applied topology.
+     * Other slots are kept, since topology could be received from node
+     * which isn't aware of slot migration yet.
+     */
+    protected void confirmMovedSlots() {
+        synchronized (entriesLock) {
+            for (Iterator<Entry<Integer, MasterSlaveEntry>> iterator = movedSlots.entrySet().iterator(); iterator.hasNext();) {
+                Entry<Integer, MasterSlaveEntry> entry = iterator.next();
+                if (getTopologyEntry(entry.getKey()) == entry.getValue()) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private MasterSlaveEntry getTopologyEntry(int slot) {
+        for (Entry<ClusterSlotRange, MasterSlaveEntry> entry : entries.entrySet()) {
+            if (entry.getKey().isOwn(slot)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void slotMoved(int slot, InetSocketAddress addr) {
     }
 
     protected MasterSlaveEntry removeMaster(ClusterSlotRange slotRange) {
-        return entries.remove(slotRange);
+        synchronized (entriesLock) {
+            MasterSlaveEntry entry = entries.remove(slotRange);
+            updateLookupTables();
+            return entry;
+        }
+    }
+
+    /**
+     * Rebuilds slot and address lookup tables from <code>entries</code>.
+     * New tables are published at once, so readers never observe partially updated state.
+     */
+    private void updateLookupTables() {
+        MasterSlaveEntry[] slots = new MasterSlaveEntry[MAX_SLOT];
+        Map<InetSocketAddress, MasterSlaveEntry> addrs = new HashMap<InetSocketAddress, MasterSlaveEntry>();
+        for (Entry<ClusterSlotRange, MasterSlaveEntry> entry : entries.entrySet()) {
+            int endSlot = Math.min(entry.getKey().getEndSlot(), MAX_SLOT - 1);
+            Arrays.fill(slots, entry.getKey().getStartSlot(), endSlot + 1, entry.getValue());
+            addrs.put(entry.getValue().getClient().getAddr(), entry.getValue());
+        }
+        for (Iterator<Entry<Integer, MasterSlaveEntry>> iterator = movedSlots.entrySet().iterator(); iterator.hasNext();) {
+            Entry<Integer, MasterSlaveEntry> entry = iterator.next();
+            MasterSlaveEntry owner = entry.getValue();
+            if (addrs.get(owner.getClient().getAddr()) != owner) {
+                // owner has been removed from topology
+                iterator.remove();
+                continue;
+            }
+            slots[entry.getKey()] = owner;
+        }
+        slot2entry = slots;
+        addr2entry = addrs;
     }
 
     @Override
@@ -601,6 +724,9 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
     }
 
     private MasterSlaveEntry getEntry(NodeSource source) {
+        if (source.getEntry() != null) {
+            return source.getEntry();
+        }
         MasterSlaveEntry e = getEntry(source.getSlot());
         if (e == null) {
             throw new RedisNodeNotFoundException("No node with slot: " + source.getSlot());
@@ -609,6 +735,9 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
     }
 
     private MasterSlaveEntry getEntry(NodeSource source, RedisCommand<?> command) {
+        if (source.getEntry() != null) {
+            return source.getEntry();
+        }
         MasterSlaveEntry e = getEntry(source.getSlot());
         if (e == null) {
             throw new RedisNodeNotFoundException("No node for slot: " + source.getSlot() + " and command " + command);
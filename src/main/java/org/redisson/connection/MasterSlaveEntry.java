@@ -18,6 +18,8 @@ package org.redisson.connection;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
@@ -120,6 +122,20 @@ public class MasterSlaveEntry {
         return masterEntry.getClient();
     }
 
+    /**
+     * Returns master and slave connection pools without duplicates
+     *
+     * @return pools
+     */
+    public Collection<ClientConnectionsEntry> getClientEntries() {
+        Set<ClientConnectionsEntry> result = Collections.newSetFromMap(new IdentityHashMap<ClientConnectionsEntry, Boolean>());
+        if (masterEntry != null) {
+            result.add(masterEntry);
+        }
+        result.addAll(slaveBalancer.getEntries());
+        return result;
+    }
+
     public void slaveUp(String host, int port, FreezeReason freezeReason) {
         if (!slaveBalancer.unfreeze(host, port, freezeReason)) {
             return;
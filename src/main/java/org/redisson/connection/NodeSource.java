@@ -24,6 +24,18 @@ public class NodeSource {
     private final Integer slot;
     private final InetSocketAddress addr;
     private final Redirect redirect;
+    private final MasterSlaveEntry entry;
+
+    public NodeSource(MasterSlaveEntry entry) {
+        this(entry, null, null);
+    }
+
+    public NodeSource(MasterSlaveEntry entry, InetSocketAddress addr, Redirect redirect) {
+        this.slot = null;
+        this.addr = addr;
+        this.redirect = redirect;
+        this.entry = entry;
+    }
 
     public NodeSource(Integer slot) {
         this(slot, null, null);
@@ -37,6 +49,11 @@ public class NodeSource {
         this.slot = slot;
         this.addr = addr;
         this.redirect = redirect;
+        this.entry = null;
+    }
+
+    public MasterSlaveEntry getEntry() {
+        return entry;
     }
 
     public Redirect getRedirect() {
@@ -53,7 +70,8 @@ public class NodeSource {
 
     @Override
     public String toString() {
-        return "NodeSource [slot=" + slot + ", addr=" + addr + ", redirect=" + redirect + "]";
+        return "NodeSource [slot=" + slot + ", addr=" + addr + ", redirect=" + redirect
+                + (entry != null ? ", entry=" + entry.getClient().getAddr() : "") + "]";
     }
 
 }
@@ -43,7 +43,7 @@ public class PubSubConnectionEntry {
     private final RedisPubSubConnection conn;
     private final int subscriptionsPerConnection;
 
-    private final ConcurrentMap<String, Queue<RedisPubSubListener>> channelListeners = new ConcurrentHashMap<String, Queue<RedisPubSubListener>>();
+    private final ConcurrentMap<String, Queue<RedisPubSubListener<?>>> channelListeners = new ConcurrentHashMap<String, Queue<RedisPubSubListener<?>>>();
 
     public PubSubConnectionEntry(RedisPubSubConnection conn, int subscriptionsPerConnection) {
         super();
@@ -56,19 +56,19 @@ public class PubSubConnectionEntry {
         return channelListeners.containsKey(channelName);
     }
 
-    public Collection<RedisPubSubListener> getListeners(String channelName) {
-        Collection<RedisPubSubListener> result = channelListeners.get(channelName);
+    public Collection<RedisPubSubListener<?>> getListeners(String channelName) {
+        Collection<RedisPubSubListener<?>> result = channelListeners.get(channelName);
         if (result == null) {
             return Collections.emptyList();
         }
-        return new ArrayList<RedisPubSubListener>(result);
+        return new ArrayList<RedisPubSubListener<?>>(result);
     }
 
     public void addListener(String channelName, RedisPubSubListener<?> listener) {
-        Queue<RedisPubSubListener> queue = channelListeners.get(channelName);
+        Queue<RedisPubSubListener<?>> queue = channelListeners.get(channelName);
         if (queue == null) {
-            queue = new ConcurrentLinkedQueue<RedisPubSubListener>();
-            Queue<RedisPubSubListener> oldQueue = channelListeners.putIfAbsent(channelName, queue);
+            queue = new ConcurrentLinkedQueue<RedisPubSubListener<?>>();
+            Queue<RedisPubSubListener<?>> oldQueue = channelListeners.putIfAbsent(channelName, queue);
             if (oldQueue != null) {
                 queue = oldQueue;
             }
@@ -82,7 +82,7 @@ public class PubSubConnectionEntry {
             queue.add(listener);
         }
 
-        conn.addListener(listener);
+        conn.addListener(channelName, listener);
     }
 
     public boolean isActive() {
@@ -95,8 +95,8 @@ public class PubSubConnectionEntry {
 
     // TODO optimize
     public void removeListener(String channelName, int listenerId) {
-        Queue<RedisPubSubListener> listeners = channelListeners.get(channelName);
-        for (RedisPubSubListener listener : listeners) {
+        Queue<RedisPubSubListener<?>> listeners = channelListeners.get(channelName);
+        for (RedisPubSubListener<?> listener : listeners) {
             if (listener.hashCode() == listenerId) {
                 removeListener(channelName, listener);
                 break;
@@ -104,14 +104,16 @@ public class PubSubConnectionEntry {
         }
     }
 
-    private void removeListener(String channelName, RedisPubSubListener listener) {
-        Queue<RedisPubSubListener> queue = channelListeners.get(channelName);
-        synchronized (queue) {
-            if (queue.remove(listener) && queue.isEmpty()) {
-                channelListeners.remove(channelName);
+    public void removeListener(String channelName, RedisPubSubListener<?> listener) {
+        Queue<RedisPubSubListener<?>> queue = channelListeners.get(channelName);
+        if (queue != null) {
+            synchronized (queue) {
+                if (queue.remove(listener) && queue.isEmpty()) {
+                    channelListeners.remove(channelName);
+                }
             }
         }
-        conn.removeListener(listener);
+        conn.removeListener(channelName, listener);
     }
 
     public boolean tryAcquire() {
@@ -130,17 +132,18 @@ public class PubSubConnectionEntry {
         conn.psubscribe(codec, pattern);
     }
 
-    public void subscribe(Codec codec, RedisPubSubListener listener, String channel) {
+    public void subscribe(Codec codec, RedisPubSubListener<?> listener, String channel) {
         addListener(channel, listener);
         conn.subscribe(codec, channel);
     }
 
-    public void unsubscribe(final String channel, RedisPubSubListener listener) {
+    public void unsubscribe(final String channel, RedisPubSubListener<?> listener) {
+        final Queue<RedisPubSubListener<?>> listeners = detachListeners(channel);
         conn.addOneShotListener(new BaseRedisPubSubListener<Object>() {
             @Override
             public boolean onStatus(PubSubType type, String ch) {
                 if (type == PubSubType.UNSUBSCRIBE && channel.equals(ch)) {
-                    removeListeners(channel);
+                    removeListeners(channel, listeners);
                     return true;
                 }
                 return false;
@@ -151,25 +154,36 @@ public class PubSubConnectionEntry {
         conn.unsubscribe(channel);
     }
 
-    private void removeListeners(String channel) {
-        Queue<RedisPubSubListener> queue = channelListeners.get(channel);
+    /**
+     * Listeners are detached at unsubscribe request, so listeners of
+     * subscription made before unsubscribe response aren't removed with them.
+     */
+    private Queue<RedisPubSubListener<?>> detachListeners(String channel) {
+        Queue<RedisPubSubListener<?>> queue = channelListeners.get(channel);
         if (queue != null) {
             synchronized (queue) {
-                channelListeners.remove(channel);
+                channelListeners.remove(channel, queue);
             }
-            for (RedisPubSubListener listener : queue) {
-                conn.removeListener(listener);
+        }
+        return queue;
+    }
+
+    private void removeListeners(String channel, Queue<RedisPubSubListener<?>> queue) {
+        if (queue != null) {
+            for (RedisPubSubListener<?> listener : queue) {
+                conn.removeListener(channel, listener);
             }
         }
         subscribedChannelsAmount.release();
     }
 
-    public void punsubscribe(final String channel, RedisPubSubListener listener) {
+    public void punsubscribe(final String channel, RedisPubSubListener<?> listener) {
+        final Queue<RedisPubSubListener<?>> listeners = detachListeners(channel);
         conn.addOneShotListener(new BaseRedisPubSubListener<Object>() {
             @Override
             public boolean onStatus(PubSubType type, String ch) {
                 if (type == PubSubType.PUNSUBSCRIBE && channel.equals(ch)) {
-                    removeListeners(channel);
+                    removeListeners(channel, listeners);
                     return true;
                 }
                 return false;
@@ -0,0 +1,102 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.connection;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentMap;
+
+import io.netty.util.CharsetUtil;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Client side cache of Lua scripts SHA1 digests,
+ * so script could be invoked by <code>EVALSHA</code> command instead of sending its body.
+ * Arbitrary scripts are evicted once cache size exceeded,
+ * so digest lookup doesn't take a lock shared by all callers.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class ScriptCache {
+
+    public static final int DEFAULT_SIZE = 1024;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final ConcurrentMap<String, String> script2sha = PlatformDependent.newConcurrentHashMap();
+    private final int size;
+
+    public ScriptCache() {
+        this(DEFAULT_SIZE);
+    }
+
+    public ScriptCache(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Returns SHA1 digest of script
+     *
+     * @param script
+     * @return
+     */
+    public String getSha(String script) {
+        String sha = script2sha.get(script);
+        if (sha == null) {
+            sha = sha1(script);
+            if (script2sha.putIfAbsent(script, sha) == null && script2sha.size() > size) {
+                evict();
+            }
+        }
+        return sha;
+    }
+
+    private void evict() {
+        Iterator<String> iterator = script2sha.keySet().iterator();
+        while (script2sha.size() > size && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Returns cached scripts
+     *
+     * @return
+     */
+    public Collection<String> getScripts() {
+        return script2sha.keySet();
+    }
+
+    private String sha1(String script) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] bytes = digest.digest(script.getBytes(CharsetUtil.UTF_8));
+            char[] result = new char[bytes.length * 2];
+            for (int i = 0; i < bytes.length; i++) {
+                result[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+                result[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+            }
+            return new String(result);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
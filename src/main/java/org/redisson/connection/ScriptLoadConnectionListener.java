@@ -0,0 +1,74 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.connection;
+
+import org.redisson.MasterSlaveServersConfig;
+import org.redisson.client.RedisConnection;
+import org.redisson.client.RedisPubSubConnection;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.connection.ClientConnectionsEntry.NodeType;
+
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.Promise;
+
+/**
+ * Loads scripts cached by {@link ScriptCache} to the server
+ * after connection has been initialized by wrapped initializer.
+ * <p>
+ * Connection is ready without waiting for <code>SCRIPT LOAD</code> replies,
+ * since commands sent through it later are executed after them.
+ * Load failures are ignored, missing script is sent by <code>EVAL</code> command on its first use.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class ScriptLoadConnectionListener implements ConnectionInitializer {
+
+    private final ConnectionInitializer initializer;
+    private final ScriptCache scriptCache;
+
+    public ScriptLoadConnectionListener(ConnectionInitializer initializer, ScriptCache scriptCache) {
+        this.initializer = initializer;
+        this.scriptCache = scriptCache;
+    }
+
+    @Override
+    public <T extends RedisConnection> void onConnect(final Promise<T> connectionFuture, final T conn, NodeType nodeType, MasterSlaveServersConfig config) {
+        if (conn instanceof RedisPubSubConnection || scriptCache.getScripts().isEmpty()) {
+            initializer.onConnect(connectionFuture, conn, nodeType, config);
+            return;
+        }
+
+        Promise<T> initFuture = conn.getChannel().eventLoop().newPromise();
+        initFuture.addListener(new FutureListener<T>() {
+            @Override
+            public void operationComplete(Future<T> future) throws Exception {
+                if (!future.isSuccess()) {
+                    connectionFuture.tryFailure(future.cause());
+                    return;
+                }
+
+                for (String script : scriptCache.getScripts()) {
+                    conn.async(RedisCommands.SCRIPT_LOAD, script);
+                }
+                connectionFuture.trySuccess(conn);
+            }
+        });
+        initializer.onConnect(initFuture, conn, nodeType, config);
+    }
+
+}
@@ -71,6 +71,10 @@ public class SentinelConnectionManager extends MasterSlaveConnectionManager {
 
         c.setFailedAttempts(cfg.getFailedAttempts());
         c.setReconnectionTimeout(cfg.getReconnectionTimeout());
+        c.setPipelineLimit(cfg.getPipelineLimit());
+        c.setFlushConsolidationLimit(cfg.getFlushConsolidationLimit());
+        c.setConnectionWaitQueueSize(cfg.getConnectionWaitQueueSize());
+        c.setConnectionAcquireTimeout(cfg.getConnectionAcquireTimeout());
         c.setMasterConnectionMinimumIdleSize(cfg.getMasterConnectionMinimumIdleSize());
         c.setSlaveConnectionMinimumIdleSize(cfg.getSlaveConnectionMinimumIdleSize());
         c.setSlaveSubscriptionConnectionMinimumIdleSize(cfg.getSlaveSubscriptionConnectionMinimumIdleSize());
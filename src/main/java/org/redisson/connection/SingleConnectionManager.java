@@ -73,6 +73,10 @@ public class SingleConnectionManager extends MasterSlaveConnectionManager {
         newconfig.setIdleConnectionTimeout(cfg.getIdleConnectionTimeout());
         newconfig.setFailedAttempts(cfg.getFailedAttempts());
         newconfig.setReconnectionTimeout(cfg.getReconnectionTimeout());
+        newconfig.setPipelineLimit(cfg.getPipelineLimit());
+        newconfig.setFlushConsolidationLimit(cfg.getFlushConsolidationLimit());
+        newconfig.setConnectionWaitQueueSize(cfg.getConnectionWaitQueueSize());
+        newconfig.setConnectionAcquireTimeout(cfg.getConnectionAcquireTimeout());
 
         newconfig.setMasterConnectionMinimumIdleSize(cfg.getConnectionMinimumIdleSize());
         newconfig.setSlaveSubscriptionConnectionMinimumIdleSize(cfg.getSubscriptionConnectionMinimumIdleSize());
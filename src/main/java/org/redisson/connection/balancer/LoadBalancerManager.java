@@ -49,4 +49,6 @@ public interface LoadBalancerManager {
 
     void returnSubscribeConnection(RedisPubSubConnection connection);
 
+    Collection<ClientConnectionsEntry> getEntries();
+
 }
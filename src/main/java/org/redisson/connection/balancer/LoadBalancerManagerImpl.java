@@ -165,6 +165,10 @@ public class LoadBalancerManagerImpl implements LoadBalancerManager {
         entries.returnConnection(entry, connection);
     }
 
+    public Collection<ClientConnectionsEntry> getEntries() {
+        return Collections.unmodifiableCollection(addr2Entry.values());
+    }
+
     public void shutdown() {
         for (ClientConnectionsEntry entry : addr2Entry.values()) {
             entry.getClient().shutdown();
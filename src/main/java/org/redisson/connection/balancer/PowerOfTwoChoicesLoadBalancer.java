@@ -0,0 +1,56 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.connection.balancer;
+
+import java.util.List;
+
+import org.redisson.connection.ClientConnectionsEntry;
+
+import io.netty.util.internal.ThreadLocalRandom;
+
+/**
+ * Chooses two random nodes and uses one with lower response cost.
+ * Avoids herd behavior of {@link ResponseTimeLoadBalancer}
+ * when many clients choose the same fastest node at once.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class PowerOfTwoChoicesLoadBalancer extends ResponseTimeLoadBalancer {
+
+    @Override
+    public ClientConnectionsEntry getEntry(List<ClientConnectionsEntry> clientsCopy) {
+        int size = clientsCopy.size();
+        if (size == 1) {
+            return clientsCopy.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        ClientConnectionsEntry firstEntry = clientsCopy.get(first);
+        ClientConnectionsEntry secondEntry = clientsCopy.get(second);
+        if (getCost(firstEntry) <= getCost(secondEntry)) {
+            return firstEntry;
+        }
+        return secondEntry;
+    }
+
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.connection.balancer;
+
+import java.util.List;
+
+import org.redisson.client.RedisClientStats;
+import org.redisson.connection.ClientConnectionsEntry;
+
+/**
+ * Chooses node with the lowest expected response cost.
+ * Cost is based on average response time of node,
+ * amount of commands in flight and ratio of free connections.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class ResponseTimeLoadBalancer implements LoadBalancer {
+
+    @Override
+    public ClientConnectionsEntry getEntry(List<ClientConnectionsEntry> clientsCopy) {
+        ClientConnectionsEntry result = null;
+        double minCost = Double.MAX_VALUE;
+        for (ClientConnectionsEntry entry : clientsCopy) {
+            double cost = getCost(entry);
+            if (result == null || cost < minCost) {
+                result = entry;
+                minCost = cost;
+            }
+        }
+        return result;
+    }
+
+    protected double getCost(ClientConnectionsEntry entry) {
+        if (entry.isFreezed()) {
+            return Double.MAX_VALUE;
+        }
+        if (entry.getFreeAmount() == 0) {
+            return Double.MAX_VALUE / 2;
+        }
+
+        RedisClientStats stats = entry.getClient().getStats();
+        double freeRatio = 1;
+        if (entry.getPoolMaxSize() > 0) {
+            freeRatio = (double) entry.getFreeAmount() / entry.getPoolMaxSize();
+        }
+        // add 1 nanosecond to distinguish nodes without measurements by load
+        return (stats.getResponseTime() + 1) * (stats.getInFlightAmount() + 1) * (2 - freeRatio);
+    }
+
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.core;
+
+/**
+ * Snapshot of eviction statistics of a single cache object
+ * like {@link RMapCache} or {@link RSetCache}.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class EvictionStats {
+
+    private final String name;
+    private final boolean owner;
+    private final long totalExpired;
+    private final double expiredPerSecond;
+    private final long lag;
+    private final long backlog;
+    private final int batchSize;
+    private final long delay;
+    private final long lastRunTime;
+
+    public EvictionStats(String name, boolean owner, long totalExpired, double expiredPerSecond,
+            long lag, long backlog, int batchSize, long delay, long lastRunTime) {
+        this.name = name;
+        this.owner = owner;
+        this.totalExpired = totalExpired;
+        this.expiredPerSecond = expiredPerSecond;
+        this.lag = lag;
+        this.backlog = backlog;
+        this.batchSize = batchSize;
+        this.delay = delay;
+        this.lastRunTime = lastRunTime;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns <code>true</code> if this Redisson instance
+     * is currently responsible for eviction of the cache.
+     * Only one instance cleans a cache at a time.
+     *
+     * @return
+     */
+    public boolean isOwner() {
+        return owner;
+    }
+
+    /**
+     * Returns amount of expired entries removed by this Redisson instance
+     *
+     * @return
+     */
+    public long getTotalExpired() {
+        return totalExpired;
+    }
+
+    /**
+     * Returns smoothed amount of expired entries removed per second
+     *
+     * @return
+     */
+    public double getExpiredPerSecond() {
+        return expiredPerSecond;
+    }
+
+    /**
+     * Returns time in milliseconds passed since expiration
+     * of the oldest expired entry observed during last run
+     *
+     * @return
+     */
+    public long getLag() {
+        return lag;
+    }
+
+    /**
+     * Returns amount of expired entries left after last run
+     *
+     * @return
+     */
+    public long getBacklog() {
+        return backlog;
+    }
+
+    /**
+     * Returns max amount of entries removed during single run
+     *
+     * @return
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Returns delay in milliseconds before next run
+     *
+     * @return
+     */
+    public long getDelay() {
+        return delay;
+    }
+
+    /**
+     * Returns time of last run in milliseconds, <code>0</code> if there wasn't any
+     *
+     * @return
+     */
+    public long getLastRunTime() {
+        return lastRunTime;
+    }
+
+    @Override
+    public String toString() {
+        return "EvictionStats [name=" + name + ", owner=" + owner + ", totalExpired=" + totalExpired
+                + ", expiredPerSecond=" + expiredPerSecond + ", lag=" + lag + ", backlog=" + backlog
+                + ", batchSize=" + batchSize + ", delay=" + delay + ", lastRunTime=" + lastRunTime + "]";
+    }
+
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.core;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.Comparator;
+
+import org.redisson.client.codec.Codec;
+
+/**
+ * Orders elements by unsigned bytes of their encoded form. Comparison is evaluated
+ * on Redis side when used with {@link RSortedSet}, so elements are added
+ * and removed by single Lua script call.
+ * <p>
+ * {@link RSortedSet} binds its codec to this comparator, so elements are compared
+ * by the same bytes Redis compares. Without codec byte arrays are compared as is
+ * and other objects by UTF-8 bytes of <code>toString()</code> result.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class LexicographicComparator implements Comparator<Object>, Serializable {
+
+    private static final long serialVersionUID = 2394725839478615332L;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final transient Codec codec;
+
+    public LexicographicComparator() {
+        this(null);
+    }
+
+    public LexicographicComparator(Codec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public int compare(Object o1, Object o2) {
+        byte[] b1 = toBytes(o1);
+        byte[] b2 = toBytes(o2);
+        int len = Math.min(b1.length, b2.length);
+        for (int i = 0; i < len; i++) {
+            int cmp = (b1[i] & 0xff) - (b2[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return b1.length - b2.length;
+    }
+
+    private byte[] toBytes(Object value) {
+        if (codec != null) {
+            try {
+                return codec.getValueEncoder().encode(value);
+            } catch (IOException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+        if (value instanceof byte[]) {
+            return (byte[]) value;
+        }
+        return value.toString().getBytes(UTF8);
+    }
+
+}
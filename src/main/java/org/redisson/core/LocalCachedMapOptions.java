@@ -0,0 +1,191 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.core;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration of {@link RLocalCachedMap} in-process cache.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class LocalCachedMapOptions {
+
+    public enum EvictionPolicy {
+
+        /**
+         * Cache without eviction. Entries are removed only by TTL or max idle time.
+         */
+        NONE,
+
+        /**
+         * Least Recently Used cache.
+         */
+        LRU,
+
+        /**
+         * Least Frequently Used cache.
+         */
+        LFU
+
+    };
+
+    private int cacheSize;
+    private EvictionPolicy evictionPolicy;
+    private long timeToLiveInMillis;
+    private long maxIdleInMillis;
+
+    private LocalCachedMapOptions() {
+    }
+
+    /**
+     * Creates a new instance of LocalCachedMapOptions with default options.
+     * <p>
+     * This is equivalent to:
+     * <pre>
+     *     new LocalCachedMapOptions()
+     *      .cacheSize(0).timeToLive(0).maxIdle(0)
+     *      .evictionPolicy(EvictionPolicy.NONE);
+     * </pre>
+     *
+     * @return LocalCachedMapOptions instance
+     */
+    public static LocalCachedMapOptions defaults() {
+        return new LocalCachedMapOptions()
+                    .cacheSize(0).timeToLive(0).maxIdle(0)
+                    .evictionPolicy(EvictionPolicy.NONE);
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public EvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    public long getTimeToLiveInMillis() {
+        return timeToLiveInMillis;
+    }
+
+    public long getMaxIdleInMillis() {
+        return maxIdleInMillis;
+    }
+
+    /**
+     * Sets cache size. If size is <code>0</code> then cache is unbounded.
+     * Doesn't affect caches with {@link EvictionPolicy#NONE} policy.
+     *
+     * @param cacheSize
+     * @return
+     */
+    public LocalCachedMapOptions cacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+        return this;
+    }
+
+    /**
+     * Sets eviction policy applied once cache size reached.
+     *
+     * @param evictionPolicy
+     * @return
+     */
+    public LocalCachedMapOptions evictionPolicy(EvictionPolicy evictionPolicy) {
+        if (evictionPolicy == null) {
+            throw new NullPointerException("Eviction policy can't be null");
+        }
+        this.evictionPolicy = evictionPolicy;
+        return this;
+    }
+
+    /**
+     * Sets time to live in milliseconds for each map entry in cache.
+     * If value equals to <code>0</code> then timeout is not applied
+     *
+     * @param timeToLiveInMillis
+     * @return
+     */
+    public LocalCachedMapOptions timeToLive(long timeToLiveInMillis) {
+        this.timeToLiveInMillis = timeToLiveInMillis;
+        return this;
+    }
+
+    /**
+     * Sets time to live for each map entry in cache.
+     * If value equals to <code>0</code> then timeout is not applied
+     *
+     * @param timeToLive
+     * @param timeUnit
+     * @return
+     */
+    public LocalCachedMapOptions timeToLive(long timeToLive, TimeUnit timeUnit) {
+        return timeToLive(timeUnit.toMillis(timeToLive));
+    }
+
+    /**
+     * Sets max idle time in milliseconds for each map entry in cache.
+     * If value equals to <code>0</code> then timeout is not applied
+     *
+     * @param maxIdleInMillis
+     * @return
+     */
+    public LocalCachedMapOptions maxIdle(long maxIdleInMillis) {
+        this.maxIdleInMillis = maxIdleInMillis;
+        return this;
+    }
+
+    /**
+     * Sets max idle time for each map entry in cache.
+     * If value equals to <code>0</code> then timeout is not applied
+     *
+     * @param maxIdle
+     * @param timeUnit
+     * @return
+     */
+    public LocalCachedMapOptions maxIdle(long maxIdle, TimeUnit timeUnit) {
+        return maxIdle(timeUnit.toMillis(maxIdle));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = cacheSize;
+        result = 31 * result + (evictionPolicy == null ? 0 : evictionPolicy.hashCode());
+        result = 31 * result + (int) (timeToLiveInMillis ^ (timeToLiveInMillis >>> 32));
+        result = 31 * result + (int) (maxIdleInMillis ^ (maxIdleInMillis >>> 32));
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null || getClass() != obj.getClass())
+            return false;
+        LocalCachedMapOptions other = (LocalCachedMapOptions) obj;
+        return cacheSize == other.cacheSize
+                && evictionPolicy == other.evictionPolicy
+                && timeToLiveInMillis == other.timeToLiveInMillis
+                && maxIdleInMillis == other.maxIdleInMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "LocalCachedMapOptions [cacheSize=" + cacheSize + ", evictionPolicy=" + evictionPolicy
+                + ", timeToLiveInMillis=" + timeToLiveInMillis + ", maxIdleInMillis=" + maxIdleInMillis + "]";
+    }
+
+}
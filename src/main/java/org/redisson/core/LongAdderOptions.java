@@ -0,0 +1,142 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.core;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration of {@link RLongAdder} buffering and sharding.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class LongAdderOptions {
+
+    private int shards;
+    private long flushIntervalInMillis;
+    private long flushThreshold;
+
+    private LongAdderOptions() {
+    }
+
+    /**
+     * Creates a new instance of LongAdderOptions with default options.
+     * <p>
+     * This is equivalent to:
+     * <pre>
+     *     new LongAdderOptions()
+     *      .shards(1).flushInterval(1000).flushThreshold(1000);
+     * </pre>
+     *
+     * @return LongAdderOptions instance
+     */
+    public static LongAdderOptions defaults() {
+        return new LongAdderOptions()
+                    .shards(1).flushInterval(1000).flushThreshold(1000);
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    public long getFlushIntervalInMillis() {
+        return flushIntervalInMillis;
+    }
+
+    public long getFlushThreshold() {
+        return flushThreshold;
+    }
+
+    /**
+     * Sets amount of Redis keys used to store counter.
+     * Each flush increments one of them, so with Redis cluster
+     * the load is spread over several slots.
+     * Should be the same for all instances of the same counter.
+     *
+     * @param shards
+     * @return
+     */
+    public LongAdderOptions shards(int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("Shards amount should be positive");
+        }
+        this.shards = shards;
+        return this;
+    }
+
+    /**
+     * Sets interval in milliseconds of local increments flushing to Redis.
+     * If value equals to <code>0</code> then increments aren't flushed periodically
+     *
+     * @param flushIntervalInMillis
+     * @return
+     */
+    public LongAdderOptions flushInterval(long flushIntervalInMillis) {
+        this.flushIntervalInMillis = flushIntervalInMillis;
+        return this;
+    }
+
+    /**
+     * Sets interval of local increments flushing to Redis.
+     * If value equals to <code>0</code> then increments aren't flushed periodically
+     *
+     * @param flushInterval
+     * @param timeUnit
+     * @return
+     */
+    public LongAdderOptions flushInterval(long flushInterval, TimeUnit timeUnit) {
+        return flushInterval(timeUnit.toMillis(flushInterval));
+    }
+
+    /**
+     * Sets absolute value of locally accumulated delta which triggers flushing to Redis.
+     * If value equals to <code>0</code> then increments are flushed only by interval
+     *
+     * @param flushThreshold
+     * @return
+     */
+    public LongAdderOptions flushThreshold(long flushThreshold) {
+        this.flushThreshold = flushThreshold;
+        return this;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = shards;
+        result = 31 * result + (int) (flushIntervalInMillis ^ (flushIntervalInMillis >>> 32));
+        result = 31 * result + (int) (flushThreshold ^ (flushThreshold >>> 32));
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null || getClass() != obj.getClass())
+            return false;
+        LongAdderOptions other = (LongAdderOptions) obj;
+        return shards == other.shards
+                && flushIntervalInMillis == other.flushIntervalInMillis
+                && flushThreshold == other.flushThreshold;
+    }
+
+    @Override
+    public String toString() {
+        return "LongAdderOptions [shards=" + shards + ", flushIntervalInMillis=" + flushIntervalInMillis
+                + ", flushThreshold=" + flushThreshold + "]";
+    }
+
+}
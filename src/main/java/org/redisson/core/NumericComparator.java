@@ -0,0 +1,50 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.core;
+
+import java.io.Serializable;
+import java.util.Comparator;
+
+/**
+ * Orders numbers by their value. Comparison is evaluated
+ * on Redis side when used with {@link RSortedSet}, so
+ * elements are added and removed by single Lua script call.
+ * Set codec should encode numbers as decimal text
+ * like {@link org.redisson.client.codec.StringCodec} or
+ * {@link org.redisson.client.codec.LongCodec} do.
+ * Values are compared as double numbers.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class NumericComparator implements Comparator<Number>, Serializable {
+
+    private static final long serialVersionUID = -3462581392856347284L;
+
+    @Override
+    public int compare(Number o1, Number o2) {
+        double v1 = o1.doubleValue();
+        double v2 = o2.doubleValue();
+        if (v1 < v2) {
+            return -1;
+        }
+        if (v1 > v2) {
+            return 1;
+        }
+        return 0;
+    }
+
+}
@@ -40,6 +40,22 @@ public interface RBitSet extends RExpirable, RBitSetAsync {
 
     boolean get(int bitIndex);
 
+    /**
+     * Returns values of bits at specified indexes using single request.
+     *
+     * @param bitIndexes
+     * @return bit values in the same order as <code>bitIndexes</code>
+     */
+    boolean[] get(int[] bitIndexes);
+
+    /**
+     * Sets bits at specified indexes using single request.
+     *
+     * @param bitIndexes
+     * @return previous bit values in the same order as <code>bitIndexes</code>
+     */
+    boolean[] set(int[] bitIndexes);
+
     void set(int bitIndex);
 
     void set(int bitIndex, boolean value);
@@ -44,6 +44,10 @@ public interface RBitSetAsync extends RExpirableAsync {
 
     Future<Boolean> getAsync(int bitIndex);
 
+    Future<boolean[]> getAsync(int[] bitIndexes);
+
+    Future<boolean[]> setAsync(int[] bitIndexes);
+
     Future<Void> setAsync(int bitIndex);
 
     Future<Void> setAsync(int bitIndex, boolean value);
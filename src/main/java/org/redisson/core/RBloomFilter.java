@@ -0,0 +1,108 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.core;
+
+import java.util.Collection;
+
+/**
+ * Distributed Bloom filter.
+ * All bits of an object are set or checked by single Lua script invocation,
+ * and bulk operations send one script invocation per used key.
+ *
+ * <p>Filter should be initialized by {@link #tryInit(long, double)} before usage.
+ * Huge filter could be split over several keys
+ * to spread it among Redis cluster nodes, see {@link #tryInit(long, double, int)}.</p>
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <T> type of object
+ */
+public interface RBloomFilter<T> extends RObject, RBloomFilterAsync<T> {
+
+    /**
+     * Initializes filter params (size and hash iterations)
+     * calculated from <code>expectedInsertions</code> and <code>falseProbability</code>.
+     * Stores config to Redis server.
+     *
+     * @param expectedInsertions
+     * @param falseProbability
+     * @return <code>true</code> if filter has been initialized
+     *         <code>false</code> if filter already has been initialized
+     */
+    boolean tryInit(long expectedInsertions, double falseProbability);
+
+    /**
+     * Initializes filter split over <code>segments</code> keys.
+     * Each object is stored in one segment chosen by object hash,
+     * so each segment holds about <code>expectedInsertions / segments</code> objects.
+     *
+     * @param expectedInsertions
+     * @param falseProbability
+     * @param segments amount of keys
+     * @return <code>true</code> if filter has been initialized
+     *         <code>false</code> if filter already has been initialized
+     */
+    boolean tryInit(long expectedInsertions, double falseProbability, int segments);
+
+    /**
+     * Adds object to filter
+     *
+     * @param object
+     * @return <code>true</code> if object hasn't been added before
+     */
+    boolean add(T object);
+
+    /**
+     * Adds objects to filter
+     *
+     * @param objects
+     * @return amount of objects which haven't been added before
+     */
+    int addAll(Collection<? extends T> objects);
+
+    /**
+     * Checks for object presence
+     *
+     * @param object
+     * @return <code>true</code> if object might be present
+     *         <code>false</code> if object definitely hasn't been added
+     */
+    boolean contains(T object);
+
+    /**
+     * Checks for objects presence
+     *
+     * @param objects
+     * @return <code>true</code> if all objects might be present
+     */
+    boolean containsAll(Collection<?> objects);
+
+    long getExpectedInsertions();
+
+    double getFalseProbability();
+
+    /**
+     * Returns amount of bits in all segments
+     *
+     * @return
+     */
+    long getSize();
+
+    int getHashIterations();
+
+    int getSegments();
+
+}
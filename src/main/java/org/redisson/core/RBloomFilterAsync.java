@@ -0,0 +1,43 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.core;
+
+import java.util.Collection;
+
+import io.netty.util.concurrent.Future;
+
+/**
+ * Async interface for Bloom filter
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <T> type of object
+ */
+public interface RBloomFilterAsync<T> extends RObjectAsync {
+
+    Future<Boolean> tryInitAsync(long expectedInsertions, double falseProbability);
+
+    Future<Boolean> tryInitAsync(long expectedInsertions, double falseProbability, int segments);
+
+    Future<Boolean> addAsync(T object);
+
+    Future<Integer> addAllAsync(Collection<? extends T> objects);
+
+    Future<Boolean> containsAsync(T object);
+
+    Future<Boolean> containsAllAsync(Collection<?> objects);
+
+}
@@ -40,6 +40,17 @@ public interface RKeys extends RKeysAsync {
      */
     Iterable<String> getKeysByPattern(String pattern);
 
+    /**
+     * Get all keys by pattern using iterator. Keys traversing with SCAN operation.
+     * Next page of <code>count</code> keys is loaded in background
+     * while current one is iterated.
+     *
+     * @param pattern
+     * @param count - page size hint used in <code>SCAN</code>
+     * @return
+     */
+    Iterable<String> getKeysByPattern(String pattern, int count);
+
     /**
      * Get all keys using iterator. Keys traversing with SCAN operation
      *
@@ -47,6 +58,16 @@ public interface RKeys extends RKeysAsync {
      */
     Iterable<String> getKeys();
 
+    /**
+     * Get all keys using iterator. Keys traversing with SCAN operation.
+     * Next page of <code>count</code> keys is loaded in background
+     * while current one is iterated.
+     *
+     * @param count - page size hint used in <code>SCAN</code>
+     * @return
+     */
+    Iterable<String> getKeys(int count);
+
     /**
      * Get random key
      *
@@ -67,6 +88,17 @@ public interface RKeys extends RKeysAsync {
      */
     Collection<String> findKeysByPattern(String pattern);
 
+    /**
+     * Find keys by key search pattern.
+     * Each master is traversed concurrently with SCAN operation
+     * using <code>count</code> as page size hint.
+     *
+     * @param pattern
+     * @param count - SCAN page size hint
+     * @return
+     */
+    Collection<String> findKeysByPattern(String pattern, int count);
+
     /**
      * Delete multiple objects by a key pattern
      *
@@ -80,6 +112,17 @@ public interface RKeys extends RKeysAsync {
      */
     long deleteByPattern(String pattern);
 
+    /**
+     * Delete multiple objects by a key pattern.
+     * Each master is traversed concurrently with SCAN operation
+     * using <code>count</code> as page size hint.
+     *
+     * @param pattern
+     * @param count - SCAN page size hint
+     * @return
+     */
+    long deleteByPattern(String pattern, int count);
+
     /**
      * Delete multiple objects by name
      *
@@ -18,6 +18,7 @@ package org.redisson.core;
 import java.util.Collection;
 
 import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.ProgressiveFuture;
 
 public interface RKeysAsync {
 
@@ -50,6 +51,18 @@ public interface RKeysAsync {
      */
     Future<Collection<String>> findKeysByPatternAsync(String pattern);
 
+    /**
+     * Find keys by key search pattern in async mode.
+     * Each master is traversed concurrently with SCAN operation
+     * using <code>count</code> as page size hint.
+     * Number of keys found so far is reported as progress.
+     *
+     * @param pattern
+     * @param count - SCAN page size hint
+     * @return
+     */
+    ProgressiveFuture<Collection<String>> findKeysByPatternAsync(String pattern, int count);
+
     /**
      * Delete multiple objects by a key pattern in async mode
      *
@@ -63,6 +76,19 @@ public interface RKeysAsync {
      */
     Future<Long> deleteByPatternAsync(String pattern);
 
+    /**
+     * Delete multiple objects by a key pattern in async mode.
+     * Each master is traversed concurrently with SCAN operation
+     * using <code>count</code> as page size hint and keys of each page
+     * are deleted before next page requested.
+     * Number of keys deleted so far is reported as progress.
+     *
+     * @param pattern
+     * @param count - SCAN page size hint
+     * @return
+     */
+    ProgressiveFuture<Long> deleteByPatternAsync(String pattern, int count);
+
     /**
      * Delete multiple objects by name in async mode
      *
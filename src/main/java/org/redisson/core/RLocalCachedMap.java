@@ -0,0 +1,86 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.core;
+
+/**
+ * Map object with in-process cache of entries.
+ *
+ * <p>Read operations are served from local cache when possible.
+ * Each write operation publishes invalidation message
+ * so other instances of the same map drop stale cached entries.</p>
+ *
+ * <p>Invalidation messages published while instance was disconnected are lost.
+ * Use {@link LocalCachedMapOptions#timeToLive(long)} to bound staleness in that case.
+ * Expiration of the whole map via {@link RExpirable} methods isn't tracked.</p>
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <K> key
+ * @param <V> value
+ */
+public interface RLocalCachedMap<K, V> extends RMap<K, V> {
+
+    /**
+     * Returns amount of read operations served from local cache
+     *
+     * @return hits amount
+     */
+    long getCacheHits();
+
+    /**
+     * Returns amount of read operations served by Redis
+     *
+     * @return misses amount
+     */
+    long getCacheMisses();
+
+    /**
+     * Returns amount of entries removed from local cache
+     * due to size limit, time to live or max idle time
+     *
+     * @return evictions amount
+     */
+    long getCacheEvictions();
+
+    /**
+     * Returns amount of entries removed from local cache
+     * due to invalidation messages received from other instances
+     *
+     * @return invalidations amount
+     */
+    long getCacheInvalidations();
+
+    /**
+     * Returns amount of entries in local cache
+     *
+     * @return entries amount
+     */
+    int getCachedSize();
+
+    /**
+     * Clears local cache only. Map state in Redis isn't changed.
+     */
+    void clearLocalCache();
+
+    /**
+     * Releases this instance. Instance is shared by all holders
+     * of the same map name, so invalidation listener is removed
+     * and local cache is cleared once each holder invoked this method.
+     * This instance shouldn't be used after that.
+     */
+    void destroy();
+
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.core;
+
+import java.util.concurrent.TimeUnit;
+
+import io.netty.util.concurrent.Future;
+
+/**
+ * Async interface for {@link RLock}.
+ * Lock is owned by <code>ownerId</code> instead of current thread,
+ * so it could be acquired and released from different threads.
+ * Methods without <code>ownerId</code> use current thread id as owner.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public interface RLockAsync extends RExpirableAsync {
+
+    /**
+     * Unlocks lock independently of state
+     *
+     * @return <code>true</code> if lock existed and was unlocked
+     */
+    Future<Boolean> forceUnlockAsync();
+
+    /**
+     * Releases the lock held by current thread.
+     * Future fails with {@link IllegalMonitorStateException}
+     * if lock is not held by current thread.
+     *
+     * @return void
+     */
+    Future<Void> unlockAsync();
+
+    /**
+     * Releases the lock held by <code>ownerId</code>.
+     * Future fails with {@link IllegalMonitorStateException}
+     * if lock is not held by <code>ownerId</code>.
+     *
+     * @param ownerId - lock owner token
+     * @return void
+     */
+    Future<Void> unlockAsync(long ownerId);
+
+    /**
+     * Acquires the lock. Future completes once lock acquired.
+     *
+     * @return void
+     */
+    Future<Void> lockAsync();
+
+    /**
+     * Acquires the lock for current thread with defined <code>leaseTime</code>.
+     *
+     * @param leaseTime - hold the lock until explicitly unlocked if <code>-1</code>
+     * @param unit - time unit
+     * @return void
+     */
+    Future<Void> lockAsync(long leaseTime, TimeUnit unit);
+
+    /**
+     * Acquires the lock for <code>ownerId</code> with defined <code>leaseTime</code>.
+     *
+     * @param leaseTime - hold the lock until explicitly unlocked if <code>-1</code>
+     * @param unit - time unit
+     * @param ownerId - lock owner token
+     * @return void
+     */
+    Future<Void> lockAsync(long leaseTime, TimeUnit unit, long ownerId);
+
+    /**
+     * Acquires the lock only if it is free at the time of invocation.
+     *
+     * @return <code>true</code> if lock acquired
+     */
+    Future<Boolean> tryLockAsync();
+
+    /**
+     * Acquires the lock for <code>ownerId</code> only if it is free
+     * at the time of invocation.
+     *
+     * @param ownerId - lock owner token
+     * @return <code>true</code> if lock acquired
+     */
+    Future<Boolean> tryLockAsync(long ownerId);
+
+    /**
+     * Tries to acquire the lock for current thread during <code>waitTime</code>.
+     *
+     * @param waitTime - maximum time to wait, <code>-1</code> to wait until lock acquired
+     * @param leaseTime - hold the lock until explicitly unlocked if <code>-1</code>
+     * @param unit - time unit
+     * @return <code>true</code> if lock acquired
+     */
+    Future<Boolean> tryLockAsync(long waitTime, long leaseTime, TimeUnit unit);
+
+    /**
+     * Tries to acquire the lock for <code>ownerId</code> during <code>waitTime</code>.
+     * Waiting doesn't block any thread, attempt is repeated on unlock
+     * notification or once lock expires.
+     *
+     * @param waitTime - maximum time to wait, <code>-1</code> to wait until lock acquired
+     * @param leaseTime - hold the lock until explicitly unlocked if <code>-1</code>
+     * @param unit - time unit
+     * @param ownerId - lock owner token
+     * @return <code>true</code> if lock acquired
+     */
+    Future<Boolean> tryLockAsync(long waitTime, long leaseTime, TimeUnit unit, long ownerId);
+
+}
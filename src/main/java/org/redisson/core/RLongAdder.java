@@ -0,0 +1,79 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.core;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distributed counter which accumulates increments in local striped cells
+ * and flushes them to Redis by interval or once threshold reached.
+ * Suitable for frequently updated counters which are rarely read.
+ *
+ * <p>Counter could be sharded over several keys, see {@link LongAdderOptions#shards(int)}.
+ * Counter doesn't support rename, move and migrate operations.</p>
+ *
+ * <p>Instance is shared by all holders of the same name within Redisson client.
+ * It keeps flush timer and flush requests subscription, so each holder
+ * should invoke {@link #destroy()} once instance isn't needed anymore.</p>
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public interface RLongAdder extends RObject, RLongAdderAsync {
+
+    /**
+     * Adds delta to local cell
+     *
+     * @param delta
+     */
+    void add(long delta);
+
+    void increment();
+
+    void decrement();
+
+    /**
+     * Writes increments accumulated by this instance to Redis
+     * and waits for flushes which are already in progress.
+     */
+    void flush();
+
+    /**
+     * Flushes increments of this instance and returns counter value stored in Redis.
+     * Unflushed increments of other instances aren't included.
+     *
+     * @return counter value
+     */
+    long sum();
+
+    /**
+     * Asks all instances of this counter to flush their increments
+     * and returns counter value once they confirmed flushing
+     * or <code>timeout</code> elapsed.
+     *
+     * @param timeout - maximum time to wait for other instances
+     * @param unit - time unit
+     * @return counter value
+     */
+    long sum(long timeout, TimeUnit unit);
+
+    /**
+     * Releases this holder of the counter. Once the last holder released it,
+     * flushes increments, stops flush timer and unsubscribes from flush requests.
+     */
+    void destroy();
+
+}
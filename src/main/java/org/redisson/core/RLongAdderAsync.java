@@ -0,0 +1,57 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.core;
+
+import java.util.concurrent.TimeUnit;
+
+import io.netty.util.concurrent.Future;
+
+/**
+ * Async interface for {@link RLongAdder}.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public interface RLongAdderAsync extends RObjectAsync {
+
+    /**
+     * Writes increments accumulated by this instance to Redis
+     * and waits for flushes which are already in progress.
+     *
+     * @return void
+     */
+    Future<Void> flushAsync();
+
+    /**
+     * Flushes increments of this instance and returns counter value stored in Redis.
+     * Unflushed increments of other instances aren't included.
+     *
+     * @return counter value
+     */
+    Future<Long> sumAsync();
+
+    /**
+     * Asks all instances of this counter to flush their increments
+     * and returns counter value once they confirmed flushing
+     * or <code>timeout</code> elapsed.
+     *
+     * @param timeout - maximum time to wait for other instances
+     * @param unit - time unit
+     * @return counter value
+     */
+    Future<Long> sumAsync(long timeout, TimeUnit unit);
+
+}
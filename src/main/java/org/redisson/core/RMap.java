@@ -119,6 +119,16 @@ public interface RMap<K, V> extends ConcurrentMap<K, V>, RExpirable, RMapAsync<K
      */
     Iterator<Map.Entry<K, V>> entryIterator();
 
+    /**
+     * Map entry-iterator with small memory footprint.
+     * Next page of <code>count</code> elements is loaded
+     * in background while current one is iterated.
+     *
+     * @param count - page size hint used in <code>HSCAN</code>
+     * @return
+     */
+    Iterator<Map.Entry<K, V>> entryIterator(int count);
+
     /**
      * Map key-iterator with small memory footprint
      *
@@ -126,6 +136,16 @@ public interface RMap<K, V> extends ConcurrentMap<K, V>, RExpirable, RMapAsync<K
      */
     Iterator<K> keyIterator();
 
+    /**
+     * Map key-iterator with small memory footprint.
+     * Next page of <code>count</code> elements is loaded
+     * in background while current one is iterated.
+     *
+     * @param count - page size hint used in <code>HSCAN</code>
+     * @return
+     */
+    Iterator<K> keyIterator(int count);
+
     /**
      * Map value-iterator with small memory footprint
      *
@@ -133,4 +153,14 @@ public interface RMap<K, V> extends ConcurrentMap<K, V>, RExpirable, RMapAsync<K
      */
     Iterator<V> valueIterator();
 
+    /**
+     * Map value-iterator with small memory footprint.
+     * Next page of <code>count</code> elements is loaded
+     * in background while current one is iterated.
+     *
+     * @param count - page size hint used in <code>HSCAN</code>
+     * @return
+     */
+    Iterator<V> valueIterator(int count);
+
 }
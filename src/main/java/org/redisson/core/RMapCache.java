@@ -15,6 +15,7 @@
  */
 package org.redisson.core;
 
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -25,9 +26,9 @@ import java.util.concurrent.TimeUnit;
  * <p>Current redis implementation doesnt have map entry eviction functionality.
  * Thus entries are checked for TTL expiration during any key/value/entry read operation.
  * If key/value/entry expired then it doesn't returns and clean task runs asynchronous.
- * Clean task deletes removes 100 expired entries at once.
+ * Clean task removes expired entries in batches of adaptive size.
  * In addition there is {@link org.redisson.EvictionScheduler}. This scheduler
- * deletes expired entries in time interval between 5 seconds to 2 hours.</p>
+ * deletes expired entries in time interval between 1 second to 2 hours.</p>
  *
  * <p>If eviction is not required then it's better to use {@link org.redisson.reactive.RedissonMapReactive}.</p>
  *
@@ -42,6 +43,18 @@ public interface RMapCache<K, V> extends RMap<K, V>, RMapCacheAsync<K, V> {
 
     V put(K key, V value, long ttl, TimeUnit unit);
 
+    /**
+     * Associates all entries of <code>map</code> with the same TTL.
+     * Large maps are split into chunks of bounded size
+     * which are stored by separate pipelined scripts,
+     * so this operation isn't atomic.
+     *
+     * @param map mappings to be stored
+     * @param ttl time to live for each entry
+     * @param unit time unit of <code>ttl</code>
+     */
+    void putAll(Map<? extends K, ? extends V> map, long ttl, TimeUnit unit);
+
     /**
      * Returns the number of entries in cache.
      * This number can reflects expired entries too
@@ -51,4 +64,12 @@ public interface RMapCache<K, V> extends RMap<K, V>, RMapCacheAsync<K, V> {
     @Override
     int size();
 
+    /**
+     * Returns statistics of expired entries eviction
+     * performed by this Redisson instance.
+     *
+     * @return eviction statistics
+     */
+    EvictionStats getEvictionStats();
+
 }
@@ -15,6 +15,7 @@
  */
 package org.redisson.core;
 
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import io.netty.util.concurrent.Future;
@@ -27,9 +28,9 @@ import io.netty.util.concurrent.Future;
  * <p>Current redis implementation doesnt have eviction functionality.
  * Thus entries are checked for TTL expiration during any key/value/entry read operation.
  * If key/value/entry expired then it doesn't returns and clean task runs asynchronous.
- * Clean task deletes removes 100 expired entries at once.
+ * Clean task removes expired entries in batches of adaptive size.
  * In addition there is {@link org.redisson.EvictionScheduler}. This scheduler
- * deletes expired entries in time interval between 5 seconds to 2 hours.</p>
+ * deletes expired entries in time interval between 1 second to 2 hours.</p>
  *
  * <p>If eviction is not required then it's better to use {@link org.redisson.reactive.RedissonMapReactive}.</p>
  *
@@ -44,6 +45,19 @@ public interface RMapCacheAsync<K, V> extends RMapAsync<K, V> {
 
     Future<V> putAsync(K key, V value, long ttl, TimeUnit unit);
 
+    /**
+     * Associates all entries of <code>map</code> with the same TTL.
+     * Large maps are split into chunks of bounded size
+     * which are stored by separate pipelined scripts,
+     * so this operation isn't atomic.
+     *
+     * @param map mappings to be stored
+     * @param ttl time to live for each entry
+     * @param unit time unit of <code>ttl</code>
+     * @return void
+     */
+    Future<Void> putAllAsync(Map<? extends K, ? extends V> map, long ttl, TimeUnit unit);
+
     /**
      * Returns the number of entries in cache.
      * This number can reflects expired entries too
@@ -15,6 +15,7 @@
  */
 package org.redisson.core;
 
+import java.util.Iterator;
 import java.util.Set;
 
 /**
@@ -33,4 +34,14 @@ public interface RSet<V> extends Set<V>, RExpirable, RSetAsync<V> {
      */
     V removeRandom();
 
+    /**
+     * Returns iterator over elements with small memory footprint.
+     * Next page of <code>count</code> elements is loaded
+     * in background while current one is iterated.
+     *
+     * @param count - page size hint used in <code>SSCAN</code>
+     * @return
+     */
+    Iterator<V> iterator(int count);
+
 }
@@ -15,6 +15,7 @@
  */
 package org.redisson.core;
 
+import java.util.Iterator;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -28,9 +29,9 @@ import java.util.concurrent.TimeUnit;
  * <p>Current Redis implementation doesn't have set entry eviction functionality.
  * Thus values are checked for TTL expiration during any value read operation.
  * If entry expired then it doesn't returns and clean task runs asynchronous.
- * Clean task deletes removes 100 expired entries at once.
+ * Clean task removes expired entries in batches of adaptive size.
  * In addition there is {@link org.redisson.EvictionScheduler}. This scheduler
- * deletes expired entries in time interval between 5 seconds to 2 hours.</p>
+ * deletes expired entries in time interval between 1 second to 2 hours.</p>
  *
  * <p>If eviction is not required then it's better to use {@link org.redisson.reactive.RedissonSet}.</p>
  *
@@ -43,6 +44,16 @@ public interface RSetCache<V> extends Set<V>, RExpirable, RSetCacheAsync<V> {
 
     boolean add(V value, long ttl, TimeUnit unit);
 
+    /**
+     * Returns iterator over elements with small memory footprint.
+     * Next page of <code>count</code> elements is loaded
+     * in background while current one is iterated.
+     *
+     * @param count - page size hint used in <code>HSCAN</code>
+     * @return
+     */
+    Iterator<V> iterator(int count);
+
     /**
      * Returns the number of elements in cache.
      * This number can reflects expired elements too
@@ -52,4 +63,12 @@ public interface RSetCache<V> extends Set<V>, RExpirable, RSetCacheAsync<V> {
     @Override
     int size();
 
+    /**
+     * Returns statistics of expired entries eviction
+     * performed by this Redisson instance.
+     *
+     * @return eviction statistics
+     */
+    EvictionStats getEvictionStats();
+
 }
@@ -27,7 +27,10 @@ public interface RSortedSet<V> extends SortedSet<V>, RObject {
     Future<Boolean> removeAsync(V value);
     
     /**
-     * Sets new comparator only if current set is empty
+     * Sets new comparator only if current set is empty.
+     * {@link NumericComparator} and {@link LexicographicComparator}
+     * are evaluated on Redis side, so element search and insertion
+     * are performed atomically by single Lua script call.
      *
      * @param comparator
      * @return <code>true</code> if new comparator setted
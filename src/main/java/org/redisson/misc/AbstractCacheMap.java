@@ -0,0 +1,220 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.misc;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Base implementation of bounded in-memory cache
+ * with optional time to live and max idle time per entry.
+ * Eviction order is defined by subclasses.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <K> key
+ * @param <V> value
+ */
+public abstract class AbstractCacheMap<K, V> {
+
+    public static class CachedValue<K, V> {
+
+        private final K key;
+        private final V value;
+        private final long createdTime;
+        private volatile long lastAccessTime;
+
+        CachedValue(K key, V value, long currentTime) {
+            this.key = key;
+            this.value = value;
+            this.createdTime = currentTime;
+            this.lastAccessTime = currentTime;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        boolean isExpired(long currentTime, long timeToLiveInMillis, long maxIdleInMillis) {
+            if (timeToLiveInMillis > 0 && createdTime + timeToLiveInMillis <= currentTime) {
+                return true;
+            }
+            if (maxIdleInMillis > 0 && lastAccessTime + maxIdleInMillis <= currentTime) {
+                return true;
+            }
+            return false;
+        }
+
+    }
+
+    private final int size;
+    private final long timeToLiveInMillis;
+    private final long maxIdleInMillis;
+    private final long purgeIntervalInMillis;
+    private long nextPurgeTime;
+    private long evictions;
+
+    /**
+     * @param size - max entries amount, <code>0</code> means unbounded
+     * @param timeToLiveInMillis - entry time to live, <code>0</code> means unlimited
+     * @param maxIdleInMillis - entry max idle time, <code>0</code> means unlimited
+     */
+    public AbstractCacheMap(int size, long timeToLiveInMillis, long maxIdleInMillis) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size can't be negative");
+        }
+        this.size = size;
+        this.timeToLiveInMillis = timeToLiveInMillis;
+        this.maxIdleInMillis = maxIdleInMillis;
+        if (timeToLiveInMillis > 0 && maxIdleInMillis > 0) {
+            this.purgeIntervalInMillis = Math.min(timeToLiveInMillis, maxIdleInMillis);
+        } else {
+            this.purgeIntervalInMillis = Math.max(timeToLiveInMillis, maxIdleInMillis);
+        }
+    }
+
+    protected abstract Map<K, CachedValue<K, V>> getMap();
+
+    protected void onValueCreate(CachedValue<K, V> value) {
+    }
+
+    protected void onValueRead(CachedValue<K, V> value) {
+    }
+
+    protected void onValueRemove(CachedValue<K, V> value) {
+    }
+
+    /**
+     * Removes an entry from map according to eviction policy
+     *
+     * @return removed entry or <code>null</code> if nothing to evict
+     */
+    protected abstract CachedValue<K, V> evict();
+
+    public synchronized V get(K key) {
+        long currentTime = System.currentTimeMillis();
+        purgeExpired(currentTime);
+
+        CachedValue<K, V> entry = getMap().get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.isExpired(currentTime, timeToLiveInMillis, maxIdleInMillis)) {
+            getMap().remove(key);
+            onValueRemove(entry);
+            evictions++;
+            return null;
+        }
+
+        entry.lastAccessTime = currentTime;
+        onValueRead(entry);
+        return entry.getValue();
+    }
+
+    public synchronized V put(K key, V value) {
+        long currentTime = System.currentTimeMillis();
+        purgeExpired(currentTime);
+
+        CachedValue<K, V> prevEntry = getMap().remove(key);
+        if (prevEntry != null) {
+            onValueRemove(prevEntry);
+        }
+
+        // evict before insertion so new entry isn't chosen as eviction candidate
+        if (size > 0) {
+            while (getMap().size() >= size) {
+                if (evict() == null) {
+                    break;
+                }
+                evictions++;
+            }
+        }
+
+        CachedValue<K, V> entry = new CachedValue<K, V>(key, value, currentTime);
+        getMap().put(key, entry);
+        onValueCreate(entry);
+
+        if (prevEntry != null) {
+            return prevEntry.getValue();
+        }
+        return null;
+    }
+
+    /**
+     * Removes expired entries which are never read again,
+     * otherwise they would be kept by cache without size limit forever.
+     * Invoked on cache access at most once per time to live or max idle interval.
+     */
+    private void purgeExpired(long currentTime) {
+        if (purgeIntervalInMillis == 0 || currentTime < nextPurgeTime) {
+            return;
+        }
+        nextPurgeTime = currentTime + purgeIntervalInMillis;
+
+        for (Iterator<CachedValue<K, V>> iterator = getMap().values().iterator(); iterator.hasNext();) {
+            CachedValue<K, V> entry = iterator.next();
+            if (entry.isExpired(currentTime, timeToLiveInMillis, maxIdleInMillis)) {
+                iterator.remove();
+                onValueRemove(entry);
+                evictions++;
+            }
+        }
+    }
+
+    public synchronized V remove(K key) {
+        CachedValue<K, V> entry = getMap().remove(key);
+        if (entry == null) {
+            return null;
+        }
+        onValueRemove(entry);
+        return entry.getValue();
+    }
+
+    /**
+     * Removes all entries
+     *
+     * @return amount of removed entries
+     */
+    public synchronized int clear() {
+        int removed = getMap().size();
+        getMap().clear();
+        onClear();
+        return removed;
+    }
+
+    protected void onClear() {
+    }
+
+    public synchronized int size() {
+        purgeExpired(System.currentTimeMillis());
+        return getMap().size();
+    }
+
+    /**
+     * Returns amount of entries removed due to size limit or expiration
+     *
+     * @return evictions amount
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+}
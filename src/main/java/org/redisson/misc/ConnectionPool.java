@@ -124,17 +124,42 @@ public class ConnectionPool<T extends RedisConnection> {
             }
         }
 
+        // all pools are exhausted, so wait on entry with the shortest wait queue
+        ClientConnectionsEntry waitEntry = null;
+        for (ClientConnectionsEntry entry : entries) {
+            if (entry.isFreezed() || entry.getFailedAttempts() >= config.getFailedAttempts()) {
+                continue;
+            }
+            if (waitEntry == null || entry.getConnectionWaitersAmount() < waitEntry.getConnectionWaitersAmount()) {
+                waitEntry = entry;
+            }
+        }
+        if (waitEntry != null) {
+            Future<T> future = acquireConnection(waitEntry);
+            if (future != null) {
+                return future;
+            }
+        }
+
         RedisConnectionException exception = new RedisConnectionException(
                 "Can't aquire connection from pool! " + entries);
         return connectionManager.newFailedFuture(exception);
     }
 
     public Future<T> get(ClientConnectionsEntry entry) {
-        if (((entry.getNodeType() == NodeType.MASTER && entry.getFreezeReason() == FreezeReason.SYSTEM) || !entry.isFreezed())
-                && tryAcquireConnection(entry)) {
-            Promise<T> promise = connectionManager.newPromise();
-            connect(entry, promise);
-            return promise;
+        if ((entry.getNodeType() == NodeType.MASTER && entry.getFreezeReason() == FreezeReason.SYSTEM) || !entry.isFreezed()) {
+            if (tryAcquireConnection(entry)) {
+                Promise<T> promise = connectionManager.newPromise();
+                connect(entry, promise);
+                return promise;
+            }
+
+            if (entry.getFailedAttempts() < config.getFailedAttempts()) {
+                Future<T> future = acquireConnection(entry);
+                if (future != null) {
+                    return future;
+                }
+            }
         }
 
         RedisConnectionException exception = new RedisConnectionException(
@@ -142,6 +167,63 @@ public class ConnectionPool<T extends RedisConnection> {
         return connectionManager.newFailedFuture(exception);
     }
 
+    protected int getConnectionWaitQueueSize() {
+        return config.getConnectionWaitQueueSize();
+    }
+
+    /**
+     * Puts connection request to entry wait queue.
+     *
+     * @return connection future or <code>null</code> if wait queue is full
+     */
+    private Future<T> acquireConnection(final ClientConnectionsEntry entry) {
+        if (getConnectionWaitQueueSize() == 0) {
+            return null;
+        }
+
+        final Promise<T> promise = connectionManager.newPromise();
+        final Runnable waiter = new Runnable() {
+            @Override
+            public void run() {
+                if (promise.isDone()) {
+                    releaseConnection(entry);
+                    return;
+                }
+                connect(entry, promise);
+            }
+        };
+
+        if (!entry.acquireConnection(waiter, getConnectionWaitQueueSize())) {
+            return null;
+        }
+        if (promise.isDone()) {
+            return promise;
+        }
+
+        final int acquireTimeout = config.getConnectionAcquireTimeout();
+        final Timeout timeout = connectionManager.newTimeout(new TimerTask() {
+            @Override
+            public void run(Timeout timeout) throws Exception {
+                if (entry.removeConnectionWaiter(waiter)) {
+                    entry.connectionWaiterTimedOut();
+                    promise.tryFailure(new RedisConnectionException(
+                            "Can't aquire connection to " + entry.getClient().getAddr() + " during " + acquireTimeout + " ms. " + entry));
+                }
+            }
+        }, acquireTimeout, TimeUnit.MILLISECONDS);
+
+        promise.addListener(new FutureListener<T>() {
+            @Override
+            public void operationComplete(Future<T> future) throws Exception {
+                timeout.cancel();
+                if (future.isCancelled()) {
+                    entry.removeConnectionWaiter(waiter);
+                }
+            }
+        });
+        return promise;
+    }
+
     protected boolean tryAcquireConnection(ClientConnectionsEntry entry) {
         return entry.getFailedAttempts() < config.getFailedAttempts() && entry.tryAcquireConnection();
     }
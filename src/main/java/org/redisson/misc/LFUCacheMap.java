@@ -0,0 +1,105 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.misc;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Cache evicting least frequently used entries first.
+ * Entries with equal access frequency are evicted in insertion order.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <K> key
+ * @param <V> value
+ */
+public class LFUCacheMap<K, V> extends AbstractCacheMap<K, V> {
+
+    private final Map<K, CachedValue<K, V>> map = new HashMap<K, CachedValue<K, V>>();
+    private final Map<K, Long> frequencies = new HashMap<K, Long>();
+    private final TreeMap<Long, Set<K>> frequencyBuckets = new TreeMap<Long, Set<K>>();
+
+    public LFUCacheMap(int size, long timeToLiveInMillis, long maxIdleInMillis) {
+        super(size, timeToLiveInMillis, maxIdleInMillis);
+    }
+
+    @Override
+    protected Map<K, CachedValue<K, V>> getMap() {
+        return map;
+    }
+
+    @Override
+    protected void onValueCreate(CachedValue<K, V> value) {
+        addToBucket(value.getKey(), 0L);
+    }
+
+    @Override
+    protected void onValueRead(CachedValue<K, V> value) {
+        Long frequency = removeFromBucket(value.getKey());
+        addToBucket(value.getKey(), frequency + 1);
+    }
+
+    @Override
+    protected void onValueRemove(CachedValue<K, V> value) {
+        removeFromBucket(value.getKey());
+    }
+
+    @Override
+    protected void onClear() {
+        frequencies.clear();
+        frequencyBuckets.clear();
+    }
+
+    @Override
+    protected CachedValue<K, V> evict() {
+        if (frequencyBuckets.isEmpty()) {
+            return null;
+        }
+        Iterator<K> iterator = frequencyBuckets.firstEntry().getValue().iterator();
+        K key = iterator.next();
+        removeFromBucket(key);
+        return map.remove(key);
+    }
+
+    private void addToBucket(K key, Long frequency) {
+        frequencies.put(key, frequency);
+        Set<K> bucket = frequencyBuckets.get(frequency);
+        if (bucket == null) {
+            bucket = new LinkedHashSet<K>();
+            frequencyBuckets.put(frequency, bucket);
+        }
+        bucket.add(key);
+    }
+
+    private Long removeFromBucket(K key) {
+        Long frequency = frequencies.remove(key);
+        if (frequency == null) {
+            return null;
+        }
+        Set<K> bucket = frequencyBuckets.get(frequency);
+        bucket.remove(key);
+        if (bucket.isEmpty()) {
+            frequencyBuckets.remove(frequency);
+        }
+        return frequency;
+    }
+
+}
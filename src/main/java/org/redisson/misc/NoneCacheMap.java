@@ -0,0 +1,48 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.misc;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cache without size-based eviction.
+ * Entries are removed only by time to live or max idle time.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <K> key
+ * @param <V> value
+ */
+public class NoneCacheMap<K, V> extends AbstractCacheMap<K, V> {
+
+    private final Map<K, CachedValue<K, V>> map = new HashMap<K, CachedValue<K, V>>();
+
+    public NoneCacheMap(long timeToLiveInMillis, long maxIdleInMillis) {
+        super(0, timeToLiveInMillis, maxIdleInMillis);
+    }
+
+    @Override
+    protected Map<K, CachedValue<K, V>> getMap() {
+        return map;
+    }
+
+    @Override
+    protected CachedValue<K, V> evict() {
+        return null;
+    }
+
+}
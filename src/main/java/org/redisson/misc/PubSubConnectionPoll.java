@@ -44,6 +44,12 @@ public class PubSubConnectionPoll extends ConnectionPool<RedisPubSubConnection>
         return entry.connectPubSub(config);
     }
 
+    @Override
+    protected int getConnectionWaitQueueSize() {
+        // wait queue serves only regular connections
+        return 0;
+    }
+
     @Override
     protected boolean tryAcquireConnection(ClientConnectionsEntry entry) {
         return entry.tryAcquireSubscribeConnection();
@@ -30,6 +30,11 @@ public class LockPubSub extends PublishSubscribe<RedissonLockEntry> {
     @Override
     protected void onMessage(RedissonLockEntry value, Long message) {
         if (message.equals(RedissonLock.unlockMessage)) {
+            Runnable listener = value.getListeners().poll();
+            if (listener != null) {
+                listener.run();
+            }
+
             value.getLatch().release();
         }
     }
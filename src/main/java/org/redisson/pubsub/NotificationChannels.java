@@ -0,0 +1,214 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.pubsub;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.redisson.client.BaseRedisPubSubListener;
+import org.redisson.client.RedisPubSubListener;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.pubsub.PubSubType;
+import org.redisson.connection.ConnectionManager;
+import org.redisson.connection.PubSubConnectionEntry;
+
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Delivers notifications of locks, semaphores and count down latches.
+ * <p>
+ * By default each object uses own channel. If <code>size</code> is greater than zero
+ * all objects share <code>size</code> channels chosen by hash of object channel name.
+ * Message published to shared channel is prefixed with object channel name
+ * and dispatched to object listeners on client side.
+ * Shared channels are subscribed on first use and stay subscribed until shutdown.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class NotificationChannels {
+
+    public static final String CHANNEL_PREFIX = "redisson__notification__channel__";
+
+    private final ConcurrentMap<String, Queue<RedisPubSubListener<Long>>> listeners = PlatformDependent.newConcurrentHashMap();
+
+    private final ConnectionManager connectionManager;
+    private final int size;
+    private final AtomicReferenceArray<Promise<Void>> channels;
+
+    public NotificationChannels(ConnectionManager connectionManager, int size) {
+        this.connectionManager = connectionManager;
+        this.size = size;
+        this.channels = new AtomicReferenceArray<Promise<Void>>(size);
+    }
+
+    /**
+     * Channel used to publish notifications of object
+     *
+     * @param channelName - object channel name
+     * @return channel name
+     */
+    public String getChannelName(String channelName) {
+        if (size == 0) {
+            return channelName;
+        }
+        return CHANNEL_PREFIX + index(channelName);
+    }
+
+    /**
+     * Notification message payload
+     *
+     * @param channelName - object channel name
+     * @param message
+     * @return payload
+     */
+    public Object getMessage(String channelName, Long message) {
+        if (size == 0) {
+            return message;
+        }
+        return channelName + ":" + message;
+    }
+
+    public void subscribe(final String channelName, final RedisPubSubListener<Long> listener) {
+        if (size == 0) {
+            connectionManager.subscribe(LongCodec.INSTANCE, channelName, listener);
+            return;
+        }
+
+        addListener(channelName, listener);
+
+        Future<Void> future = subscribe(index(channelName));
+        future.addListener(new FutureListener<Void>() {
+            @Override
+            public void operationComplete(Future<Void> future) throws Exception {
+                if (future.isSuccess()) {
+                    listener.onStatus(PubSubType.SUBSCRIBE, channelName);
+                }
+            }
+        });
+    }
+
+    public void unsubscribe(String channelName, RedisPubSubListener<Long> listener) {
+        if (size == 0) {
+            connectionManager.unsubscribe(channelName);
+            return;
+        }
+
+        Queue<RedisPubSubListener<Long>> channelListeners = listeners.get(channelName);
+        if (channelListeners == null) {
+            return;
+        }
+
+        synchronized (channelListeners) {
+            if (channelListeners.remove(listener) && channelListeners.isEmpty()) {
+                listeners.remove(channelName);
+            }
+        }
+    }
+
+    private void addListener(String channelName, RedisPubSubListener<Long> listener) {
+        Queue<RedisPubSubListener<Long>> channelListeners = listeners.get(channelName);
+        if (channelListeners == null) {
+            channelListeners = new ConcurrentLinkedQueue<RedisPubSubListener<Long>>();
+            Queue<RedisPubSubListener<Long>> oldListeners = listeners.putIfAbsent(channelName, channelListeners);
+            if (oldListeners != null) {
+                channelListeners = oldListeners;
+            }
+        }
+
+        synchronized (channelListeners) {
+            // queue has been removed by unsubscribe
+            if (listeners.get(channelName) != channelListeners) {
+                addListener(channelName, listener);
+                return;
+            }
+            channelListeners.add(listener);
+        }
+    }
+
+    private int index(String channelName) {
+        return (channelName.hashCode() & Integer.MAX_VALUE) % size;
+    }
+
+    private Future<Void> subscribe(final int index) {
+        Promise<Void> promise = channels.get(index);
+        if (promise != null) {
+            return promise;
+        }
+
+        final Promise<Void> newPromise = connectionManager.newPromise();
+        if (!channels.compareAndSet(index, null, newPromise)) {
+            return channels.get(index);
+        }
+
+        final String name = CHANNEL_PREFIX + index;
+        RedisPubSubListener<String> listener = new BaseRedisPubSubListener<String>() {
+
+            @Override
+            public void onMessage(String channel, String message) {
+                if (!name.equals(channel)) {
+                    return;
+                }
+
+                int pos = message.lastIndexOf(':');
+                String channelName = message.substring(0, pos);
+                Long value = Long.valueOf(message.substring(pos + 1));
+                Queue<RedisPubSubListener<Long>> channelListeners = listeners.get(channelName);
+                if (channelListeners == null) {
+                    return;
+                }
+
+                for (RedisPubSubListener<Long> listener : channelListeners) {
+                    listener.onMessage(channelName, value);
+                }
+            }
+
+            @Override
+            public boolean onStatus(PubSubType type, String channel) {
+                if (!name.equals(channel)) {
+                    return false;
+                }
+
+                if (type == PubSubType.SUBSCRIBE) {
+                    newPromise.trySuccess(null);
+                    return true;
+                }
+                return false;
+            }
+
+        };
+
+        Future<PubSubConnectionEntry> future = connectionManager.subscribe(StringCodec.INSTANCE, name, listener);
+        future.addListener(new FutureListener<PubSubConnectionEntry>() {
+            @Override
+            public void operationComplete(Future<PubSubConnectionEntry> future) throws Exception {
+                if (!future.isSuccess()) {
+                    // next subscription attempt will retry
+                    channels.compareAndSet(index, newPromise, null);
+                    newPromise.tryFailure(future.cause());
+                }
+            }
+        });
+        return newPromise;
+    }
+
+}
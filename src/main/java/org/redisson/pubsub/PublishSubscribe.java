@@ -20,7 +20,6 @@ import java.util.concurrent.ConcurrentMap;
 import org.redisson.PubSubEntry;
 import org.redisson.client.BaseRedisPubSubListener;
 import org.redisson.client.RedisPubSubListener;
-import org.redisson.client.codec.LongCodec;
 import org.redisson.client.protocol.pubsub.PubSubType;
 import org.redisson.connection.ConnectionManager;
 
@@ -31,16 +30,25 @@ import io.netty.util.internal.PlatformDependent;
 abstract class PublishSubscribe<E extends PubSubEntry<E>> {
 
     private final ConcurrentMap<String, E> entries = PlatformDependent.newConcurrentHashMap();
+    private final ConcurrentMap<E, RedisPubSubListener<Long>> listeners = PlatformDependent.newConcurrentHashMap();
+
+    // subscription and unsubscription of the same channel shouldn't interleave,
+    // otherwise subscriber could reuse connection entry which is being unsubscribed
+    private final Object[] locks = new Object[64];
+
+    PublishSubscribe() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    private Object getLock(String channelName) {
+        return locks[(channelName.hashCode() & Integer.MAX_VALUE) % locks.length];
+    }
 
     public void unsubscribe(E entry, String entryName, String channelName, ConnectionManager connectionManager) {
-        synchronized (this) {
-            if (entry.release() == 0) {
-                // just an assertion
-                boolean removed = entries.remove(entryName) == entry;
-                if (removed) {
-                    connectionManager.unsubscribe(channelName);
-                }
-            }
+        if (entry.release() == 0) {
+            remove(entry, entryName, channelName, connectionManager);
         }
     }
 
@@ -49,26 +57,40 @@ abstract class PublishSubscribe<E extends PubSubEntry<E>> {
     }
 
     public Future<E> subscribe(String entryName, String channelName, ConnectionManager connectionManager) {
-        synchronized (this) {
+        while (true) {
             E entry = entries.get(entryName);
             if (entry != null) {
-                entry.aquire();
-                return entry.getPromise();
+                if (entry.aquire()) {
+                    return entry.getPromise();
+                }
+
+                // released entry can't be reused
+                remove(entry, entryName, channelName, connectionManager);
+                continue;
             }
 
-            Promise<E> newPromise = connectionManager.newPromise();
-            E value = createEntry(newPromise);
-            value.aquire();
+            synchronized (getLock(channelName)) {
+                Promise<E> newPromise = connectionManager.newPromise();
+                E value = createEntry(newPromise);
+                if (entries.putIfAbsent(entryName, value) != null) {
+                    continue;
+                }
 
-            E oldValue = entries.putIfAbsent(entryName, value);
-            if (oldValue != null) {
-                oldValue.aquire();
-                return oldValue.getPromise();
+                RedisPubSubListener<Long> listener = createListener(channelName, value);
+                listeners.put(value, listener);
+                connectionManager.getNotificationChannels().subscribe(channelName, listener);
+                return newPromise;
             }
+        }
+    }
 
-            RedisPubSubListener<Long> listener = createListener(channelName, value);
-            connectionManager.subscribe(LongCodec.INSTANCE, channelName, listener);
-            return newPromise;
+    private void remove(E entry, String entryName, String channelName, ConnectionManager connectionManager) {
+        synchronized (getLock(channelName)) {
+            // only one of unsubscriber and subscriber removes released entry
+            if (entries.remove(entryName, entry)) {
+                RedisPubSubListener<Long> listener = listeners.remove(entry);
+                connectionManager.getNotificationChannels().unsubscribe(channelName, listener);
+            }
         }
     }
 
@@ -18,13 +18,13 @@ package org.redisson.reactive;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
+import org.redisson.RedissonKeys;
 import org.redisson.SlotCallback;
 import org.redisson.api.RKeysReactive;
 import org.redisson.client.codec.StringCodec;
@@ -41,8 +41,11 @@ public class RedissonKeysReactive implements RKeysReactive {
 
     private final CommandReactiveService commandExecutor;
 
+    private final RedissonKeys instance;
+
     public RedissonKeysReactive(CommandReactiveService commandExecutor) {
         super();
+        instance = new RedissonKeys(commandExecutor);
         this.commandExecutor = commandExecutor;
     }
 
@@ -153,7 +156,7 @@ public class RedissonKeysReactive implements RKeysReactive {
 
     @Override
     public Publisher<Collection<String>> findKeysByPattern(String pattern) {
-        return commandExecutor.readAllReactive(RedisCommands.KEYS, pattern);
+        return new NettyFuturePublisher<Collection<String>>(instance.findKeysByPatternAsync(pattern));
     }
 
     @Override
@@ -163,23 +166,7 @@ public class RedissonKeysReactive implements RKeysReactive {
 
     @Override
     public Publisher<Long> deleteByPattern(String pattern) {
-        return commandExecutor.evalWriteAllReactive(RedisCommands.EVAL_LONG, new SlotCallback<Long, Long>() {
-            AtomicLong results = new AtomicLong();
-            @Override
-            public void onSlotResult(Long result) {
-                results.addAndGet(result);
-            }
-
-            @Override
-            public Long onFinish() {
-                return results.get();
-            }
-        }, "local keys = redis.call('keys', ARGV[1]) "
-                + "local n = 0 "
-                + "for i=1, table.getn(keys),5000 do "
-                    + "n = n + redis.call('del', unpack(keys, i, math.min(i+4999, table.getn(keys)))) "
-                + "end "
-            + "return n;",Collections.emptyList(), pattern);
+        return new NettyFuturePublisher<Long>(instance.deleteByPatternAsync(pattern));
     }
 
     @Override
@@ -66,7 +66,8 @@ public class RedissonPatternTopicReactive<M> implements RPatternTopicReactive<M>
     @Override
     public Publisher<Integer> addListener(PatternMessageListener<M> listener) {
         Promise<Integer> promise = commandExecutor.getConnectionManager().newPromise();
-        PubSubPatternMessageListener<M> pubSubListener = new PubSubPatternMessageListener<M>(listener, name);
+        PubSubPatternMessageListener<M> pubSubListener = new PubSubPatternMessageListener<M>(listener, name,
+                commandExecutor.getConnectionManager().getListenerExecutor());
         addListener(pubSubListener, promise);
         return new NettyFuturePublisher<Integer>(promise);
     }
@@ -84,7 +84,7 @@ public class RedissonScriptReactive implements RScriptReactive {
     }
 
     public <R> Publisher<R> evalSha(String key, RScript.Mode mode, Codec codec, String shaDigest, RScript.ReturnType returnType, List<Object> keys, Object... values) {
-        RedisCommand command = new RedisCommand(returnType.getCommand(), "EVALSHA");
+        RedisCommand command = returnType.getCommand().getEvalShaCommand();
         if (mode == RScript.Mode.READ_ONLY) {
             return commandExecutor.evalReadReactive(key, codec, command, shaDigest, keys, values);
         }
@@ -74,7 +74,8 @@ public class RedissonTopicReactive<M> implements RTopicReactive<M> {
 
     @Override
     public Publisher<Integer> addListener(MessageListener<M> listener) {
-        PubSubMessageListener<M> pubSubListener = new PubSubMessageListener<M>(listener, name);
+        PubSubMessageListener<M> pubSubListener = new PubSubMessageListener<M>(listener, name,
+                commandExecutor.getConnectionManager().getListenerExecutor());
         return addListener(pubSubListener);
     }
 
@@ -0,0 +1,516 @@
+package org.redisson;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.redisson.client.RedisClient;
+import org.redisson.client.RedisConnection;
+import org.redisson.client.RedisConnectionException;
+import org.redisson.client.RedisTimeoutException;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.handler.CommandDecoder;
+import org.redisson.client.handler.CommandEncoder;
+import org.redisson.client.handler.CommandsListEncoder;
+import org.redisson.client.handler.CommandsQueue;
+import org.redisson.client.protocol.RedisCommand;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.command.CommandAsyncService;
+import org.redisson.connection.ClientConnectionsEntry.NodeType;
+import org.redisson.connection.ConnectionManager;
+import org.redisson.connection.DefaultConnectionListener;
+import org.redisson.connection.ScriptCache;
+import org.redisson.connection.ScriptLoadConnectionListener;
+import org.redisson.misc.InfinitySemaphoreLatch;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.CharsetUtil;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import io.netty.util.concurrent.Promise;
+
+/**
+ * Checks transitions of command attempts without Redis server.
+ * Retry tasks are run manually and connections are represented by embedded channels.
+ */
+public class CommandAsyncServiceTest {
+
+    static class ManualTimeout implements Timeout {
+
+        final TimerTask task;
+        boolean expired;
+        boolean cancelled;
+
+        ManualTimeout(TimerTask task) {
+            this.task = task;
+        }
+
+        @Override
+        public Timer timer() {
+            return null;
+        }
+
+        @Override
+        public TimerTask task() {
+            return task;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return expired;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (expired || cancelled) {
+                return false;
+            }
+            cancelled = true;
+            return true;
+        }
+
+    }
+
+    private NioEventLoopGroup group;
+    private MasterSlaveServersConfig config;
+    private CommandAsyncService service;
+
+    private final List<ManualTimeout> timeouts = new ArrayList<ManualTimeout>();
+    private final Queue<Future<RedisConnection>> connections = new LinkedList<Future<RedisConnection>>();
+    private final List<EmbeddedChannel> channels = new ArrayList<EmbeddedChannel>();
+    private int connectionRequests;
+    private int releasedConnections;
+    private ScriptCache scriptCache;
+
+    @Before
+    public void before() {
+        group = new NioEventLoopGroup(1);
+        config = new MasterSlaveServersConfig();
+        final InfinitySemaphoreLatch shutdownLatch = new InfinitySemaphoreLatch();
+        ConnectionManager connectionManager = (ConnectionManager) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {ConnectionManager.class}, new InvocationHandler() {
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                if (name.equals("newPromise")) {
+                    return ImmediateEventExecutor.INSTANCE.newPromise();
+                }
+                if (name.equals("getConfig")) {
+                    return config;
+                }
+                if (name.equals("getShutdownLatch")) {
+                    return shutdownLatch;
+                }
+                if (name.equals("getCommandMetrics")) {
+                    return null;
+                }
+                if (name.equals("calcSlot")) {
+                    return 1;
+                }
+                if (name.equals("getScriptCache")) {
+                    return scriptCache;
+                }
+                if (name.equals("newTimeout")) {
+                    ManualTimeout timeout = new ManualTimeout((TimerTask) args[0]);
+                    timeouts.add(timeout);
+                    return timeout;
+                }
+                if (name.equals("connectionWriteOp")) {
+                    connectionRequests++;
+                    return connections.poll();
+                }
+                if (name.equals("releaseWrite")) {
+                    releasedConnections++;
+                    return null;
+                }
+                throw new UnsupportedOperationException(name);
+            }
+        });
+        service = new CommandAsyncService(connectionManager);
+    }
+
+    @After
+    public void after() {
+        for (EmbeddedChannel channel : channels) {
+            channel.finish();
+        }
+        group.shutdownGracefully().syncUninterruptibly();
+    }
+
+    private EmbeddedChannel addConnection() {
+        EmbeddedChannel channel = new EmbeddedChannel(new CommandEncoder(), new CommandsListEncoder(),
+                                                        new CommandsQueue(), new CommandDecoder());
+        channels.add(channel);
+        addConnection(channel);
+        return channel;
+    }
+
+    private RedisConnection addConnection(EmbeddedChannel channel) {
+        // connection isn't established by client until requested
+        RedisClient client = new RedisClient(group, NioSocketChannel.class, "127.0.0.1", 6379, 1000);
+        RedisConnection connection = new RedisConnection(client, channel);
+        connections.add(ImmediateEventExecutor.INSTANCE.newSucceededFuture(connection));
+        return connection;
+    }
+
+    private Promise<RedisConnection> addPendingConnection() {
+        Promise<RedisConnection> promise = ImmediateEventExecutor.INSTANCE.newPromise();
+        connections.add(promise);
+        return promise;
+    }
+
+    private List<ManualTimeout> pendingTimeouts() {
+        List<ManualTimeout> result = new ArrayList<ManualTimeout>();
+        for (ManualTimeout timeout : timeouts) {
+            if (!timeout.expired && !timeout.cancelled) {
+                result.add(timeout);
+            }
+        }
+        return result;
+    }
+
+    private void fireTimeouts() throws Exception {
+        for (ManualTimeout timeout : pendingTimeouts()) {
+            timeout.expired = true;
+            timeout.task.run(timeout);
+        }
+    }
+
+    private String readOutbound(EmbeddedChannel channel) {
+        StringBuilder result = new StringBuilder();
+        while (true) {
+            ByteBuf buf = (ByteBuf) channel.readOutbound();
+            if (buf == null) {
+                return result.toString();
+            }
+            result.append(buf.toString(CharsetUtil.UTF_8));
+            buf.release();
+        }
+    }
+
+    private void reply(EmbeddedChannel channel, String response) {
+        channel.writeInbound(Unpooled.copiedBuffer(response, CharsetUtil.UTF_8));
+    }
+
+    private String incr(String key) {
+        return "*2\r\n$4\r\nINCR\r\n$" + key.length() + "\r\n" + key + "\r\n";
+    }
+
+    private String command(String... args) {
+        StringBuilder result = new StringBuilder("*").append(args.length).append("\r\n");
+        for (String arg : args) {
+            result.append('$').append(arg.length()).append("\r\n").append(arg).append("\r\n");
+        }
+        return result.toString();
+    }
+
+    @Test
+    public void testNoRetryTaskForAvailableConnection() {
+        EmbeddedChannel channel = addConnection();
+        Future<Long> future = service.writeAsync(1, StringCodec.INSTANCE, RedisCommands.INCR, "key");
+
+        Assert.assertEquals(incr("key"), readOutbound(channel));
+        reply(channel, ":1\r\n");
+
+        Assert.assertEquals(1L, (long) future.getNow());
+        // response timeout is checked by connection
+        Assert.assertTrue(timeouts.isEmpty());
+    }
+
+    @Test
+    public void testRetryAfterConnectionFailure() throws Exception {
+        connections.add(ImmediateEventExecutor.INSTANCE.<RedisConnection>newFailedFuture(new RedisConnectionException("refused")));
+        EmbeddedChannel channel = addConnection();
+        Future<Long> future = service.writeAsync(1, StringCodec.INSTANCE, RedisCommands.INCR, "key");
+
+        // next attempt waits for retry interval
+        Assert.assertEquals(1, connectionRequests);
+        Assert.assertEquals(1, pendingTimeouts().size());
+        Assert.assertFalse(future.isDone());
+
+        fireTimeouts();
+        Assert.assertEquals(2, connectionRequests);
+        Assert.assertEquals(incr("key"), readOutbound(channel));
+        Assert.assertTrue(pendingTimeouts().isEmpty());
+
+        reply(channel, ":1\r\n");
+        Assert.assertEquals(1L, (long) future.getNow());
+        Assert.assertEquals(1, timeouts.size());
+    }
+
+    @Test
+    public void testConnectionTimeout() throws Exception {
+        config.setRetryAttempts(1);
+        config.setConnectionAcquireTimeout(0);
+        Promise<RedisConnection> connection1 = addPendingConnection();
+        Promise<RedisConnection> connection2 = addPendingConnection();
+        Future<Long> future = service.writeAsync(1, StringCodec.INSTANCE, RedisCommands.INCR, "key");
+        Assert.assertEquals(1, pendingTimeouts().size());
+
+        fireTimeouts();
+        Assert.assertTrue(connection1.isCancelled());
+        Assert.assertEquals(2, connectionRequests);
+        Assert.assertFalse(future.isDone());
+
+        fireTimeouts();
+        Assert.assertTrue(connection2.isCancelled());
+        Assert.assertTrue(future.cause() instanceof RedisTimeoutException);
+        Assert.assertEquals(2, connectionRequests);
+    }
+
+    @Test
+    public void testWaitingConnectionKeepsQueuePlace() throws Exception {
+        config.setConnectionAcquireTimeout(60000);
+        Promise<RedisConnection> connection = addPendingConnection();
+        Future<Long> future = service.writeAsync(1, StringCodec.INSTANCE, RedisCommands.INCR, "key");
+
+        fireTimeouts();
+        fireTimeouts();
+        // request isn't cancelled till acquire timeout
+        Assert.assertFalse(connection.isDone());
+        Assert.assertEquals(1, connectionRequests);
+        Assert.assertEquals(1, pendingTimeouts().size());
+        Assert.assertFalse(future.isDone());
+    }
+
+    @Test
+    public void testWriteTimeoutRetry() throws Exception {
+        config.setRetryInterval(50);
+        EmbeddedChannel channel1 = addConnection();
+        addConnection(channel1);
+        EmbeddedChannel channel2 = addConnection();
+
+        Future<Long> future1 = service.writeAsync(1, StringCodec.INSTANCE, RedisCommands.INCR, "key1");
+        // waits in connection queue for response on first command
+        Future<Long> future2 = service.writeAsync(1, StringCodec.INSTANCE, RedisCommands.INCR, "key2");
+        Assert.assertEquals(incr("key1"), readOutbound(channel1));
+        Assert.assertTrue(timeouts.isEmpty());
+
+        Thread.sleep(100);
+        channel1.runPendingTasks();
+
+        // write is cancelled by connection and command is sent again using another connection
+        Assert.assertEquals(3, connectionRequests);
+        Assert.assertEquals(incr("key2"), readOutbound(channel2));
+        reply(channel2, ":5\r\n");
+        Assert.assertEquals(5L, (long) future2.getNow());
+
+        reply(channel1, ":1\r\n");
+        Assert.assertEquals(1L, (long) future1.getNow());
+        // cancelled command isn't sent after response
+        Assert.assertEquals("", readOutbound(channel1));
+    }
+
+    @Test
+    public void testCancelWhileWaitingConnection() throws Exception {
+        config.setConnectionAcquireTimeout(0);
+        Promise<RedisConnection> connection = addPendingConnection();
+        Future<Long> future = service.writeAsync(1, StringCodec.INSTANCE, RedisCommands.INCR, "key");
+        Assert.assertTrue(future.cancel(false));
+
+        fireTimeouts();
+        Assert.assertTrue(connection.isCancelled());
+        // no more attempts
+        Assert.assertEquals(1, connectionRequests);
+        Assert.assertTrue(pendingTimeouts().isEmpty());
+    }
+
+    @Test
+    public void testCancelAfterWrite() {
+        EmbeddedChannel channel = addConnection();
+        Future<Long> future = service.writeAsync(1, StringCodec.INSTANCE, RedisCommands.INCR, "key");
+        Assert.assertEquals(incr("key"), readOutbound(channel));
+        Assert.assertTrue(future.cancel(false));
+
+        // late response doesn't complete cancelled command
+        reply(channel, ":1\r\n");
+        Assert.assertTrue(future.isCancelled());
+        Assert.assertEquals(1, connectionRequests);
+    }
+
+    @Test
+    public void testPipelinedConnectionRelease() {
+        config.setPipelineLimit(3);
+        EmbeddedChannel channel = addConnection();
+        Future<Long> future = service.writeAsync(1, StringCodec.INSTANCE, RedisCommands.INCR, "key");
+
+        // connection could be used by next command before response
+        Assert.assertEquals(incr("key"), readOutbound(channel));
+        Assert.assertEquals(1, releasedConnections);
+
+        reply(channel, ":1\r\n");
+        Assert.assertEquals(1L, (long) future.getNow());
+        Assert.assertEquals(1, releasedConnections);
+    }
+
+    @Test
+    public void testBlockingCommandNotPipelined() {
+        config.setPipelineLimit(3);
+        EmbeddedChannel channel = addConnection();
+        Future<String> future = service.writeAsync(1, StringCodec.INSTANCE, RedisCommands.BLPOP_VALUE, "list", 0);
+
+        // blocking command holds connection until response
+        Assert.assertEquals(command("BLPOP", "list", "0"), readOutbound(channel));
+        Assert.assertEquals(0, releasedConnections);
+
+        reply(channel, "*2\r\n$4\r\nlist\r\n$5\r\nvalue\r\n");
+        Assert.assertEquals("value", future.getNow());
+        Assert.assertEquals(1, releasedConnections);
+    }
+
+    @Test
+    public void testConnectionReleasedAfterResponse() {
+        EmbeddedChannel channel = addConnection();
+        Future<Long> future = service.writeAsync(1, StringCodec.INSTANCE, RedisCommands.INCR, "key");
+
+        // without pipelining connection holds single command
+        Assert.assertEquals(incr("key"), readOutbound(channel));
+        Assert.assertEquals(0, releasedConnections);
+
+        reply(channel, ":1\r\n");
+        Assert.assertEquals(1L, (long) future.getNow());
+        Assert.assertEquals(1, releasedConnections);
+    }
+
+    @Test
+    public void testEvalShaFallback() {
+        scriptCache = new ScriptCache();
+        EmbeddedChannel channel = addConnection();
+        addConnection(channel);
+        Future<Long> future = service.evalWriteAsync("key", StringCodec.INSTANCE, RedisCommands.EVAL_LONG,
+                                                        "return 1", Collections.<Object>emptyList());
+
+        String sha = "e0e1f9fabfc9d4800c877a703b823ac0578ff8db";
+        Assert.assertEquals(command("EVALSHA", sha, "0"), readOutbound(channel));
+        // script is absent in server cache
+        reply(channel, "-NOSCRIPT No matching script. Please use EVAL.\r\n");
+        Assert.assertEquals(command("EVAL", "return 1", "0"), readOutbound(channel));
+        reply(channel, ":1\r\n");
+
+        Assert.assertEquals(1L, (long) future.getNow());
+        Assert.assertEquals(2, connectionRequests);
+    }
+
+    @Test
+    public void testEvalShaCommandCached() {
+        RedisCommand<Long> evalShaCommand = RedisCommands.EVAL_LONG.getEvalShaCommand();
+        Assert.assertEquals("EVALSHA", evalShaCommand.getName());
+        Assert.assertSame(evalShaCommand, RedisCommands.EVAL_LONG.getEvalShaCommand());
+        Assert.assertSame(RedisCommands.EVAL_LONG.getReplayDecoder(), evalShaCommand.getReplayDecoder());
+        Assert.assertSame(RedisCommands.EVAL_LONG.getConvertor(), evalShaCommand.getConvertor());
+    }
+
+    @Test
+    public void testUserEvalShaNotCached() {
+        scriptCache = new ScriptCache();
+        EmbeddedChannel channel = addConnection();
+        String sha = "e0e1f9fabfc9d4800c877a703b823ac0578ff8db";
+        Future<Long> future = service.evalWriteAsync("key", StringCodec.INSTANCE, RedisCommands.EVAL_LONG.getEvalShaCommand(),
+                                                        sha, Collections.<Object>emptyList());
+
+        // digest is sent as is and isn't cached as script
+        Assert.assertEquals(command("EVALSHA", sha, "0"), readOutbound(channel));
+        reply(channel, ":1\r\n");
+        Assert.assertEquals(1L, (long) future.getNow());
+        Assert.assertTrue(scriptCache.getScripts().isEmpty());
+    }
+
+    @Test
+    public void testScriptLoadOnConnect() {
+        scriptCache = new ScriptCache();
+        scriptCache.getSha("return 1");
+        scriptCache.getSha("return {");
+        EmbeddedChannel channel = new EmbeddedChannel(new CommandEncoder(), new CommandsListEncoder(),
+                                                        new CommandsQueue(), new CommandDecoder());
+        channels.add(channel);
+        RedisConnection connection = addConnection(channel);
+
+        Promise<RedisConnection> connectionFuture = ImmediateEventExecutor.INSTANCE.newPromise();
+        new ScriptLoadConnectionListener(new DefaultConnectionListener(), scriptCache)
+                .onConnect(connectionFuture, connection, NodeType.MASTER, config);
+
+        // connection doesn't wait for script loading
+        Assert.assertSame(connection, connectionFuture.getNow());
+        List<String> loaded = new ArrayList<String>();
+        for (int i = 0; i < 2; i++) {
+            String outbound = readOutbound(channel);
+            loaded.add(outbound);
+            if (outbound.equals(command("SCRIPT", "LOAD", "return 1"))) {
+                reply(channel, "$40\r\ne0e1f9fabfc9d4800c877a703b823ac0578ff8db\r\n");
+            } else {
+                // broken script doesn't break connection
+                reply(channel, "-ERR Error compiling script\r\n");
+            }
+        }
+        Assert.assertTrue(loaded.contains(command("SCRIPT", "LOAD", "return 1")));
+        Assert.assertTrue(loaded.contains(command("SCRIPT", "LOAD", "return {")));
+        Assert.assertTrue(channel.isOpen());
+    }
+
+    private long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private long allocatedPerCommand(EmbeddedChannel channel, int amount) {
+        for (int i = 0; i < amount; i++) {
+            addConnection(channel);
+        }
+        ByteBuf response = Unpooled.copiedBuffer(":1\r\n", CharsetUtil.UTF_8);
+
+        long start = allocatedBytes();
+        for (int i = 0; i < amount; i++) {
+            service.writeAsync(1, StringCodec.INSTANCE, RedisCommands.INCR, "key");
+            ((ByteBuf) channel.readOutbound()).release();
+            channel.writeInbound(response.duplicate().retain());
+        }
+        long result = (allocatedBytes() - start) / amount;
+        response.release();
+        return result;
+    }
+
+    /**
+     * Includes whole command path: main and attempt promises, attempt state,
+     * channel promise, connection queue holder, encoding and decoding.
+     */
+    @Test
+    public void testAllocation() {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+
+        EmbeddedChannel channel = addConnection();
+        readOutbound(channel);
+        // warm up pools and JIT
+        for (int i = 0; i < 5; i++) {
+            allocatedPerCommand(channel, 20000);
+        }
+
+        // command data and retry task aren't allocated per command
+        long bytes = allocatedPerCommand(channel, 20000);
+        Assert.assertTrue("allocated per command: " + bytes, bytes < 850);
+        Assert.assertTrue(timeouts.isEmpty());
+    }
+
+}
@@ -0,0 +1,292 @@
+package org.redisson;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.redisson.client.RedisClient;
+import org.redisson.client.RedisConnection;
+import org.redisson.client.RedisNodeNotFoundException;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.handler.CommandDecoder;
+import org.redisson.client.handler.CommandEncoder;
+import org.redisson.client.handler.CommandsListEncoder;
+import org.redisson.client.handler.CommandsQueue;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.cluster.ClusterSlotRange;
+import org.redisson.command.CommandBatchService;
+import org.redisson.connection.ConnectionManager;
+import org.redisson.connection.MasterSlaveEntry;
+import org.redisson.connection.NodeSource;
+import org.redisson.connection.NodeSource.Redirect;
+import org.redisson.misc.InfinitySemaphoreLatch;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.CharsetUtil;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+
+/**
+ * Checks grouping of batch commands by node and handling of redirects
+ * without Redis server. Each node is represented by embedded channel
+ * with the same handlers as real connection has.
+ */
+public class CommandBatchServiceTest {
+
+    private static final int PORT1 = 7001;
+    private static final int PORT2 = 7002;
+
+    private NioEventLoopGroup group;
+    private HashedWheelTimer timer;
+    private ConnectionManager connectionManager;
+
+    private final Map<Integer, MasterSlaveEntry> slot2entry = new HashMap<Integer, MasterSlaveEntry>();
+    private final Map<InetSocketAddress, MasterSlaveEntry> addr2entry = new HashMap<InetSocketAddress, MasterSlaveEntry>();
+    private final Map<MasterSlaveEntry, EmbeddedChannel> channels = new HashMap<MasterSlaveEntry, EmbeddedChannel>();
+    private final Map<MasterSlaveEntry, RedisConnection> connections = new HashMap<MasterSlaveEntry, RedisConnection>();
+    private final List<NodeSource> sources = new ArrayList<NodeSource>();
+    private final List<Integer> movedSlots = new ArrayList<Integer>();
+
+    private MasterSlaveEntry entry1;
+    private MasterSlaveEntry entry2;
+
+    @Before
+    public void before() {
+        group = new NioEventLoopGroup(1);
+        timer = new HashedWheelTimer();
+        final MasterSlaveServersConfig config = new MasterSlaveServersConfig();
+        final InfinitySemaphoreLatch shutdownLatch = new InfinitySemaphoreLatch();
+        connectionManager = (ConnectionManager) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {ConnectionManager.class}, new InvocationHandler() {
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                if (name.equals("newPromise")) {
+                    return ImmediateEventExecutor.INSTANCE.newPromise();
+                }
+                if (name.equals("getGroup")) {
+                    return group;
+                }
+                if (name.equals("getConfig")) {
+                    return config;
+                }
+                if (name.equals("getShutdownLatch")) {
+                    return shutdownLatch;
+                }
+                if (name.equals("newTimeout")) {
+                    return timer.newTimeout((TimerTask) args[0], (Long) args[1], (java.util.concurrent.TimeUnit) args[2]);
+                }
+                if (name.equals("calcSlot")) {
+                    return Integer.valueOf(((String) args[0]).substring(0, 1));
+                }
+                if (name.equals("getEntry")) {
+                    if (args[0] instanceof InetSocketAddress) {
+                        return addr2entry.get(args[0]);
+                    }
+                    return slot2entry.get(args[0]);
+                }
+                if (name.equals("slotMoved")) {
+                    movedSlots.add((Integer) args[0]);
+                    return null;
+                }
+                if (name.equals("connectionReadOp") || name.equals("connectionWriteOp")) {
+                    NodeSource source = (NodeSource) args[0];
+                    sources.add(source);
+                    MasterSlaveEntry entry = source.getEntry();
+                    if (entry == null) {
+                        entry = slot2entry.get(source.getSlot());
+                    }
+                    return ImmediateEventExecutor.INSTANCE.newSucceededFuture(connections.get(entry));
+                }
+                if (name.equals("createReleaseReadListener") || name.equals("createReleaseWriteListener")) {
+                    @SuppressWarnings("unchecked")
+                    final AtomicReference<Timeout> timeout = (AtomicReference<Timeout>) args[2];
+                    return new FutureListener<Object>() {
+                        @Override
+                        public void operationComplete(Future<Object> future) throws Exception {
+                            shutdownLatch.release();
+                            timeout.get().cancel();
+                        }
+                    };
+                }
+                throw new UnsupportedOperationException(name);
+            }
+        });
+
+        entry1 = createEntry(PORT1, config);
+        entry2 = createEntry(PORT2, config);
+        slot2entry.put(1, entry1);
+        slot2entry.put(2, entry2);
+    }
+
+    private MasterSlaveEntry createEntry(int port, MasterSlaveServersConfig config) {
+        MasterSlaveEntry entry = new MasterSlaveEntry(Collections.<ClusterSlotRange>emptySet(), connectionManager, config);
+        EmbeddedChannel channel = new EmbeddedChannel(new CommandEncoder(), new CommandsListEncoder(),
+                                                        new CommandsQueue(), new CommandDecoder());
+        // connection isn't established by client until requested
+        RedisClient client = new RedisClient(group, NioSocketChannel.class, "127.0.0.1", port, 1000);
+        connections.put(entry, new RedisConnection(client, channel));
+        channels.put(entry, channel);
+        addr2entry.put(new InetSocketAddress("127.0.0.1", port), entry);
+        return entry;
+    }
+
+    @After
+    public void after() {
+        for (EmbeddedChannel channel : channels.values()) {
+            channel.finish();
+        }
+        timer.stop();
+        group.shutdownGracefully().syncUninterruptibly();
+    }
+
+    private String readOutbound(MasterSlaveEntry entry) {
+        StringBuilder result = new StringBuilder();
+        EmbeddedChannel channel = channels.get(entry);
+        while (true) {
+            ByteBuf buf = (ByteBuf) channel.readOutbound();
+            if (buf == null) {
+                return result.toString();
+            }
+            result.append(buf.toString(CharsetUtil.UTF_8));
+            buf.release();
+        }
+    }
+
+    private void reply(MasterSlaveEntry entry, String response) {
+        channels.get(entry).writeInbound(Unpooled.copiedBuffer(response, CharsetUtil.UTF_8));
+    }
+
+    private String incr(String key) {
+        return "*2\r\n$4\r\nINCR\r\n$" + key.length() + "\r\n" + key + "\r\n";
+    }
+
+    private String get(String key) {
+        return "*2\r\n$3\r\nGET\r\n$" + key.length() + "\r\n" + key + "\r\n";
+    }
+
+    @Test
+    public void testGroupByNode() {
+        CommandBatchService batch = new CommandBatchService(connectionManager);
+        batch.writeAsync("1a", StringCodec.INSTANCE, RedisCommands.INCR, "1a");
+        batch.writeAsync("2a", StringCodec.INSTANCE, RedisCommands.INCR, "2a");
+        batch.writeAsync("1b", StringCodec.INSTANCE, RedisCommands.INCR, "1b");
+        Future<List<?>> future = batch.executeAsync();
+
+        // commands of each node are sent in one write
+        Assert.assertEquals(incr("1a") + incr("1b"), readOutbound(entry1));
+        Assert.assertEquals(incr("2a"), readOutbound(entry2));
+        Assert.assertEquals(2, sources.size());
+
+        reply(entry2, ":3\r\n");
+        Assert.assertFalse(future.isDone());
+        reply(entry1, ":1\r\n:2\r\n");
+
+        Assert.assertTrue(future.isSuccess());
+        Assert.assertEquals(Arrays.asList(1L, 3L, 2L), future.getNow());
+    }
+
+    @Test
+    public void testMovedRedirect() {
+        CommandBatchService batch = new CommandBatchService(connectionManager);
+        Future<Long> f1 = batch.writeAsync("1a", StringCodec.INSTANCE, RedisCommands.INCR, "1a");
+        Future<Long> f2 = batch.writeAsync("1b", StringCodec.INSTANCE, RedisCommands.INCR, "1b");
+        Future<List<?>> future = batch.executeAsync();
+
+        Assert.assertEquals(incr("1a") + incr("1b"), readOutbound(entry1));
+        reply(entry1, ":1\r\n-MOVED 2 127.0.0.1:" + PORT2 + "\r\n");
+
+        // only redirected command is sent again
+        Assert.assertTrue(f1.isSuccess());
+        Assert.assertFalse(f2.isDone());
+        Assert.assertEquals(Arrays.asList(2), movedSlots);
+        Assert.assertEquals("", readOutbound(entry1));
+        Assert.assertEquals(incr("1b"), readOutbound(entry2));
+
+        NodeSource source = sources.get(sources.size() - 1);
+        Assert.assertSame(entry2, source.getEntry());
+        Assert.assertEquals(new InetSocketAddress("127.0.0.1", PORT2), source.getAddr());
+        Assert.assertEquals(Redirect.MOVED, source.getRedirect());
+
+        reply(entry2, ":5\r\n");
+        Assert.assertTrue(future.isSuccess());
+        Assert.assertEquals(Arrays.asList(1L, 5L), future.getNow());
+    }
+
+    @Test
+    public void testAskRedirectReadOnly() {
+        CommandBatchService batch = new CommandBatchService(connectionManager);
+        batch.readAsync("1a", StringCodec.INSTANCE, RedisCommands.GET, "1a");
+        Future<List<?>> future = batch.executeAsync();
+
+        Assert.assertEquals(get("1a"), readOutbound(entry1));
+        reply(entry1, "-ASK 2 127.0.0.1:" + PORT2 + "\r\n");
+
+        // ask redirect doesn't change slot owner
+        Assert.assertTrue(movedSlots.isEmpty());
+        Assert.assertEquals("*1\r\n$6\r\nASKING\r\n" + get("1a"), readOutbound(entry2));
+
+        // read is sent to exact node returned by redirect
+        NodeSource source = sources.get(sources.size() - 1);
+        Assert.assertSame(entry2, source.getEntry());
+        Assert.assertEquals(new InetSocketAddress("127.0.0.1", PORT2), source.getAddr());
+        Assert.assertEquals(Redirect.ASK, source.getRedirect());
+
+        reply(entry2, "+OK\r\n$5\r\nvalue\r\n");
+        Assert.assertTrue(future.isSuccess());
+        Assert.assertEquals(Arrays.asList("value"), future.getNow());
+    }
+
+    @Test
+    public void testLoadingRetry() {
+        CommandBatchService batch = new CommandBatchService(connectionManager);
+        batch.writeAsync("1a", StringCodec.INSTANCE, RedisCommands.INCR, "1a");
+        Future<List<?>> future = batch.executeAsync();
+
+        Assert.assertEquals(incr("1a"), readOutbound(entry1));
+        reply(entry1, "-LOADING Redis is loading the dataset in memory\r\n");
+
+        Assert.assertFalse(future.isDone());
+        Assert.assertEquals(incr("1a"), readOutbound(entry1));
+        reply(entry1, ":1\r\n");
+
+        Assert.assertTrue(future.isSuccess());
+        Assert.assertEquals(Arrays.asList(1L), future.getNow());
+    }
+
+    @Test
+    public void testNoNodeForSlot() {
+        CommandBatchService batch = new CommandBatchService(connectionManager);
+        Future<Long> f1 = batch.writeAsync("1a", StringCodec.INSTANCE, RedisCommands.INCR, "1a");
+        // slot without node fails command instead of throwing exception
+        Future<Long> f2 = batch.writeAsync("3a", StringCodec.INSTANCE, RedisCommands.INCR, "3a");
+        Assert.assertTrue(f2.cause() instanceof RedisNodeNotFoundException);
+
+        Future<List<?>> future = batch.executeAsync();
+        Assert.assertTrue(future.cause() instanceof RedisNodeNotFoundException);
+        Assert.assertTrue(f1.cause() instanceof RedisNodeNotFoundException);
+        Assert.assertEquals("", readOutbound(entry1));
+    }
+
+}
@@ -0,0 +1,243 @@
+package org.redisson;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.handler.CommandEncoder;
+import org.redisson.client.protocol.CommandData;
+import org.redisson.client.protocol.RedisCommand;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.codec.KryoCodec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.CharsetUtil;
+
+public class CommandEncoderTest {
+
+    private EmbeddedChannel channel;
+
+    @Before
+    public void before() {
+        channel = new EmbeddedChannel(new CommandEncoder());
+    }
+
+    @After
+    public void after() {
+        channel.finish();
+    }
+
+    private <T> void write(Codec codec, RedisCommand<T> command, Object... params) {
+        channel.writeOutbound(new CommandData<T, T>(null, codec, command, params));
+    }
+
+    private ByteBuf readAll() {
+        ByteBuf result = Unpooled.buffer();
+        while (true) {
+            ByteBuf buf = (ByteBuf) channel.readOutbound();
+            if (buf == null) {
+                return result;
+            }
+            result.writeBytes(buf);
+            buf.release();
+        }
+    }
+
+    /**
+     * Parses encoded commands strictly by the protocol,
+     * so wrong length prefix or missing delimiter fails it.
+     */
+    private List<List<byte[]>> parse(ByteBuf buf) {
+        List<List<byte[]>> commands = new ArrayList<List<byte[]>>();
+        while (buf.isReadable()) {
+            Assert.assertEquals('*', buf.readByte());
+            int size = (int) readNumber(buf);
+            List<byte[]> args = new ArrayList<byte[]>(size);
+            for (int i = 0; i < size; i++) {
+                Assert.assertEquals('$', buf.readByte());
+                int length = (int) readNumber(buf);
+                byte[] arg = new byte[length];
+                buf.readBytes(arg);
+                readCRLF(buf);
+                args.add(arg);
+            }
+            commands.add(args);
+        }
+        return commands;
+    }
+
+    private long readNumber(ByteBuf buf) {
+        StringBuilder number = new StringBuilder();
+        while (buf.getByte(buf.readerIndex()) != '\r') {
+            number.append((char) buf.readByte());
+        }
+        readCRLF(buf);
+        // no leading zeros are allowed by Redis
+        Assert.assertEquals(number.toString(), String.valueOf(Long.parseLong(number.toString())));
+        return Long.parseLong(number.toString());
+    }
+
+    private void readCRLF(ByteBuf buf) {
+        Assert.assertEquals('\r', buf.readByte());
+        Assert.assertEquals('\n', buf.readByte());
+    }
+
+    private List<String> toStrings(List<byte[]> args) {
+        List<String> result = new ArrayList<String>(args.size());
+        for (byte[] arg : args) {
+            result.add(new String(arg, CharsetUtil.UTF_8));
+        }
+        return result;
+    }
+
+    private String value(int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + i % 26);
+        }
+        return new String(chars);
+    }
+
+    @Test
+    public void testNumbers() {
+        List<Long> numbers = Arrays.asList(0L, 1L, -1L, 9L, 10L, -10L, 99L, 100L, 65535L, 65536L, -65536L,
+                Integer.MAX_VALUE + 1L, Integer.MIN_VALUE - 1L, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1);
+        for (Long number : numbers) {
+            write(StringCodec.INSTANCE, RedisCommands.INCRBY, "key", number);
+        }
+        write(StringCodec.INSTANCE, RedisCommands.INCRBY, "key", Integer.MIN_VALUE);
+        write(StringCodec.INSTANCE, RedisCommands.INCRBY, "key", (short) -300);
+        write(StringCodec.INSTANCE, RedisCommands.INCRBY, "key", (byte) -7);
+
+        List<List<byte[]>> commands = parse(readAll());
+        Assert.assertEquals(numbers.size() + 3, commands.size());
+        for (int i = 0; i < numbers.size(); i++) {
+            Assert.assertEquals(Arrays.asList("INCRBY", "key", numbers.get(i).toString()), toStrings(commands.get(i)));
+        }
+        Assert.assertEquals(String.valueOf(Integer.MIN_VALUE), toStrings(commands.get(numbers.size())).get(2));
+        Assert.assertEquals("-300", toStrings(commands.get(numbers.size() + 1)).get(2));
+        Assert.assertEquals("-7", toStrings(commands.get(numbers.size() + 2)).get(2));
+    }
+
+    @Test
+    public void testMultiDigitLengths() {
+        // lengths with different amount of digits in a row, so prefix size guess is wrong often
+        int[] lengths = {0, 1, 9, 10, 99, 100, 5, 1000, 12345, 3, 99999, 100000, 100000, 7, 0};
+        Map<String, String> expected = new HashMap<String, String>();
+        for (int length : lengths) {
+            String value = value(length);
+            write(StringCodec.INSTANCE, RedisCommands.SET, "key" + length, value);
+            expected.put("key" + length, value);
+        }
+        Object[] params = new Object[lengths.length * 2 + 1];
+        params[0] = "hash";
+        for (int i = 0; i < lengths.length; i++) {
+            params[i * 2 + 1] = value(lengths[lengths.length - i - 1] + 1);
+            params[i * 2 + 2] = value(lengths[i]);
+        }
+        write(StringCodec.INSTANCE, RedisCommands.HMSET, params);
+
+        List<List<byte[]>> commands = parse(readAll());
+        Assert.assertEquals(lengths.length + 1, commands.size());
+        for (int i = 0; i < lengths.length; i++) {
+            List<String> args = toStrings(commands.get(i));
+            Assert.assertEquals("SET", args.get(0));
+            Assert.assertEquals(expected.get(args.get(1)), args.get(2));
+        }
+        List<String> args = toStrings(commands.get(lengths.length));
+        Assert.assertEquals("HMSET", args.get(0));
+        for (int i = 0; i < params.length; i++) {
+            Assert.assertEquals(params[i], args.get(i + 1));
+        }
+    }
+
+    @Test
+    public void testCodecRoundTrip() throws Exception {
+        KryoCodec codec = new KryoCodec();
+        List<Object> values = new ArrayList<Object>();
+        values.add("small");
+        values.add(-5L);
+        values.add(new ArrayList<String>(Arrays.asList("a", "b")));
+        // grows pooled output
+        values.add(value(5000));
+        // isn't returned to pool
+        values.add(value(70000));
+        values.add(value(20));
+        for (Object value : values) {
+            write(codec, RedisCommands.SET, "key", value);
+        }
+
+        List<List<byte[]>> commands = parse(readAll());
+        Assert.assertEquals(values.size(), commands.size());
+        for (int i = 0; i < values.size(); i++) {
+            ByteBuf arg = Unpooled.wrappedBuffer(commands.get(i).get(2));
+            Assert.assertEquals(values.get(i), codec.getValueDecoder().decode(arg, null));
+            Assert.assertFalse(arg.isReadable());
+        }
+    }
+
+    private long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private long allocatedPerCommand(Codec codec, Object value, int amount) {
+        List<CommandData<Void, Void>> commands = new ArrayList<CommandData<Void, Void>>(amount);
+        for (int i = 0; i < amount; i++) {
+            commands.add(new CommandData<Void, Void>(null, codec, RedisCommands.SET, new Object[] {"key", value}));
+        }
+
+        long start = allocatedBytes();
+        for (CommandData<Void, Void> command : commands) {
+            channel.writeOutbound(command);
+            ((ByteBuf) channel.readOutbound()).release();
+        }
+        return (allocatedBytes() - start) / amount;
+    }
+
+    /**
+     * Allocation per command is compared with raw bytes writing,
+     * which is done without codec. Both include channel promise and buffer wrappers.
+     */
+    @Test
+    public void testAllocation() {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+
+        KryoCodec codec = new KryoCodec();
+        // fits initial buffer of encoder, so buffer expansion isn't measured
+        String value = value(20);
+        byte[] bytes = value.getBytes(CharsetUtil.UTF_8);
+        // warm up pools and JIT
+        for (int i = 0; i < 5; i++) {
+            allocatedPerCommand(ByteArrayCodec.INSTANCE, bytes, 10000);
+            allocatedPerCommand(StringCodec.INSTANCE, value, 10000);
+            allocatedPerCommand(codec, value, 10000);
+        }
+
+        long baseBytes = allocatedPerCommand(ByteArrayCodec.INSTANCE, bytes, 10000);
+
+        // key and value lengths have different amount of digits,
+        // encoded value isn't copied through intermediate buffer
+        long stringCodecBytes = allocatedPerCommand(StringCodec.INSTANCE, value, 10000);
+        Assert.assertTrue("allocated per command: " + stringCodecBytes + ", without codec: " + baseBytes,
+                            stringCodecBytes < baseBytes + 64);
+
+        // kryo output buffer of 4096 bytes isn't allocated per value
+        long kryoCodecBytes = allocatedPerCommand(codec, value, 10000);
+        Assert.assertTrue("allocated per command: " + kryoCodecBytes + ", without codec: " + baseBytes,
+                            kryoCodecBytes < baseBytes + 256);
+    }
+
+}
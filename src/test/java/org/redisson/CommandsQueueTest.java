@@ -0,0 +1,141 @@
+package org.redisson;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.handler.CommandDecoder;
+import org.redisson.client.handler.CommandEncoder;
+import org.redisson.client.handler.CommandsListEncoder;
+import org.redisson.client.handler.CommandsQueue;
+import org.redisson.client.protocol.CommandData;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.client.protocol.pubsub.PubSubMessageDecoder;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.CharsetUtil;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import io.netty.util.concurrent.Promise;
+
+/**
+ * Checks amount of commands written to channel without awaiting response.
+ */
+public class CommandsQueueTest {
+
+    private EmbeddedChannel channel;
+
+    @After
+    public void after() {
+        channel.finish();
+    }
+
+    private void createChannel(int pipelineLimit) {
+        channel = new EmbeddedChannel(new CommandEncoder(), new CommandsListEncoder(),
+                                        new CommandsQueue(pipelineLimit), new CommandDecoder());
+    }
+
+    private Promise<Long> incr(String key) {
+        Promise<Long> promise = ImmediateEventExecutor.INSTANCE.newPromise();
+        channel.writeAndFlush(new CommandData<Long, Long>(promise, StringCodec.INSTANCE, RedisCommands.INCR, new Object[] {key}));
+        return promise;
+    }
+
+    private Promise<Object> subscribe(String name) {
+        Promise<Object> promise = ImmediateEventExecutor.INSTANCE.newPromise();
+        channel.writeAndFlush(new CommandData<Object, Object>(promise, new PubSubMessageDecoder(StringCodec.INSTANCE.getValueDecoder()),
+                                StringCodec.INSTANCE, RedisCommands.SUBSCRIBE, new Object[] {name}));
+        return promise;
+    }
+
+    /**
+     * Returns written commands names, each command is encoded into own buffer
+     */
+    private List<String> readCommands() {
+        List<String> result = new ArrayList<String>();
+        while (true) {
+            ByteBuf buf = (ByteBuf) channel.readOutbound();
+            if (buf == null) {
+                return result;
+            }
+            String[] lines = buf.toString(CharsetUtil.UTF_8).split("\r\n");
+            result.add(lines[2] + " " + lines[4]);
+            buf.release();
+        }
+    }
+
+    private void reply(String response) {
+        channel.writeInbound(Unpooled.copiedBuffer(response, CharsetUtil.UTF_8));
+    }
+
+    @Test
+    public void testPipelineLimit() {
+        createChannel(3);
+        List<Promise<Long>> promises = new ArrayList<Promise<Long>>();
+        for (int i = 0; i < 5; i++) {
+            promises.add(incr("key" + i));
+        }
+
+        // limit of commands are in flight before any response
+        Assert.assertEquals(3, readCommands().size());
+
+        reply(":1\r\n");
+        Assert.assertEquals(1L, (long) promises.get(0).getNow());
+        Assert.assertFalse(promises.get(1).isDone());
+        // response frees place for next command
+        List<String> commands = readCommands();
+        Assert.assertEquals(1, commands.size());
+        Assert.assertEquals("INCR key3", commands.get(0));
+
+        // responses are matched in write order
+        reply(":2\r\n:3\r\n:4\r\n");
+        Assert.assertEquals(2L, (long) promises.get(1).getNow());
+        Assert.assertEquals(3L, (long) promises.get(2).getNow());
+        Assert.assertEquals(4L, (long) promises.get(3).getNow());
+        Assert.assertEquals(1, readCommands().size());
+        reply(":5\r\n");
+        Assert.assertEquals(5L, (long) promises.get(4).getNow());
+        Assert.assertTrue(readCommands().isEmpty());
+    }
+
+    @Test
+    public void testWithoutPipelining() {
+        createChannel(1);
+        Promise<Long> promise1 = incr("key1");
+        Promise<Long> promise2 = incr("key2");
+
+        Assert.assertEquals(1, readCommands().size());
+        reply(":1\r\n");
+        Assert.assertEquals(1L, (long) promise1.getNow());
+        Assert.assertEquals(1, readCommands().size());
+        reply(":2\r\n");
+        Assert.assertEquals(2L, (long) promise2.getNow());
+    }
+
+    @Test
+    public void testPubSubNotPipelined() {
+        createChannel(3);
+        Promise<Long> promise1 = incr("key1");
+        Promise<Object> subscribePromise = subscribe("channel");
+        Promise<Long> promise2 = incr("key2");
+
+        // subscribe waits for preceding response
+        List<String> commands = readCommands();
+        Assert.assertEquals(1, commands.size());
+        Assert.assertEquals("INCR key1", commands.get(0));
+
+        reply(":1\r\n");
+        Assert.assertEquals(1L, (long) promise1.getNow());
+        // next command waits for subscribe response
+        commands = readCommands();
+        Assert.assertEquals(1, commands.size());
+        Assert.assertEquals("SUBSCRIBE channel", commands.get(0));
+        Assert.assertFalse(subscribePromise.isDone());
+        Assert.assertFalse(promise2.isDone());
+    }
+
+}
@@ -10,12 +10,15 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
 import org.redisson.client.RedisClient;
 import org.redisson.client.RedisConnection;
+import org.redisson.client.RedisConnectionException;
 import org.redisson.client.RedisPubSubConnection;
 import org.redisson.client.RedisPubSubListener;
+import org.redisson.client.RedisTimeoutException;
 import org.redisson.client.codec.LongCodec;
 import org.redisson.client.codec.StringCodec;
 import org.redisson.client.protocol.CommandData;
@@ -23,12 +26,24 @@ import org.redisson.client.protocol.CommandsData;
 import org.redisson.client.protocol.RedisCommands;
 import org.redisson.client.protocol.pubsub.PubSubType;
 
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.FutureListener;
 import io.netty.util.concurrent.Promise;
 
 public class RedisClientTest {
 
+    private NioEventLoopGroup group;
+
+    @After
+    public void after() {
+        if (group != null) {
+            group.shutdownGracefully().syncUninterruptibly();
+            group = null;
+        }
+    }
+
     @Test
     public void testConnectAsync() throws InterruptedException {
         RedisClient c = new RedisClient("localhost", 6379);
@@ -97,6 +112,80 @@ public class RedisClientTest {
         conn.sync(RedisCommands.FLUSHDB);
     }
 
+    @Test
+    public void testPipelineLimit() throws InterruptedException, ExecutionException {
+        group = new NioEventLoopGroup();
+        RedisClient c = new RedisClient(group, NioSocketChannel.class, "localhost", 6379, 60 * 1000, 64);
+        final RedisConnection conn = c.connect();
+
+        conn.sync(StringCodec.INSTANCE, RedisCommands.SET, "test", 0);
+        List<Future<Long>> futures = new ArrayList<Future<Long>>();
+        for (int i = 0; i < 10000; i++) {
+            Future<Long> f = conn.async(StringCodec.INSTANCE, RedisCommands.INCR, "test");
+            futures.add(f);
+        }
+
+        long i = 1;
+        for (Future<Long> future : futures) {
+            Assert.assertEquals(i++, (long)future.get());
+        }
+
+        Assert.assertEquals(10000L, conn.sync(LongCodec.INSTANCE, RedisCommands.GET, "test"));
+
+        conn.sync(RedisCommands.FLUSHDB);
+    }
+
+    @Test
+    public void testFlushConsolidation() throws InterruptedException, ExecutionException {
+        group = new NioEventLoopGroup();
+        RedisClient c = new RedisClient(group, NioSocketChannel.class, "localhost", 6379, 60 * 1000, 64, 16);
+        final RedisConnection conn = c.connect();
+
+        List<Future<String>> futures = new ArrayList<Future<String>>();
+        for (int i = 0; i < 1000; i++) {
+            Future<String> f = conn.async(RedisCommands.PING);
+            futures.add(f);
+        }
+
+        for (Future<String> future : futures) {
+            Assert.assertEquals("PONG", future.get());
+        }
+
+        // single command shouldn't wait for consolidation limit
+        Assert.assertEquals("PONG", conn.sync(RedisCommands.PING));
+    }
+
+    @Test
+    public void testResponseTimeout() throws InterruptedException {
+        RedisClient c = new RedisClient("localhost", 6379);
+        RedisConnection conn = c.connect();
+
+        Promise<Object> promise = c.getBootstrap().group().next().newPromise();
+        CommandData<Object, Object> data = new CommandData<Object, Object>(promise, StringCodec.INSTANCE, RedisCommands.BLPOP_VALUE, new Object[] {"testlist", 2});
+        data.setResponseTimeout(300);
+        conn.send(data);
+
+        promise.await();
+        Assert.assertTrue(promise.cause() instanceof RedisTimeoutException);
+
+        // connection is usable after late response
+        Assert.assertEquals("PONG", conn.sync(RedisCommands.PING));
+    }
+
+    @Test
+    public void testPendingCommandFailsOnClose() throws InterruptedException {
+        RedisClient c = new RedisClient("localhost", 6379);
+        RedisConnection conn = c.connect();
+
+        Promise<Object> promise = c.getBootstrap().group().next().newPromise();
+        CommandData<Object, Object> data = new CommandData<Object, Object>(promise, StringCodec.INSTANCE, RedisCommands.BLPOP_VALUE, new Object[] {"testlist", 0});
+        conn.send(data).syncUninterruptibly();
+        conn.getChannel().close();
+
+        Assert.assertTrue(promise.await(1, TimeUnit.SECONDS));
+        Assert.assertTrue(promise.cause() instanceof RedisConnectionException);
+    }
+
     @Test
     public void testPipeline() throws InterruptedException, ExecutionException {
         RedisClient c = new RedisClient("localhost", 6379);
@@ -140,6 +229,28 @@ public class RedisClientTest {
         conn.sync(RedisCommands.FLUSHDB);
     }
 
+    @Test
+    public void testBigResponse() throws InterruptedException, ExecutionException {
+        RedisClient c = new RedisClient("localhost", 6379);
+        RedisConnection conn = c.connect();
+
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 1024*1024; i++) {
+            value.append(i % 10);
+        }
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < 20; i++) {
+            String v = value.toString() + i;
+            expected.add(v);
+            conn.sync(StringCodec.INSTANCE, RedisCommands.RPUSH, "testlist", v);
+        }
+
+        List<Object> res = conn.sync(StringCodec.INSTANCE, RedisCommands.LRANGE, "testlist", 0, -1);
+        Assert.assertEquals(expected, res);
+
+        conn.sync(RedisCommands.FLUSHDB);
+    }
+
     @Test
     public void testPipelineBigResponse() throws InterruptedException, ExecutionException {
         RedisClient c = new RedisClient("localhost", 6379);
@@ -1,8 +1,13 @@
 package org.redisson;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -11,6 +16,7 @@ import org.redisson.client.codec.StringCodec;
 import org.redisson.core.RScript;
 import org.redisson.core.RBatch;
 import org.redisson.core.RListAsync;
+import org.redisson.core.RMapCacheAsync;
 import org.redisson.core.RScript.Mode;
 
 import io.netty.util.concurrent.Future;
@@ -30,6 +36,49 @@ public class RedissonBatchTest extends BaseTest {
         Assert.assertEquals("3", val2.getNow());
     }
 
+    @Test
+    public void testDeleteByPattern() {
+        redisson.getBucket("test1").set("someValue");
+        redisson.getMap("test2").put("1", "2");
+        redisson.getBucket("other").set("someValue");
+
+        RBatch batch = redisson.createBatch();
+        Future<Long> deleted = batch.getKeys().deleteByPatternAsync("test?");
+        Future<Collection<String>> found = batch.getKeys().findKeysByPatternAsync("other");
+        batch.execute();
+
+        Assert.assertEquals(2L, (long)deleted.getNow());
+        Assert.assertEquals(Arrays.asList("other"), new ArrayList<String>(found.getNow()));
+        Assert.assertFalse(redisson.getBucket("test1").isExists());
+        Assert.assertTrue(redisson.getBucket("other").isExists());
+    }
+
+    @Test
+    public void testMapCacheGetAllPutAll() {
+        Map<Integer, Integer> values = new HashMap<Integer, Integer>();
+        for (int i = 0; i < 2500; i++) {
+            values.put(i, i*10);
+        }
+
+        RBatch batch = redisson.createBatch();
+        RMapCacheAsync<Integer, Integer> map = batch.getMapCache("mapCache");
+        Future<Void> putFuture = map.putAllAsync(values, 1, TimeUnit.MINUTES);
+        Future<Map<Integer, Integer>> getFuture = map.getAllAsync(new HashSet<Integer>(Arrays.asList(1, 2, 2000, 3000)));
+        // chunks are queued in batch until it's executed
+        Assert.assertFalse(putFuture.isDone());
+        Assert.assertFalse(getFuture.isDone());
+        batch.execute();
+
+        Assert.assertTrue(putFuture.isSuccess());
+        Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        expected.put(1, 10);
+        expected.put(2, 20);
+        expected.put(2000, 20000);
+        Assert.assertEquals(expected, getFuture.getNow());
+        Assert.assertEquals(2500, redisson.getMapCache("mapCache").size());
+        redisson.getMapCache("mapCache").delete();
+    }
+
     @Test
     public void testBatchList() {
         RBatch b = redisson.createBatch();
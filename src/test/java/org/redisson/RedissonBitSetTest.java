@@ -1,5 +1,6 @@
 package org.redisson;
 
+import java.util.Arrays;
 import java.util.BitSet;
 
 import org.junit.Assert;
@@ -36,6 +37,15 @@ public class RedissonBitSetTest extends BaseTest {
         Assert.assertEquals(1, bs.length());
     }
 
+    @Test
+    public void testBulkSetGet() {
+        RBitSet bs = redisson.getBitSet("testbitset");
+        bs.set(3);
+        Assert.assertTrue(Arrays.equals(new boolean[] {false, true, false}, bs.set(new int[] {1, 3, 200})));
+        Assert.assertTrue(Arrays.equals(new boolean[] {true, false, true, true}, bs.get(new int[] {1, 2, 3, 200})));
+        Assert.assertEquals(3, bs.cardinality());
+    }
+
     @Test
     public void testClear() {
         RBitSet bs = redisson.getBitSet("testbitset");
@@ -0,0 +1,102 @@
+package org.redisson;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.redisson.core.RBloomFilter;
+
+public class RedissonBloomFilterTest extends BaseTest {
+
+    @Test(expected = IllegalStateException.class)
+    public void testNotInitialized() {
+        RBloomFilter<String> filter = redisson.getBloomFilter("filter");
+        filter.contains("32");
+    }
+
+    @Test
+    public void testConfig() {
+        RBloomFilter<String> filter = redisson.getBloomFilter("filter");
+        Assert.assertTrue(filter.tryInit(100, 0.03));
+        Assert.assertFalse(filter.tryInit(55, 0.5));
+        Assert.assertEquals(100, filter.getExpectedInsertions());
+        Assert.assertEquals(0.03, filter.getFalseProbability(), 0);
+        Assert.assertEquals(729, filter.getSize());
+        Assert.assertEquals(5, filter.getHashIterations());
+        Assert.assertEquals(1, filter.getSegments());
+
+        RBloomFilter<String> filter2 = redisson.getBloomFilter("filter");
+        Assert.assertEquals(729, filter2.getSize());
+        Assert.assertEquals(5, filter2.getHashIterations());
+    }
+
+    @Test
+    public void testAddContains() {
+        RBloomFilter<String> filter = redisson.getBloomFilter("filter");
+        filter.tryInit(550000000L, 0.03);
+
+        Assert.assertFalse(filter.contains("123"));
+        Assert.assertTrue(filter.add("123"));
+        Assert.assertFalse(filter.add("123"));
+        Assert.assertTrue(filter.contains("123"));
+        Assert.assertFalse(filter.contains("3"));
+    }
+
+    @Test
+    public void testAddAllContainsAll() {
+        RBloomFilter<String> filter = redisson.getBloomFilter("filter");
+        filter.tryInit(10000, 0.01, 4);
+
+        List<String> values = new ArrayList<String>();
+        for (int i = 0; i < 1000; i++) {
+            values.add("value" + i);
+        }
+        Assert.assertFalse(filter.containsAll(values));
+        Assert.assertEquals(1000, filter.addAll(values));
+        Assert.assertTrue(filter.containsAll(values));
+        Assert.assertEquals(0, filter.addAll(values.subList(0, 10)));
+        Assert.assertFalse(filter.containsAll(Arrays.asList("value1", "missing")));
+
+        Assert.assertTrue(filter.delete());
+        Assert.assertFalse(filter.isExists());
+    }
+
+    @Test
+    public void testConfigChanged() {
+        RBloomFilter<String> filter = redisson.getBloomFilter("filter");
+        filter.tryInit(100, 0.03);
+        Assert.assertTrue(filter.add("123"));
+        Assert.assertEquals(729, filter.getSize());
+
+        RBloomFilter<String> filter2 = redisson.getBloomFilter("filter");
+        filter2.delete();
+        filter2.tryInit(100000, 0.01, 2);
+        Assert.assertTrue(filter2.add("321"));
+
+        Assert.assertFalse(filter.contains("123"));
+        Assert.assertTrue(filter.contains("321"));
+        Assert.assertEquals(2, filter.getSegments());
+    }
+
+    @Test
+    public void testRename() {
+        RBloomFilter<String> filter = redisson.getBloomFilter("filter");
+        filter.tryInit(1000, 0.01, 3);
+        filter.addAll(Arrays.asList("1", "2", "3", "4", "5"));
+
+        filter.rename("newfilter");
+
+        RBloomFilter<String> newFilter = redisson.getBloomFilter("newfilter");
+        Assert.assertTrue(newFilter.containsAll(Arrays.asList("1", "2", "3", "4", "5")));
+        Assert.assertEquals(3, newFilter.getSegments());
+        Assert.assertFalse(filter.isExists());
+
+        RBloomFilter<String> filter2 = redisson.getBloomFilter("filter");
+        filter2.tryInit(1000, 0.01);
+        Assert.assertFalse(newFilter.renamenx("filter"));
+        Assert.assertTrue(newFilter.isExists());
+    }
+
+}
@@ -4,6 +4,9 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
@@ -12,6 +15,9 @@ import org.junit.Test;
 import org.redisson.core.RBucket;
 import org.redisson.core.RMap;
 
+import io.netty.util.concurrent.GenericProgressiveFutureListener;
+import io.netty.util.concurrent.ProgressiveFuture;
+
 public class RedissonKeysTest extends BaseTest {
 
     @Test
@@ -72,6 +78,35 @@ public class RedissonKeysTest extends BaseTest {
         Assert.assertEquals(2, redisson.getKeys().deleteByPattern("test?"));
     }
 
+    @Test
+    public void testDeleteByPatternPaged() throws InterruptedException, ExecutionException {
+        for (int i = 0; i < 1000; i++) {
+            redisson.getBucket("test" + i).set(i);
+        }
+        redisson.getBucket("other").set(1);
+
+        final AtomicLong progress = new AtomicLong();
+        final CountDownLatch latch = new CountDownLatch(1);
+        ProgressiveFuture<Long> future = redisson.getKeys().deleteByPatternAsync("test*", 50);
+        future.addListener(new GenericProgressiveFutureListener<ProgressiveFuture<Long>>() {
+            @Override
+            public void operationProgressed(ProgressiveFuture<Long> future, long value, long total) {
+                progress.set(value);
+            }
+
+            @Override
+            public void operationComplete(ProgressiveFuture<Long> future) {
+                latch.countDown();
+            }
+        });
+
+        Assert.assertEquals(1000, (long)future.get());
+        latch.await();
+        Assert.assertEquals(1000, progress.get());
+        Assert.assertEquals(0, redisson.getKeys().findKeysByPattern("test*", 50).size());
+        Assert.assertTrue(redisson.getBucket("other").isExists());
+    }
+
     @Test
     public void testFindKeys() {
         RBucket<String> bucket = redisson.getBucket("test1");
@@ -0,0 +1,236 @@
+package org.redisson;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.core.LocalCachedMapOptions;
+import org.redisson.core.LocalCachedMapOptions.EvictionPolicy;
+import org.redisson.core.RLocalCachedMap;
+import org.redisson.core.RMap;
+
+import io.netty.util.concurrent.Future;
+
+public class RedissonLocalCachedMapTest extends BaseTest {
+
+    @Test
+    public void testGetFromCache() {
+        RLocalCachedMap<String, Integer> map = redisson.getLocalCachedMap("test", LocalCachedMapOptions.defaults());
+        map.put("1", 1);
+        map.put("2", 2);
+
+        Assert.assertEquals(1, (int)map.get("1"));
+        Assert.assertEquals(2, (int)map.get("2"));
+        Assert.assertEquals(2, map.getCacheHits());
+        Assert.assertEquals(0, map.getCacheMisses());
+
+        map.clearLocalCache();
+        Assert.assertEquals(1, (int)map.get("1"));
+        Assert.assertEquals(1, (int)map.get("1"));
+        Assert.assertEquals(3, map.getCacheHits());
+        Assert.assertEquals(1, map.getCacheMisses());
+        map.destroy();
+    }
+
+    @Test
+    public void testInvalidationOnUpdate() throws InterruptedException {
+        RedissonClient redisson2 = BaseTest.createInstance();
+        RLocalCachedMap<String, Integer> map1 = redisson.getLocalCachedMap("test", LocalCachedMapOptions.defaults());
+        RLocalCachedMap<String, Integer> map2 = redisson2.getLocalCachedMap("test", LocalCachedMapOptions.defaults());
+
+        map1.put("1", 1);
+        map1.put("2", 2);
+        Assert.assertEquals(1, (int)map2.get("1"));
+        Assert.assertEquals(2, (int)map2.get("2"));
+        Assert.assertEquals(2, map2.getCachedSize());
+
+        map1.put("1", 3);
+        map1.fastRemove("2");
+        Thread.sleep(100);
+
+        Assert.assertEquals(2, map2.getCacheInvalidations());
+        Assert.assertEquals(3, (int)map2.get("1"));
+        Assert.assertNull(map2.get("2"));
+
+        map1.delete();
+        Thread.sleep(100);
+        Assert.assertEquals(0, map2.getCachedSize());
+        Assert.assertNull(map2.get("1"));
+
+        map1.destroy();
+        map2.destroy();
+        redisson2.shutdown();
+    }
+
+    @Test
+    public void testSameInstance() {
+        RLocalCachedMap<String, Integer> map1 = redisson.getLocalCachedMap("test", LocalCachedMapOptions.defaults());
+        RLocalCachedMap<String, Integer> map2 = redisson.getLocalCachedMap("test", LocalCachedMapOptions.defaults());
+        Assert.assertSame(map1, map2);
+
+        map1.put("1", 1);
+        Assert.assertEquals(1, map2.getCachedSize());
+
+        // cache is kept until each holder released the instance
+        map1.destroy();
+        Assert.assertEquals(1, map2.getCachedSize());
+        map2.destroy();
+        Assert.assertEquals(0, map2.getCachedSize());
+
+        RLocalCachedMap<String, Integer> map3 = redisson.getLocalCachedMap("test", LocalCachedMapOptions.defaults());
+        Assert.assertNotSame(map1, map3);
+        map3.destroy();
+    }
+
+    @Test
+    public void testDifferentOptions() {
+        RLocalCachedMap<String, Integer> map = redisson.getLocalCachedMap("test", LocalCachedMapOptions.defaults());
+        try {
+            redisson.getLocalCachedMap("test", LocalCachedMapOptions.defaults().cacheSize(10));
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // skip
+        }
+        try {
+            redisson.getLocalCachedMap("test", StringCodec.INSTANCE, LocalCachedMapOptions.defaults());
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // skip
+        }
+
+        map.put("1", 1);
+        map.destroy();
+        Assert.assertEquals(0, map.getCachedSize());
+    }
+
+    @Test
+    public void testWriteDoesntSkipCachingOfOtherKey() throws InterruptedException {
+        redisson.getMap("test").put("1", 1);
+        RLocalCachedMap<String, Integer> map = redisson.getLocalCachedMap("test", LocalCachedMapOptions.defaults());
+
+        Future<Integer> getFuture = map.getAsync("1");
+        Future<Boolean> putFuture = map.fastPutAsync("2", 2);
+        getFuture.await();
+        putFuture.await();
+
+        Assert.assertEquals(1, (int)getFuture.getNow());
+        Assert.assertEquals(2, map.getCachedSize());
+        Assert.assertEquals(1, (int)map.get("1"));
+        Assert.assertEquals(1, map.getCacheHits());
+        map.destroy();
+    }
+
+    @Test
+    public void testLRUEviction() {
+        RLocalCachedMap<Integer, Integer> map = redisson.getLocalCachedMap("test",
+                LocalCachedMapOptions.defaults().evictionPolicy(EvictionPolicy.LRU).cacheSize(2));
+        map.put(1, 1);
+        map.put(2, 2);
+        map.get(1);
+        map.put(3, 3);
+
+        Assert.assertEquals(2, map.getCachedSize());
+        Assert.assertEquals(1, map.getCacheEvictions());
+        map.get(1);
+        Assert.assertEquals(2, map.getCacheHits());
+        map.get(2);
+        Assert.assertEquals(1, map.getCacheMisses());
+        map.destroy();
+    }
+
+    @Test
+    public void testLFUEviction() {
+        RLocalCachedMap<Integer, Integer> map = redisson.getLocalCachedMap("test",
+                LocalCachedMapOptions.defaults().evictionPolicy(EvictionPolicy.LFU).cacheSize(2));
+        map.put(1, 1);
+        map.put(2, 2);
+        map.get(2);
+        map.get(2);
+        map.get(1);
+        map.put(3, 3);
+
+        Assert.assertEquals(2, map.getCachedSize());
+        Assert.assertEquals(1, map.getCacheEvictions());
+        map.get(2);
+        Assert.assertEquals(4, map.getCacheHits());
+        map.get(1);
+        Assert.assertEquals(1, map.getCacheMisses());
+        map.destroy();
+    }
+
+    @Test
+    public void testTimeToLive() throws InterruptedException {
+        RLocalCachedMap<Integer, Integer> map = redisson.getLocalCachedMap("test",
+                LocalCachedMapOptions.defaults().timeToLive(100));
+        map.put(1, 1);
+        Thread.sleep(150);
+
+        Assert.assertEquals(1, (int)map.get(1));
+        Assert.assertEquals(1, map.getCacheMisses());
+        Assert.assertEquals(1, map.getCacheEvictions());
+        map.destroy();
+    }
+
+    @Test
+    public void testTimeToLivePurge() throws InterruptedException {
+        RLocalCachedMap<Integer, Integer> map = redisson.getLocalCachedMap("test",
+                LocalCachedMapOptions.defaults().timeToLive(100));
+        for (int i = 0; i < 10; i++) {
+            map.put(i, i);
+        }
+        Assert.assertEquals(10, map.getCachedSize());
+        Thread.sleep(150);
+
+        // expired entries are purged even if they aren't read
+        map.put(10, 10);
+        Assert.assertEquals(1, map.getCachedSize());
+        Assert.assertEquals(10, map.getCacheEvictions());
+        map.destroy();
+    }
+
+    @Test
+    public void testPutCachesOnSuccess() {
+        RLocalCachedMap<String, Integer> map = redisson.getLocalCachedMap("test", LocalCachedMapOptions.defaults());
+        Assert.assertNull(map.put("1", 1));
+        Assert.assertEquals(1, map.getCachedSize());
+
+        map.fastPut("2", 2);
+        Map<String, Integer> values = new HashMap<String, Integer>();
+        values.put("3", 3);
+        values.put("4", 4);
+        map.putAll(values);
+        Assert.assertEquals(4, map.getCachedSize());
+
+        Assert.assertEquals(1, (int)map.put("1", 5));
+        Assert.assertEquals(5, (int)map.get("1"));
+        Assert.assertEquals(0, map.getCacheMisses());
+        map.destroy();
+    }
+
+    @Test
+    public void testGetAll() {
+        RMap<Integer, Integer> origMap = redisson.getMap("test");
+        origMap.put(1, 100);
+        origMap.put(2, 200);
+        origMap.put(3, 300);
+
+        RLocalCachedMap<Integer, Integer> map = redisson.getLocalCachedMap("test", LocalCachedMapOptions.defaults());
+        map.get(1);
+
+        Map<Integer, Integer> filtered = map.getAll(new HashSet<Integer>(Arrays.asList(1, 2, 5)));
+
+        Map<Integer, Integer> expectedMap = new HashMap<Integer, Integer>();
+        expectedMap.put(1, 100);
+        expectedMap.put(2, 200);
+        Assert.assertEquals(expectedMap, filtered);
+        Assert.assertEquals(1, map.getCacheHits());
+        Assert.assertEquals(3, map.getCacheMisses());
+        Assert.assertEquals(2, map.getCachedSize());
+        map.destroy();
+    }
+
+}
@@ -1,6 +1,9 @@
 package org.redisson;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
@@ -9,6 +12,8 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.redisson.core.RLock;
 
+import io.netty.util.concurrent.Future;
+
 public class RedissonLockTest extends BaseConcurrentTest {
 
     @Test
@@ -20,6 +25,76 @@ public class RedissonLockTest extends BaseConcurrentTest {
         Assert.assertTrue(lock.delete());
     }
 
+    @Test
+    public void testLockAsyncOwner() throws InterruptedException, ExecutionException {
+        RLock lock = redisson.getLock("lock");
+        lock.lockAsync(-1, null, 1).get();
+        Assert.assertFalse(lock.tryLockAsync(2).get());
+
+        Future<Boolean> waiter = lock.tryLockAsync(5, -1, TimeUnit.SECONDS, 2);
+        Thread.sleep(100);
+        Assert.assertFalse(waiter.isDone());
+
+        // unlock from thread which hasn't acquired it
+        lock.unlockAsync(1).get();
+        Assert.assertTrue(waiter.await(1, TimeUnit.SECONDS));
+        Assert.assertTrue(waiter.getNow());
+
+        Future<Void> f = lock.unlockAsync(1);
+        f.await();
+        Assert.assertTrue(f.cause() instanceof IllegalMonitorStateException);
+
+        lock.unlockAsync(2).get();
+        Assert.assertFalse(lock.isLocked());
+    }
+
+    @Test
+    public void testOwnerDoesntMatchThread() throws InterruptedException, ExecutionException {
+        RLock lock = redisson.getLock("lock");
+        long threadId = Thread.currentThread().getId();
+        Assert.assertTrue(lock.tryLockAsync(threadId).get());
+        Assert.assertFalse(lock.isHeldByCurrentThread());
+        Assert.assertFalse(lock.tryLock());
+
+        lock.unlockAsync(threadId).get();
+        Assert.assertFalse(lock.isLocked());
+    }
+
+    @Test
+    public void testNotificationChannels() throws InterruptedException {
+        Config config = createConfig();
+        config.setNotificationChannels(2);
+        final RedissonClient client = Redisson.create(config);
+
+        final int locks = 10;
+        for (int i = 0; i < locks; i++) {
+            client.getLock("lock" + i).lock();
+        }
+
+        final CountDownLatch latch = new CountDownLatch(locks);
+        for (int i = 0; i < locks; i++) {
+            final int index = i;
+            Thread t = new Thread() {
+                public void run() {
+                    RLock lock = client.getLock("lock" + index);
+                    lock.lock();
+                    latch.countDown();
+                    lock.unlock();
+                };
+            };
+            t.start();
+        }
+
+        Thread.sleep(100);
+        for (int i = 0; i < locks; i++) {
+            client.getLock("lock" + i).unlock();
+        }
+
+        // waiters are woken up by notification instead of lock expiration
+        Assert.assertTrue(latch.await(1, TimeUnit.SECONDS));
+        client.shutdown();
+    }
+
     @Test
     public void testForceUnlock() {
         RLock lock = redisson.getLock("lock");
@@ -285,4 +360,61 @@ public class RedissonLockTest extends BaseConcurrentTest {
         Assert.assertEquals(iterations, lockedCounter.get());
     }
 
+    @Test
+    public void testConcurrency_DistinctNames() throws InterruptedException {
+        final int names = 200;
+        final int iterations = 10;
+        final AtomicInteger lockedCounter = new AtomicInteger();
+
+        // two threads per name, so each lock is contended and subscribes to notifications
+        ExecutorService executor = Executors.newCachedThreadPool();
+        long watch = System.currentTimeMillis();
+        for (int i = 0; i < names * 2; i++) {
+            final String name = "testConcurrency_DistinctNames" + (i % names);
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < iterations; j++) {
+                        Lock lock = redisson.getLock(name);
+                        lock.lock();
+                        lockedCounter.incrementAndGet();
+                        lock.unlock();
+                    }
+                }
+            });
+        }
+
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+
+        System.out.println("distinct names: " + (System.currentTimeMillis() - watch));
+        Assert.assertEquals(names * 2 * iterations, lockedCounter.get());
+    }
+
+    @Test
+    public void testResubscribeWhileUnsubscribing() throws InterruptedException {
+        final int iterations = 500;
+        final AtomicInteger lockedCounter = new AtomicInteger();
+
+        // short contended sections make waiters subscribe right after last one unsubscribed
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < iterations; j++) {
+                        Lock lock = redisson.getLock("testResubscribeWhileUnsubscribing");
+                        lock.lock();
+                        lockedCounter.incrementAndGet();
+                        lock.unlock();
+                    }
+                }
+            });
+        }
+
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        Assert.assertEquals(4 * iterations, lockedCounter.get());
+    }
+
 }
@@ -0,0 +1,175 @@
+package org.redisson;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.redisson.core.LongAdderOptions;
+import org.redisson.core.RLongAdder;
+
+public class RedissonLongAdderTest extends BaseTest {
+
+    @Test
+    public void testSum() throws InterruptedException {
+        final RLongAdder adder = redisson.getLongAdder("test", LongAdderOptions.defaults().flushInterval(0).flushThreshold(0));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        adder.increment();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        // nothing is flushed yet
+        Assert.assertEquals(0, redisson.getAtomicLong("test").get());
+        Assert.assertEquals(80000, adder.sum());
+        Assert.assertEquals(80000, redisson.getAtomicLong("test").get());
+
+        adder.destroy();
+    }
+
+    @Test
+    public void testFlushThreshold() {
+        RLongAdder adder = redisson.getLongAdder("test", LongAdderOptions.defaults().flushInterval(0).flushThreshold(10));
+        for (int i = 0; i < 9; i++) {
+            adder.increment();
+        }
+        Assert.assertFalse(redisson.getAtomicLong("test").isExists());
+
+        adder.increment();
+        adder.flush();
+        Assert.assertEquals(10, redisson.getAtomicLong("test").get());
+        adder.destroy();
+    }
+
+    @Test
+    public void testGlobalSum() {
+        LongAdderOptions options = LongAdderOptions.defaults().shards(4).flushInterval(0).flushThreshold(0);
+        RedissonClient redisson2 = createInstance();
+        RLongAdder adder1 = redisson.getLongAdder("test", options);
+        RLongAdder adder2 = redisson2.getLongAdder("test", options);
+
+        for (int i = 0; i < 100; i++) {
+            adder1.increment();
+            adder2.add(2);
+        }
+
+        // only own increments are flushed
+        Assert.assertEquals(100, adder1.sum());
+        Assert.assertEquals(300, adder1.sum(1, TimeUnit.SECONDS));
+
+        adder2.decrement();
+        Assert.assertEquals(299, adder2.sum(1, TimeUnit.SECONDS));
+
+        Assert.assertTrue(adder1.delete());
+        Assert.assertFalse(adder1.isExists());
+
+        adder1.destroy();
+        adder2.destroy();
+        redisson2.shutdown();
+    }
+
+    @Test
+    public void testSameInstance() {
+        LongAdderOptions options = LongAdderOptions.defaults().flushInterval(0).flushThreshold(0);
+        RLongAdder adder1 = redisson.getLongAdder("test", options);
+        RLongAdder adder2 = redisson.getLongAdder("test", options);
+        Assert.assertSame(adder1, adder2);
+
+        adder1.add(5);
+        adder2.destroy();
+        // still used by first holder
+        Assert.assertSame(adder1, redisson.getLongAdder("test", options));
+        Assert.assertEquals(5, adder1.sum());
+
+        adder1.destroy();
+        adder1.destroy();
+
+        RLongAdder adder3 = redisson.getLongAdder("test", options);
+        Assert.assertNotSame(adder1, adder3);
+        adder3.destroy();
+    }
+
+    @Test
+    public void testFlushWaitsThresholdFlush() {
+        RLongAdder adder = redisson.getLongAdder("test", LongAdderOptions.defaults().flushInterval(0).flushThreshold(1));
+        for (int i = 0; i < 1000; i++) {
+            adder.increment();
+            // cells are empty, but threshold flush could be in progress
+            adder.flush();
+            Assert.assertEquals(i + 1, redisson.getAtomicLong("test").get());
+        }
+        adder.destroy();
+    }
+
+    @Test
+    public void testOptionsMismatch() {
+        LongAdderOptions options = LongAdderOptions.defaults().flushInterval(0).flushThreshold(0);
+        RLongAdder adder = redisson.getLongAdder("test", options);
+        Assert.assertSame(adder, redisson.getLongAdder("test", LongAdderOptions.defaults().flushInterval(0).flushThreshold(0)));
+        try {
+            redisson.getLongAdder("test", LongAdderOptions.defaults().shards(2).flushInterval(0).flushThreshold(0));
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        adder.destroy();
+        // failed call doesn't hold instance
+        adder.destroy();
+        RLongAdder adder2 = redisson.getLongAdder("test", options);
+        Assert.assertNotSame(adder, adder2);
+        adder2.destroy();
+    }
+
+    @Test
+    public void testRename() {
+        LongAdderOptions options = LongAdderOptions.defaults().shards(3).flushInterval(0).flushThreshold(1);
+        RLongAdder adder = redisson.getLongAdder("test", options);
+        for (int i = 0; i < 5; i++) {
+            adder.increment();
+        }
+
+        adder.rename("newtest");
+        Assert.assertFalse(adder.isExists());
+
+        RLongAdder newAdder = redisson.getLongAdder("newtest", options);
+        Assert.assertEquals(5, newAdder.sum());
+
+        adder.add(2);
+        Assert.assertFalse(newAdder.renamenx("test"));
+        Assert.assertEquals(5, newAdder.sum());
+        Assert.assertEquals(2, adder.sum());
+
+        Assert.assertTrue(adder.delete());
+        Assert.assertTrue(newAdder.renamenx("test"));
+        Assert.assertEquals(5, adder.sum());
+        Assert.assertFalse(newAdder.isExists());
+
+        adder.destroy();
+        newAdder.destroy();
+    }
+
+    @Test
+    public void testMove() {
+        LongAdderOptions options = LongAdderOptions.defaults().shards(2).flushInterval(0).flushThreshold(0);
+        RLongAdder adder = redisson.getLongAdder("test", options);
+        adder.add(3);
+
+        Assert.assertTrue(adder.move(1));
+        Assert.assertFalse(adder.isExists());
+        Assert.assertFalse(adder.move(1));
+
+        adder.destroy();
+    }
+
+}
@@ -20,6 +20,7 @@ import org.redisson.RedissonMapCacheReactiveTest.SimpleValue;
 import org.redisson.api.RMapCacheReactive;
 import org.redisson.codec.JsonJacksonCodec;
 import org.redisson.codec.MsgPackJacksonCodec;
+import org.redisson.core.EvictionStats;
 import org.redisson.core.Predicate;
 import org.redisson.core.RMapCache;
 import org.redisson.core.RSetCache;
@@ -154,6 +155,27 @@ public class RedissonMapCacheTest extends BaseTest {
         Assert.assertEquals(2, map.size());
     }
 
+    @Test
+    public void testPutAllTTL() throws InterruptedException {
+        RMapCache<Integer, Integer> map = redisson.getMapCache("putAll");
+        map.put(1, 100);
+
+        Map<Integer, Integer> entries = new HashMap<Integer, Integer>();
+        for (int i = 0; i < 2500; i++) {
+            entries.put(i, i*10);
+        }
+        map.putAll(entries, 1, TimeUnit.SECONDS);
+        Assert.assertEquals(2500, map.size());
+        Assert.assertEquals(10, (int)map.get(1));
+
+        Map<Integer, Integer> all = map.getAll(entries.keySet());
+        Assert.assertEquals(entries, all);
+
+        Thread.sleep(1000);
+
+        Assert.assertTrue(map.getAll(entries.keySet()).isEmpty());
+    }
+
     @Test
     public void testGetAllWithStringKeys() {
         RMapCache<String, Integer> map = redisson.getMapCache("getAllStrings");
@@ -170,6 +192,29 @@ public class RedissonMapCacheTest extends BaseTest {
         Assert.assertEquals(expectedMap, filtered);
     }
 
+    @Test
+    public void testEvictionStats() throws InterruptedException {
+        RMapCache<Integer, Integer> map = redisson.getMapCache("evictionStats");
+        for (int i = 0; i < 10; i++) {
+            map.put(i, i, 500, TimeUnit.MILLISECONDS);
+        }
+
+        EvictionStats stats = map.getEvictionStats();
+        Assert.assertEquals("evictionStats", stats.getName());
+        Assert.assertEquals(0, stats.getTotalExpired());
+
+        Thread.sleep(600);
+        // expired entry read requests clean on next timer tick
+        Assert.assertNull(map.get(1));
+        Thread.sleep(2100);
+
+        stats = map.getEvictionStats();
+        Assert.assertTrue(stats.isOwner());
+        Assert.assertEquals(10, stats.getTotalExpired());
+        Assert.assertEquals(0, stats.getBacklog());
+        Assert.assertEquals(0, map.size());
+    }
+
     @Test
     public void testExpiredIterator() throws InterruptedException {
         RMapCache<String, String> cache = redisson.getMapCache("simple");
@@ -555,6 +555,28 @@ public class RedissonMapTest extends BaseTest {
         Assert.assertEquals(0, values.size());
     }
 
+    @Test
+    public void testEntryIteratorCount() {
+        RMap<Integer, Integer> map = redisson.getMap("simple");
+        Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        for (int i = 0; i < 1000; i++) {
+            expected.put(i, i*2);
+        }
+        map.putAll(expected);
+
+        Map<Integer, Integer> result = new HashMap<Integer, Integer>();
+        for (Iterator<Map.Entry<Integer, Integer>> iterator = map.entryIterator(50); iterator.hasNext();) {
+            Map.Entry<Integer, Integer> entry = iterator.next();
+            Assert.assertNull(result.put(entry.getKey(), entry.getValue()));
+            if (entry.getKey() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+
+        Assert.assertEquals(expected, result);
+        Assert.assertEquals(500, map.size());
+    }
+
     @Test
     public void testFastPut() throws Exception {
         RMap<Integer, Integer> map = redisson.getMap("simple");
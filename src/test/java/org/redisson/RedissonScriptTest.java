@@ -10,6 +10,7 @@ import org.hamcrest.Matchers;
 import org.junit.Assert;
 import org.junit.Test;
 import org.redisson.client.RedisException;
+import org.redisson.connection.ScriptCache;
 import org.redisson.core.RScript;
 import org.redisson.core.RScript.Mode;
 
@@ -29,6 +30,41 @@ public class RedissonScriptTest extends BaseTest {
         MatcherAssert.assertThat(res.awaitUninterruptibly().getNow(), Matchers.<Object>contains(1L, 2L, 3L, "foo"));
     }
 
+    @Test
+    public void testEvalWithScriptCache() {
+        Config config = createConfig();
+        config.setUseScriptCache(true);
+        RedissonClient r = Redisson.create(config);
+
+        r.getBucket("foo").set("bar");
+        r.getScript().scriptFlush();
+        for (int i = 0; i < 3; i++) {
+            String res = r.getScript().eval(Mode.READ_ONLY, "return redis.call('get', 'foo')", RScript.ReturnType.VALUE, Collections.<Object>singletonList("foo"));
+            Assert.assertEquals("bar", res);
+        }
+
+        List<Boolean> exists = r.getScript().scriptExists("282297a0228f48cd3fc6a55de6316f31422f5d17");
+        Assert.assertTrue(exists.get(0));
+
+        r.shutdown();
+    }
+
+    @Test
+    public void testScriptCacheEviction() {
+        Config config = createConfig();
+        config.setUseScriptCache(true);
+        RedissonClient r = Redisson.create(config);
+
+        for (int i = 0; i < ScriptCache.DEFAULT_SIZE * 2; i++) {
+            Long res = r.getScript().eval(Mode.READ_ONLY, "return " + i, RScript.ReturnType.INTEGER);
+            Assert.assertEquals(i, res.longValue());
+        }
+        Long res = r.getScript().eval(Mode.READ_ONLY, "return 0", RScript.ReturnType.INTEGER);
+        Assert.assertEquals(0, res.longValue());
+
+        r.shutdown();
+    }
+
     @Test
     public void testScriptExists() {
         RScript s = redisson.getScript();
@@ -2,10 +2,12 @@ package org.redisson;
 
 import io.netty.util.concurrent.Future;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -15,6 +17,10 @@ import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Assert;
 import org.junit.Test;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.core.LexicographicComparator;
+import org.redisson.core.NumericComparator;
 import org.redisson.core.RSortedSet;
 
 public class RedissonSortedSetTest extends BaseTest {
@@ -142,6 +148,70 @@ public class RedissonSortedSetTest extends BaseTest {
         MatcherAssert.assertThat(set, Matchers.contains(1, 2, 3));
     }
 
+    @Test
+    public void testNumericComparator() {
+        RSortedSet<Long> set = redisson.getSortedSet("set", LongCodec.INSTANCE);
+        Assert.assertTrue(set.trySetComparator(new NumericComparator()));
+
+        TreeSet<Long> expected = new TreeSet<Long>();
+        for (long i = 0; i < 200; i++) {
+            long value = (i * 7919) % 211 - 100;
+            Assert.assertEquals(expected.add(value), set.add(value));
+        }
+        Assert.assertFalse(set.add(expected.first()));
+        MatcherAssert.assertThat(set, Matchers.contains(expected.toArray()));
+
+        Assert.assertTrue(set.contains(expected.last()));
+        Assert.assertFalse(set.contains(1000L));
+        Assert.assertTrue(set.remove(expected.first()));
+        Assert.assertFalse(set.remove(expected.first()));
+        Assert.assertEquals(expected.size() - 1, set.size());
+    }
+
+    @Test
+    public void testLexicographicComparator() {
+        RSortedSet<String> set = redisson.getSortedSet("set", StringCodec.INSTANCE);
+        Assert.assertTrue(set.trySetComparator(new LexicographicComparator()));
+
+        Assert.assertTrue(set.add("b"));
+        Assert.assertTrue(set.add("ab"));
+        Assert.assertTrue(set.add("a"));
+        Assert.assertTrue(set.add("B"));
+        Assert.assertFalse(set.add("ab"));
+        MatcherAssert.assertThat(set, Matchers.contains("B", "a", "ab", "b"));
+
+        Assert.assertTrue(set.remove("ab"));
+        MatcherAssert.assertThat(set, Matchers.contains("B", "a", "b"));
+    }
+
+    @Test
+    public void testLexicographicComparatorUsesCodec() {
+        RSortedSet<Integer> set = redisson.getSortedSet("set");
+        Assert.assertTrue(set.trySetComparator(new LexicographicComparator()));
+
+        for (int i = 0; i < 50; i++) {
+            set.add((i * 31) % 53);
+        }
+
+        List<Integer> values = new ArrayList<Integer>(set);
+        Assert.assertEquals(50, values.size());
+        for (int i = 1; i < values.size(); i++) {
+            Assert.assertTrue(set.comparator().compare(values.get(i - 1), values.get(i)) < 0);
+        }
+    }
+
+    @Test
+    public void testComparatorKeyRemoved() {
+        RSortedSet<String> set = redisson.getSortedSet("set", StringCodec.INSTANCE);
+        Assert.assertTrue(set.trySetComparator(new LexicographicComparator()));
+        Assert.assertTrue(set.add("b"));
+
+        redisson.getKeys().delete("redisson__sortedset__comparator__{set}");
+
+        Assert.assertTrue(set.add("a"));
+        Assert.assertTrue(set.contains("b"));
+        MatcherAssert.assertThat(set, Matchers.contains("a", "b"));
+    }
 
     @Test
     public void testOrder2() {
@@ -5,7 +5,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.InetSocketAddress;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -14,11 +16,13 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.redisson.client.WriteRedisConnectionException;
 import org.redisson.codec.SerializationCodec;
+import org.redisson.command.HistogramCommandMetrics;
 import org.redisson.connection.ConnectionListener;
 import org.redisson.core.ClusterNode;
 import org.redisson.core.Node;
 import org.redisson.core.NodesGroup;
 
+import io.netty.util.concurrent.Future;
 import net.jodah.concurrentunit.Waiter;
 
 public class RedissonTest {
@@ -99,6 +103,85 @@ public class RedissonTest {
         return p;
     }
 
+    @Test
+    public void testConnectionWaitQueue() throws InterruptedException {
+        Config config = new Config();
+        config.useSingleServer()
+            .setAddress("127.0.0.1:6379")
+            .setConnectionMinimumIdleSize(1)
+            .setConnectionPoolSize(1)
+            .setConnectionWaitQueueSize(1000);
+        RedissonClient r = Redisson.create(config);
+
+        List<Future<Long>> futures = new ArrayList<Future<Long>>();
+        for (int i = 0; i < 500; i++) {
+            futures.add(r.getAtomicLong("counter").incrementAndGetAsync());
+        }
+        for (Future<Long> future : futures) {
+            future.await();
+            Assert.assertTrue(future.isSuccess());
+        }
+        Assert.assertEquals(500, r.getAtomicLong("counter").get());
+
+        r.getAtomicLong("counter").delete();
+        r.shutdown();
+    }
+
+    @Test
+    public void testConnectionWaitQueueOrder() throws InterruptedException {
+        Config config = new Config();
+        config.useSingleServer()
+            .setAddress("127.0.0.1:6379")
+            .setConnectionMinimumIdleSize(1)
+            .setConnectionPoolSize(1)
+            .setRetryAttempts(0)
+            .setRetryInterval(500)
+            .setConnectionAcquireTimeout(3000);
+        RedissonClient r = Redisson.create(config);
+
+        // holds the only connection longer than retry interval
+        Future<Object> pollFuture = r.getBlockingQueue("queue").pollAsync(1500, TimeUnit.MILLISECONDS);
+
+        List<Future<Long>> futures = new ArrayList<Future<Long>>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(r.getAtomicLong("counter").incrementAndGetAsync());
+        }
+        long expected = 1;
+        for (Future<Long> future : futures) {
+            future.await();
+            Assert.assertTrue(future.isSuccess());
+            Assert.assertEquals(expected++, future.getNow().longValue());
+        }
+        pollFuture.await();
+        Assert.assertTrue(pollFuture.isSuccess());
+
+        r.getAtomicLong("counter").delete();
+        r.shutdown();
+    }
+
+    @Test
+    public void testCommandMetrics() {
+        HistogramCommandMetrics metrics = new HistogramCommandMetrics();
+        Config config = new Config();
+        config.setCommandMetrics(metrics);
+        config.useSingleServer().setAddress("127.0.0.1:6379");
+        RedissonClient r = Redisson.create(config);
+
+        for (int i = 0; i < 100; i++) {
+            r.getAtomicLong("counter").incrementAndGet();
+        }
+
+        HistogramCommandMetrics.CommandStats stats = metrics.getCommandStats().get("INCR");
+        Assert.assertEquals(100, stats.getResponseTime().getCount());
+        Assert.assertEquals(0, stats.getErrors());
+        Assert.assertTrue(stats.getResponseTime().getValueAtPercentile(99) > 0);
+        Assert.assertEquals(1, metrics.getNodeStats().size());
+        Assert.assertEquals(1, metrics.getConnectionPools().size());
+
+        r.getAtomicLong("counter").delete();
+        r.shutdown();
+    }
+
     @Test
     public void testShutdown() {
         Config config = new Config();
@@ -2,6 +2,8 @@ package org.redisson;
 
 import java.io.Serializable;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.Assert;
@@ -46,6 +48,46 @@ public class RedissonTopicTest {
 
     }
 
+    @Test
+    public void testListenerExecutor() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Config config = BaseTest.createConfig();
+        config.setListenerExecutor(executor);
+        RedissonClient redisson = Redisson.create(config);
+
+        final CountDownLatch slowListener = new CountDownLatch(1);
+        RTopic<Message> slowTopic = redisson.getTopic("slowTopic");
+        slowTopic.addListener(new MessageListener<Message>() {
+            @Override
+            public void onMessage(String channel, Message msg) {
+                try {
+                    slowListener.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        final CountDownLatch messageRecieved = new CountDownLatch(1);
+        RTopic<Message> topic = redisson.getTopic("fastTopic");
+        topic.addListener(new MessageListener<Message>() {
+            @Override
+            public void onMessage(String channel, Message msg) {
+                messageRecieved.countDown();
+            }
+        });
+
+        slowTopic.publish(new Message("slow"));
+        topic.publish(new Message("fast"));
+
+        // blocked listener doesn't stall delivery to other listeners
+        Assert.assertTrue(messageRecieved.await(1, TimeUnit.SECONDS));
+
+        slowListener.countDown();
+        redisson.shutdown();
+        executor.shutdown();
+    }
+
     @Test
     public void testInnerPublish() throws InterruptedException {
 
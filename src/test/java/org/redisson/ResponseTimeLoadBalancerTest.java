@@ -0,0 +1,186 @@
+package org.redisson;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.redisson.client.RedisClient;
+import org.redisson.client.RedisClientStats;
+import org.redisson.connection.ClientConnectionsEntry;
+import org.redisson.connection.ClientConnectionsEntry.NodeType;
+import org.redisson.connection.ConnectionManager;
+import org.redisson.connection.IdleConnectionWatcher;
+import org.redisson.connection.balancer.LoadBalancer;
+import org.redisson.connection.balancer.PowerOfTwoChoicesLoadBalancer;
+import org.redisson.connection.balancer.ResponseTimeLoadBalancer;
+
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+
+public class ResponseTimeLoadBalancerTest {
+
+    private static final int POOL_SIZE = 10;
+
+    private NioEventLoopGroup group;
+    private ConnectionManager connectionManager;
+    private int port = 6379;
+
+    @Before
+    public void before() {
+        group = new NioEventLoopGroup(1);
+        final MasterSlaveServersConfig config = new MasterSlaveServersConfig();
+        connectionManager = (ConnectionManager) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {ConnectionManager.class}, new InvocationHandler() {
+
+            private IdleConnectionWatcher watcher;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getName().equals("getGroup")) {
+                    return group;
+                }
+                if (method.getName().equals("getConnectionWatcher")) {
+                    if (watcher == null) {
+                        watcher = new IdleConnectionWatcher((ConnectionManager) proxy, config);
+                    }
+                    return watcher;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    @After
+    public void after() {
+        group.shutdownGracefully().syncUninterruptibly();
+    }
+
+    private ClientConnectionsEntry createEntry() {
+        // connection isn't established by client until requested
+        RedisClient client = new RedisClient(group, NioSocketChannel.class, "127.0.0.1", port++, 1000);
+        return new ClientConnectionsEntry(client, 0, POOL_SIZE, 0, 0, connectionManager, NodeType.SLAVE, new MasterSlaveServersConfig());
+    }
+
+    private void startCommands(ClientConnectionsEntry entry, int amount) {
+        for (int i = 0; i < amount; i++) {
+            entry.getClient().getStats().commandStarted();
+        }
+    }
+
+    private void completeCommand(ClientConnectionsEntry entry, long durationInMillis) {
+        RedisClientStats stats = entry.getClient().getStats();
+        long startTime = stats.commandStarted();
+        stats.commandCompleted(startTime - TimeUnit.MILLISECONDS.toNanos(durationInMillis));
+    }
+
+    private void acquireConnections(ClientConnectionsEntry entry, int amount) {
+        for (int i = 0; i < amount; i++) {
+            Assert.assertTrue(entry.tryAcquireConnection());
+        }
+    }
+
+    @Test
+    public void testLowestResponseTime() {
+        ClientConnectionsEntry slow = createEntry();
+        ClientConnectionsEntry fast = createEntry();
+        completeCommand(slow, 50);
+        completeCommand(fast, 1);
+
+        Assert.assertTrue(slow.getClient().getStats().getResponseTime() > fast.getClient().getStats().getResponseTime());
+        LoadBalancer balancer = new ResponseTimeLoadBalancer();
+        Assert.assertSame(fast, balancer.getEntry(Arrays.asList(slow, fast)));
+        Assert.assertSame(fast, balancer.getEntry(Arrays.asList(fast, slow)));
+    }
+
+    @Test
+    public void testLowestInFlight() {
+        ClientConnectionsEntry loaded = createEntry();
+        ClientConnectionsEntry idle = createEntry();
+        startCommands(loaded, 3);
+        startCommands(idle, 1);
+
+        LoadBalancer balancer = new ResponseTimeLoadBalancer();
+        Assert.assertSame(idle, balancer.getEntry(Arrays.asList(loaded, idle)));
+
+        startCommands(idle, 3);
+        Assert.assertSame(loaded, balancer.getEntry(Arrays.asList(loaded, idle)));
+    }
+
+    @Test
+    public void testFreeConnectionsRatio() {
+        ClientConnectionsEntry busy = createEntry();
+        ClientConnectionsEntry free = createEntry();
+        acquireConnections(busy, POOL_SIZE / 2);
+
+        LoadBalancer balancer = new ResponseTimeLoadBalancer();
+        Assert.assertSame(free, balancer.getEntry(Arrays.asList(busy, free)));
+    }
+
+    @Test
+    public void testFreezedAndExhaustedRankedLast() {
+        ClientConnectionsEntry freezed = createEntry();
+        ClientConnectionsEntry exhausted = createEntry();
+        ClientConnectionsEntry loaded = createEntry();
+        freezed.setFreezed(true);
+        acquireConnections(exhausted, POOL_SIZE);
+        startCommands(loaded, 100);
+        completeCommand(loaded, 100);
+
+        LoadBalancer balancer = new ResponseTimeLoadBalancer();
+        Assert.assertSame(loaded, balancer.getEntry(Arrays.asList(freezed, exhausted, loaded)));
+        Assert.assertSame(exhausted, balancer.getEntry(Arrays.asList(freezed, exhausted)));
+        Assert.assertSame(freezed, balancer.getEntry(Arrays.asList(freezed)));
+    }
+
+    @Test
+    public void testPowerOfTwoChoicesSingleEntry() {
+        ClientConnectionsEntry entry = createEntry();
+        entry.setFreezed(true);
+
+        LoadBalancer balancer = new PowerOfTwoChoicesLoadBalancer();
+        Assert.assertSame(entry, balancer.getEntry(Arrays.asList(entry)));
+    }
+
+    @Test
+    public void testPowerOfTwoChoicesTwoEntries() {
+        ClientConnectionsEntry loaded = createEntry();
+        ClientConnectionsEntry idle = createEntry();
+        startCommands(loaded, 5);
+
+        // both entries are compared on each choice
+        LoadBalancer balancer = new PowerOfTwoChoicesLoadBalancer();
+        for (int i = 0; i < 100; i++) {
+            Assert.assertSame(idle, balancer.getEntry(Arrays.asList(loaded, idle)));
+        }
+    }
+
+    @Test
+    public void testPowerOfTwoChoicesSpreadsLoad() {
+        ClientConnectionsEntry loaded = createEntry();
+        ClientConnectionsEntry idle1 = createEntry();
+        ClientConnectionsEntry idle2 = createEntry();
+        ClientConnectionsEntry idle3 = createEntry();
+        startCommands(loaded, 5);
+        List<ClientConnectionsEntry> entries = Arrays.asList(loaded, idle1, idle2, idle3);
+
+        LoadBalancer balancer = new PowerOfTwoChoicesLoadBalancer();
+        Set<ClientConnectionsEntry> chosen = new HashSet<ClientConnectionsEntry>();
+        for (int i = 0; i < 1000; i++) {
+            ClientConnectionsEntry entry = balancer.getEntry(entries);
+            Assert.assertNotSame(loaded, entry);
+            chosen.add(entry);
+        }
+        // unlike ResponseTimeLoadBalancer equally loaded entries share requests
+        Assert.assertEquals(new HashSet<ClientConnectionsEntry>(Arrays.asList(idle1, idle2, idle3)), chosen);
+    }
+
+}
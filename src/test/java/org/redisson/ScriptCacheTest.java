@@ -0,0 +1,44 @@
+package org.redisson;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.redisson.connection.ScriptCache;
+
+public class ScriptCacheTest {
+
+    @Test
+    public void testSha() {
+        ScriptCache cache = new ScriptCache();
+        Assert.assertEquals("e0e1f9fabfc9d4800c877a703b823ac0578ff8db", cache.getSha("return 1"));
+        Assert.assertEquals("e0e1f9fabfc9d4800c877a703b823ac0578ff8db", cache.getSha("return 1"));
+        Assert.assertEquals(1, cache.getScripts().size());
+    }
+
+    @Test
+    public void testSize() throws InterruptedException {
+        final ScriptCache cache = new ScriptCache(16);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            final int thread = i;
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 1000; j++) {
+                        cache.getSha("return " + (thread * 1000 + j));
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        Assert.assertTrue(cache.getScripts().size() <= 16);
+        // evicted script is digested again
+        Assert.assertEquals("e0e1f9fabfc9d4800c877a703b823ac0578ff8db", cache.getSha("return 1"));
+    }
+
+}